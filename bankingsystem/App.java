@@ -1,5 +1,7 @@
 package bankingsystem;
 
+import bankingsystem.dao.TransactionDAO;
+import bankingsystem.util.BackgroundLoader;
 import bankingsystem.util.Navigator;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -13,11 +15,21 @@ public class App extends Application {
             Navigator.init(stage, "Login.fxml", 700, 500);
             stage.setTitle("Lekgwere Banking System - Login");
             stage.show();
+
+            // Parse the screens tellers switch between most while the login page is up
+            Navigator.preload("Dashboard.fxml", "Deposit.fxml", "Withdraw.fxml",
+                    "ViewAccounts.fxml", "AdminDashboard.fxml");
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    @Override
+    public void stop() {
+        BackgroundLoader.shutdown();
+        TransactionDAO.disableGroupCommit(); // flush queued ledger lines before exit
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -1,8 +1,11 @@
 package bankingsystem.controllers;
 
 import bankingsystem.dao.AccountDAO;
-import bankingsystem.dao.TransactionDAO;
+import bankingsystem.dao.LedgerService;
 import bankingsystem.model.BankAccount;
+import bankingsystem.util.BackgroundLoader;
+import bankingsystem.util.Money;
+import bankingsystem.util.MoneyCell;
 import bankingsystem.util.Navigator;
 import javafx.scene.layout.HBox;
 import javafx.beans.property.SimpleObjectProperty;
@@ -20,7 +23,7 @@ public class AdminApprovalController {
     @FXML private TableColumn<BankAccount, Integer> colAccNo;
     @FXML private TableColumn<BankAccount, String> colType;
     @FXML private TableColumn<BankAccount, Integer> colCustomer;
-    @FXML private TableColumn<BankAccount, Double> colBalance;
+    @FXML private TableColumn<BankAccount, Long> colBalance;
     @FXML private TableColumn<BankAccount, String> colStatus;
 
     @FXML private TableColumn<BankAccount, String> colReason;
@@ -32,7 +35,7 @@ public class AdminApprovalController {
     @FXML private Label lblFeedback;
 
     private final AccountDAO accountDAO = new AccountDAO();
-    private final TransactionDAO transactionDAO = new TransactionDAO();
+    private final LedgerService ledger = new LedgerService();
 
     @FXML
     private void initialize() {
@@ -41,6 +44,7 @@ public class AdminApprovalController {
         colType.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getAccountType()));
         colCustomer.setCellValueFactory(c -> new SimpleObjectProperty<>(c.getValue().getCustomerID()));
         colBalance.setCellValueFactory(c -> new SimpleObjectProperty<>(c.getValue().getBalance()));
+        colBalance.setCellFactory(MoneyCell.forTableColumn());
         colStatus.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getStatus()));
 
         colReason.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getReason()));
@@ -76,99 +80,96 @@ public class AdminApprovalController {
     // LOAD ALL PENDING REQUESTS
     // ---------------------------------------------------------
     private void loadPendingAccounts() {
-        try {
-            List<BankAccount> pending = accountDAO.findAll().stream()
-                    .filter(a -> "PENDING".equalsIgnoreCase(a.getStatus()))
-                    .toList();
-
+        BackgroundLoader.load(() -> accountDAO.findByStatus("PENDING"), pending -> {
             tblPendingAccounts.setItems(FXCollections.observableArrayList(pending));
             lblFeedback.setText(pending.isEmpty() ? "No pending approvals." : "");
 
-        } catch (Exception e) {
+        }, e -> {
             lblFeedback.setText("Error loading accounts: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
 
     // ---------------------------------------------------------
     // APPROVE
     // ---------------------------------------------------------
     private void approve(BankAccount pendingAcc) {
+        lblFeedback.setText("Approving account #" + pendingAcc.getAccountNumber() + "...");
+
+        BackgroundLoader.load(() -> runApproval(pendingAcc), outcome -> {
+            lblFeedback.setText("");
+            showAlert(outcome.type, outcome.title, outcome.message);
+            if (outcome.reload)
+                loadPendingAccounts();
+
+        }, e -> {
+            lblFeedback.setText("");
+            showAlert(Alert.AlertType.ERROR, "Error", e.getMessage());
+            e.printStackTrace();
+        });
+    }
+
+    // Runs on the loader pool; only the returned outcome touches the UI
+    private Outcome runApproval(BankAccount pendingAcc) {
 
-        double requiredDeposit = pendingAcc.getBalance();
+        long requiredDeposit = pendingAcc.getBalance();
 
         // Get ALL ACTIVE accounts from the customer
         List<BankAccount> activeAccounts =
-                accountDAO.findByCustomerId(pendingAcc.getCustomerID()).stream()
-                        .filter(a -> a.getStatus().equalsIgnoreCase("ACTIVE"))
-                        .toList();
+                accountDAO.findActiveByCustomerId(pendingAcc.getCustomerID());
 
         if (activeAccounts.isEmpty()) {
-            showAlert(Alert.AlertType.ERROR, "Error",
-                    "No ACTIVE account found to deduct the deposit from.");
-            return;
+            return new Outcome(Alert.AlertType.ERROR, "Error",
+                    "No ACTIVE account found to deduct the deposit from.", false);
         }
 
         // Total balance across ALL active accounts
-        double totalCustomerBalance = activeAccounts.stream()
-                .mapToDouble(BankAccount::getBalance)
-                .sum();
+        long totalCustomerBalance =
+                accountDAO.getTotalsByCustomer(pendingAcc.getCustomerID()).getActiveBalance();
 
         if (totalCustomerBalance < requiredDeposit) {
-            showAlert(Alert.AlertType.ERROR, "Insufficient Funds",
+            return new Outcome(Alert.AlertType.ERROR, "Insufficient Funds",
                     "Customer does not have enough money.\n" +
-                            "Required: P" + requiredDeposit + "\n" +
-                            "Available: P" + totalCustomerBalance);
-            return;
+                            "Required: P" + Money.format(requiredDeposit) + "\n" +
+                            "Available: P" + Money.format(totalCustomerBalance), false);
         }
 
-        try {
-            // Deduct money from FIRST active account (or best strategy)
-            BankAccount deductFrom = activeAccounts.get(0);
-            deductFrom.setBalance(deductFrom.getBalance() - requiredDeposit);
-            accountDAO.save(deductFrom);
-
-            // Approve new account
-            pendingAcc.setStatus("ACTIVE");
-            accountDAO.save(pendingAcc);
-
-            // Record transactions
-            transactionDAO.record(
-                    deductFrom.getAccountNumber(),
-                    "AccountOpenDeduction",
-                    requiredDeposit,
-                    "Deducted for opening new " + pendingAcc.getAccountType() + " account."
-            );
-
-            transactionDAO.record(
-                    pendingAcc.getAccountNumber(),
-                    "AccountOpened",
-                    requiredDeposit,
-                    "Admin approved the new account."
-            );
-
-            showAlert(Alert.AlertType.INFORMATION, "Approved", "Account approved successfully.");
-            loadPendingAccounts();
+        // Deduct money from FIRST active account (or best strategy),
+        // activate the new account and record both lines atomically
+        BankAccount deductFrom = activeAccounts.get(0);
+        LedgerService.Result result = ledger.approveAccount(
+                pendingAcc.getAccountNumber(),
+                deductFrom.getAccountNumber(),
+                requiredDeposit,
+                pendingAcc.getAccountType()
+        );
 
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Error", e.getMessage());
-            e.printStackTrace();
+        if (!result.isOk()) {
+            return new Outcome(Alert.AlertType.ERROR, "Approval Failed",
+                    result.getStatus() == LedgerService.Status.INSUFFICIENT_FUNDS
+                            ? "Account #" + deductFrom.getAccountNumber()
+                                    + " no longer has enough money for the deposit."
+                            : "The account request is no longer pending.", true);
         }
+
+        return new Outcome(Alert.AlertType.INFORMATION, "Approved", "Account approved successfully.", true);
     }
 
     // ---------------------------------------------------------
     // REJECT
     // ---------------------------------------------------------
     private void reject(BankAccount account) {
-        try {
+        BackgroundLoader.load(() -> {
             accountDAO.delete(account.getAccountNumber());
+            return null;
+        }, ignored -> {
             showAlert(Alert.AlertType.INFORMATION, "Rejected",
                     "Account opening request rejected.");
             loadPendingAccounts();
-        } catch (Exception e) {
+        }, e -> {
             showAlert(Alert.AlertType.ERROR, "Error rejecting", e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
 
     // ---------------------------------------------------------
@@ -189,4 +190,18 @@ public class AdminApprovalController {
         alert.setContentText(msg);
         alert.showAndWait();
     }
+
+    private static class Outcome {
+        final Alert.AlertType type;
+        final String title;
+        final String message;
+        final boolean reload;
+
+        Outcome(Alert.AlertType type, String title, String message, boolean reload) {
+            this.type = type;
+            this.title = title;
+            this.message = message;
+            this.reload = reload;
+        }
+    }
 }
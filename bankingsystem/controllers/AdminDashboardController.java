@@ -1,38 +1,43 @@
 package bankingsystem.controllers;
 
-import bankingsystem.dao.AccountDAO;
-import bankingsystem.dao.TransactionDAO;
+import bankingsystem.dao.LedgerStatsDAO;
+import bankingsystem.dao.LedgerStatsDAO.AdminSnapshot;
+import bankingsystem.util.BackgroundLoader;
 import bankingsystem.util.Navigator;
+import bankingsystem.util.Refreshable;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 
-public class AdminDashboardController {
+public class AdminDashboardController implements Refreshable {
 
     @FXML private Label lblTotalCustomers;
     @FXML private Label lblPendingApprovals;
     @FXML private Label lblTotalAccounts;   // FIXED: matches FXML ID
 
-    private final AccountDAO accountDAO = new AccountDAO();
-    private final TransactionDAO transactionDAO = new TransactionDAO();
+    private final LedgerStatsDAO statsDAO = new LedgerStatsDAO();
 
     @FXML
     private void initialize() {
         loadDashboardStats();
     }
 
+    /** Called by Navigator when the cached dashboard is shown again. */
+    @Override
+    public void refresh() {
+        loadDashboardStats();
+    }
+
     private void loadDashboardStats() {
-        try {
-            int totalCustomers = accountDAO.countCustomers();
-            int pending = accountDAO.countPending();
-            int totalAccounts = accountDAO.countAll();   // FIXED: count all accounts
+        // All dashboard counters in a single query, off the FX thread
+        BackgroundLoader.load(statsDAO::getAdminSnapshot, (AdminSnapshot snapshot) -> {
+            int totalCustomers = snapshot.getCustomers();
+            int pending = snapshot.getPendingAccounts();
+            int totalAccounts = snapshot.getTotalAccounts();   // FIXED: count all accounts
 
             lblTotalCustomers.setText(String.valueOf(totalCustomers));
             lblPendingApprovals.setText(String.valueOf(pending));
             lblTotalAccounts.setText(String.valueOf(totalAccounts));  // FIXED binding
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        });
     }
 
     @FXML
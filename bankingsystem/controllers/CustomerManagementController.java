@@ -2,6 +2,8 @@ package bankingsystem.controllers;
 
 import bankingsystem.dao.AccountDAO;
 import bankingsystem.dao.AccountDAO.AccountRecord;
+import bankingsystem.util.BackgroundLoader;
+import bankingsystem.util.MoneyCell;
 import bankingsystem.util.Navigator;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
@@ -9,6 +11,8 @@ import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
+import java.util.List;
+
 public class CustomerManagementController {
 
     @FXML private TableView<CustomerRow> tblCustomers;
@@ -39,35 +43,25 @@ public class CustomerManagementController {
         colAddress.setCellValueFactory(d -> d.getValue().addressProperty());
         colAccountType.setCellValueFactory(d -> d.getValue().accountTypeProperty());
         colBalance.setCellValueFactory(d -> d.getValue().balanceProperty());
+        colBalance.setCellFactory(MoneyCell.forTableColumn());
         tblCustomers.setItems(customerList);
     }
 
     private void loadAllCustomers() {
         customerList.clear();
-        try {
-            for (AccountRecord a : accountDAO.findAllDetailed()) {
-                customerList.add(new CustomerRow(
-                        a.getCustomerId(),
-                        a.getCustomerName(),
-                        a.getUsername() != null ? a.getUsername() : "(no username)",
-                        a.getAddress() != null ? a.getAddress() : "N/A",
-                        a.getType(),
-                        a.getBalance()
-                ));
-            }
+
+        BackgroundLoader.load(accountDAO::findAllDetailed, (List<AccountRecord> records) -> {
+            customerList.setAll(records.stream()
+                    .map(CustomerManagementController::toRow)
+                    .toList());
 
             // TOTAL CUSTOMERS = number of rows
             lblTotalCustomers.setText(String.valueOf(customerList.size()));
+        });
 
-            // ACTIVE ACCOUNTS from findAll()
-            long active = accountDAO.findAll().stream()
-                    .filter(ac -> "ACTIVE".equalsIgnoreCase(ac.getStatus()))
-                    .count();
-            lblActiveAccounts.setText(String.valueOf(active));
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        // ACTIVE ACCOUNTS counted in SQL
+        BackgroundLoader.load(accountDAO::countActive,
+                count -> lblActiveAccounts.setText(String.valueOf(count)));
     }
 
     @FXML
@@ -81,29 +75,30 @@ public class CustomerManagementController {
         String lower = query.toLowerCase();
         customerList.clear();
 
-        try {
-            accountDAO.findAllDetailed().stream()
-                    .filter(a ->
-                            a.getCustomerName().toLowerCase().contains(lower) ||
-                            (a.getAddress() != null && a.getAddress().toLowerCase().contains(lower)) ||
-                            (a.getUsername() != null && a.getUsername().toLowerCase().contains(lower)) ||
-                            a.getType().toLowerCase().contains(lower) ||
-                            String.valueOf(a.getAccNo()).contains(lower)
-                    )
-                    .forEach(a -> customerList.add(new CustomerRow(
-                            a.getCustomerId(),
-                            a.getCustomerName(),
-                            a.getUsername() != null ? a.getUsername() : "(no username)",
-                            a.getAddress() != null ? a.getAddress() : "N/A",
-                            a.getType(),
-                            a.getBalance()
-                    )));
-
+        BackgroundLoader.load(() -> accountDAO.findAllDetailed().stream()
+                .filter(a ->
+                        a.getCustomerName().toLowerCase().contains(lower) ||
+                        (a.getAddress() != null && a.getAddress().toLowerCase().contains(lower)) ||
+                        (a.getUsername() != null && a.getUsername().toLowerCase().contains(lower)) ||
+                        a.getType().toLowerCase().contains(lower) ||
+                        String.valueOf(a.getAccNo()).contains(lower)
+                )
+                .map(CustomerManagementController::toRow)
+                .toList(), rows -> {
+            customerList.setAll(rows);
             lblTotalCustomers.setText(String.valueOf(customerList.size()));
+        });
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    private static CustomerRow toRow(AccountRecord a) {
+        return new CustomerRow(
+                a.getCustomerId(),
+                a.getCustomerName(),
+                a.getUsername() != null ? a.getUsername() : "(no username)",
+                a.getAddress() != null ? a.getAddress() : "N/A",
+                a.getType(),
+                a.getBalance()
+        );
     }
 
     @FXML
@@ -123,16 +118,16 @@ public class CustomerManagementController {
         private final StringProperty username;
         private final StringProperty address;
         private final StringProperty accountType;
-        private final DoubleProperty balance;
+        private final LongProperty balance; // minor units
 
         public CustomerRow(int id, String fullName, String username, String address,
-                           String accountType, double balance) {
+                           String accountType, long balance) {
             this.id = new SimpleIntegerProperty(id);
             this.fullName = new SimpleStringProperty(fullName);
             this.username = new SimpleStringProperty(username);
             this.address = new SimpleStringProperty(address);
             this.accountType = new SimpleStringProperty(accountType);
-            this.balance = new SimpleDoubleProperty(balance);
+            this.balance = new SimpleLongProperty(balance);
         }
 
         public IntegerProperty idProperty() { return id; }
@@ -140,6 +135,6 @@ public class CustomerManagementController {
         public StringProperty usernameProperty() { return username; }
         public StringProperty addressProperty() { return address; }
         public StringProperty accountTypeProperty() { return accountType; }
-        public DoubleProperty balanceProperty() { return balance; }
+        public LongProperty balanceProperty() { return balance; }
     }
 }
@@ -1,25 +1,25 @@
 package bankingsystem.controllers;
 
-import bankingsystem.dao.AccountDAO;
 import bankingsystem.dao.CustomerDAO;
 import bankingsystem.dao.CustomerDAO.CustomerRecord;
-import bankingsystem.model.BankAccount;
+import bankingsystem.dao.LedgerStatsDAO;
+import bankingsystem.dao.LedgerStatsDAO.CustomerSnapshot;
+import bankingsystem.util.BackgroundLoader;
+import bankingsystem.util.Money;
 import bankingsystem.util.Navigator;
+import bankingsystem.util.Refreshable;
 import bankingsystem.util.SessionManager;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
-public class DashboardController {
+public class DashboardController implements Refreshable {
 
     @FXML private Label lblWelcome;
     @FXML private Label txtBalance;
     @FXML private Label txtAccountType;
 
     private final CustomerDAO customerDAO = new CustomerDAO();
-    private final AccountDAO accountDAO = new AccountDAO();
+    private final LedgerStatsDAO statsDAO = new LedgerStatsDAO();
 
     private int customerId;
 
@@ -34,6 +34,14 @@ public class DashboardController {
         }
     }
 
+    /** Called by Navigator when the cached dashboard is shown again. */
+    @Override
+    public void refresh() {
+        CustomerRecord session = SessionManager.getCurrentCustomer();
+        customerId = session != null ? session.getId() : 0;
+        initialize();
+    }
+
     public void setCustomerId(int id) {
         this.customerId = id;
         loadCustomerData();
@@ -48,52 +56,56 @@ public class DashboardController {
     }
 
     private void loadCustomerData() {
-        try {
-            CustomerRecord customer = SessionManager.getCurrentCustomer();
+        final CustomerRecord sessionCustomer = SessionManager.getCurrentCustomer();
+        final int id = customerId;
 
-            if (customer == null && customerId > 0) {
-                customer = customerDAO.findById(customerId);
-                if (customer != null)
-                    SessionManager.setCurrentCustomer(customer);
-            }
+        lblWelcome.setText("Loading...");
+
+        BackgroundLoader.load(() -> {
+            CustomerRecord customer = sessionCustomer;
+            if (customer == null && id > 0)
+                customer = customerDAO.findById(id);
+
+            if (customer == null)
+                return null;
+
+            // Active balance + account types in one query
+            return new DashboardData(customer, statsDAO.getCustomerSnapshot(customer.getId()));
 
-            if (customer == null) {
+        }, data -> {
+            if (data == null) {
                 lblWelcome.setText("Customer not found.");
                 txtBalance.setText("P 0.00");
                 txtAccountType.setText("Account Type: N/A");
                 return;
             }
 
-            final CustomerRecord finalCustomer = customer;
+            if (sessionCustomer == null)
+                SessionManager.setCurrentCustomer(data.customer);
 
-            String name = finalCustomer.getName();
+            CustomerSnapshot snapshot = data.snapshot;
 
-            List<BankAccount> allAccounts = accountDAO.findAll().stream()
-                    .filter(a -> a.getCustomerID() == finalCustomer.getId())
-                    .collect(Collectors.toList());
-
-            List<BankAccount> activeAccounts = allAccounts.stream()
-                    .filter(a -> "ACTIVE".equalsIgnoreCase(a.getStatus()))
-                    .collect(Collectors.toList());
-
-            double totalBalance = activeAccounts.stream()
-                    .mapToDouble(BankAccount::getBalance)
-                    .sum();
-
-            String accountTypes = activeAccounts.isEmpty()
+            String accountTypes = snapshot.getActiveAccounts() == 0
                     ? "No active accounts"
-                    : activeAccounts.stream()
-                            .map(BankAccount::getAccountType)
-                            .distinct()
-                            .collect(Collectors.joining(", "));
+                    : snapshot.getActiveTypes();
 
-            lblWelcome.setText("Welcome, " + name + "!");
+            lblWelcome.setText("Welcome, " + data.customer.getName() + "!");
             txtAccountType.setText("Account Type: " + accountTypes);
-            txtBalance.setText("P " + String.format("%.2f", totalBalance));
+            txtBalance.setText(Money.display(snapshot.getActiveBalance()));
 
-        } catch (Exception e) {
+        }, e -> {
             lblWelcome.setText("⚠ Error loading data.");
             e.printStackTrace();
+        });
+    }
+
+    private static class DashboardData {
+        final CustomerRecord customer;
+        final CustomerSnapshot snapshot;
+
+        DashboardData(CustomerRecord customer, CustomerSnapshot snapshot) {
+            this.customer = customer;
+            this.snapshot = snapshot;
         }
     }
 
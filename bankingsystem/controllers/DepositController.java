@@ -1,9 +1,11 @@
 package bankingsystem.controllers;
 
 import bankingsystem.dao.AccountDAO;
-import bankingsystem.dao.TransactionDAO;
-import bankingsystem.model.BankAccount;
+import bankingsystem.dao.LedgerService;
+import bankingsystem.util.BackgroundLoader;
+import bankingsystem.util.Money;
 import bankingsystem.util.Navigator;
+import bankingsystem.util.Refreshable;
 import bankingsystem.util.SessionManager;
 import bankingsystem.dao.CustomerDAO.CustomerRecord;
 import javafx.fxml.FXML;
@@ -14,7 +16,7 @@ import javafx.scene.control.*;
  * Handles deposits and records transactions in the embedded H2 database.
  * Automatically fills account info for the logged-in customer (if available).
  */
-public class DepositController {
+public class DepositController implements Refreshable {
 
     @FXML private TextField txtAccountNumber;
     @FXML private TextField txtAmount;
@@ -22,7 +24,9 @@ public class DepositController {
     @FXML private Label lblFeedback;
 
     private final AccountDAO accountDAO = new AccountDAO();
-    private final TransactionDAO transactionDAO = new TransactionDAO();
+    private final LedgerService ledger = new LedgerService();
+
+    private boolean processing; // ignores repeated clicks while a deposit is running
 
     @FXML
     private void initialize() {
@@ -31,17 +35,32 @@ public class DepositController {
             cmbAccountType.getItems().addAll("Savings", "Investors", "Cheque");
         }
 
+        loadDefaultAccount();
+    }
+
+    /** Called by Navigator when the cached screen is shown again: starts with an empty form. */
+    @Override
+    public void refresh() {
+        processing = false;
+        txtAccountNumber.clear();
+        txtAmount.clear();
+        cmbAccountType.setValue(null);
+        lblFeedback.setText("");
+        loadDefaultAccount();
+    }
+
+    private void loadDefaultAccount() {
         // ✅ Auto-populate if logged-in customer exists
         CustomerRecord customer = SessionManager.getCurrentCustomer();
         if (customer != null) {
             // If customer has an account, fetch it
-            accountDAO.findAll().stream()
-                    .filter(a -> a.getCustomerID() == customer.getId())
-                    .findFirst()
-                    .ifPresent(acc -> {
-                        txtAccountNumber.setText(String.valueOf(acc.getAccountNumber()));
-                        cmbAccountType.setValue(acc.getAccountType());
-                    });
+            BackgroundLoader.load(() -> accountDAO.findByCustomerId(customer.getId()), accounts ->
+                    accounts.stream()
+                            .findFirst()
+                            .ifPresent(acc -> {
+                                txtAccountNumber.setText(String.valueOf(acc.getAccountNumber()));
+                                cmbAccountType.setValue(acc.getAccountType());
+                            }));
         }
     }
 
@@ -70,30 +89,36 @@ public class DepositController {
             }
 
             int accNo = Integer.parseInt(accText.trim());
-            double amount = Double.parseDouble(amtText.trim());
+            long amount = Money.parse(amtText);
 
             if (amount <= 0) {
                 lblFeedback.setText("Deposit amount must be greater than zero.");
                 return;
             }
 
-            // --- Fetch account ---
-            BankAccount account = accountDAO.findById(accNo);
-            if (account == null) {
-                lblFeedback.setText("Account not found.");
-                return;
-            }
-
-            // --- Perform deposit ---
-            account.deposit(amount);
-            accountDAO.save(account); // persist new balance
-            transactionDAO.record(accNo, "Deposit", amount,
-                    "Customer deposit into " + type + " account");
-
-            lblFeedback.setText(String.format("✅ Successfully deposited P%.2f into account #%d", amount, accNo));
-
-            // --- Clear form ---
-            txtAmount.clear();
+            if (processing) return;
+            processing = true;
+            lblFeedback.setText("Processing deposit...");
+
+            // --- Perform deposit (balance + ledger line in one transaction) ---
+            BackgroundLoader.load(() -> ledger.deposit(accNo, "Deposit", amount,
+                    "Customer deposit into " + type + " account"), result -> {
+                processing = false;
+                if (!result.isOk()) {
+                    lblFeedback.setText(result.getStatus().getMessage());
+                    return;
+                }
+
+                lblFeedback.setText("✅ Successfully deposited P" + Money.format(amount) + " into account #" + accNo);
+
+                // --- Clear form ---
+                txtAmount.clear();
+
+            }, e -> {
+                processing = false;
+                e.printStackTrace();
+                lblFeedback.setText("Error during deposit: " + e.getMessage());
+            });
 
         } catch (NumberFormatException e) {
             lblFeedback.setText("Invalid number format. Please check inputs.");
@@ -3,6 +3,8 @@ package bankingsystem.controllers;
 import bankingsystem.dao.AccountDAO;
 import bankingsystem.dao.CustomerDAO;
 import bankingsystem.dao.CustomerDAO.CustomerRecord;
+import bankingsystem.util.BackgroundLoader;
+import bankingsystem.util.Money;
 import bankingsystem.util.Navigator;
 import bankingsystem.util.SessionManager;
 import javafx.fxml.FXML;
@@ -22,6 +24,8 @@ public class LoginController {
     private final CustomerDAO customerDAO = new CustomerDAO();
     private final AccountDAO accountDAO = new AccountDAO();
 
+    private boolean loggingIn; // ignores repeated clicks while credentials are checked
+
     @FXML
     private void handleLogin() {
         String username = txtUsername.getText();
@@ -34,16 +38,32 @@ public class LoginController {
             return;
         }
 
-        try {
-            // --- Admin login (static credentials) ---
-            if (username.equalsIgnoreCase("admin") && password.equals("admin123")) {
-                Navigator.goTo("AdminDashboard.fxml", 1100, 700);
-                return;
-            }
+        // --- Admin login (static credentials) ---
+        if (username.equalsIgnoreCase("admin") && password.equals("admin123")) {
+            Navigator.goTo("AdminDashboard.fxml", 1100, 700);
+            return;
+        }
+
+        if (loggingIn) return;
+        loggingIn = true;
 
-            // --- Customer login ---
+        // --- Customer login (database lookup off the FX thread) ---
+        BackgroundLoader.load(() -> {
             CustomerRecord customer = customerDAO.findByUsernameAndPassword(username, password);
 
+            if (customer != null) {
+                // --- Fetch account count and total balance for display ---
+                AccountDAO.CustomerTotals totals = accountDAO.getTotalsByCustomer(customer.getId());
+
+                // --- Debug feedback ---
+                System.out.println("✅ Login successful for user: " + username +
+                        " | Accounts: " + totals.getAccountCount() + " | Balance: " + Money.display(totals.getTotalBalance()));
+            }
+            return customer;
+
+        }, customer -> {
+            loggingIn = false;
+
             if (customer == null) {
                 showAlert("Login Failed", "Invalid username or password.", Alert.AlertType.ERROR);
                 return;
@@ -52,26 +72,14 @@ public class LoginController {
             // --- Store session ---
             SessionManager.setCurrentCustomer(customer);
 
-            // --- Fetch total balance and first account type for display ---
-            int customerId = customer.getId();
-            var accounts = accountDAO.findAllDetailed().stream()
-                    .filter(a -> a.getCustomerId() == customerId)
-                    .toList();
-
-            double balance = accounts.stream().mapToDouble(a -> a.getBalance()).sum();
-            String acctType = accounts.stream().map(a -> a.getType()).findFirst().orElse("N/A");
-
-            // --- Debug feedback ---
-            System.out.println("✅ Login successful for user: " + username +
-                    " | Account Type: " + acctType + " | Balance: " + balance);
-
             // --- Navigate to customer dashboard ---
             Navigator.goTo("Dashboard.fxml", 1100, 700);
 
-        } catch (Exception e) {
+        }, e -> {
+            loggingIn = false;
             e.printStackTrace();
             showAlert("Error", "Login failed: " + e.getMessage(), Alert.AlertType.ERROR);
-        }
+        });
     }
 
     /**
@@ -2,6 +2,8 @@ package bankingsystem.controllers;
 
 import bankingsystem.dao.AccountDAO;
 import bankingsystem.model.BankAccount;
+import bankingsystem.util.BackgroundLoader;
+import bankingsystem.util.Money;
 import bankingsystem.util.Navigator;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -53,71 +55,28 @@ public class OpenAccountController {
                 return;
             }
 
-            double initialDeposit;
+            long initialDeposit;
             try {
-                initialDeposit = Double.parseDouble(depositStr);
+                initialDeposit = Money.parse(depositStr);
             } catch (NumberFormatException e) {
-                warn("Invalid Input", "Deposit must be a valid number.");
+                warn("Invalid Input", "Deposit must be a valid amount (at most 2 decimal places).");
                 return;
             }
 
             //-----------------------------
             // MINIMUM REQUIRED DEPOSIT
             //-----------------------------
-            double minimumRequired = switch (type.toLowerCase()) {
-                case "savings" -> 100;
-                case "investors" -> 500;
-                case "cheque" -> 1000;
+            long minimumRequired = switch (type.toLowerCase()) {
+                case "savings" -> Money.ofPula(100);
+                case "investors" -> Money.ofPula(500);
+                case "cheque" -> Money.ofPula(1000);
                 default -> 0;
             };
 
             if (initialDeposit < minimumRequired) {
                 warn("Insufficient Deposit",
-                        type + " accounts require at least P" + minimumRequired +
-                                "\nYou entered: P" + initialDeposit);
-                return;
-            }
-
-            //-----------------------------
-            // GET CUSTOMER ACCOUNTS
-            //-----------------------------
-            List<BankAccount> customerAccounts = accountDAO.findByCustomerId(customerId);
-
-            //-----------------------------
-            // PREVENT DUPLICATE PENDING REQUEST
-            //-----------------------------
-            boolean hasPending = customerAccounts.stream()
-                    .anyMatch(a -> a.getAccountType().equalsIgnoreCase(type)
-                            && a.getStatus().equalsIgnoreCase("PENDING"));
-
-            if (hasPending) {
-                warn("Duplicate Request",
-                        "You already have a pending request for a " + type + " account.");
-                return;
-            }
-
-            //-----------------------------
-            // GET FUNDING ACCOUNT (FIRST ACTIVE)
-            //-----------------------------
-            BankAccount fundingAccount = customerAccounts.stream()
-                    .filter(a -> a.getStatus().equalsIgnoreCase("ACTIVE"))
-                    .findFirst()
-                    .orElse(null);
-
-            if (fundingAccount == null) {
-                warn("No Active Account",
-                        "You must have at least one ACTIVE account to fund this new account.");
-                return;
-            }
-
-            //-----------------------------
-            // CHECK IF CUSTOMER CAN AFFORD IT
-            //-----------------------------
-            if (fundingAccount.getBalance() < initialDeposit) {
-                warn("Insufficient Balance",
-                        "Your active account does not have enough funds.\n" +
-                                "Required: P" + initialDeposit +
-                                "\nAvailable: P" + fundingAccount.getBalance());
+                        type + " accounts require at least P" + Money.format(minimumRequired) +
+                                "\nYou entered: P" + Money.format(initialDeposit));
                 return;
             }
 
@@ -137,31 +96,25 @@ public class OpenAccountController {
             }
 
             //-----------------------------
-            // CREATE PENDING REQUEST
+            // ACCOUNT CHECKS + SAVE (OFF THE FX THREAD)
             //-----------------------------
-            BankAccount newAccount = new BankAccount(
-                    0,                     // auto ID
-                    initialDeposit,        // stored until admin approves
-                    "Lekgwere Main Branch",
-                    customerId,
-                    new Date(),
-                    "PENDING"
-            ) {
-                @Override public void deposit(double x) { balance += x; }
-                @Override public boolean withdraw(double x) { return false; }
-                @Override public String getAccountType() { return type; }
-            };
-
-            newAccount.setEmployer(employer);
-            newAccount.setReason(reason);
+            final long deposit = initialDeposit;
+            BackgroundLoader.load(() -> submitRequest(type, deposit, employer, reason), rejection -> {
+                if (rejection != null) {
+                    warn(rejection.title, rejection.message);
+                    return;
+                }
 
-            accountDAO.save(newAccount);
+                info("Request Submitted",
+                        "Your " + type + " account request has been submitted.\n" +
+                                "Admin must approve it.");
 
-            info("Request Submitted",
-                    "Your " + type + " account request has been submitted.\n" +
-                            "Admin must approve it.");
+                clearForm();
 
-            clearForm();
+            }, e -> {
+                lblFeedback.setText("Error: " + e.getMessage());
+                e.printStackTrace();
+            });
 
         } catch (Exception e) {
             lblFeedback.setText("Error: " + e.getMessage());
@@ -169,6 +122,82 @@ public class OpenAccountController {
         }
     }
 
+    /** Runs on the loader pool. Returns why the request was refused, or null once it is saved. */
+    private Rejection submitRequest(String type, long initialDeposit, String employer, String reason) {
+
+        //-----------------------------
+        // GET CUSTOMER ACCOUNTS
+        //-----------------------------
+        List<BankAccount> customerAccounts = accountDAO.findByCustomerId(customerId);
+
+        //-----------------------------
+        // PREVENT DUPLICATE PENDING REQUEST
+        //-----------------------------
+        boolean hasPending = customerAccounts.stream()
+                .anyMatch(a -> a.getAccountType().equalsIgnoreCase(type)
+                        && a.getStatus().equalsIgnoreCase("PENDING"));
+
+        if (hasPending) {
+            return new Rejection("Duplicate Request",
+                    "You already have a pending request for a " + type + " account.");
+        }
+
+        //-----------------------------
+        // GET FUNDING ACCOUNT (FIRST ACTIVE)
+        //-----------------------------
+        BankAccount fundingAccount = customerAccounts.stream()
+                .filter(a -> a.getStatus().equalsIgnoreCase("ACTIVE"))
+                .findFirst()
+                .orElse(null);
+
+        if (fundingAccount == null) {
+            return new Rejection("No Active Account",
+                    "You must have at least one ACTIVE account to fund this new account.");
+        }
+
+        //-----------------------------
+        // CHECK IF CUSTOMER CAN AFFORD IT
+        //-----------------------------
+        if (fundingAccount.getBalance() < initialDeposit) {
+            return new Rejection("Insufficient Balance",
+                    "Your active account does not have enough funds.\n" +
+                            "Required: P" + Money.format(initialDeposit) +
+                            "\nAvailable: P" + Money.format(fundingAccount.getBalance()));
+        }
+
+        //-----------------------------
+        // CREATE PENDING REQUEST
+        //-----------------------------
+        BankAccount newAccount = new BankAccount(
+                0,                     // auto ID
+                initialDeposit,        // stored until admin approves
+                "Lekgwere Main Branch",
+                customerId,
+                new Date(),
+                "PENDING"
+        ) {
+            @Override public void deposit(long x) { balance += x; }
+            @Override public boolean withdraw(long x) { return false; }
+            @Override public String getAccountType() { return type; }
+        };
+
+        newAccount.setEmployer(employer);
+        newAccount.setReason(reason);
+
+        accountDAO.save(newAccount);
+        return null;
+    }
+
+    private static class Rejection {
+        final String title;
+        final String message;
+
+        Rejection(String title, String message) {
+            this.title = title;
+            this.message = message;
+        }
+    }
+
     //-----------------------------
     // CLEAR FIELDS
     //-----------------------------
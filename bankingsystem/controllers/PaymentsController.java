@@ -1,8 +1,10 @@
 package bankingsystem.controllers;
 
 import bankingsystem.dao.AccountDAO;
-import bankingsystem.dao.TransactionDAO;
+import bankingsystem.dao.LedgerService;
 import bankingsystem.model.BankAccount;
+import bankingsystem.util.BackgroundLoader;
+import bankingsystem.util.Money;
 import bankingsystem.util.Navigator;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -11,9 +13,10 @@ import javafx.scene.control.*;
 public class PaymentsController {
 
     private final AccountDAO accountDAO = new AccountDAO();
-    private final TransactionDAO transactionDAO = new TransactionDAO();
+    private final LedgerService ledger = new LedgerService();
 
     private int customerId;
+    private boolean processing; // ignores repeated clicks while a payment is running
 
     // ---------- GENERAL BILL PAYMENT ----------
     @FXML private ComboBox<String> cmbPayFrom;
@@ -58,11 +61,10 @@ public class PaymentsController {
 
         // Load accounts for customer
         if (cmbPayFrom != null) {
-            cmbPayFrom.setItems(FXCollections.observableArrayList(
-                    accountDAO.findByCustomerId(customerId).stream()
+            BackgroundLoader.load(() -> accountDAO.findByCustomerId(id).stream()
                             .map(acc -> acc.getAccountNumber() + " (" + acc.getAccountType() + ")")
-                            .toList()
-            ));
+                            .toList(),
+                    labels -> cmbPayFrom.setItems(FXCollections.observableArrayList(labels)));
         }
     }
 
@@ -89,7 +91,7 @@ public class PaymentsController {
                 return;
             }
 
-            double amount = Double.parseDouble(amountStr);
+            long amount = Money.parse(amountStr);
             if (amount <= 0) {
                 alertWarning("Invalid Amount", "Amount must be greater than zero.");
                 return;
@@ -98,46 +100,56 @@ public class PaymentsController {
             // Extract account number
             int accNumber = Integer.parseInt(accSelection.split(" ")[0]);
 
-            BankAccount acc = accountDAO.findById(accNumber);
-            if (acc == null) {
-                alertWarning("Account Error", "Selected account not found.");
-                return;
-            }
-
-            // ---- WITHDRAW ----
-            if (!acc.withdraw(amount)) {
-                alertWarning("Insufficient Funds",
-                        "You do not have enough balance for this payment.");
-                return;
-            }
-
-            // Save new balance
-            accountDAO.save(acc);
+            if (processing) return;
+            processing = true;
+            lblPaymentFeedback.setText("Processing payment...");
 
-            // Record transaction
-            transactionDAO.record(
-                    acc.getAccountNumber(),
+            // ---- WITHDRAW + RECORD (one transaction) ----
+            BackgroundLoader.load(() -> ledger.payment(
+                    accNumber,
                     type,
                     amount,
                     "Reference: " + ref
-            );
-
-            // ---- SUCCESS MESSAGES ----
-            if (type.equals("Electricity (BPC)")) {
-                alertSuccess(
-                        "Electricity Payment Successful",
-                        "Electricity voucher purchased for meter: " + ref +
-                        ".\nYou will shortly receive an SMS with your token."
-                );
-            } else {
-                alertSuccess(
-                        "Payment Successful",
-                        "Successfully paid P" + amount + " for " + type + "."
-                );
-            }
-
-            lblPaymentFeedback.setText("✔ Payment completed.");
-            clearGeneralPaymentFields();
+            ), result -> {
+                processing = false;
+                lblPaymentFeedback.setText("");
+
+                if (result.getStatus() == LedgerService.Status.ACCOUNT_NOT_FOUND) {
+                    alertWarning("Account Error", "Selected account not found.");
+                    return;
+                }
+                if (result.getStatus() != LedgerService.Status.INSUFFICIENT_FUNDS && !result.isOk()) {
+                    alertWarning("Payment Refused", result.getStatus().getMessage());
+                    return;
+                }
+                if (!result.isOk()) {
+                    alertWarning("Insufficient Funds",
+                            "You do not have enough balance for this payment.");
+                    return;
+                }
+
+                // ---- SUCCESS MESSAGES ----
+                if (type.equals("Electricity (BPC)")) {
+                    alertSuccess(
+                            "Electricity Payment Successful",
+                            "Electricity voucher purchased for meter: " + ref +
+                            ".\nYou will shortly receive an SMS with your token."
+                    );
+                } else {
+                    alertSuccess(
+                            "Payment Successful",
+                            "Successfully paid P" + Money.format(amount) + " for " + type + "."
+                    );
+                }
+
+                lblPaymentFeedback.setText("✔ Payment completed.");
+                clearGeneralPaymentFields();
+
+            }, e -> {
+                processing = false;
+                lblPaymentFeedback.setText("");
+                alertError("Payment Error", e.getMessage());
+            });
 
         } catch (Exception e) {
             alertError("Payment Error", e.getMessage());
@@ -175,43 +187,61 @@ public class PaymentsController {
                 return;
             }
 
-            double amount = Double.parseDouble(amountStr);
+            long amount = Money.parse(amountStr);
             if (amount <= 0) {
                 alertWarning("Invalid Amount", "Amount must be greater than zero.");
                 return;
             }
 
-            // Get customer's first account
-            BankAccount acc = getFirstAccountForCustomer();
-            if (acc == null) {
-                alertWarning("Account Error", "Your account could not be found.");
-                return;
-            }
-
-            if (!acc.withdraw(amount)) {
-                alertWarning("Insufficient Funds", "Not enough balance.");
-                return;
-            }
-
-            accountDAO.save(acc);
-
-            // Record transaction
-            transactionDAO.record(
-                    acc.getAccountNumber(),
-                    "Airtime Purchase - " + provider,
-                    amount,
-                    "Phone: +267" + phone
-            );
+            if (processing) return;
+            processing = true;
+            lblAirtimeFeedback.setText("Processing purchase...");
+
+            BackgroundLoader.load(() -> {
+                // Get customer's first account
+                BankAccount acc = getFirstAccountForCustomer();
+                if (acc == null)
+                    return null;
+
+                return ledger.payment(
+                        acc.getAccountNumber(),
+                        "Airtime Purchase - " + provider,
+                        amount,
+                        "Phone: +267" + phone
+                );
+            }, result -> {
+                processing = false;
+                lblAirtimeFeedback.setText("");
+
+                if (result == null) {
+                    alertWarning("Account Error", "Your account could not be found.");
+                    return;
+                }
+
+                if (result.getStatus() != LedgerService.Status.INSUFFICIENT_FUNDS && !result.isOk()) {
+                    alertWarning("Purchase Refused", result.getStatus().getMessage());
+                    return;
+                }
+                if (!result.isOk()) {
+                    alertWarning("Insufficient Funds", "Not enough balance.");
+                    return;
+                }
+
+                // ---- SUCCESS MESSAGE ----
+                alertSuccess(
+                        "Airtime Purchase Successful",
+                        "Airtime P" + Money.format(amount) + " bought for " + phone +
+                        ".\nAIRTIME SUCCESSFULLY RECHARGED."
+                );
 
-            // ---- SUCCESS MESSAGE ----
-            alertSuccess(
-                    "Airtime Purchase Successful",
-                    "Airtime P" + amount + " bought for " + phone +
-                    ".\nAIRTIME SUCCESSFULLY RECHARGED."
-            );
+                lblAirtimeFeedback.setText("✔ Airtime recharged.");
+                clearAirtimeFields();
 
-            lblAirtimeFeedback.setText("✔ Airtime recharged.");
-            clearAirtimeFields();
+            }, e -> {
+                processing = false;
+                lblAirtimeFeedback.setText("");
+                alertError("Airtime Error", e.getMessage());
+            });
 
         } catch (Exception e) {
             alertError("Airtime Error", e.getMessage());
@@ -242,6 +272,7 @@ public class PaymentsController {
     // ============================================================
     //                        HELPERS
     // ============================================================
+    // Called on the loader pool
     private BankAccount getFirstAccountForCustomer() {
         return accountDAO.findByCustomerId(customerId).stream()
                 .findFirst()
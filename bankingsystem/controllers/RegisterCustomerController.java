@@ -4,6 +4,8 @@ import bankingsystem.dao.AccountDAO;
 import bankingsystem.dao.CustomerDAO;
 import bankingsystem.dao.TransactionDAO;
 import bankingsystem.model.BankAccount;
+import bankingsystem.util.BackgroundLoader;
+import bankingsystem.util.Money;
 import bankingsystem.util.Navigator;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -48,56 +50,29 @@ public class RegisterCustomerController {
             String username    = required(txtUsername, "Username");
             String password    = required(txtPassword, "Password");
             String acctType    = requiredCombo(cmbAccountType, "Account Type");
-            double opening     = parseDouble(txtInitialBalance, "Initial Balance");
+            long opening       = parseAmount(txtInitialBalance, "Initial Balance");
 
             int customerId = Integer.parseInt(txtCustomerId.getText().trim());
 
-            // 1) SAVE CUSTOMER
-            customerDAO.upsert(customerId, fullName, "", "", address, username, password);
-
-            // 2) CREATE BANK ACCOUNT — DB AUTO-GENERATES acc_no
-            BankAccount account = new BankAccount(
-                    0,              // ❗ IMPORTANT: 0 → insert mode
-                    opening,
-                    address,
-                    customerId,
-                    new Date(),
-                    "ACTIVE"
-            ) {
-                @Override
-                public void deposit(double amount) { balance += amount; }
-
-                @Override
-                public boolean withdraw(double amount) {
-                    if (amount > balance) return false;
-                    balance -= amount;
-                    return true;
-                }
-
-                @Override
-                public String getAccountType() { return acctType; }
-            };
-
-            // 3) INSERT + GET REAL acc_no
-            int accNo = accountDAO.create(account);
-
-            // 4) RECORD INITIAL DEPOSIT
-            if (opening > 0) {
-                txDAO.record(accNo, "OpeningDeposit", opening,
-                        "Initial deposit for new " + acctType + " account created by admin.");
-            }
+            setFeedback("Registering customer...");
+            BackgroundLoader.load(() -> register(customerId, fullName, address, username,
+                    password, acctType, opening), accNo -> {
+                showAlert(Alert.AlertType.INFORMATION,
+                        "Registration Successful",
+                        "Customer: " + fullName + "\n"
+                        + "Account No: " + accNo + "\n"
+                        + "Type: " + acctType + "\n"
+                        + "Opening Balance: P" + Money.format(opening));
 
-            showAlert(Alert.AlertType.INFORMATION,
-                    "Registration Successful",
-                    "Customer: " + fullName + "\n"
-                    + "Account No: " + accNo + "\n"
-                    + "Type: " + acctType + "\n"
-                    + "Opening Balance: P" + opening);
+                setFeedback("Customer registration completed.");
+                handleClear();
 
-            setFeedback("Customer registration completed.");
-            handleClear();
+                txtCustomerId.setText(String.valueOf(generateCustomerId()));
 
-            txtCustomerId.setText(String.valueOf(generateCustomerId()));
+            }, ex -> {
+                setFeedback("Error: " + ex.getMessage());
+                ex.printStackTrace();
+            });
 
         } catch (Exception ex) {
             setFeedback("Error: " + ex.getMessage());
@@ -105,6 +80,48 @@ public class RegisterCustomerController {
         }
     }
 
+    /** Runs on the loader pool; returns the generated account number. */
+    private int register(int customerId, String fullName, String address, String username,
+                         String password, String acctType, long opening) {
+
+        // 1) SAVE CUSTOMER
+        customerDAO.upsert(customerId, fullName, "", "", address, username, password);
+
+        // 2) CREATE BANK ACCOUNT — DB AUTO-GENERATES acc_no
+        BankAccount account = new BankAccount(
+                0,              // ❗ IMPORTANT: 0 → insert mode
+                opening,
+                address,
+                customerId,
+                new Date(),
+                "ACTIVE"
+        ) {
+            @Override
+            public void deposit(long amount) { balance += amount; }
+
+            @Override
+            public boolean withdraw(long amount) {
+                if (amount > balance) return false;
+                balance -= amount;
+                return true;
+            }
+
+            @Override
+            public String getAccountType() { return acctType; }
+        };
+
+        // 3) INSERT + GET REAL acc_no
+        int accNo = accountDAO.create(account);
+
+        // 4) RECORD INITIAL DEPOSIT
+        if (opening > 0) {
+            txDAO.record(accNo, "OpeningDeposit", opening,
+                    "Initial deposit for new " + acctType + " account created by admin.");
+        }
+
+        return accNo;
+    }
+
     private int generateCustomerId() { return 1000 + new Random().nextInt(9000); }
 
     @FXML
@@ -136,11 +153,11 @@ public class RegisterCustomerController {
         return cb.getValue().trim();
     }
 
-    private double parseDouble(TextField tf, String name) {
+    private long parseAmount(TextField tf, String name) {
         try {
-            return Double.parseDouble(required(tf, name));
+            return Money.parse(required(tf, name));
         } catch (NumberFormatException e) {
-            throw new IllegalArgumentException(name + " must be a valid number.");
+            throw new IllegalArgumentException(name + " must be a valid amount (at most 2 decimal places).");
         }
     }
 
@@ -3,6 +3,8 @@ package bankingsystem.controllers;
 import bankingsystem.dao.AccountDAO;
 import bankingsystem.dao.CustomerDAO;
 import bankingsystem.model.BankAccount;
+import bankingsystem.util.BackgroundLoader;
+import bankingsystem.util.Navigator;
 import bankingsystem.util.SessionManager;
 
 import javafx.collections.FXCollections;
@@ -43,15 +45,14 @@ public class SettingsController {
     // LOAD ACCOUNTS INTO COMBOBOX
     // ---------------------------------------------------------
     private void loadAccountsIntoDropdown() {
-        try {
-            if (SessionManager.getCurrentCustomer() == null) {
-                System.out.println("⚠ No customer in session!");
-                return;
-            }
+        if (SessionManager.getCurrentCustomer() == null) {
+            System.out.println("⚠ No customer in session!");
+            return;
+        }
 
-            int customerId = SessionManager.getCurrentCustomer().getId();
-            List<BankAccount> accounts = accountDAO.findByCustomerId(customerId);
+        int customerId = SessionManager.getCurrentCustomer().getId();
 
+        BackgroundLoader.load(() -> accountDAO.findByCustomerId(customerId), (List<BankAccount> accounts) -> {
             ObservableList<String> items = FXCollections.observableArrayList();
 
             for (BankAccount acc : accounts) {
@@ -59,10 +60,7 @@ public class SettingsController {
             }
 
             cmbAccounts.setItems(items);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        });
     }
 
 
@@ -100,8 +98,8 @@ public class SettingsController {
             return;
         }
 
-        try {
-            // Update in database
+        // Update in database
+        BackgroundLoader.load(() -> {
             customerDAO.upsert(
                     currentUser.getId(),
                     currentUser.getName(),
@@ -111,7 +109,8 @@ public class SettingsController {
                     currentUser.getUsername(),
                     newPass
             );
-
+            return null;
+        }, ignored -> {
             // Update session
             SessionManager.setCurrentCustomer(
                     new CustomerDAO.CustomerRecord(
@@ -132,10 +131,10 @@ public class SettingsController {
             txtNewPassword.clear();
             txtConfirmPassword.clear();
 
-        } catch (Exception e) {
+        }, e -> {
             lblFeedback.setText("❌ Failed to update password.");
             e.printStackTrace();
-        }
+        });
     }
 
 
@@ -195,16 +194,6 @@ public class SettingsController {
     // ---------------------------------------------------------
     @FXML
     private void handleBack() {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Dashboard.fxml"));
-            Parent root = loader.load();
-
-            Stage stage = (Stage) cmbAccounts.getScene().getWindow();
-            stage.setScene(new Scene(root));
-
-        } catch (Exception e) {
-            System.out.println("⚠ Failed to return to Dashboard");
-            e.printStackTrace();
-        }
+        Navigator.goTo("/Dashboard.fxml", 873, 700);
     }
 }
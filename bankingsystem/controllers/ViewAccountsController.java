@@ -1,9 +1,12 @@
 package bankingsystem.controllers;
 
 import bankingsystem.dao.AccountDAO;
-import bankingsystem.dao.TransactionDAO;
+import bankingsystem.dao.LedgerService;
 import bankingsystem.model.BankAccount;
+import bankingsystem.util.BackgroundLoader;
+import bankingsystem.util.Money;
 import bankingsystem.util.Navigator;
+import bankingsystem.util.Refreshable;
 import bankingsystem.util.SessionManager;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
@@ -17,7 +20,7 @@ import java.util.stream.Collectors;
  * Controller for ViewAccounts.fxml.
  * Displays account balances and enables transfers between accounts.
  */
-public class ViewAccountsController {
+public class ViewAccountsController implements Refreshable {
 
     @FXML private Label lblSavingsBalance;
     @FXML private Label lblInvestorsBalance;
@@ -30,8 +33,9 @@ public class ViewAccountsController {
     @FXML private Label lblFeedback;
 
     private final AccountDAO accountDAO = new AccountDAO();
-    private final TransactionDAO transactionDAO = new TransactionDAO();
-    private List<BankAccount> allAccounts;
+    private final LedgerService ledger = new LedgerService();
+    private List<BankAccount> allAccounts = List.of();
+    private boolean processing; // ignores repeated clicks while a transfer is running
 
     private int customerId;
 
@@ -43,6 +47,23 @@ public class ViewAccountsController {
 
         comboAccountFrom.setOnAction(e -> updateFromBalance());
 
+        loadSessionAccounts();
+    }
+
+    /** Called by Navigator when the cached screen is shown again: clears the previous visit. */
+    @Override
+    public void refresh() {
+        processing = false;
+        allAccounts = List.of();
+        updateBalances();
+        comboAccountFrom.setValue(null);
+        comboAccountTo.setValue(null);
+        txtTransferAmount.clear();
+        lblFromBalance.setText("");
+        loadSessionAccounts();
+    }
+
+    private void loadSessionAccounts() {
         // Load session user
         var sessionUser = SessionManager.getCurrentCustomer();
         if (sessionUser != null) {
@@ -63,10 +84,14 @@ public class ViewAccountsController {
     // Load Accounts (Always reload fresh DB values)
     // --------------------------------------------------------------
     private void loadAccounts() {
-        try {
-            allAccounts = accountDAO.findAll().stream()
-                    .filter(a -> a.getCustomerID() == customerId)
-                    .collect(Collectors.toList());
+        loadAccounts("Select accounts to transfer between.");
+    }
+
+    private void loadAccounts(String doneMessage) {
+        final int id = customerId;
+
+        BackgroundLoader.load(() -> accountDAO.findByCustomerId(id), accounts -> {
+            allAccounts = accounts;
 
             if (allAccounts.isEmpty()) {
                 lblFeedback.setText("⚠ No accounts found for this customer.");
@@ -77,19 +102,26 @@ public class ViewAccountsController {
             enableInputs();
             updateBalances(); // update left panel
 
+            // Keep the selections while the items are replaced
+            String from = comboAccountFrom.getValue();
+            String to = comboAccountTo.getValue();
+
             var accountLabels = allAccounts.stream()
                     .map(a -> a.getAccountNumber() + " - " + a.getAccountType())
                     .collect(Collectors.toList());
 
             comboAccountFrom.setItems(FXCollections.observableArrayList(accountLabels));
             comboAccountTo.setItems(FXCollections.observableArrayList(accountLabels));
+            comboAccountFrom.setValue(from);
+            comboAccountTo.setValue(to);
+            updateFromBalance();
 
-            lblFeedback.setText("Select accounts to transfer between.");
+            lblFeedback.setText(doneMessage);
 
-        } catch (Exception e) {
+        }, e -> {
             lblFeedback.setText("❌ Error loading accounts: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
 
     private void disableInputs() {
@@ -105,19 +137,14 @@ public class ViewAccountsController {
     }
 
     // --------------------------------------------------------------
-    // Updated Balances – ALWAYS reload from DB
+    // Updated Balances – from the accounts loadAccounts() just read
     // --------------------------------------------------------------
     private void updateBalances() {
 
-        // Always read live data from database
-        allAccounts = accountDAO.findAll().stream()
-                .filter(a -> a.getCustomerID() == customerId)
-                .collect(Collectors.toList());
-
-        double savings = 0, investors = 0, cheque = 0, total = 0;
+        long savings = 0, investors = 0, cheque = 0, total = 0;
 
         for (BankAccount acc : allAccounts) {
-            double bal = acc.getBalance();
+            long bal = acc.getBalance();
             total += bal;
 
             String type = acc.getAccountType().toLowerCase();
@@ -126,14 +153,14 @@ public class ViewAccountsController {
             else if (type.contains("cheque")) cheque += bal;
         }
 
-        lblSavingsBalance.setText("P " + String.format("%.2f", savings));
-        lblInvestorsBalance.setText("P " + String.format("%.2f", investors));
-        lblChequeBalance.setText("P " + String.format("%.2f", cheque));
-        lblTotalBalance.setText("P " + String.format("%.2f", total));
+        lblSavingsBalance.setText(Money.display(savings));
+        lblInvestorsBalance.setText(Money.display(investors));
+        lblChequeBalance.setText(Money.display(cheque));
+        lblTotalBalance.setText(Money.display(total));
     }
 
     // --------------------------------------------------------------
-    // From account balance update
+    // From account balance update – from the last loaded accounts
     // --------------------------------------------------------------
     private void updateFromBalance() {
         try {
@@ -141,10 +168,13 @@ public class ViewAccountsController {
             if (sel == null) return;
 
             int accNo = Integer.parseInt(sel.split(" - ")[0]);
-            BankAccount acc = accountDAO.findById(accNo);
+            BankAccount acc = allAccounts.stream()
+                    .filter(a -> a.getAccountNumber() == accNo)
+                    .findFirst()
+                    .orElse(null);
 
             if (acc != null)
-                lblFromBalance.setText("Balance: P " + String.format("%.2f", acc.getBalance()));
+                lblFromBalance.setText("Balance: " + Money.display(acc.getBalance()));
             else
                 lblFromBalance.setText("Account not found.");
 
@@ -172,7 +202,7 @@ public class ViewAccountsController {
                 return;
             }
 
-            double amount = Double.parseDouble(txtTransferAmount.getText().trim());
+            long amount = Money.parse(txtTransferAmount.getText());
             if (amount <= 0) {
                 lblFeedback.setText("⚠ Enter a valid amount.");
                 return;
@@ -181,41 +211,33 @@ public class ViewAccountsController {
             int fromAccNo = Integer.parseInt(fromStr.split(" - ")[0]);
             int toAccNo = Integer.parseInt(toStr.split(" - ")[0]);
 
-            BankAccount from = accountDAO.findById(fromAccNo);
-            BankAccount to = accountDAO.findById(toAccNo);
-
-            if (from == null || to == null) {
-                lblFeedback.setText("❌ Account not found.");
-                return;
-            }
-
-            if (from.getCustomerID() != customerId || to.getCustomerID() != customerId) {
-                lblFeedback.setText("❌ Unauthorized transfer.");
-                return;
-            }
-
-            if (from.withdraw(amount)) {
-
-                to.deposit(amount);
-
-                accountDAO.save(from);
-                accountDAO.save(to);
-
-                transactionDAO.record(fromAccNo, "TransferOut", amount,
-                        "Transferred to account " + toAccNo);
-                transactionDAO.record(toAccNo, "TransferIn", amount,
-                        "Received from account " + fromAccNo);
-
-                lblFeedback.setText("✅ Transferred P" + String.format("%.2f", amount));
-                txtTransferAmount.clear();
-
-                // Refresh UI instantly
-                loadAccounts();
-                updateFromBalance();
-
-            } else {
-                lblFeedback.setText("❌ Insufficient funds.");
-            }
+            if (processing) return;
+            processing = true;
+            lblFeedback.setText("Processing transfer...");
+
+            // Ownership, funds check, both balances and both ledger lines in one transaction
+            final int id = customerId;
+            BackgroundLoader.load(() -> ledger.transfer(fromAccNo, toAccNo, amount, id), result -> {
+                processing = false;
+
+                switch (result.getStatus()) {
+                    case OK -> {
+                        txtTransferAmount.clear();
+
+                        // Refresh balances from the database
+                        loadAccounts("✅ Transferred P" + Money.format(amount));
+                    }
+                    case ACCOUNT_NOT_FOUND -> lblFeedback.setText("❌ Account not found.");
+                    case UNAUTHORIZED -> lblFeedback.setText("❌ Unauthorized transfer.");
+                    case INSUFFICIENT_FUNDS -> lblFeedback.setText("❌ Insufficient funds.");
+                    default -> lblFeedback.setText("❌ " + result.getStatus().getMessage());
+                }
+
+            }, e -> {
+                processing = false;
+                lblFeedback.setText("❌ Error: " + e.getMessage());
+                e.printStackTrace();
+            });
 
         } catch (NumberFormatException e) {
             lblFeedback.setText("⚠ Invalid number format.");
@@ -2,6 +2,8 @@ package bankingsystem.controllers;
 
 import bankingsystem.dao.AccountDAO;
 import bankingsystem.model.BankAccount;
+import bankingsystem.util.BackgroundLoader;
+import bankingsystem.util.MoneyCell;
 import bankingsystem.util.SessionManager;
 
 import javafx.collections.FXCollections;
@@ -19,7 +21,7 @@ public class ViewAccountsPopupController {
     @FXML private TableView<BankAccount> tblAccounts;
     @FXML private TableColumn<BankAccount, String> colType;
     @FXML private TableColumn<BankAccount, String> colNumber;
-    @FXML private TableColumn<BankAccount, Double> colBalance;
+    @FXML private TableColumn<BankAccount, Long> colBalance;
 
     private final AccountDAO accountDAO = new AccountDAO();
 
@@ -28,21 +30,19 @@ public class ViewAccountsPopupController {
         colType.setCellValueFactory(new PropertyValueFactory<>("accountType"));
         colNumber.setCellValueFactory(new PropertyValueFactory<>("accountNumber"));
         colBalance.setCellValueFactory(new PropertyValueFactory<>("balance"));
+        colBalance.setCellFactory(MoneyCell.forTableColumn());
 
         loadAccounts();
     }
 
     private void loadAccounts() {
-        try {
-            int id = SessionManager.getCurrentCustomer().getId();
-            List<BankAccount> accounts = accountDAO.findByCustomerId(id);
+        if (SessionManager.getCurrentCustomer() == null) return;
+        int id = SessionManager.getCurrentCustomer().getId();
 
+        BackgroundLoader.load(() -> accountDAO.findByCustomerId(id), (List<BankAccount> accounts) -> {
             ObservableList<BankAccount> list = FXCollections.observableArrayList(accounts);
             tblAccounts.setItems(list);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        });
     }
 
     @FXML
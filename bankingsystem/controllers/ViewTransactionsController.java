@@ -1,24 +1,36 @@
 package bankingsystem.controllers;
 
-import bankingsystem.dao.DBUtil;
+import bankingsystem.dao.LedgerStatsDAO;
+import bankingsystem.dao.TransactionDAO;
+import bankingsystem.dao.TransactionDAO.TransactionRecord;
+import bankingsystem.dao.TransactionDAO.TransactionSummary;
+import bankingsystem.util.BackgroundLoader;
+import bankingsystem.util.Money;
+import bankingsystem.util.MoneyCell;
 import bankingsystem.util.Navigator;
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.stage.FileChooser;
 
 import java.io.FileWriter;
-import java.sql.*;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  * Controller for ViewTransactions.fxml
  * Displays transactions only for the logged-in customer.
  * Supports search, export, printing, and totals.
+ * History is fetched in keyset pages on the BackgroundLoader pool;
+ * the next page loads when the table is scrolled near the bottom.
  */
 public class ViewTransactionsController {
 
@@ -38,11 +50,27 @@ public class ViewTransactionsController {
     @FXML private Label lblTotalWithdrawals;
     @FXML private Label lblFeedback;
 
+    private static final int PAGE_SIZE = 50;
+    private static final int EXPORT_PAGE_SIZE = 500;
+    private static final double LOAD_MORE_THRESHOLD = 0.9; // scroll fraction that triggers the next page
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
     private final ObservableList<TransactionRow> data = FXCollections.observableArrayList();
+    private final TransactionDAO transactionDAO = new TransactionDAO();
+    private final LedgerStatsDAO statsDAO = new LedgerStatsDAO();
 
     // The logged-in customer's ID
     private int customerId;
 
+    // --- Paging state (FX thread only) ---
+    private String currentSearch;      // null = show all
+    private long lastLoadedId = Long.MAX_VALUE;
+    private boolean hasMore;
+    private boolean loading;
+    private int generation;            // bumped on every reload so stale pages are dropped
+
     public void setCustomerId(int customerId) {
         this.customerId = customerId;
     }
@@ -57,59 +85,106 @@ public class ViewTransactionsController {
         colTransactionID.setCellValueFactory(d -> d.getValue().idProperty());
         colType.setCellValueFactory(d -> d.getValue().typeProperty());
         colAmount.setCellValueFactory(d -> d.getValue().amountProperty());
+        colAmount.setCellFactory(MoneyCell.forTableColumn());
         colDate.setCellValueFactory(d -> d.getValue().dateProperty());
         colTime.setCellValueFactory(d -> d.getValue().timeProperty());
         colAccount.setCellValueFactory(d -> d.getValue().accountProperty());
         colDescription.setCellValueFactory(d -> d.getValue().descriptionProperty());
         tblTransactions.setItems(data);
+
+        // The vertical scroll bar only exists once the table skin is created
+        tblTransactions.skinProperty().addListener((obs, oldSkin, newSkin) -> installScrollPaging());
+    }
+
+    private void installScrollPaging() {
+        for (Node node : tblTransactions.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((obs, oldVal, newVal) -> {
+                    if (newVal.doubleValue() >= bar.getMax() * LOAD_MORE_THRESHOLD)
+                        loadNextPage();
+                });
+            }
+        }
     }
 
     // ---------------- LOAD DATA ----------------
     public void loadCustomerTransactions() {
+        reload(null);
+        if (customerId != 0)
+            lblFeedback.setText("Loading transactions...");
+    }
+
+    /** Clears the table and starts paging from the newest transaction. */
+    private void reload(String search) {
+        generation++;
         data.clear();
+        currentSearch = search;
+        lastLoadedId = Long.MAX_VALUE;
+        loading = false;
+        hasMore = customerId != 0;
+
         if (customerId == 0) {
             lblFeedback.setText("⚠ No customer session detected.");
             return;
         }
 
-        String sql = """
-            SELECT t.* FROM transactions t
-            JOIN accounts a ON t.acc_no = a.acc_no
-            WHERE a.customer_id = ?
-            ORDER BY t.id DESC
-        """;
+        loadSummary();
+        loadNextPage();
+    }
 
-        try (Connection c = DBUtil.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+    private void loadNextPage() {
+        if (loading || !hasMore) return;
+        loading = true;
 
-            ps.setInt(1, customerId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) addRow(rs);
-            updateSummary();
-            lblFeedback.setText("✅ Transactions loaded for customer ID: " + customerId);
+        final int gen = generation;
+        final int id = customerId;
+        final String search = currentSearch;
+        final long before = lastLoadedId;
 
-        } catch (Exception e) {
-            lblFeedback.setText("Error loading transactions: " + e.getMessage());
-            e.printStackTrace();
-        }
+        Task<List<TransactionRecord>> task = new Task<>() {
+            @Override
+            protected List<TransactionRecord> call() {
+                return transactionDAO.findPageByCustomer(id, search, before, PAGE_SIZE);
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            if (gen != generation) return; // a newer search/reload replaced this one
+            List<TransactionRecord> page = task.getValue();
+            for (TransactionRecord r : page) data.add(toRow(r));
+            if (!page.isEmpty()) lastLoadedId = page.get(page.size() - 1).getId();
+            hasMore = page.size() == PAGE_SIZE;
+            loading = false;
+
+            if (search == null)
+                lblFeedback.setText("✅ Transactions loaded for customer ID: " + id);
+            else
+                lblFeedback.setText(data.isEmpty() ? "No results found." : "Results for: " + search);
+        });
+
+        task.setOnFailed(e -> {
+            if (gen != generation) return;
+            loading = false;
+            lblFeedback.setText("Error loading transactions: " + task.getException().getMessage());
+            task.getException().printStackTrace();
+        });
+
+        BackgroundLoader.submit(task);
     }
 
-    private void addRow(ResultSet rs) throws SQLException {
-        Timestamp ts = rs.getTimestamp("tdate");
-        String date = ts.toLocalDateTime().toLocalDate()
-                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        String time = ts.toLocalDateTime().toLocalTime()
-                .format(DateTimeFormatter.ofPattern("HH:mm:ss"));
-
-        data.add(new TransactionRow(
-                rs.getInt("id"),
-                rs.getString("type"),
-                rs.getDouble("amount"),
-                date,
-                time,
-                String.valueOf(rs.getInt("acc_no")),
-                rs.getString("description") == null ? "" : rs.getString("description")
-        ));
+    private static TransactionRow toRow(TransactionRecord r) {
+        Timestamp ts = r.getDate();
+        LocalDateTime when = ts != null ? ts.toLocalDateTime() : null;
+
+        return new TransactionRow(
+                r.getId(),
+                r.getType(),
+                r.getAmount(),
+                when != null ? when.toLocalDate().format(DATE_FORMAT) : "",
+                when != null ? when.toLocalTime().format(TIME_FORMAT) : "",
+                String.valueOf(r.getAccNo()),
+                r.getDescription() == null ? "" : r.getDescription()
+        );
     }
 
     // ---------------- SEARCH ----------------
@@ -121,39 +196,7 @@ public class ViewTransactionsController {
             return;
         }
 
-        data.clear();
-        String sql = """
-            SELECT t.* FROM transactions t
-            JOIN accounts a ON t.acc_no = a.acc_no
-            WHERE a.customer_id = ?
-            AND (
-                CAST(t.id AS VARCHAR) LIKE ? OR
-                LOWER(t.type) LIKE ? OR
-                CAST(t.tdate AS VARCHAR) LIKE ?
-            )
-            ORDER BY t.id DESC
-        """;
-
-        try (Connection c = DBUtil.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            ps.setInt(1, customerId);
-            String like = "%" + query.toLowerCase() + "%";
-            ps.setString(2, like);
-            ps.setString(3, like);
-            ps.setString(4, like);
-
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) addRow(rs);
-            updateSummary();
-            lblFeedback.setText(data.isEmpty()
-                    ? "No results found."
-                    : "Results for: " + query);
-
-        } catch (Exception e) {
-            lblFeedback.setText("Search error: " + e.getMessage());
-            e.printStackTrace();
-        }
+        reload(query);
     }
 
     @FXML
@@ -173,15 +216,48 @@ public class ViewTransactionsController {
             java.io.File file = chooser.showSaveDialog(tblTransactions.getScene().getWindow());
             if (file == null) return;
 
-            try (FileWriter fw = new FileWriter(file)) {
-                fw.write("ID,Type,Amount,Date,Time,Account,Description\n");
-                for (TransactionRow t : data) {
-                    fw.write(String.format("%d,%s,%.2f,%s,%s,%s,%s\n",
-                            t.getId(), t.getType(), t.getAmount(),
-                            t.getDate(), t.getTime(), t.getAccount(), t.getDescription()));
+            final int id = customerId;
+            final String search = currentSearch;
+
+            // Page through the full history instead of only the rows loaded so far
+            Task<Long> export = new Task<>() {
+                @Override
+                protected Long call() throws Exception {
+                    long written = 0;
+                    long before = Long.MAX_VALUE;
+
+                    try (FileWriter fw = new FileWriter(file)) {
+                        fw.write("ID,Type,Amount,Date,Time,Account,Description\n");
+                        StringBuilder line = new StringBuilder(128); // reused for every row
+                        List<TransactionRecord> page;
+                        do {
+                            page = transactionDAO.findPageByCustomer(id, search, before, EXPORT_PAGE_SIZE);
+                            for (TransactionRecord r : page) {
+                                TransactionRow t = toRow(r);
+                                line.setLength(0);
+                                line.append(t.getId()).append(',').append(t.getType()).append(',');
+                                Money.appendTo(line, t.getAmount()).append(',')
+                                        .append(t.getDate()).append(',').append(t.getTime()).append(',')
+                                        .append(t.getAccount()).append(',').append(t.getDescription()).append('\n');
+                                fw.append(line);
+                                before = r.getId();
+                                written++;
+                            }
+                        } while (page.size() == EXPORT_PAGE_SIZE);
+                    }
+                    return written;
                 }
-            }
-            lblFeedback.setText("✅ Exported successfully: " + file.getName());
+            };
+
+            export.setOnSucceeded(e -> lblFeedback.setText("✅ Exported successfully: " + file.getName()));
+            export.setOnFailed(e -> {
+                lblFeedback.setText("Export error: " + export.getException().getMessage());
+                export.getException().printStackTrace();
+            });
+
+            lblFeedback.setText("Exporting...");
+            BackgroundLoader.submit(export);
+
         } catch (Exception e) {
             lblFeedback.setText("Export error: " + e.getMessage());
             e.printStackTrace();
@@ -219,52 +295,74 @@ public class ViewTransactionsController {
     }
 
     // ---------------- SUMMARY ----------------
-    private void updateSummary() {
-        double deposits = 0, withdrawals = 0;
-        for (TransactionRow r : data) {
-            if (r.getType().toLowerCase().contains("deposit")) deposits += r.getAmount();
-            else if (r.getType().toLowerCase().contains("withdraw")) withdrawals += r.getAmount();
-        }
-        lblTotalTransactions.setText(String.valueOf(data.size()));
-        lblTotalDeposits.setText("P " + String.format("%.2f", deposits));
-        lblTotalWithdrawals.setText("P " + String.format("%.2f", withdrawals));
+    // Totals cover the whole history (not just the loaded pages). Unfiltered totals come
+    // from the maintained customer_stats row; search results are summed in SQL.
+    private void loadSummary() {
+        final int gen = generation;
+        final int id = customerId;
+        final String search = currentSearch;
+
+        Task<TransactionSummary> task = new Task<>() {
+            @Override
+            protected TransactionSummary call() {
+                if (search != null)
+                    return transactionDAO.summarizeByCustomer(id, search);
+
+                var snapshot = statsDAO.getCustomerSnapshot(id);
+                return new TransactionSummary(snapshot.getTransactionCount(),
+                        snapshot.getDepositTotal(), snapshot.getWithdrawalTotal());
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            if (gen != generation) return;
+            TransactionSummary summary = task.getValue();
+            lblTotalTransactions.setText(String.valueOf(summary.getCount()));
+            lblTotalDeposits.setText(Money.display(summary.getDeposits()));
+            lblTotalWithdrawals.setText(Money.display(summary.getWithdrawals()));
+        });
+
+        task.setOnFailed(e -> task.getException().printStackTrace());
+
+        BackgroundLoader.submit(task);
     }
 
     // ---------------- INNER MODEL CLASS ----------------
+    // Plain fields; the table builds observable wrappers only for visible cells.
     public static class TransactionRow {
-        private final SimpleIntegerProperty id;
-        private final SimpleStringProperty type;
-        private final SimpleDoubleProperty amount;
-        private final SimpleStringProperty date;
-        private final SimpleStringProperty time;
-        private final SimpleStringProperty account;
-        private final SimpleStringProperty description;
-
-        public TransactionRow(int id, String type, double amount, String date, String time,
+        private final long id;
+        private final String type;
+        private final long amount; // minor units
+        private final String date;
+        private final String time;
+        private final String account;
+        private final String description;
+
+        public TransactionRow(long id, String type, long amount, String date, String time,
                               String account, String description) {
-            this.id = new SimpleIntegerProperty(id);
-            this.type = new SimpleStringProperty(type);
-            this.amount = new SimpleDoubleProperty(amount);
-            this.date = new SimpleStringProperty(date);
-            this.time = new SimpleStringProperty(time);
-            this.account = new SimpleStringProperty(account);
-            this.description = new SimpleStringProperty(description);
+            this.id = id;
+            this.type = type;
+            this.amount = amount;
+            this.date = date;
+            this.time = time;
+            this.account = account;
+            this.description = description;
         }
 
-        public int getId() { return id.get(); }
-        public String getType() { return type.get(); }
-        public double getAmount() { return amount.get(); }
-        public String getDate() { return date.get(); }
-        public String getTime() { return time.get(); }
-        public String getAccount() { return account.get(); }
-        public String getDescription() { return description.get(); }
-
-        public SimpleIntegerProperty idProperty() { return id; }
-        public SimpleStringProperty typeProperty() { return type; }
-        public SimpleDoubleProperty amountProperty() { return amount; }
-        public SimpleStringProperty dateProperty() { return date; }
-        public SimpleStringProperty timeProperty() { return time; }
-        public SimpleStringProperty accountProperty() { return account; }
-        public SimpleStringProperty descriptionProperty() { return description; }
+        public long getId() { return id; }
+        public String getType() { return type; }
+        public long getAmount() { return amount; }
+        public String getDate() { return date; }
+        public String getTime() { return time; }
+        public String getAccount() { return account; }
+        public String getDescription() { return description; }
+
+        public ReadOnlyObjectWrapper<Number> idProperty() { return new ReadOnlyObjectWrapper<>(id); }
+        public ReadOnlyStringWrapper typeProperty() { return new ReadOnlyStringWrapper(type); }
+        public ReadOnlyObjectWrapper<Number> amountProperty() { return new ReadOnlyObjectWrapper<>(amount); }
+        public ReadOnlyStringWrapper dateProperty() { return new ReadOnlyStringWrapper(date); }
+        public ReadOnlyStringWrapper timeProperty() { return new ReadOnlyStringWrapper(time); }
+        public ReadOnlyStringWrapper accountProperty() { return new ReadOnlyStringWrapper(account); }
+        public ReadOnlyStringWrapper descriptionProperty() { return new ReadOnlyStringWrapper(description); }
     }
 }
@@ -1,9 +1,12 @@
 package bankingsystem.controllers;
 
 import bankingsystem.dao.AccountDAO;
-import bankingsystem.dao.TransactionDAO;
+import bankingsystem.dao.LedgerService;
 import bankingsystem.model.BankAccount;
+import bankingsystem.util.BackgroundLoader;
+import bankingsystem.util.Money;
 import bankingsystem.util.Navigator;
+import bankingsystem.util.Refreshable;
 import bankingsystem.util.SessionManager;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -15,11 +18,11 @@ import java.util.List;
  * Controller for Withdraw.fxml
  * Handles secure withdrawals with transaction recording.
  */
-public class WithdrawController {
+public class WithdrawController implements Refreshable {
 
     // --- DAOs ---
     private final AccountDAO accountDAO = new AccountDAO();
-    private final TransactionDAO transactionDAO = new TransactionDAO();
+    private final LedgerService ledger = new LedgerService();
 
     // --- FXML UI Components ---
     @FXML private ComboBox<String> cmbAccountType;
@@ -32,6 +35,7 @@ public class WithdrawController {
     private int customerId;
     private List<BankAccount> customerAccounts;
     private BankAccount currentAccount;
+    private boolean processing; // ignores repeated clicks while a withdrawal is running
 
     // --- Initialization ---
     @FXML
@@ -39,6 +43,23 @@ public class WithdrawController {
         cmbAccountType.setItems(FXCollections.observableArrayList("Savings", "Cheque", "Investors"));
         cmbAccountType.setOnAction(e -> handleAccountSelection());
 
+        loadSessionAccounts();
+    }
+
+    /** Called by Navigator when the cached screen is shown again: starts with an empty form. */
+    @Override
+    public void refresh() {
+        processing = false;
+        customerAccounts = null;
+        currentAccount = null;
+        cmbAccountType.setValue(null);
+        txtAvailableBalance.clear();
+        txtWithdrawAmount.clear();
+        txtMobileNumber.clear();
+        loadSessionAccounts();
+    }
+
+    private void loadSessionAccounts() {
         // Load session user
         var sessionUser = SessionManager.getCurrentCustomer();
         if (sessionUser != null) {
@@ -60,10 +81,12 @@ public class WithdrawController {
     // Account Loading
     // ------------------------------------------------------------------
     private void loadCustomerAccounts() {
-        try {
-            customerAccounts = accountDAO.findAll().stream()
-                    .filter(a -> a.getCustomerID() == customerId)
-                    .toList();
+        final int id = customerId;
+        disableInputs();
+        lblFeedback.setText("Loading accounts...");
+
+        BackgroundLoader.load(() -> accountDAO.findByCustomerId(id), accounts -> {
+            customerAccounts = accounts;
 
             if (customerAccounts.isEmpty()) {
                 lblFeedback.setText("⚠ No accounts found for this user.");
@@ -74,10 +97,10 @@ public class WithdrawController {
             lblFeedback.setText("Select an account to withdraw from.");
             enableInputs();
 
-        } catch (Exception e) {
+        }, e -> {
             lblFeedback.setText("❌ Error loading accounts: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
 
     private void disableInputs() {
@@ -97,7 +120,7 @@ public class WithdrawController {
     // ------------------------------------------------------------------
     private void handleAccountSelection() {
         String selectedType = cmbAccountType.getValue();
-        if (selectedType == null) return;
+        if (selectedType == null || customerAccounts == null) return;
 
         currentAccount = customerAccounts.stream()
                 .filter(a -> a.getAccountType().equalsIgnoreCase(selectedType))
@@ -105,7 +128,7 @@ public class WithdrawController {
                 .orElse(null);
 
         if (currentAccount != null) {
-            txtAvailableBalance.setText(String.format("P %.2f", currentAccount.getBalance()));
+            txtAvailableBalance.setText(Money.display(currentAccount.getBalance()));
 
             // Disable withdrawal input for Savings account
             if (currentAccount.getAccountType().equalsIgnoreCase("Savings")) {
@@ -137,34 +160,47 @@ public class WithdrawController {
         }
 
         try {
-            double amount = Double.parseDouble(txtWithdrawAmount.getText().trim());
+            long amount = Money.parse(txtWithdrawAmount.getText());
             if (amount <= 0) {
                 lblFeedback.setText("⚠ Enter a valid withdrawal amount.");
                 return;
             }
 
-            if (!currentAccount.withdraw(amount)) {
-                lblFeedback.setText("❌ Insufficient funds.");
-                return;
-            }
-
-            accountDAO.save(currentAccount);
-
             String mobile = txtMobileNumber.getText().isBlank()
                     ? "N/A"
                     : txtMobileNumber.getText().trim();
 
-            transactionDAO.record(
-                    currentAccount.getAccountNumber(),
+            if (processing) return;
+            processing = true;
+            lblFeedback.setText("Processing withdrawal...");
+
+            // Guarded debit + ledger line in one transaction
+            final BankAccount account = currentAccount;
+            BackgroundLoader.load(() -> ledger.withdraw(
+                    account.getAccountNumber(),
                     "Withdrawal",
                     amount,
                     "Cash withdrawal (Mobile: " + mobile + ")"
-            );
-
-            lblFeedback.setText(String.format("✅ Successfully withdrew P%.2f", amount));
-            txtAvailableBalance.setText(String.format("P %.2f", currentAccount.getBalance()));
-            txtWithdrawAmount.clear();
-            txtMobileNumber.clear();
+            ), result -> {
+                processing = false;
+
+                if (!result.isOk()) {
+                    lblFeedback.setText("❌ " + result.getStatus().getMessage());
+                    return;
+                }
+
+                account.setBalance(result.getBalance());
+
+                lblFeedback.setText("✅ Successfully withdrew P" + Money.format(amount));
+                txtAvailableBalance.setText(Money.display(account.getBalance()));
+                txtWithdrawAmount.clear();
+                txtMobileNumber.clear();
+
+            }, e -> {
+                processing = false;
+                lblFeedback.setText("❌ Error: " + e.getMessage());
+                e.printStackTrace();
+            });
 
         } catch (NumberFormatException e) {
             lblFeedback.setText("⚠ Invalid number format.");
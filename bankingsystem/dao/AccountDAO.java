@@ -1,6 +1,7 @@
 package bankingsystem.dao;
 
 import bankingsystem.model.BankAccount;
+import bankingsystem.util.Money;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -23,7 +24,7 @@ public class AccountDAO {
              PreparedStatement ps = c.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS)) {
 
             ps.setString(1, a.getAccountType());
-            ps.setDouble(2, a.getBalance());
+            ps.setBigDecimal(2, Money.toDecimal(a.getBalance()));
             ps.setString(3, a.getAddress());
             ps.setInt(4, a.getCustomerID());
             ps.setString(5, a.getStatus());
@@ -69,7 +70,7 @@ public class AccountDAO {
              PreparedStatement ps = c.prepareStatement(updateSQL)) {
 
             ps.setString(1, a.getAccountType());
-            ps.setDouble(2, a.getBalance());
+            ps.setBigDecimal(2, Money.toDecimal(a.getBalance()));
             ps.setString(3, a.getAddress());
             ps.setInt(4, a.getCustomerID());
             ps.setString(5, a.getStatus());
@@ -89,161 +90,98 @@ public class AccountDAO {
     // FIND BY ID
     // -----------------------------------------------------
     public BankAccount findById(int accNo) {
+        List<BankAccount> found = queryAccounts("SELECT * FROM accounts WHERE acc_no = ?", accNo);
+        return found.isEmpty() ? null : found.get(0);
+    }
 
-        String sql = "SELECT * FROM accounts WHERE acc_no = ?";
-
-        try (Connection c = DBConnection.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            ps.setInt(1, accNo);
-            ResultSet rs = ps.executeQuery();
-
-            if (rs.next()) {
-
-                String type = rs.getString("type");
-                double balance = rs.getDouble("balance");
-                String address = rs.getString("address");
-                int customerId = rs.getInt("customer_id");
-                String status = rs.getString("status");
-                String reason = rs.getString("reason");
-                String employer = rs.getString("employer");
-                Timestamp reqDate = rs.getTimestamp("request_date");
-
-                BankAccount account = new BankAccount(
-                        accNo,
-                        balance,
-                        address,
-                        customerId,
-                        reqDate != null ? new java.util.Date(reqDate.getTime()) : new java.util.Date(),
-                        status
-                ) {
-                    @Override public void deposit(double amount) { balance += amount; }
-
-                    @Override public boolean withdraw(double amount) {
-                        if (amount <= balance) { balance -= amount; return true; }
-                        return false;
-                    }
-
-                    @Override public String getAccountType() { return type; }
-                };
-
-                account.setReason(reason);
-                account.setEmployer(employer);
-
-                return account;
-            }
+    // -----------------------------------------------------
+    // NEW METHOD — FIND BY CUSTOMER ID
+    // -----------------------------------------------------
+    public List<BankAccount> findByCustomerId(int customerId) {
+        return queryAccounts("SELECT * FROM accounts WHERE customer_id = ? ORDER BY acc_no",
+                customerId);
+    }
 
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    // -----------------------------------------------------
+    // FIND ACTIVE ACCOUNTS OF ONE CUSTOMER
+    // -----------------------------------------------------
+    public List<BankAccount> findActiveByCustomerId(int customerId) {
+        return queryAccounts(
+                "SELECT * FROM accounts WHERE customer_id = ? AND status = 'ACTIVE' ORDER BY acc_no",
+                customerId);
+    }
 
-        return null;
+    // -----------------------------------------------------
+    // FIND BY STATUS (e.g. PENDING requests for approval)
+    // -----------------------------------------------------
+    public List<BankAccount> findByStatus(String status) {
+        return queryAccounts("SELECT * FROM accounts WHERE status = ? ORDER BY acc_no",
+                status.toUpperCase());
     }
 
     // -----------------------------------------------------
-    // NEW METHOD — FIND BY CUSTOMER ID
+    // GET ALL ACCOUNTS
     // -----------------------------------------------------
-    public List<BankAccount> findByCustomerId(int customerId) {
+    public List<BankAccount> findAll() {
+        return queryAccounts("SELECT * FROM accounts ORDER BY acc_no");
+    }
 
-        List<BankAccount> list = new ArrayList<>();
+    // -----------------------------------------------------
+    // BALANCE TOTALS FOR ONE CUSTOMER (single aggregate query)
+    // -----------------------------------------------------
+    public CustomerTotals getTotalsByCustomer(int customerId) {
 
-        String sql = "SELECT * FROM accounts WHERE customer_id = ? ORDER BY acc_no";
+        String sql = """
+            SELECT
+                COUNT(*) AS account_count,
+                COUNT(CASE WHEN status = 'ACTIVE' THEN 1 END) AS active_count,
+                COALESCE(SUM(balance), 0) AS total_balance,
+                COALESCE(SUM(CASE WHEN status = 'ACTIVE' THEN balance END), 0) AS active_balance
+            FROM accounts
+            WHERE customer_id = ?
+        """;
 
         try (Connection c = DBConnection.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
 
             ps.setInt(1, customerId);
-            ResultSet rs = ps.executeQuery();
 
-            while (rs.next()) {
-
-                int accNo = rs.getInt("acc_no");
-                String type = rs.getString("type");
-                double balance = rs.getDouble("balance");
-                String address = rs.getString("address");
-                String status = rs.getString("status");
-                String reason = rs.getString("reason");
-                String employer = rs.getString("employer");
-                Timestamp reqDate = rs.getTimestamp("request_date");
-
-                BankAccount account = new BankAccount(
-                        accNo,
-                        balance,
-                        address,
-                        customerId,
-                        reqDate != null ? new java.util.Date(reqDate.getTime()) : new java.util.Date(),
-                        status
-                ) {
-                    @Override public void deposit(double amt) { balance += amt; }
-
-                    @Override public boolean withdraw(double amt) {
-                        if (amt <= balance) { balance -= amt; return true; }
-                        return false;
-                    }
-
-                    @Override public String getAccountType() { return type; }
-                };
-
-                account.setReason(reason);
-                account.setEmployer(employer);
-
-                list.add(account);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new CustomerTotals(
+                            rs.getInt("account_count"),
+                            rs.getInt("active_count"),
+                            Money.fromDecimal(rs.getBigDecimal("total_balance")),
+                            Money.fromDecimal(rs.getBigDecimal("active_balance"))
+                    );
+                }
             }
 
         } catch (SQLException e) {
             e.printStackTrace();
         }
 
-        return list;
+        return new CustomerTotals(0, 0, 0, 0);
     }
 
     // -----------------------------------------------------
-    // GET ALL ACCOUNTS
+    // SHARED QUERY + ROW MAPPING
     // -----------------------------------------------------
-    public List<BankAccount> findAll() {
+    private List<BankAccount> queryAccounts(String sql, Object... params) {
 
         List<BankAccount> list = new ArrayList<>();
 
-        String sql = "SELECT * FROM accounts ORDER BY acc_no";
-
         try (Connection c = DBConnection.getConnection();
-             Statement st = c.createStatement();
-             ResultSet rs = st.executeQuery(sql)) {
+             PreparedStatement ps = c.prepareStatement(sql)) {
 
-            while (rs.next()) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
 
-                int accNo = rs.getInt("acc_no");
-                String type = rs.getString("type");
-                double balance = rs.getDouble("balance");
-                String address = rs.getString("address");
-                int customerId = rs.getInt("customer_id");
-                String status = rs.getString("status");
-                String reason = rs.getString("reason");
-                String employer = rs.getString("employer");
-                Timestamp reqDate = rs.getTimestamp("request_date");
-
-                BankAccount account = new BankAccount(
-                        accNo,
-                        balance,
-                        address,
-                        customerId,
-                        reqDate != null ? new java.util.Date(reqDate.getTime()) : new java.util.Date(),
-                        status
-                ) {
-                    @Override public void deposit(double amount) { balance += amount; }
-
-                    @Override public boolean withdraw(double amount) {
-                        if (amount <= balance) { balance -= amount; return true; }
-                        return false;
-                    }
-
-                    @Override public String getAccountType() { return type; }
-                };
-
-                account.setReason(reason);
-                account.setEmployer(employer);
-
-                list.add(account);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapAccount(rs));
+                }
             }
 
         } catch (SQLException e) {
@@ -253,6 +191,42 @@ public class AccountDAO {
         return list;
     }
 
+    private BankAccount mapAccount(ResultSet rs) throws SQLException {
+
+        int accNo = rs.getInt("acc_no");
+        String type = rs.getString("type");
+        long balance = Money.fromDecimal(rs.getBigDecimal("balance"));
+        String address = rs.getString("address");
+        int customerId = rs.getInt("customer_id");
+        String status = rs.getString("status");
+        String reason = rs.getString("reason");
+        String employer = rs.getString("employer");
+        Timestamp reqDate = rs.getTimestamp("request_date");
+
+        BankAccount account = new BankAccount(
+                accNo,
+                balance,
+                address,
+                customerId,
+                reqDate != null ? new java.util.Date(reqDate.getTime()) : new java.util.Date(),
+                status
+        ) {
+            @Override public void deposit(long amount) { balance += amount; }
+
+            @Override public boolean withdraw(long amount) {
+                if (amount <= balance) { balance -= amount; return true; }
+                return false;
+            }
+
+            @Override public String getAccountType() { return type; }
+        };
+
+        account.setReason(reason);
+        account.setEmployer(employer);
+
+        return account;
+    }
+
     // -----------------------------------------------------
     // FIND ALL ACCOUNTS WITH CUSTOMER DETAILS (DTO)
     // -----------------------------------------------------
@@ -286,7 +260,7 @@ public class AccountDAO {
                 list.add(new AccountRecord(
                         rs.getInt("acc_no"),
                         rs.getString("type"),
-                        rs.getDouble("balance"),
+                        Money.fromDecimal(rs.getBigDecimal("balance")),
                         rs.getString("status"),
                         rs.getString("reason"),
                         rs.getString("employer"),
@@ -382,7 +356,7 @@ public class AccountDAO {
 
         private final int accNo;
         private final String type;
-        private final double balance;
+        private final long balance; // minor units
         private final String status;
 
         private final String reason;
@@ -394,7 +368,7 @@ public class AccountDAO {
         private final String address;
         private final String username;
 
-        public AccountRecord(int accNo, String type, double balance, String status,
+        public AccountRecord(int accNo, String type, long balance, String status,
                              String reason, String employer, Timestamp requestDate,
                              int customerId, String customerName,
                              String address, String username) {
@@ -414,7 +388,7 @@ public class AccountDAO {
 
         public int getAccNo() { return accNo; }
         public String getType() { return type; }
-        public double getBalance() { return balance; }
+        public long getBalance() { return balance; }
         public String getStatus() { return status; }
         public String getReason() { return reason; }
         public String getEmployer() { return employer; }
@@ -424,4 +398,28 @@ public class AccountDAO {
         public String getAddress() { return address; }
         public String getUsername() { return username; }
     }
+
+    // -----------------------------------------------------
+    // DTO FOR PER-CUSTOMER TOTALS
+    // -----------------------------------------------------
+    public static class CustomerTotals {
+
+        private final int accountCount;
+        private final int activeCount;
+        private final long totalBalance;
+        private final long activeBalance;
+
+        public CustomerTotals(int accountCount, int activeCount,
+                              long totalBalance, long activeBalance) {
+            this.accountCount = accountCount;
+            this.activeCount = activeCount;
+            this.totalBalance = totalBalance;
+            this.activeBalance = activeBalance;
+        }
+
+        public int getAccountCount() { return accountCount; }
+        public int getActiveCount() { return activeCount; }
+        public long getTotalBalance() { return totalBalance; }
+        public long getActiveBalance() { return activeBalance; }
+    }
 }
@@ -0,0 +1,190 @@
+package bankingsystem.dao;
+
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.PooledConnection;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of H2 sessions shared by all DAOs.
+ * Connections are validated when borrowed and handed back to the pool
+ * when the caller closes them. Each pooled session keeps its own
+ * prepared statement cache (H2 QUERY_CACHE_SIZE), so repeated DAO
+ * queries are parsed only once per session.
+ */
+public class ConnectionPool implements ConnectionEventListener {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final JdbcDataSource dataSource;
+    private final int maxConnections;
+    private final long borrowTimeoutMillis;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+
+    // --- Metrics ---
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong invalidatedCount = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String user, String password,
+                          int maxConnections, long borrowTimeoutMillis) {
+        if (maxConnections < 1)
+            throw new IllegalArgumentException("maxConnections must be at least 1: " + maxConnections);
+
+        this.dataSource = new JdbcDataSource();
+        this.dataSource.setURL(url);
+        this.dataSource.setUser(user);
+        this.dataSource.setPassword(password);
+
+        this.maxConnections = maxConnections;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    // ---------------------------------------------------------
+    // BORROW
+    // ---------------------------------------------------------
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout if all
+     * connections are in use. Closing the returned connection gives
+     * it back to the pool.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed)
+            throw new SQLException("Connection pool has been closed", "08003");
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS))
+                throw new SQLException("Timed out waiting for a pooled connection after "
+                        + borrowTimeoutMillis + " ms", "08001");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", "08001", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            Connection conn = borrowValidated();
+            active.incrementAndGet();
+            return conn;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Connection borrowValidated() throws SQLException {
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            Connection conn = null;
+            try {
+                conn = pc.getConnection();
+                if (conn.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    pc.addConnectionEventListener(this);
+                    return conn;
+                }
+            } catch (SQLException | RuntimeException e) {
+                // fall through and replace the broken session
+            }
+            invalidatedCount.incrementAndGet();
+            discard(pc);
+        }
+
+        pc = dataSource.getPooledConnection();
+        createdCount.incrementAndGet();
+        pc.addConnectionEventListener(this);
+        return pc.getConnection();
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // ---------------------------------------------------------
+    // RETURN
+    // ---------------------------------------------------------
+    @Override
+    public void connectionClosed(ConnectionEvent event) {
+        PooledConnection pc = (PooledConnection) event.getSource();
+        pc.removeConnectionEventListener(this);
+        active.decrementAndGet();
+
+        if (closed) {
+            discard(pc);
+        } else {
+            idle.offerFirst(pc); // most recently used first, keeps hot sessions warm
+        }
+        permits.release();
+    }
+
+    @Override
+    public void connectionErrorOccurred(ConnectionEvent event) {
+        // The session is dropped on the next validation instead.
+    }
+
+    private void discard(PooledConnection pc) {
+        try {
+            pc.close();
+        } catch (SQLException ignored) {}
+    }
+
+    /**
+     * Closes all idle connections and refuses further borrows.
+     * Connections still in use are closed when they are returned.
+     */
+    public void close() {
+        closed = true;
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            discard(pc);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // METRICS
+    // ---------------------------------------------------------
+    public int getMaxConnections() { return maxConnections; }
+    public int getActiveConnections() { return active.get(); }
+    public int getIdleConnections() { return idle.size(); }
+    public long getBorrowCount() { return borrowCount.get(); }
+    public long getCreatedCount() { return createdCount.get(); }
+    public long getInvalidatedCount() { return invalidatedCount.get(); }
+
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.get();
+        return borrows == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / borrows;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Pool[active=%d, idle=%d, max=%d, borrows=%d, created=%d, invalidated=%d, avgWait=%.3f ms, maxWait=%.3f ms]",
+            getActiveConnections(), getIdleConnections(), maxConnections, getBorrowCount(),
+            getCreatedCount(), getInvalidatedCount(), getAverageWaitMillis(), getMaxWaitMillis()
+        );
+    }
+}
@@ -22,7 +22,7 @@ public class CustomerDAO {
         ResultSet rs = null;
 
         try {
-            c = DBConnection.getConnection();   // DO NOT CLOSE
+            c = DBConnection.getConnection();
             ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
 
             ps.setString(1, name);
@@ -49,6 +49,7 @@ public class CustomerDAO {
         } finally {
             try { if (rs != null) rs.close(); } catch (SQLException ignored) {}
             try { if (ps != null) ps.close(); } catch (SQLException ignored) {}
+            try { if (c != null) c.close(); } catch (SQLException ignored) {} // returns it to the pool
         }
 
         return -1;
@@ -120,6 +121,7 @@ public class CustomerDAO {
         } finally {
             try { if (psUpdate != null) psUpdate.close(); } catch (SQLException ignored) {}
             try { if (psInsert != null) psInsert.close(); } catch (SQLException ignored) {}
+            try { if (c != null) c.close(); } catch (SQLException ignored) {}
         }
     }
 
@@ -159,6 +161,7 @@ public class CustomerDAO {
         } finally {
             try { if (rs != null) rs.close(); } catch (SQLException ignored) {}
             try { if (st != null) st.close(); } catch (SQLException ignored) {}
+            try { if (c != null) c.close(); } catch (SQLException ignored) {}
         }
 
         return list;
@@ -203,6 +206,7 @@ public class CustomerDAO {
         } finally {
             try { if (rs != null) rs.close(); } catch (SQLException ignored) {}
             try { if (ps != null) ps.close(); } catch (SQLException ignored) {}
+            try { if (c != null) c.close(); } catch (SQLException ignored) {}
         }
 
         return null;
@@ -245,6 +249,7 @@ public class CustomerDAO {
         } finally {
             try { if (rs != null) rs.close(); } catch (SQLException ignored) {}
             try { if (ps != null) ps.close(); } catch (SQLException ignored) {}
+            try { if (c != null) c.close(); } catch (SQLException ignored) {}
         }
 
         return null;
@@ -275,6 +280,7 @@ public class CustomerDAO {
         } finally {
             try { if (rs != null) rs.close(); } catch (SQLException ignored) {}
             try { if (st != null) st.close(); } catch (SQLException ignored) {}
+            try { if (c != null) c.close(); } catch (SQLException ignored) {}
         }
 
         return 0;
@@ -303,6 +309,7 @@ public class CustomerDAO {
 
         } finally {
             try { if (ps != null) ps.close(); } catch (SQLException ignored) {}
+            try { if (c != null) c.close(); } catch (SQLException ignored) {}
         }
 
         return false;
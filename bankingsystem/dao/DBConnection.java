@@ -1,19 +1,27 @@
 package bankingsystem.dao;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 
 public class DBConnection {
 
-    private static final String URL =
-            "jdbc:h2:C:/Users/Admin/Desktop/BANKING SYSTEM JAVA/bankdb;AUTO_SERVER=TRUE";
+    // Tests point this at an in-memory database with -Dbankingsystem.db.url=...
+    private static final String URL = System.getProperty("bankingsystem.db.url",
+            "jdbc:h2:C:/Users/Admin/Desktop/BANKING SYSTEM JAVA/bankdb;AUTO_SERVER=TRUE;QUERY_CACHE_SIZE=64");
 
     private static final String USER = "sa";
     private static final String PASSWORD = "";
 
+    // Sessions are reused instead of opening a new one per DAO call
+    private static final int MAX_CONNECTIONS = 10;
+    private static final long BORROW_TIMEOUT_MS = 30_000;
+
+    private static final ConnectionPool POOL;
+
     static {
+        POOL = new ConnectionPool(URL, USER, PASSWORD, MAX_CONNECTIONS, BORROW_TIMEOUT_MS);
+
         try {
             Class.forName("org.h2.Driver");
 
@@ -36,7 +44,7 @@ public class DBConnection {
                     CREATE TABLE IF NOT EXISTS accounts (
                         acc_no INT AUTO_INCREMENT PRIMARY KEY,
                         type VARCHAR(40),
-                        balance DOUBLE,
+                        balance DECIMAL(19,2),
                         address VARCHAR(100),
                         customer_id INT,
                         status VARCHAR(20) DEFAULT 'ACTIVE',
@@ -52,13 +60,30 @@ public class DBConnection {
                         id IDENTITY PRIMARY KEY,
                         acc_no INT,
                         type VARCHAR(30),
-                        amount DOUBLE,
+                        amount DECIMAL(19,2),
                         description VARCHAR(255),
                         tdate TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                         FOREIGN KEY (acc_no) REFERENCES accounts(acc_no)
                     )
                 """);
 
+                // Databases created when amounts were DOUBLE
+                MoneyColumns.migrate(s, "accounts", "balance");
+                MoneyColumns.migrate(s, "transactions", "amount");
+
+                // Running totals per account / customer, kept in step with the ledger
+                LedgerStatsDAO.createSchema(s);
+
+                // Month-end interest run checkpoints
+                InterestPostingService.createSchema(s);
+
+                // Secondary indexes for per-customer / per-status lookups and statements
+                s.executeUpdate("CREATE INDEX IF NOT EXISTS idx_accounts_customer ON accounts(customer_id)");
+                // (status, acc_no) also serves account-number range scans of active accounts
+                s.executeUpdate("DROP INDEX IF EXISTS idx_accounts_status");
+                s.executeUpdate("CREATE INDEX IF NOT EXISTS idx_accounts_status_acc ON accounts(status, acc_no)");
+                s.executeUpdate("CREATE INDEX IF NOT EXISTS idx_transactions_acc_date ON transactions(acc_no, tdate)");
+
                 System.out.println("✔ REAL H2 schema loaded");
             }
 
@@ -68,9 +93,19 @@ public class DBConnection {
         }
     }
 
+    /**
+     * Borrows a pooled connection. Callers must close it to return it to the pool.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return POOL.getConnection();
     }
 
-    public static void closeConnection() { }
+    /** Pool metrics (active, idle, wait time) for diagnostics. */
+    public static ConnectionPool getPool() {
+        return POOL;
+    }
+
+    public static void closeConnection() {
+        POOL.close();
+    }
 }
@@ -4,10 +4,12 @@ import java.sql.*;
 
 public class DBUtil {
 
-    private static final String URL = "jdbc:h2:./bankdb"; 
+    private static final String URL = "jdbc:h2:./bankdb;QUERY_CACHE_SIZE=64";
     private static final String USER = "sa";
     private static final String PASS = "";
 
+    private static final ConnectionPool POOL = new ConnectionPool(URL, USER, PASS, 10, 30_000);
+
     static {
         try (Connection c = getConnection(); Statement s = c.createStatement()) {
 
@@ -27,7 +29,7 @@ public class DBUtil {
                 CREATE TABLE IF NOT EXISTS accounts (
                     acc_no IDENTITY PRIMARY KEY,
                     type VARCHAR(40),
-                    balance DOUBLE,
+                    balance DECIMAL(19,2),
                     address VARCHAR(255),
                     customer_id INT,
                     status VARCHAR(20),
@@ -42,18 +44,35 @@ public class DBUtil {
                     id IDENTITY PRIMARY KEY,
                     acc_no INT,
                     type VARCHAR(30),
-                    amount DOUBLE,
+                    amount DECIMAL(19,2),
                     description VARCHAR(255),
                     tdate TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                 )
             """);
 
+            // Databases created when amounts were DOUBLE
+            MoneyColumns.migrate(s, "accounts", "balance");
+            MoneyColumns.migrate(s, "transactions", "amount");
+
+            s.executeUpdate("CREATE INDEX IF NOT EXISTS idx_accounts_customer ON accounts(customer_id)");
+            // (status, acc_no) also serves account-number range scans of active accounts
+            s.executeUpdate("DROP INDEX IF EXISTS idx_accounts_status");
+            s.executeUpdate("CREATE INDEX IF NOT EXISTS idx_accounts_status_acc ON accounts(status, acc_no)");
+            s.executeUpdate("CREATE INDEX IF NOT EXISTS idx_transactions_acc_date ON transactions(acc_no, tdate)");
+
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Borrows a pooled connection. Callers must close it to return it to the pool.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASS);
+        return POOL.getConnection();
+    }
+
+    public static ConnectionPool getPool() {
+        return POOL;
     }
 }
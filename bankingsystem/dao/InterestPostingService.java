@@ -0,0 +1,372 @@
+package bankingsystem.dao;
+
+import bankingsystem.model.InvestmentAccount;
+import bankingsystem.model.SavingsAccount;
+import bankingsystem.util.Money;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Month-end interest posting for every active Savings and Investors account.
+ * Accounts are processed in account-number chunks by a few parallel workers.
+ * Each chunk is one transaction: a single UPDATE credits the interest and the
+ * matching ledger lines are inserted from its OLD TABLE in the same statement,
+ * so no account is read into Java. A committed chunk is recorded in
+ * interest_run_chunks, so a failed or interrupted run resumes where it stopped
+ * and a finished period is never posted twice.
+ */
+public class InterestPostingService {
+
+    public static final String INTEREST_TYPE = "Interest";
+
+    private static final int DEFAULT_CHUNK_SIZE = 5_000;
+    private static final int DEFAULT_WORKERS = 4;   // leaves pooled connections for the UI
+    private static final int MAX_ATTEMPTS = 3;      // per chunk, on write conflicts
+
+    private final double savingsRate;
+    private final double investmentRate;
+    private final int chunkSize;
+    private final int workers;
+
+    public InterestPostingService() {
+        this(SavingsAccount.DEFAULT_INTEREST_RATE, InvestmentAccount.DEFAULT_INTEREST_RATE,
+                DEFAULT_CHUNK_SIZE, DEFAULT_WORKERS);
+    }
+
+    public InterestPostingService(double savingsRate, double investmentRate, int chunkSize, int workers) {
+        if (chunkSize < 1 || workers < 1)
+            throw new IllegalArgumentException("chunkSize and workers must be at least 1");
+
+        this.savingsRate = savingsRate;
+        this.investmentRate = investmentRate;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+    }
+
+    // -----------------------------------------------------
+    // SCHEMA (called from the DBConnection bootstrap)
+    // -----------------------------------------------------
+    static void createSchema(Statement s) throws SQLException {
+
+        s.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS interest_runs (
+                period VARCHAR(7) PRIMARY KEY,
+                chunk_size INT,
+                started TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                finished TIMESTAMP
+            )
+        """);
+
+        s.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS interest_run_chunks (
+                period VARCHAR(7),
+                chunk_start INT,
+                accounts INT,
+                interest DECIMAL(19,2),
+                posted TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (period, chunk_start)
+            )
+        """);
+
+        MoneyColumns.migrate(s, "interest_run_chunks", "interest");
+    }
+
+    // -----------------------------------------------------
+    // RUN
+    // -----------------------------------------------------
+
+    /**
+     * Posts interest for {@code period}. Safe to call again after a failure:
+     * chunks already committed are skipped. Calling it for a finished period
+     * posts nothing.
+     */
+    public RunReport postInterest(YearMonth period) {
+        long start = System.nanoTime();
+        String key = period.toString();
+
+        int size;
+        Set<Integer> done = new HashSet<>();
+        int minAcc, maxAcc;
+
+        try (Connection c = DBConnection.getConnection()) {
+
+            size = startOrResume(c, key);
+            if (size < 0) {
+                System.out.println("ℹ Interest for " + key + " was already posted.");
+                return new RunReport(key, 0, 0, 0, 0, System.nanoTime() - start);
+            }
+
+            try (PreparedStatement ps = c.prepareStatement(
+                    "SELECT chunk_start FROM interest_run_chunks WHERE period = ?")) {
+                ps.setString(1, key);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) done.add(rs.getInt(1));
+                }
+            }
+
+            try (Statement s = c.createStatement();
+                 ResultSet rs = s.executeQuery("SELECT MIN(acc_no), MAX(acc_no) FROM accounts")) {
+                rs.next();
+                minAcc = rs.getInt(1);
+                maxAcc = rs.getInt(2);
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Starting interest run failed: " + e.getMessage(), e);
+        }
+
+        // Chunks are aligned to multiples of the run's chunk size so a resumed run sees the same ones
+        List<Integer> todo = new ArrayList<>();
+        for (long lo = Math.floorDiv(minAcc, size) * (long) size; lo <= maxAcc; lo += size) {
+            if (!done.contains((int) lo)) todo.add((int) lo);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "interest-worker");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long accounts = 0;
+        long interest = 0;
+        int failed = 0;
+        Throwable firstFailure = null;
+
+        try {
+            List<Future<ChunkResult>> results = new ArrayList<>(todo.size());
+            for (int lo : todo) {
+                results.add(pool.submit(() -> postChunkWithRetry(key, lo, (int) Math.min((long) lo + size, Integer.MAX_VALUE))));
+            }
+
+            for (Future<ChunkResult> f : results) {
+                try {
+                    ChunkResult r = f.get();
+                    accounts += r.accounts;
+                    interest += r.interest;
+                } catch (ExecutionException e) {
+                    failed++;
+                    if (firstFailure == null) firstFailure = e.getCause();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interest run interrupted; run it again to resume.", e);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (failed > 0) {
+            firstFailure.printStackTrace();
+            throw new RuntimeException("Interest run for " + key + " stopped with " + failed
+                    + " failed chunk(s); run it again to resume: " + firstFailure.getMessage(), firstFailure);
+        }
+
+        markFinished(key);
+
+        RunReport report = new RunReport(key, accounts, interest, todo.size(), done.size(),
+                System.nanoTime() - start);
+        System.out.println("✅ " + report);
+        return report;
+    }
+
+    /** Returns the run's chunk size, or -1 when the period is already finished. */
+    private int startOrResume(Connection c, String key) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT chunk_size, finished FROM interest_runs WHERE period = ?")) {
+            ps.setString(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next())
+                    return rs.getTimestamp("finished") != null ? -1 : rs.getInt("chunk_size");
+            }
+        }
+
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT INTO interest_runs(period, chunk_size) VALUES(?, ?)")) {
+            ps.setString(1, key);
+            ps.setInt(2, chunkSize);
+            ps.executeUpdate();
+        }
+        return chunkSize;
+    }
+
+    private void markFinished(String key) {
+        try (Connection c = DBConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "UPDATE interest_runs SET finished = CURRENT_TIMESTAMP WHERE period = ?")) {
+            ps.setString(1, key);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Finishing interest run failed: " + e.getMessage(), e);
+        }
+    }
+
+    // -----------------------------------------------------
+    // ONE CHUNK (ONE TRANSACTION)
+    // -----------------------------------------------------
+    private ChunkResult postChunkWithRetry(String key, int fromAccNo, int toAccNo) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return postChunk(key, fromAccNo, toAccNo);
+            } catch (SQLException e) {
+                // Lock timeouts, deadlocks, and two chunks creating the same customer_stats row
+                boolean retryable = e instanceof SQLTransientException || "23505".equals(e.getSQLState());
+                if (!retryable || attempt == MAX_ATTEMPTS) throw e;
+            }
+        }
+    }
+
+    private ChunkResult postChunk(String key, int fromAccNo, int toAccNo) throws SQLException {
+
+        // Exact decimal literals, so DECIMAL balance * rate stays exact before ROUND
+        String rate = "CASE WHEN LOWER(type) LIKE 'savings%' THEN " + decimalLiteral(savingsRate)
+                + " ELSE " + decimalLiteral(investmentRate) + " END";
+
+        String postSql = """
+            INSERT INTO transactions(acc_no, type, amount, description)
+            SELECT acc_no, ?, ROUND(balance * %1$s, 2), ?
+            FROM OLD TABLE (
+                UPDATE accounts SET balance = balance + ROUND(balance * %1$s, 2)
+                WHERE acc_no >= ? AND acc_no < ?
+                AND status = 'ACTIVE'
+                AND (LOWER(type) LIKE 'savings%%' OR LOWER(type) LIKE 'invest%%')
+                AND ROUND(balance * %1$s, 2) > 0
+            )
+        """.formatted(rate);
+
+        try (Connection c = DBConnection.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                // Claim the chunk first: a second run of the same period fails here, not after posting
+                try (PreparedStatement ps = c.prepareStatement(
+                        "INSERT INTO interest_run_chunks(period, chunk_start, accounts, interest) VALUES(?, ?, 0, 0)")) {
+                    ps.setString(1, key);
+                    ps.setInt(2, fromAccNo);
+                    ps.executeUpdate();
+                }
+
+                long lastId;
+                try (Statement s = c.createStatement();
+                     ResultSet rs = s.executeQuery("SELECT COALESCE(MAX(id), 0) FROM transactions")) {
+                    rs.next();
+                    lastId = rs.getLong(1);
+                }
+
+                int accounts;
+                try (PreparedStatement ps = c.prepareStatement(postSql)) {
+                    ps.setString(1, INTEREST_TYPE);
+                    ps.setString(2, "Monthly interest " + key);
+                    ps.setInt(3, fromAccNo);
+                    ps.setInt(4, toAccNo);
+                    accounts = ps.executeUpdate();
+                }
+
+                long interest = 0;
+                if (accounts > 0) {
+                    try (PreparedStatement ps = c.prepareStatement("""
+                            SELECT COALESCE(SUM(amount), 0) FROM transactions
+                            WHERE id > ? AND acc_no >= ? AND acc_no < ? AND type = ?
+                        """)) {
+                        ps.setLong(1, lastId);
+                        ps.setInt(2, fromAccNo);
+                        ps.setInt(3, toAccNo);
+                        ps.setString(4, INTEREST_TYPE);
+                        try (ResultSet rs = ps.executeQuery()) {
+                            rs.next();
+                            interest = Money.fromDecimal(rs.getBigDecimal(1));
+                        }
+                    }
+
+                    LedgerStatsDAO.applyPosted(c, lastId, fromAccNo, toAccNo, INTEREST_TYPE);
+                }
+
+                try (PreparedStatement ps = c.prepareStatement(
+                        "UPDATE interest_run_chunks SET accounts = ?, interest = ? WHERE period = ? AND chunk_start = ?")) {
+                    ps.setInt(1, accounts);
+                    ps.setBigDecimal(2, Money.toDecimal(interest));
+                    ps.setString(3, key);
+                    ps.setInt(4, fromAccNo);
+                    ps.executeUpdate();
+                }
+
+                c.commit();
+                return new ChunkResult(accounts, interest);
+
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static String decimalLiteral(double rate) {
+        return BigDecimal.valueOf(rate).toPlainString(); // never "5.0E-4"
+    }
+
+    private static class ChunkResult {
+        final int accounts;
+        final long interest;
+
+        ChunkResult(int accounts, long interest) {
+            this.accounts = accounts;
+            this.interest = interest;
+        }
+    }
+
+    // -----------------------------------------------------
+    // REPORT
+    // -----------------------------------------------------
+    public static class RunReport {
+
+        private final String period;
+        private final long accounts;
+        private final long interest; // minor units
+        private final int chunksPosted;
+        private final int chunksResumed;
+        private final long elapsedNanos;
+
+        public RunReport(String period, long accounts, long interest,
+                         int chunksPosted, int chunksResumed, long elapsedNanos) {
+            this.period = period;
+            this.accounts = accounts;
+            this.interest = interest;
+            this.chunksPosted = chunksPosted;
+            this.chunksResumed = chunksResumed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String getPeriod() { return period; }
+        public long getAccounts() { return accounts; }
+        public long getInterest() { return interest; }
+        public int getChunksPosted() { return chunksPosted; }
+
+        /** Chunks skipped because an earlier, interrupted run already committed them. */
+        public int getChunksResumed() { return chunksResumed; }
+
+        public double getElapsedSeconds() { return elapsedNanos / 1_000_000_000.0; }
+
+        public double getAccountsPerSecond() {
+            double seconds = getElapsedSeconds();
+            return seconds == 0 ? 0 : accounts / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "Interest %s: %d accounts, P%s, %d chunks (%d resumed) in %.1f s = %.0f accounts/s",
+                period, accounts, Money.format(interest), chunksPosted, chunksResumed,
+                getElapsedSeconds(), getAccountsPerSecond());
+        }
+    }
+}
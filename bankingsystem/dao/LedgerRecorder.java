@@ -0,0 +1,194 @@
+package bankingsystem.dao;
+
+import bankingsystem.dao.TransactionDAO.LedgerEntry;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind ledger recorder with group commit.
+ * Callers queue ledger lines; one writer thread drains whatever has queued
+ * up while the previous commit was running and writes it as one batched
+ * transaction, so concurrent callers share a single commit (and fsync).
+ * The queue is bounded: callers block while it is full. Closing the
+ * recorder writes every queued line before returning.
+ */
+public class LedgerRecorder implements AutoCloseable {
+
+    private static final int MAX_BATCH = 256;
+    private static final long POLL_MILLIS = 100;
+
+    private final TransactionDAO transactionDAO = new TransactionDAO();
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+
+    private volatile boolean closed;
+
+    // --- Metrics ---
+    private final AtomicLong entriesWritten = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public LedgerRecorder(int queueCapacity) {
+        if (queueCapacity < 1)
+            throw new IllegalArgumentException("queueCapacity must be at least 1: " + queueCapacity);
+
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::runWriter, "ledger-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // ---------------------------------------------------------
+    // SUBMIT
+    // ---------------------------------------------------------
+
+    /**
+     * Queues a ledger line. The returned future completes once the line is
+     * committed, or completes exceptionally if it could not be written.
+     *
+     * @throws RejectedExecutionException if the recorder is closed
+     */
+    public CompletableFuture<Void> submit(LedgerEntry entry) {
+        if (closed)
+            throw new RejectedExecutionException("Ledger recorder has been closed");
+
+        Pending p = new Pending(entry);
+        try {
+            queue.put(p); // back-pressure when the writer falls behind
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while queueing a ledger line", e);
+        }
+
+        // close() may have run its final drain while this line was being
+        // queued; if the line is still here nobody will write it
+        if (closed && queue.remove(p))
+            throw new RejectedExecutionException("Ledger recorder has been closed");
+        return p.done;
+    }
+
+    /** Queues a ledger line and waits until it is committed. */
+    public void record(LedgerEntry entry) {
+        try {
+            submit(entry).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException re ? re : new RuntimeException(cause);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // WRITER
+    // ---------------------------------------------------------
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                write(batch);
+                batch.clear();
+
+            } catch (InterruptedException e) {
+                // close() is the only way to stop; keep draining
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<LedgerEntry> entries = new ArrayList<>(batch.size());
+        for (Pending p : batch) entries.add(p.entry);
+
+        try (Connection c = DBConnection.getConnection()) {
+
+            c.setAutoCommit(false);
+            try {
+                transactionDAO.recordAll(c, entries);
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+
+            commits.incrementAndGet();
+            entriesWritten.addAndGet(batch.size());
+            for (Pending p : batch) p.done.complete(null);
+
+        } catch (SQLException | RuntimeException e) {
+            if (batch.size() > 1) {
+                // One bad line must not fail the others: retry them one by one
+                for (Pending p : batch) write(List.of(p));
+                return;
+            }
+            failures.incrementAndGet();
+            batch.get(0).done.completeExceptionally(
+                    new RuntimeException("Transaction record failed: " + e.getMessage(), e));
+        }
+    }
+
+    // ---------------------------------------------------------
+    // SHUTDOWN
+    // ---------------------------------------------------------
+
+    /**
+     * Stops accepting lines and returns once every queued line is written.
+     * A caller racing with close() either has its line written here or gets
+     * a RejectedExecutionException from submit().
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Lines queued by callers that raced with close()
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) write(rest);
+    }
+
+    // ---------------------------------------------------------
+    // METRICS
+    // ---------------------------------------------------------
+    public int getQueuedEntries() { return queue.size(); }
+    public long getEntriesWritten() { return entriesWritten.get(); }
+    public long getCommits() { return commits.get(); }
+    public long getFailures() { return failures.get(); }
+
+    public double getAverageBatchSize() {
+        long n = commits.get();
+        return n == 0 ? 0 : (double) entriesWritten.get() / n;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LedgerRecorder[queued=%d, written=%d, commits=%d, avgBatch=%.1f, failures=%d]",
+                getQueuedEntries(), getEntriesWritten(), getCommits(), getAverageBatchSize(), getFailures());
+    }
+
+    private static class Pending {
+        final LedgerEntry entry;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Pending(LedgerEntry entry) {
+            this.entry = entry;
+        }
+    }
+}
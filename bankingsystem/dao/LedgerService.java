@@ -0,0 +1,385 @@
+package bankingsystem.dao;
+
+import bankingsystem.dao.TransactionDAO.LedgerEntry;
+import bankingsystem.model.ChequeAccount;
+import bankingsystem.util.Money;
+
+import java.sql.*;
+import java.util.List;
+
+/**
+ * Atomic money movements (deposit, withdraw, payment, transfer, account approval).
+ * Each operation runs on one connection inside one transaction: the balance is
+ * changed with a guarded UPDATE (no read-modify-write in Java) and the ledger
+ * line is inserted before the single commit, so concurrent postings cannot
+ * lose updates or overdraw an account. The same UPDATEs enforce the account
+ * type rules: Savings accounts cannot be withdrawn from or pay bills (money
+ * leaves them only by transfer to the customer's other accounts), and Cheque
+ * accounts refuse single deposits and withdrawals over their limits.
+ * Amounts and balances are in minor units (see {@link Money}).
+ */
+public class LedgerService {
+
+    // Account type rules, checked by the guarded UPDATEs in the same statement
+    // as the balance change (see SavingsAccount.withdraw and ChequeAccount)
+    private static final String NOT_SAVINGS = "(type IS NULL OR LOWER(type) NOT LIKE 'savings%')";
+    private static final String CHEQUE_LIMIT = "(type IS NULL OR LOWER(type) NOT LIKE 'cheque%' OR ? <= ?)";
+
+    // Adds to the balance and returns the new value in the same statement;
+    // a miss means not found or over the cheque deposit limit
+    private static final String CREDIT_SQL = """
+        SELECT balance FROM FINAL TABLE (
+            UPDATE accounts SET balance = balance + ?
+            WHERE acc_no = ? AND %s
+        )
+    """.formatted(CHEQUE_LIMIT);
+
+    // Only succeeds when the funds are there and the account type allows the debit
+    private static final String DEBIT_SQL = """
+        SELECT balance FROM FINAL TABLE (
+            UPDATE accounts SET balance = balance - ?
+            WHERE acc_no = ? AND balance >= ? AND %s AND %s
+        )
+    """.formatted(NOT_SAVINGS, CHEQUE_LIMIT);
+
+    // Transfers out of Savings stay allowed: they are how the customer moves
+    // money out of a Savings account
+    private static final String DEBIT_OWNED_SQL = """
+        SELECT balance FROM FINAL TABLE (
+            UPDATE accounts SET balance = balance - ?
+            WHERE acc_no = ? AND customer_id = ? AND balance >= ? AND %s
+        )
+    """.formatted(CHEQUE_LIMIT);
+
+    private static final String CREDIT_OWNED_SQL = """
+        SELECT balance FROM FINAL TABLE (
+            UPDATE accounts SET balance = balance + ?
+            WHERE acc_no = ? AND customer_id = ? AND %s
+        )
+    """.formatted(CHEQUE_LIMIT);
+
+    // Opening deposits are taken from any active account with the funds
+    private static final String DEBIT_FUNDING_SQL = """
+        SELECT balance FROM FINAL TABLE (
+            UPDATE accounts SET balance = balance - ?
+            WHERE acc_no = ? AND balance >= ?
+        )
+    """;
+
+    private final TransactionDAO transactionDAO = new TransactionDAO();
+
+    // -----------------------------------------------------
+    // DEPOSIT
+    // -----------------------------------------------------
+    public Result deposit(int accNo, String type, long amount, String description) {
+        requirePositive(amount);
+
+        try (Connection c = DBConnection.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                Long balance = credit(c, accNo, amount);
+                if (balance == null)
+                    return fail(c, accNo, -1, amount, Posting.CREDIT);
+
+                transactionDAO.record(c, accNo, type, amount, description);
+                c.commit();
+                return Result.ok(balance);
+
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Deposit failed: " + e.getMessage(), e);
+        }
+    }
+
+    // -----------------------------------------------------
+    // WITHDRAW / PAYMENT (DEBIT ONE ACCOUNT)
+    // -----------------------------------------------------
+    public Result withdraw(int accNo, String type, long amount, String description) {
+        requirePositive(amount);
+
+        try (Connection c = DBConnection.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                Long balance = debit(c, accNo, amount);
+                if (balance == null)
+                    return fail(c, accNo, -1, amount, Posting.DEBIT);
+
+                transactionDAO.record(c, accNo, type, amount, description);
+                c.commit();
+                return Result.ok(balance);
+
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Withdrawal failed: " + e.getMessage(), e);
+        }
+    }
+
+    /** A bill or airtime payment is a debit recorded under the payment type. */
+    public Result payment(int accNo, String paymentType, long amount, String description) {
+        return withdraw(accNo, paymentType, amount, description);
+    }
+
+    // -----------------------------------------------------
+    // TRANSFER BETWEEN TWO ACCOUNTS OF THE SAME CUSTOMER
+    // -----------------------------------------------------
+    /**
+     * Moves money between two accounts owned by {@code customerId}.
+     * The returned balance is the new balance of the source account.
+     */
+    public Result transfer(int fromAccNo, int toAccNo, long amount, int customerId) {
+        requirePositive(amount);
+        if (fromAccNo == toAccNo)
+            throw new IllegalArgumentException("Cannot transfer to the same account.");
+
+        try (Connection c = DBConnection.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                Long fromBalance;
+
+                // Lock rows in account-number order so opposite transfers cannot deadlock
+                if (fromAccNo < toAccNo) {
+                    fromBalance = debitOwned(c, fromAccNo, customerId, amount);
+                    if (fromBalance == null)
+                        return fail(c, fromAccNo, customerId, amount, Posting.DEBIT);
+                    if (creditOwned(c, toAccNo, customerId, amount) == null)
+                        return fail(c, toAccNo, customerId, amount, Posting.CREDIT);
+                } else {
+                    if (creditOwned(c, toAccNo, customerId, amount) == null)
+                        return fail(c, toAccNo, customerId, amount, Posting.CREDIT);
+                    fromBalance = debitOwned(c, fromAccNo, customerId, amount);
+                    if (fromBalance == null)
+                        return fail(c, fromAccNo, customerId, amount, Posting.DEBIT);
+                }
+
+                transactionDAO.recordAll(c, List.of(
+                        new LedgerEntry(fromAccNo, "TransferOut", amount,
+                                "Transferred to account " + toAccNo),
+                        new LedgerEntry(toAccNo, "TransferIn", amount,
+                                "Received from account " + fromAccNo)));
+
+                c.commit();
+                return Result.ok(fromBalance);
+
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Transfer failed: " + e.getMessage(), e);
+        }
+    }
+
+    // -----------------------------------------------------
+    // ACCOUNT APPROVAL (FUND + ACTIVATE)
+    // -----------------------------------------------------
+    /**
+     * Deducts the opening deposit from a funding account and activates the
+     * pending account, recording both ledger lines in the same transaction.
+     */
+    public Result approveAccount(int pendingAccNo, int fundingAccNo, long openingDeposit,
+                                 String accountType) {
+
+        try (Connection c = DBConnection.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                Long balance = debitFunding(c, fundingAccNo, openingDeposit);
+                if (balance == null)
+                    return fail(c, fundingAccNo, -1, openingDeposit, Posting.FUNDING);
+
+                try (PreparedStatement ps = c.prepareStatement(
+                        "UPDATE accounts SET status = 'ACTIVE' WHERE acc_no = ? AND status = 'PENDING'")) {
+                    ps.setInt(1, pendingAccNo);
+                    if (ps.executeUpdate() == 0) {
+                        c.rollback();
+                        return Result.of(Status.ACCOUNT_NOT_FOUND);
+                    }
+                }
+
+                transactionDAO.recordAll(c, List.of(
+                        new LedgerEntry(fundingAccNo, "AccountOpenDeduction", openingDeposit,
+                                "Deducted for opening new " + accountType + " account."),
+                        new LedgerEntry(pendingAccNo, "AccountOpened", openingDeposit,
+                                "Admin approved the new account.")));
+
+                c.commit();
+                return Result.ok(balance);
+
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Account approval failed: " + e.getMessage(), e);
+        }
+    }
+
+    // -----------------------------------------------------
+    // HELPERS
+    // -----------------------------------------------------
+    private static Long credit(Connection c, int accNo, long amount) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(CREDIT_SQL)) {
+            ps.setBigDecimal(1, Money.toDecimal(amount));
+            ps.setInt(2, accNo);
+            setLimit(ps, 3, amount, ChequeAccount.MAX_DEPOSIT);
+            return singleBalance(ps);
+        }
+    }
+
+    private static Long debit(Connection c, int accNo, long amount) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(DEBIT_SQL)) {
+            ps.setBigDecimal(1, Money.toDecimal(amount));
+            ps.setInt(2, accNo);
+            ps.setBigDecimal(3, Money.toDecimal(amount));
+            setLimit(ps, 4, amount, ChequeAccount.MAX_WITHDRAWAL);
+            return singleBalance(ps);
+        }
+    }
+
+    private static Long creditOwned(Connection c, int accNo, int customerId, long amount)
+            throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(CREDIT_OWNED_SQL)) {
+            ps.setBigDecimal(1, Money.toDecimal(amount));
+            ps.setInt(2, accNo);
+            ps.setInt(3, customerId);
+            setLimit(ps, 4, amount, ChequeAccount.MAX_DEPOSIT);
+            return singleBalance(ps);
+        }
+    }
+
+    private static Long debitOwned(Connection c, int accNo, int customerId, long amount)
+            throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(DEBIT_OWNED_SQL)) {
+            ps.setBigDecimal(1, Money.toDecimal(amount));
+            ps.setInt(2, accNo);
+            ps.setInt(3, customerId);
+            ps.setBigDecimal(4, Money.toDecimal(amount));
+            setLimit(ps, 5, amount, ChequeAccount.MAX_WITHDRAWAL);
+            return singleBalance(ps);
+        }
+    }
+
+    private static Long debitFunding(Connection c, int accNo, long amount) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(DEBIT_FUNDING_SQL)) {
+            ps.setBigDecimal(1, Money.toDecimal(amount));
+            ps.setInt(2, accNo);
+            ps.setBigDecimal(3, Money.toDecimal(amount));
+            return singleBalance(ps);
+        }
+    }
+
+    // Binds the "amount <= limit" pair of CHEQUE_LIMIT
+    private static void setLimit(PreparedStatement ps, int index, long amount, long limit)
+            throws SQLException {
+        ps.setBigDecimal(index, Money.toDecimal(amount));
+        ps.setBigDecimal(index + 1, Money.toDecimal(limit));
+    }
+
+    private static Long singleBalance(PreparedStatement ps) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? Money.fromDecimal(rs.getBigDecimal(1)) : null;
+        }
+    }
+
+    private static Result fail(Connection c, int accNo, int customerId, long amount, Posting posting)
+            throws SQLException {
+        Status reason = diagnose(c, accNo, customerId, amount, posting);
+        c.rollback();
+        return Result.of(reason);
+    }
+
+    /** Which guarded update missed, for {@link #diagnose}. */
+    private enum Posting { CREDIT, DEBIT, FUNDING }
+
+    /**
+     * Explains why a guarded update matched no row. Only runs on the failure path.
+     * Pass a negative customer ID to skip the ownership check.
+     */
+    private static Status diagnose(Connection c, int accNo, int customerId, long amount,
+                                   Posting posting) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT customer_id, LOWER(type) FROM accounts WHERE acc_no = ?")) {
+            ps.setInt(1, accNo);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next())
+                    return Status.ACCOUNT_NOT_FOUND;
+                if (customerId >= 0 && rs.getInt(1) != customerId)
+                    return Status.UNAUTHORIZED;
+
+                String type = rs.getString(2);
+                boolean cheque = type != null && type.startsWith("cheque");
+                switch (posting) {
+                    case CREDIT:
+                        return cheque && amount > ChequeAccount.MAX_DEPOSIT
+                                ? Status.DEPOSIT_LIMIT_EXCEEDED
+                                : Status.ACCOUNT_NOT_FOUND;
+                    case DEBIT:
+                        if (customerId < 0 && type != null && type.startsWith("savings"))
+                            return Status.WITHDRAWAL_NOT_ALLOWED;
+                        if (cheque && amount > ChequeAccount.MAX_WITHDRAWAL)
+                            return Status.WITHDRAWAL_LIMIT_EXCEEDED;
+                        return Status.INSUFFICIENT_FUNDS;
+                    default:
+                        return Status.INSUFFICIENT_FUNDS;
+                }
+            }
+        }
+    }
+
+    private static void requirePositive(long amount) {
+        if (amount <= 0)
+            throw new IllegalArgumentException("Amount must be greater than zero.");
+    }
+
+    // -----------------------------------------------------
+    // RESULT
+    // -----------------------------------------------------
+    public enum Status {
+        OK("Done."),
+        ACCOUNT_NOT_FOUND("Account not found."),
+        INSUFFICIENT_FUNDS("Insufficient funds."),
+        UNAUTHORIZED("Unauthorized transfer."),
+        /** Savings accounts cannot be withdrawn from or pay bills. */
+        WITHDRAWAL_NOT_ALLOWED("Withdrawals are not allowed for Savings accounts."),
+        /** Cheque account withdrawal over {@link ChequeAccount#MAX_WITHDRAWAL}. */
+        WITHDRAWAL_LIMIT_EXCEEDED("Suspicious withdrawal over 20,000."),
+        /** Cheque account deposit over {@link ChequeAccount#MAX_DEPOSIT}. */
+        DEPOSIT_LIMIT_EXCEEDED("Suspicious deposit over 50,000.");
+
+        private final String message;
+
+        Status(String message) { this.message = message; }
+
+        /** Text for the feedback label of the screen that posted. */
+        public String getMessage() { return message; }
+    }
+
+    public static class Result {
+
+        private final Status status;
+        private final long balance;
+
+        private Result(Status status, long balance) {
+            this.status = status;
+            this.balance = balance;
+        }
+
+        static Result ok(long balance) { return new Result(Status.OK, balance); }
+        static Result of(Status status) { return new Result(status, 0); }
+
+        public boolean isOk() { return status == Status.OK; }
+        public Status getStatus() { return status; }
+
+        /** New balance of the debited (or credited) account when the posting succeeded. */
+        public long getBalance() { return balance; }
+    }
+}
@@ -0,0 +1,355 @@
+package bankingsystem.dao;
+
+import bankingsystem.dao.TransactionDAO.LedgerEntry;
+import bankingsystem.util.Money;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.List;
+
+/**
+ * Running ledger totals per account and per customer (deposit total,
+ * withdrawal total, transaction count, last activity).
+ * The totals are bumped in the same transaction as every ledger insert
+ * (see TransactionDAO.record), so dashboards read one small row instead
+ * of scanning the transaction history.
+ */
+public class LedgerStatsDAO {
+
+    private static final String BUMP_ACCOUNT_SQL = """
+        MERGE INTO account_stats s
+        USING (SELECT acc_no, customer_id FROM accounts WHERE acc_no = ?) a
+        ON s.acc_no = a.acc_no
+        WHEN MATCHED THEN UPDATE SET
+            deposit_total = s.deposit_total + ?,
+            withdrawal_total = s.withdrawal_total + ?,
+            tx_count = s.tx_count + 1,
+            last_activity = CURRENT_TIMESTAMP
+        WHEN NOT MATCHED THEN INSERT
+            (acc_no, customer_id, deposit_total, withdrawal_total, tx_count, last_activity)
+            VALUES (a.acc_no, a.customer_id, ?, ?, 1, CURRENT_TIMESTAMP)
+    """;
+
+    private static final String BUMP_CUSTOMER_SQL = """
+        MERGE INTO customer_stats s
+        USING (SELECT customer_id FROM accounts WHERE acc_no = ?) a
+        ON s.customer_id = a.customer_id
+        WHEN MATCHED THEN UPDATE SET
+            deposit_total = s.deposit_total + ?,
+            withdrawal_total = s.withdrawal_total + ?,
+            tx_count = s.tx_count + 1,
+            last_activity = CURRENT_TIMESTAMP
+        WHEN NOT MATCHED THEN INSERT
+            (customer_id, deposit_total, withdrawal_total, tx_count, last_activity)
+            VALUES (a.customer_id, ?, ?, 1, CURRENT_TIMESTAMP)
+    """;
+
+    // -----------------------------------------------------
+    // SCHEMA (called from the DBConnection bootstrap)
+    // -----------------------------------------------------
+    static void createSchema(Statement s) throws SQLException {
+
+        s.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS account_stats (
+                acc_no INT PRIMARY KEY,
+                customer_id INT,
+                deposit_total DECIMAL(19,2) DEFAULT 0,
+                withdrawal_total DECIMAL(19,2) DEFAULT 0,
+                tx_count BIGINT DEFAULT 0,
+                last_activity TIMESTAMP
+            )
+        """);
+
+        s.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS customer_stats (
+                customer_id INT PRIMARY KEY,
+                deposit_total DECIMAL(19,2) DEFAULT 0,
+                withdrawal_total DECIMAL(19,2) DEFAULT 0,
+                tx_count BIGINT DEFAULT 0,
+                last_activity TIMESTAMP
+            )
+        """);
+
+        // Totals summed as DOUBLE carry rounding drift: rebuild them from the (now exact) ledger
+        boolean migrated = MoneyColumns.migrate(s, "account_stats", "deposit_total", "withdrawal_total");
+        migrated |= MoneyColumns.migrate(s, "customer_stats", "deposit_total", "withdrawal_total");
+        if (migrated) {
+            s.executeUpdate("DELETE FROM customer_stats");
+            s.executeUpdate("DELETE FROM account_stats");
+        }
+
+        // First start with existing history: build the totals once from the ledger
+        try (ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM account_stats")) {
+            if (rs.next() && rs.getLong(1) == 0)
+                rebuild(s);
+        }
+    }
+
+    private static void rebuild(Statement s) throws SQLException {
+
+        s.executeUpdate("""
+            INSERT INTO account_stats
+                (acc_no, customer_id, deposit_total, withdrawal_total, tx_count, last_activity)
+            SELECT a.acc_no, a.customer_id,
+                   COALESCE(SUM(CASE WHEN LOWER(t.type) LIKE '%deposit%' THEN t.amount END), 0),
+                   COALESCE(SUM(CASE WHEN LOWER(t.type) NOT LIKE '%deposit%'
+                                      AND LOWER(t.type) LIKE '%withdraw%' THEN t.amount END), 0),
+                   COUNT(*),
+                   MAX(t.tdate)
+            FROM transactions t
+            JOIN accounts a ON t.acc_no = a.acc_no
+            GROUP BY a.acc_no, a.customer_id
+        """);
+
+        s.executeUpdate("""
+            MERGE INTO customer_stats
+                (customer_id, deposit_total, withdrawal_total, tx_count, last_activity)
+            KEY (customer_id)
+            SELECT customer_id, SUM(deposit_total), SUM(withdrawal_total),
+                   SUM(tx_count), MAX(last_activity)
+            FROM account_stats
+            GROUP BY customer_id
+        """);
+    }
+
+    // -----------------------------------------------------
+    // MAINTENANCE (same transaction as the ledger insert)
+    // -----------------------------------------------------
+    static void apply(Connection c, int accNo, String type, long amount) throws SQLException {
+
+        applyAll(c, List.of(new LedgerEntry(accNo, type, amount, null)));
+    }
+
+    /** Bumps the totals for every entry with one batched MERGE per table. */
+    static void applyAll(Connection c, List<LedgerEntry> entries) throws SQLException {
+        bump(c, BUMP_ACCOUNT_SQL, entries);
+        bump(c, BUMP_CUSTOMER_SQL, entries);
+    }
+
+    private static void bump(Connection c, String sql, List<LedgerEntry> entries) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (LedgerEntry e : entries) {
+                String lower = e.getType() == null ? "" : e.getType().toLowerCase();
+                long deposit = lower.contains("deposit") ? e.getAmount() : 0;
+                long withdrawal = deposit == 0 && lower.contains("withdraw") ? e.getAmount() : 0;
+
+                BigDecimal depositValue = Money.toDecimal(deposit);
+                BigDecimal withdrawalValue = Money.toDecimal(withdrawal);
+
+                ps.setInt(1, e.getAccNo());
+                ps.setBigDecimal(2, depositValue);
+                ps.setBigDecimal(3, withdrawalValue);
+                ps.setBigDecimal(4, depositValue);
+                ps.setBigDecimal(5, withdrawalValue);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Set-based bump for ledger lines of {@code type} inserted after {@code afterId}
+     * into accounts {@code [fromAccNo, toAccNo)}; used by bulk postings that insert
+     * with INSERT ... SELECT. These types count as neither deposit nor withdrawal.
+     */
+    static void applyPosted(Connection c, long afterId, int fromAccNo, int toAccNo, String type)
+            throws SQLException {
+
+        String posted = """
+            SELECT t.acc_no, a.customer_id, COUNT(*) AS n
+            FROM transactions t
+            JOIN accounts a ON a.acc_no = t.acc_no
+            WHERE t.id > ? AND t.acc_no >= ? AND t.acc_no < ? AND t.type = ?
+            GROUP BY t.acc_no, a.customer_id
+        """;
+
+        String accountSql = """
+            MERGE INTO account_stats s
+            USING (%s) p
+            ON s.acc_no = p.acc_no
+            WHEN MATCHED THEN UPDATE SET
+                tx_count = s.tx_count + p.n,
+                last_activity = CURRENT_TIMESTAMP
+            WHEN NOT MATCHED THEN INSERT
+                (acc_no, customer_id, deposit_total, withdrawal_total, tx_count, last_activity)
+                VALUES (p.acc_no, p.customer_id, 0, 0, p.n, CURRENT_TIMESTAMP)
+        """.formatted(posted);
+
+        String customerSql = """
+            MERGE INTO customer_stats s
+            USING (SELECT customer_id, SUM(n) AS n FROM (%s) x GROUP BY customer_id) p
+            ON s.customer_id = p.customer_id
+            WHEN MATCHED THEN UPDATE SET
+                tx_count = s.tx_count + p.n,
+                last_activity = CURRENT_TIMESTAMP
+            WHEN NOT MATCHED THEN INSERT
+                (customer_id, deposit_total, withdrawal_total, tx_count, last_activity)
+                VALUES (p.customer_id, 0, 0, p.n, CURRENT_TIMESTAMP)
+        """.formatted(posted);
+
+        for (String sql : new String[] { accountSql, customerSql }) {
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setLong(1, afterId);
+                ps.setInt(2, fromAccNo);
+                ps.setInt(3, toAccNo);
+                ps.setString(4, type);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    // -----------------------------------------------------
+    // CUSTOMER DASHBOARD SNAPSHOT (ONE QUERY)
+    // -----------------------------------------------------
+    public CustomerSnapshot getCustomerSnapshot(int customerId) {
+
+        String sql = """
+            SELECT acc.active_count, acc.active_balance, acc.active_types,
+                   COALESCE(cs.deposit_total, 0) AS deposit_total,
+                   COALESCE(cs.withdrawal_total, 0) AS withdrawal_total,
+                   COALESCE(cs.tx_count, 0) AS tx_count,
+                   cs.last_activity
+            FROM (
+                SELECT COUNT(*) AS active_count,
+                       COALESCE(SUM(balance), 0) AS active_balance,
+                       LISTAGG(DISTINCT type, ', ') WITHIN GROUP (ORDER BY type) AS active_types
+                FROM accounts
+                WHERE customer_id = ? AND status = 'ACTIVE'
+            ) acc
+            LEFT JOIN customer_stats cs ON cs.customer_id = ?
+        """;
+
+        try (Connection c = DBConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, customerId);
+            ps.setInt(2, customerId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new CustomerSnapshot(
+                            rs.getInt("active_count"),
+                            Money.fromDecimal(rs.getBigDecimal("active_balance")),
+                            rs.getString("active_types"),
+                            Money.fromDecimal(rs.getBigDecimal("deposit_total")),
+                            Money.fromDecimal(rs.getBigDecimal("withdrawal_total")),
+                            rs.getLong("tx_count"),
+                            rs.getTimestamp("last_activity")
+                    );
+                }
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Loading customer snapshot failed: " + e.getMessage(), e);
+        }
+
+        return new CustomerSnapshot(0, 0, null, 0, 0, 0, null);
+    }
+
+    // -----------------------------------------------------
+    // ADMIN DASHBOARD SNAPSHOT (ONE QUERY)
+    // -----------------------------------------------------
+    public AdminSnapshot getAdminSnapshot() {
+
+        String sql = """
+            SELECT
+                COUNT(*) AS total_accounts,
+                COUNT(CASE WHEN status = 'ACTIVE' THEN 1 END) AS active_accounts,
+                COUNT(CASE WHEN status = 'PENDING' THEN 1 END) AS pending_accounts,
+                COUNT(DISTINCT customer_id) AS customers,
+                (SELECT COALESCE(SUM(tx_count), 0) FROM customer_stats) AS tx_count,
+                (SELECT COALESCE(SUM(deposit_total), 0) FROM customer_stats) AS deposit_total,
+                (SELECT COALESCE(SUM(withdrawal_total), 0) FROM customer_stats) AS withdrawal_total
+            FROM accounts
+        """;
+
+        try (Connection c = DBConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            if (rs.next()) {
+                return new AdminSnapshot(
+                        rs.getInt("total_accounts"),
+                        rs.getInt("active_accounts"),
+                        rs.getInt("pending_accounts"),
+                        rs.getInt("customers"),
+                        rs.getLong("tx_count"),
+                        Money.fromDecimal(rs.getBigDecimal("deposit_total")),
+                        Money.fromDecimal(rs.getBigDecimal("withdrawal_total"))
+                );
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Loading admin snapshot failed: " + e.getMessage(), e);
+        }
+
+        return new AdminSnapshot(0, 0, 0, 0, 0, 0, 0);
+    }
+
+    // -----------------------------------------------------
+    // DTOs
+    // -----------------------------------------------------
+    public static class CustomerSnapshot {
+
+        private final int activeAccounts;
+        private final long activeBalance;
+        private final String activeTypes;
+        private final long depositTotal;
+        private final long withdrawalTotal;
+        private final long transactionCount;
+        private final Timestamp lastActivity;
+
+        public CustomerSnapshot(int activeAccounts, long activeBalance, String activeTypes,
+                                long depositTotal, long withdrawalTotal,
+                                long transactionCount, Timestamp lastActivity) {
+            this.activeAccounts = activeAccounts;
+            this.activeBalance = activeBalance;
+            this.activeTypes = activeTypes;
+            this.depositTotal = depositTotal;
+            this.withdrawalTotal = withdrawalTotal;
+            this.transactionCount = transactionCount;
+            this.lastActivity = lastActivity;
+        }
+
+        public int getActiveAccounts() { return activeAccounts; }
+        public long getActiveBalance() { return activeBalance; }
+        public String getActiveTypes() { return activeTypes; }
+        public long getDepositTotal() { return depositTotal; }
+        public long getWithdrawalTotal() { return withdrawalTotal; }
+        public long getTransactionCount() { return transactionCount; }
+        public Timestamp getLastActivity() { return lastActivity; }
+    }
+
+    public static class AdminSnapshot {
+
+        private final int totalAccounts;
+        private final int activeAccounts;
+        private final int pendingAccounts;
+        private final int customers;
+        private final long transactionCount;
+        private final long depositTotal;
+        private final long withdrawalTotal;
+
+        public AdminSnapshot(int totalAccounts, int activeAccounts, int pendingAccounts,
+                             int customers, long transactionCount,
+                             long depositTotal, long withdrawalTotal) {
+            this.totalAccounts = totalAccounts;
+            this.activeAccounts = activeAccounts;
+            this.pendingAccounts = pendingAccounts;
+            this.customers = customers;
+            this.transactionCount = transactionCount;
+            this.depositTotal = depositTotal;
+            this.withdrawalTotal = withdrawalTotal;
+        }
+
+        public int getTotalAccounts() { return totalAccounts; }
+        public int getActiveAccounts() { return activeAccounts; }
+        public int getPendingAccounts() { return pendingAccounts; }
+        public int getCustomers() { return customers; }
+        public long getTransactionCount() { return transactionCount; }
+        public long getDepositTotal() { return depositTotal; }
+        public long getWithdrawalTotal() { return withdrawalTotal; }
+    }
+}
@@ -0,0 +1,45 @@
+package bankingsystem.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Upgrades money columns of databases created before amounts were stored as
+ * DECIMAL(19,2). Existing DOUBLE values are rounded to the cent once, here;
+ * a column that is already DECIMAL is left alone, so this is cheap to run on
+ * every start.
+ */
+final class MoneyColumns {
+
+    static final String TYPE = "DECIMAL(19,2)";
+
+    private MoneyColumns() {}
+
+    /**
+     * Converts the given columns of {@code table} to {@link #TYPE} where they
+     * still have another type. Returns true if any column was converted.
+     */
+    static boolean migrate(Statement s, String table, String... columns) throws SQLException {
+        boolean changed = false;
+
+        for (String column : columns) {
+            String dataType;
+            try (ResultSet rs = s.executeQuery(
+                    "SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS"
+                    + " WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = '" + table.toUpperCase() + "'"
+                    + " AND COLUMN_NAME = '" + column.toUpperCase() + "'")) {
+                if (!rs.next()) continue;
+                dataType = rs.getString(1);
+            }
+
+            if ("NUMERIC".equals(dataType) || "DECIMAL".equals(dataType)) continue;
+
+            s.executeUpdate("ALTER TABLE " + table + " ALTER COLUMN " + column + " SET DATA TYPE " + TYPE);
+            System.out.println("✔ Migrated " + table + "." + column + " from " + dataType + " to " + TYPE);
+            changed = true;
+        }
+
+        return changed;
+    }
+}
@@ -1,37 +1,157 @@
 package bankingsystem.dao;
 
+import bankingsystem.util.Money;
+
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 public class TransactionDAO {
 
-    public void record(int accNo, String type, double amount) {
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions(acc_no, type, amount, description) VALUES(?, ?, ?, ?)";
+
+    // Shared write-behind recorder; null while group commit is off
+    private static volatile LedgerRecorder groupCommit;
+
+    public void record(int accNo, String type, long amount) {
         record(accNo, type, amount, "");
     }
 
-    public void record(int accNo, String type, double amount, String description) {
+    public void record(int accNo, String type, long amount, String description) {
 
-        String sql = "INSERT INTO transactions(acc_no, type, amount, description) VALUES(?, ?, ?, ?)";
+        LedgerRecorder recorder = groupCommit;
+        if (recorder != null) {
+            try {
+                // Waits until the line is committed together with other callers' lines
+                recorder.record(new LedgerEntry(accNo, type, amount, description));
+                return;
+            } catch (RejectedExecutionException e) {
+                // Group commit was disabled meanwhile: write the line directly
+            }
+        }
 
-        try (Connection c = DBConnection.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        try (Connection c = DBConnection.getConnection()) {
+
+            // Ledger line and running totals commit together
+            c.setAutoCommit(false);
+            try {
+                record(c, accNo, type, amount, description);
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+
+            System.out.println("Transaction OK: " + type + " for acc " + accNo);
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Transaction record failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Inserts a ledger line and bumps the running totals on the caller's
+     * connection so both commit (or roll back) together with the balance change.
+     */
+    void record(Connection c, int accNo, String type, long amount, String description)
+            throws SQLException {
+
+        try (PreparedStatement ps = c.prepareStatement(INSERT_SQL)) {
 
             ps.setInt(1, accNo);
             ps.setString(2, type);
-            ps.setDouble(3, amount);
+            ps.setBigDecimal(3, Money.toDecimal(amount));
             ps.setString(4, description);
 
             ps.executeUpdate();
+        }
 
-            System.out.println("Transaction OK: " + type + " for acc " + accNo);
+        LedgerStatsDAO.apply(c, accNo, type, amount);
+    }
+
+    // ---------------------------------------------------------
+    // BATCHED RECORDING (ONE TRANSACTION, ONE COMMIT)
+    // ---------------------------------------------------------
+
+    /**
+     * Records all entries with one batched INSERT in a single transaction:
+     * either every line (and its running totals) is stored or none is.
+     * Returns the number of lines written.
+     */
+    public int recordAll(List<LedgerEntry> entries) {
+        if (entries.isEmpty()) return 0;
+
+        try (Connection c = DBConnection.getConnection()) {
+
+            c.setAutoCommit(false);
+            try {
+                recordAll(c, entries);
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+
+            return entries.size();
 
         } catch (SQLException e) {
             e.printStackTrace();
-            throw new RuntimeException("Transaction record failed: " + e.getMessage());
+            throw new RuntimeException("Recording " + entries.size() + " transactions failed: "
+                    + e.getMessage(), e);
         }
     }
 
+    /** Batched form of {@link #record(Connection, int, String, long, String)} on the caller's transaction. */
+    void recordAll(Connection c, List<LedgerEntry> entries) throws SQLException {
+
+        try (PreparedStatement ps = c.prepareStatement(INSERT_SQL)) {
+
+            for (LedgerEntry e : entries) {
+                ps.setInt(1, e.getAccNo());
+                ps.setString(2, e.getType());
+                ps.setBigDecimal(3, Money.toDecimal(e.getAmount()));
+                ps.setString(4, e.getDescription());
+                ps.addBatch();
+            }
+
+            ps.executeBatch();
+        }
+
+        LedgerStatsDAO.applyAll(c, entries);
+    }
+
+    // ---------------------------------------------------------
+    // GROUP COMMIT (OPTIONAL)
+    // ---------------------------------------------------------
+
+    /**
+     * Routes {@link #record(int, String, long, String)} through a shared
+     * write-behind recorder: concurrent callers' lines are written in one
+     * transaction and share a single commit. Callers still return only after
+     * their line is committed. {@code queueCapacity} bounds the lines waiting
+     * to be written; callers block while the queue is full.
+     */
+    public static synchronized void enableGroupCommit(int queueCapacity) {
+        if (groupCommit == null)
+            groupCommit = new LedgerRecorder(queueCapacity);
+    }
+
+    /** Writes all queued lines, then switches back to one commit per line. */
+    public static synchronized void disableGroupCommit() {
+        LedgerRecorder recorder = groupCommit;
+        groupCommit = null;
+        if (recorder != null)
+            recorder.close();
+    }
+
+    /** The shared recorder (for its metrics), or null while group commit is off. */
+    public static LedgerRecorder getGroupCommit() {
+        return groupCommit;
+    }
+
     public List<String> findByAccount(int accNo) {
 
         List<String> list = new ArrayList<>();
@@ -48,9 +168,9 @@ public class TransactionDAO {
                     Timestamp t = rs.getTimestamp("tdate");
 
                     String entry = String.format(
-                            "%-10s | P%-10.2f | %s | %s",
+                            "%-10s | P%-10s | %s | %s",
                             rs.getString("type"),
-                            rs.getDouble("amount"),
+                            Money.format(Money.fromDecimal(rs.getBigDecimal("amount"))),
                             t != null ? t.toLocalDateTime() : "",
                             rs.getString("description") == null ? "" : rs.getString("description")
                     );
@@ -65,4 +185,187 @@ public class TransactionDAO {
 
         return list;
     }
+
+    // ---------------------------------------------------------
+    // KEYSET PAGE OF A CUSTOMER'S HISTORY (NEWEST FIRST)
+    // ---------------------------------------------------------
+
+    /**
+     * Returns up to {@code limit} transactions of the customer with an ID below
+     * {@code beforeId}, newest first. Pass {@link Long#MAX_VALUE} for the first
+     * page and the last returned ID for the next one. {@code search} may be
+     * null or blank for no filter.
+     */
+    public List<TransactionRecord> findPageByCustomer(int customerId, String search,
+                                                      long beforeId, int limit) {
+
+        boolean filtered = search != null && !search.isBlank();
+
+        String sql = """
+            SELECT t.id, t.acc_no, t.type, t.amount, t.description, t.tdate
+            FROM transactions t
+            JOIN accounts a ON t.acc_no = a.acc_no
+            WHERE a.customer_id = ?
+            AND t.id < ?
+        """ + (filtered ? SEARCH_FILTER : "") + """
+            ORDER BY t.id DESC
+            LIMIT ?
+        """;
+
+        List<TransactionRecord> page = new ArrayList<>(limit);
+
+        try (Connection c = DBConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            int i = 1;
+            ps.setInt(i++, customerId);
+            ps.setLong(i++, beforeId);
+            if (filtered) i = bindSearch(ps, i, search);
+            ps.setInt(i, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    page.add(new TransactionRecord(
+                            rs.getLong("id"),
+                            rs.getInt("acc_no"),
+                            rs.getString("type"),
+                            Money.fromDecimal(rs.getBigDecimal("amount")),
+                            rs.getString("description"),
+                            rs.getTimestamp("tdate")
+                    ));
+                }
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Loading transactions failed: " + e.getMessage(), e);
+        }
+
+        return page;
+    }
+
+    // ---------------------------------------------------------
+    // TOTALS OVER THE WHOLE (OPTIONALLY FILTERED) HISTORY
+    // ---------------------------------------------------------
+    public TransactionSummary summarizeByCustomer(int customerId, String search) {
+
+        boolean filtered = search != null && !search.isBlank();
+
+        String sql = """
+            SELECT
+                COUNT(*) AS tx_count,
+                COALESCE(SUM(CASE WHEN LOWER(t.type) LIKE '%deposit%' THEN t.amount END), 0) AS deposits,
+                COALESCE(SUM(CASE WHEN LOWER(t.type) NOT LIKE '%deposit%'
+                                   AND LOWER(t.type) LIKE '%withdraw%' THEN t.amount END), 0) AS withdrawals
+            FROM transactions t
+            JOIN accounts a ON t.acc_no = a.acc_no
+            WHERE a.customer_id = ?
+        """ + (filtered ? SEARCH_FILTER : "");
+
+        try (Connection c = DBConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, customerId);
+            if (filtered) bindSearch(ps, 2, search);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new TransactionSummary(
+                            rs.getLong("tx_count"),
+                            Money.fromDecimal(rs.getBigDecimal("deposits")),
+                            Money.fromDecimal(rs.getBigDecimal("withdrawals"))
+                    );
+                }
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Loading transaction totals failed: " + e.getMessage(), e);
+        }
+
+        return new TransactionSummary(0, 0, 0);
+    }
+
+    private static final String SEARCH_FILTER = """
+            AND (
+                CAST(t.id AS VARCHAR) LIKE ? OR
+                LOWER(t.type) LIKE ? OR
+                CAST(t.tdate AS VARCHAR) LIKE ?
+            )
+        """;
+
+    private static int bindSearch(PreparedStatement ps, int index, String search) throws SQLException {
+        String like = "%" + search.trim().toLowerCase() + "%";
+        ps.setString(index++, like);
+        ps.setString(index++, like);
+        ps.setString(index++, like);
+        return index;
+    }
+
+    // ---------------------------------------------------------
+    // DTOs
+    // ---------------------------------------------------------
+    public static class TransactionRecord {
+
+        private final long id;
+        private final int accNo;
+        private final String type;
+        private final long amount; // minor units
+        private final String description;
+        private final Timestamp date;
+
+        public TransactionRecord(long id, int accNo, String type, long amount,
+                                 String description, Timestamp date) {
+            this.id = id;
+            this.accNo = accNo;
+            this.type = type;
+            this.amount = amount;
+            this.description = description;
+            this.date = date;
+        }
+
+        public long getId() { return id; }
+        public int getAccNo() { return accNo; }
+        public String getType() { return type; }
+        public long getAmount() { return amount; }
+        public String getDescription() { return description; }
+        public Timestamp getDate() { return date; }
+    }
+
+    public static class LedgerEntry {
+
+        private final int accNo;
+        private final String type;
+        private final long amount; // minor units
+        private final String description;
+
+        public LedgerEntry(int accNo, String type, long amount, String description) {
+            this.accNo = accNo;
+            this.type = type;
+            this.amount = amount;
+            this.description = description;
+        }
+
+        public int getAccNo() { return accNo; }
+        public String getType() { return type; }
+        public long getAmount() { return amount; }
+        public String getDescription() { return description; }
+    }
+
+    public static class TransactionSummary {
+
+        private final long count;
+        private final long deposits;
+        private final long withdrawals;
+
+        public TransactionSummary(long count, long deposits, long withdrawals) {
+            this.count = count;
+            this.deposits = deposits;
+            this.withdrawals = withdrawals;
+        }
+
+        public long getCount() { return count; }
+        public long getDeposits() { return deposits; }
+        public long getWithdrawals() { return withdrawals; }
+    }
 }
@@ -1,16 +1,19 @@
 package bankingsystem.model;
 
+import bankingsystem.util.Money;
+
 import java.util.Date;
 
 /**
  * Abstract base class for all bank account types.
  * Supports admin approval system fields (reason, employer, requestDate)
+ * Amounts are in minor units (see {@link Money}).
  */
 public abstract class BankAccount {
 
     protected int accountNumber;
     protected String accountType;
-    protected double balance;
+    protected long balance;
     protected String address;
     protected String status;
     protected int customerID;
@@ -26,7 +29,7 @@ public abstract class BankAccount {
     /**
      * Constructor for BankAccount.
      */
-    public BankAccount(int accountNumber, double balance, String address, int customerID,
+    public BankAccount(int accountNumber, long balance, String address, int customerID,
                        Date dateCreated, String status) {
 
         this.accountNumber = accountNumber;
@@ -52,15 +55,15 @@ public abstract class BankAccount {
     // ---------------------------------------------------------
     // ABSTRACT METHODS
     // ---------------------------------------------------------
-    public abstract void deposit(double amount);
-    public abstract boolean withdraw(double amount);
+    public abstract void deposit(long amount);
+    public abstract boolean withdraw(long amount);
 
     // ---------------------------------------------------------
     // GETTERS
     // ---------------------------------------------------------
     public int getAccountNumber() { return accountNumber; }
     public String getAccountType() { return accountType; }
-    public double getBalance() { return balance; }
+    public long getBalance() { return balance; }
     public String getAddress() { return address; }
     public String getStatus() { return status; }
     public int getCustomerID() { return customerID; }
@@ -77,7 +80,7 @@ public abstract class BankAccount {
     // SETTERS
     // ---------------------------------------------------------
     public void setAccountNumber(int accountNumber) { this.accountNumber = accountNumber; }
-    public void setBalance(double balance) { this.balance = balance; }
+    public void setBalance(long balance) { this.balance = balance; }
     public void setStatus(String status) { this.status = status; }
     public void setAddress(String address) { this.address = address; }
 
@@ -92,8 +95,8 @@ public abstract class BankAccount {
     @Override
     public String toString() {
         return String.format(
-            "Account #%d (%s) | Balance: %.2f | Customer: %d | Status: %s | Reason: %s",
-            accountNumber, accountType, balance, customerID, status, reason
+            "Account #%d (%s) | Balance: %s | Customer: %d | Status: %s | Reason: %s",
+            accountNumber, accountType, Money.format(balance), customerID, status, reason
         );
     }
 }
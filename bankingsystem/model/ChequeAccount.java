@@ -1,14 +1,21 @@
 package bankingsystem.model;
 
+import bankingsystem.util.Money;
+
 import java.util.Date;
 
 public class ChequeAccount extends BankAccount {
+    /** Largest single deposit (minor units); above it is treated as suspicious. */
+    public static final long MAX_DEPOSIT = Money.ofPula(50_000);
+    /** Largest single withdrawal (minor units); above it is treated as suspicious. */
+    public static final long MAX_WITHDRAWAL = Money.ofPula(20_000);
+
     private String companyName;
     private String companyAddress;
     private int employeeID;
     private String employeeAddress;
 
-    public ChequeAccount(int accountNumber, double balance, String branch,
+    public ChequeAccount(int accountNumber, long balance, String branch,
                          int customerID, Date dateCreated, String status,
                          String companyName, String companyAddress,
                          int employeeID, String employeeAddress) {
@@ -20,21 +27,21 @@ public class ChequeAccount extends BankAccount {
     }
 
     @Override
-    public void deposit(double amount) {
+    public void deposit(long amount) {
         if (amount <= 0)
             throw new IllegalArgumentException("Deposit must be positive.");
-        if (amount > 50000)
+        if (amount > MAX_DEPOSIT)
             throw new IllegalStateException("Suspicious deposit over 50,000.");
         balance += amount;
     }
 
     @Override
-    public boolean withdraw(double amount) {
+    public boolean withdraw(long amount) {
         if (amount <= 0)
             throw new IllegalArgumentException("Withdrawal must be positive.");
         if (amount > balance)
             throw new IllegalStateException("Insufficient funds.");
-        if (amount > 20000)
+        if (amount > MAX_WITHDRAWAL)
             throw new IllegalStateException("Suspicious withdrawal over 20,000.");
         balance -= amount;
         return true;
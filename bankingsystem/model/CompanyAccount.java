@@ -1,24 +1,26 @@
 package bankingsystem.model;
 
+import bankingsystem.util.Money;
+
 import java.util.Date;
 
 public class CompanyAccount extends BankAccount implements Withdraw {
 
-    public CompanyAccount(int accountNumber, double balance, String address,
+    public CompanyAccount(int accountNumber, long balance, String address,
                           int customerID, Date dateCreated, String status) {
         super(accountNumber, balance, address, customerID, dateCreated, status);
         this.accountType = "CompanyAccount";
     }
 
     @Override
-    public void deposit(double amount) {
+    public void deposit(long amount) {
         if (amount > 0) {
             this.balance += amount;
         }
     }
 
     @Override
-    public boolean withdraw(double amount) {
+    public boolean withdraw(long amount) {
         if (amount <= 0) {
             System.out.println("Invalid withdrawal amount.");
             return false;
@@ -37,7 +39,7 @@ public class CompanyAccount extends BankAccount implements Withdraw {
     public String toString() {
         return "CompanyAccount{" +
                 "accountNumber=" + accountNumber +
-                ", balance=" + balance +
+                ", balance=" + Money.format(balance) +
                 ", address='" + address + '\'' +
                 ", customerID=" + customerID +
                 ", status='" + status + '\'' +
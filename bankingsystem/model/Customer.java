@@ -28,8 +28,10 @@ public abstract class Customer {
         accounts.removeIf(acc -> acc.getAccountNumber() == accountNumber);
     }
 
-    public double getTotalBalance() {
-        return accounts.stream().mapToDouble(BankAccount::getBalance).sum();
+    public long getTotalBalance() {
+        long total = 0;
+        for (BankAccount a : accounts) total += a.getBalance();
+        return total;
     }
 
     public List<BankAccount> getAccounts() { return accounts; }
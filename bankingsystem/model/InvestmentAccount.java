@@ -1,27 +1,31 @@
 package bankingsystem.model;
 
+import bankingsystem.util.Money;
+
 import java.util.Date;
 
-public class InvestmentAccount extends BankAccount {
+public class InvestmentAccount extends BankAccount implements InterestBearing {
+    public static final double DEFAULT_INTEREST_RATE = 0.05; // 5% per posting period
+
     private double interestRate;
 
-    public InvestmentAccount(int accountNumber, double openingBalance, String branch,
+    public InvestmentAccount(int accountNumber, long openingBalance, String branch,
                              int customerID, Date dateCreated, String status) {
         super(accountNumber, openingBalance, branch, customerID, dateCreated, status);
-        if (openingBalance < 500)
+        if (openingBalance < Money.ofPula(500))
             throw new IllegalArgumentException("Initial deposit must be at least P500.00");
-        this.interestRate = 0.05; // 5%
+        this.interestRate = DEFAULT_INTEREST_RATE;
     }
 
     @Override
-    public void deposit(double amount) {
+    public void deposit(long amount) {
         if (amount <= 0)
             throw new IllegalArgumentException("Deposit must be positive.");
         balance += amount;
     }
 
     @Override
-    public boolean withdraw(double amount) {
+    public boolean withdraw(long amount) {
         if (amount <= 0)
             throw new IllegalArgumentException("Withdrawal must be positive.");
         if (amount > balance)
@@ -30,12 +34,17 @@ public class InvestmentAccount extends BankAccount {
         return true;
     }
 
-    public double calculateInterest() {
-        double interest = balance * interestRate;
+    public long calculateInterest() {
+        long interest = Money.multiply(balance, interestRate);
         balance += interest;
         return interest;
     }
 
+    @Override
+    public void applyInterest() {
+        calculateInterest();
+    }
+
     public double getInterestRate() { return interestRate; }
     public void setInterestRate(double interestRate) { this.interestRate = interestRate; }
 }
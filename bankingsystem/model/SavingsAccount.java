@@ -1,35 +1,44 @@
 package bankingsystem.model;
 
+import bankingsystem.util.Money;
+
 import java.util.Date;
 
-public class SavingsAccount extends BankAccount {
+public class SavingsAccount extends BankAccount implements InterestBearing {
+    public static final double DEFAULT_INTEREST_RATE = 0.005; // 0.5% per posting period
+
     private double interestRate;
 
-    public SavingsAccount(int accountNumber, double initialBalance, String branch,
+    public SavingsAccount(int accountNumber, long initialBalance, String branch,
                           int customerID, Date dateCreated, String status) {
         super(accountNumber, initialBalance, branch, customerID, dateCreated, status);
-        this.interestRate = 0.005; // 0.5%
+        this.interestRate = DEFAULT_INTEREST_RATE;
     }
 
     @Override
-    public void deposit(double amount) {
+    public void deposit(long amount) {
         if (amount <= 0)
             throw new IllegalArgumentException("Deposit amount must be positive.");
         balance += amount;
     }
 
     @Override
-    public boolean withdraw(double amount) {
+    public boolean withdraw(long amount) {
         // No withdrawals for savings account
         return false;
     }
 
-    public double calculateInterest() {
-        double interest = balance * interestRate;
+    public long calculateInterest() {
+        long interest = Money.multiply(balance, interestRate);
         balance += interest;
         return interest;
     }
 
+    @Override
+    public void applyInterest() {
+        calculateInterest();
+    }
+
     public double getInterestRate() { return interestRate; }
     public void setInterestRate(double interestRate) { this.interestRate = interestRate; }
 }
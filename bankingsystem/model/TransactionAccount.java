@@ -1,15 +1,17 @@
 package bankingsystem.model;
 
+import bankingsystem.util.Money;
+
 import java.util.Date;
 
 public class TransactionAccount {
     private int accountID;
     private int transactionID;
     private String transactionType;
-    private double amount;
+    private long amount; // minor units
     private Date date;
 
-    public TransactionAccount(int accountID, int transactionID, String transactionType, double amount) {
+    public TransactionAccount(int accountID, int transactionID, String transactionType, long amount) {
         if (accountID <= 0) throw new IllegalArgumentException("Invalid account ID");
         if (transactionID <= 0) throw new IllegalArgumentException("Invalid transaction ID");
         if (amount <= 0) throw new IllegalArgumentException("Amount must be positive");
@@ -25,12 +27,12 @@ public class TransactionAccount {
     public int getAccountID() { return accountID; }
     public int getTransactionID() { return transactionID; }
     public String getTransactionType() { return transactionType; }
-    public double getAmount() { return amount; }
+    public long getAmount() { return amount; }
     public Date getDate() { return date; }
 
     @Override
     public String toString() {
         return "Transaction #" + transactionID + " [" + transactionType + "] " +
-                "P" + amount + " on " + date;
+                "P" + Money.format(amount) + " on " + date;
     }
 }
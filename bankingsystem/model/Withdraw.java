@@ -1,5 +1,5 @@
 package bankingsystem.model;
 
 public interface Withdraw {
-    boolean withdraw(double amount);
+    boolean withdraw(long amount);
 }
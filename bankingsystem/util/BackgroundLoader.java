@@ -0,0 +1,201 @@
+package bankingsystem.util;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs DAO work off the JavaFX Application Thread.
+ * Work is queued on a small bounded pool (sized below the JDBC pool so
+ * screen loads never starve each other of connections) and the result is
+ * handed back on the FX thread with Platform.runLater.
+ * Navigator starts a new screen before every scene change: loads that have
+ * not started yet are cancelled and results of the old screen are dropped,
+ * so a slow query can never write into a screen the user already left.
+ */
+public final class BackgroundLoader {
+
+    private static final int MAX_THREADS = 4;
+
+    private static final AtomicInteger threadIds = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(MAX_THREADS, r -> {
+        Thread t = new Thread(r, "db-loader-" + threadIds.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final Set<Future<?>> inFlight = ConcurrentHashMap.newKeySet();
+    private static final Map<String, ScreenLatency> latencies = new ConcurrentHashMap<>();
+
+    // Bumped on every navigation; results tagged with an older value are dropped
+    private static final AtomicLong generation = new AtomicLong();
+    private static volatile String currentScreen = "startup";
+
+    private BackgroundLoader() {}
+
+    // ---------------------------------------------------------------
+    // Screen Lifecycle (called by Navigator / SessionManager)
+    // ---------------------------------------------------------------
+
+    /** Cancels the previous screen's loads and attributes new loads to {@code screen}. */
+    static void beginScreen(String screen) {
+        cancelAll();
+        currentScreen = screen;
+    }
+
+    /**
+     * Cancels every pending load. Loads already talking to the database are
+     * left to finish (interrupting an H2 session closes its file channel)
+     * but their results are discarded.
+     */
+    public static void cancelAll() {
+        generation.incrementAndGet();
+        for (Future<?> f : inFlight) {
+            f.cancel(false);
+        }
+        inFlight.clear();
+    }
+
+    /** Stops the worker threads; called when the application exits. */
+    public static void shutdown() {
+        cancelAll();
+        EXECUTOR.shutdown();
+        try {
+            EXECUTOR.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Loading
+    // ---------------------------------------------------------------
+
+    /** Runs {@code work} in the background; errors are printed. */
+    public static <T> Future<?> load(Callable<T> work, Consumer<T> onSuccess) {
+        return load(work, onSuccess, null);
+    }
+
+    /**
+     * Runs {@code work} in the background and passes its result (or its
+     * failure) to the callbacks on the FX thread, unless the user has
+     * navigated away in the meantime.
+     */
+    public static <T> Future<?> load(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        final long gen = generation.get();
+        final String screen = currentScreen;
+        final long start = System.nanoTime();
+
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            T result = null;
+            Throwable failure = null;
+            try {
+                result = work.call();
+            } catch (Throwable t) {
+                failure = t;
+            }
+
+            final T value = result;
+            final Throwable error = failure;
+            Platform.runLater(() -> {
+                if (gen != generation.get()) return; // screen was left
+                record(screen, start);
+
+                if (error == null) {
+                    if (onSuccess != null) onSuccess.accept(value);
+                } else if (onError != null) {
+                    onError.accept(error);
+                } else {
+                    error.printStackTrace();
+                }
+            });
+            return null;
+        }) {
+            @Override
+            protected void done() {
+                inFlight.remove(this);
+            }
+        };
+
+        inFlight.add(task);
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    /**
+     * Runs a JavaFX {@link Task} on the loader pool. The task's own handlers
+     * already run on the FX thread; the task is cancelled on navigation.
+     */
+    public static void submit(Task<?> task) {
+        final String screen = currentScreen;
+        final long start = System.nanoTime();
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED, e -> record(screen, start));
+
+        inFlight.add(task);
+        EXECUTOR.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                inFlight.remove(task);
+            }
+        });
+    }
+
+    // ---------------------------------------------------------------
+    // Latency Metrics
+    // ---------------------------------------------------------------
+
+    private static void record(String screen, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        latencies.computeIfAbsent(screen, s -> new ScreenLatency()).add(nanos);
+        System.out.printf("⏱ %s data loaded in %.1f ms%n", screen, nanos / 1_000_000.0);
+    }
+
+    /** Load latency per screen (FXML path), sorted by screen name. */
+    public static Map<String, ScreenLatency> getLatencies() {
+        return Collections.unmodifiableMap(new TreeMap<>(latencies));
+    }
+
+    public static class ScreenLatency {
+
+        private final AtomicLong loads = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void add(long nanos) {
+            loads.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getLoads() { return loads.get(); }
+
+        public double getAverageMillis() {
+            long n = loads.get();
+            return n == 0 ? 0 : totalNanos.get() / 1_000_000.0 / n;
+        }
+
+        public double getMaxMillis() { return maxNanos.get() / 1_000_000.0; }
+
+        @Override
+        public String toString() {
+            return String.format("loads=%d, avg=%.1f ms, max=%.1f ms",
+                    getLoads(), getAverageMillis(), getMaxMillis());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package bankingsystem.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money as a long count of minor units (thebe: P 12.34 is 1234).
+ * The database stores amounts as DECIMAL(19,2) and sums them exactly in SQL;
+ * in Java they stay plain longs, so balances add and compare without
+ * rounding error or boxing. Parsing and formatting go straight between
+ * text and minor units without a double or a Formatter in between.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final long UNIT = 100; // minor units per Pula
+
+    private Money() {}
+
+    // ---------------------------------------------------------------
+    // Conversion
+    // ---------------------------------------------------------------
+
+    /** Whole Pula to minor units, e.g. {@code ofPula(500)} for P 500.00. */
+    public static long ofPula(long pula) {
+        return Math.multiplyExact(pula, UNIT);
+    }
+
+    /** A DECIMAL column value in minor units; SQL NULL reads as zero. */
+    public static long fromDecimal(BigDecimal value) {
+        if (value == null) return 0;
+        return value.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /** Minor units as a DECIMAL(19,2) parameter value. */
+    public static BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    /** {@code minor * rate} rounded half-up to the nearest minor unit, as SQL ROUND(x, 2) does. */
+    public static long multiply(long minor, double rate) {
+        return toDecimal(minor).multiply(BigDecimal.valueOf(rate))
+                .setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // ---------------------------------------------------------------
+    // Parsing
+    // ---------------------------------------------------------------
+
+    /**
+     * Parses user input such as {@code "250"}, {@code "250.5"} or {@code "-3.75"}
+     * into minor units. More than two decimal places is rejected rather than
+     * rounded, so what the user typed is exactly what gets posted.
+     *
+     * @throws NumberFormatException if the text is not a valid amount
+     */
+    public static long parse(String text) {
+        if (text == null)
+            throw new NumberFormatException("Amount is empty");
+
+        String s = text.trim();
+        int len = s.length();
+        int i = 0;
+        boolean negative = false;
+
+        if (i < len && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        int decimals = -1; // -1 until the decimal point is seen
+
+        try {
+            for (; i < len; i++) {
+                char ch = s.charAt(i);
+                if (ch == '.' && decimals < 0) {
+                    decimals = 0;
+                } else if (ch >= '0' && ch <= '9') {
+                    if (decimals >= 0 && ++decimals > SCALE)
+                        throw new NumberFormatException("At most " + SCALE + " decimal places: " + text);
+                    value = Math.addExact(Math.multiplyExact(value, 10), ch - '0');
+                    digits++;
+                } else {
+                    throw new NumberFormatException("Invalid amount: " + text);
+                }
+            }
+            if (digits == 0)
+                throw new NumberFormatException("Invalid amount: " + text);
+
+            for (int d = Math.max(decimals, 0); d < SCALE; d++)
+                value = Math.multiplyExact(value, 10);
+
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount too large: " + text);
+        }
+
+        return negative ? -value : value;
+    }
+
+    // ---------------------------------------------------------------
+    // Formatting
+    // ---------------------------------------------------------------
+
+    /** {@code 123456} as {@code "1234.56"}. */
+    public static String format(long minor) {
+        char[] buf = new char[24];
+        int start = fill(buf, minor);
+        return new String(buf, start, buf.length - start);
+    }
+
+    /** {@code 123456} as {@code "P 1234.56"}, the form used on every screen. */
+    public static String display(long minor) {
+        char[] buf = new char[24];
+        int start = fill(buf, minor);
+        buf[--start] = ' ';
+        buf[--start] = 'P';
+        return new String(buf, start, buf.length - start);
+    }
+
+    /** Appends {@code minor} as {@code "1234.56"} without an intermediate String. */
+    public static StringBuilder appendTo(StringBuilder sb, long minor) {
+        char[] buf = new char[24];
+        int start = fill(buf, minor);
+        return sb.append(buf, start, buf.length - start);
+    }
+
+    /** Writes the digits right-aligned into {@code buf}; returns the first used index. */
+    private static int fill(char[] buf, long minor) {
+        int pos = buf.length;
+        boolean negative = minor < 0;
+
+        // Work on the negative value so Long.MIN_VALUE does not overflow
+        long n = negative ? minor : -minor;
+
+        for (int d = 0; d < SCALE; d++) {
+            buf[--pos] = (char) ('0' - (int) (n % 10));
+            n /= 10;
+        }
+        buf[--pos] = '.';
+        do {
+            buf[--pos] = (char) ('0' - (int) (n % 10));
+            n /= 10;
+        } while (n != 0);
+
+        if (negative) buf[--pos] = '-';
+        return pos;
+    }
+}
@@ -0,0 +1,23 @@
+package bankingsystem.util;
+
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+/**
+ * Table cell for amounts held in minor units: shows {@code 123456} as
+ * {@code 1234.56}. The column keeps the numeric value, so sorting stays
+ * numeric; only visible cells are formatted.
+ */
+public class MoneyCell<S, T extends Number> extends TableCell<S, T> {
+
+    public static <S, T extends Number> Callback<TableColumn<S, T>, TableCell<S, T>> forTableColumn() {
+        return column -> new MoneyCell<>();
+    }
+
+    @Override
+    protected void updateItem(T item, boolean empty) {
+        super.updateItem(item, empty);
+        setText(empty || item == null ? null : Money.format(item.longValue()));
+    }
+}
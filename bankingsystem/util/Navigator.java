@@ -1,23 +1,43 @@
 package bankingsystem.util;
 
 import bankingsystem.dao.CustomerDAO.CustomerRecord;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Group;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
  * Centralized utility for JavaFX scene navigation.
  * Supports both normal navigation and controller-based data passing.
  * Automatically injects the current session (if available) into controllers.
+ * Every scene change starts a new BackgroundLoader screen, which cancels the
+ * previous screen's pending data loads.
+ * Screens whose controller implements {@link Refreshable} are kept in a small
+ * LRU cache, so going back to them skips the FXML parse and scene setup.
  */
 public class Navigator {
 
+    private static final int MAX_CACHED_SCREENS = 6;
+
     private static Stage mainStage;
+    private static boolean cacheEnabled = true;
+
+    // Access-ordered: the least recently shown screen is evicted first (FX thread only)
+    private static final Map<String, Screen> screenCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Screen> eldest) {
+            return size() > MAX_CACHED_SCREENS;
+        }
+    };
 
     // ---------------------------------------------------------------
     // Stage Management
@@ -44,20 +64,11 @@ public class Navigator {
             if (mainStage == null)
                 throw new IllegalStateException("Main stage not set. Call Navigator.init() first.");
 
-            String normalized = fxmlFile.startsWith("/") ? fxmlFile : "/" + fxmlFile;
-            var resource = Navigator.class.getResource(normalized);
-            if (resource == null)
-                throw new IllegalStateException("FXML not found: " + normalized);
-
-            FXMLLoader loader = new FXMLLoader(resource);
-            Parent root = loader.load();
-
-            injectSessionIfAvailable(loader.getController()); // ✅ auto session injection
+            String normalized = normalize(fxmlFile);
+            BackgroundLoader.beginScreen(normalized); // drop loads of the screen we are leaving
 
-            Scene scene = new Scene(root, width, height);
-            mainStage.setScene(scene);
-            mainStage.centerOnScreen();
-            mainStage.show();
+            Screen screen = obtainScreen(normalized);
+            show(screen, width, height);
 
             System.out.println("✅ Loaded scene: " + normalized);
 
@@ -76,34 +87,27 @@ public class Navigator {
      * Loads an FXML scene and gives access to its controller before showing it.
      * Allows passing data (e.g. customer ID) to the controller manually.
      */
+    @SuppressWarnings("unchecked")
     public static <T> void goToWithController(String fxmlFile, double width, double height, Consumer<T> controllerConsumer) {
         try {
             if (mainStage == null)
                 throw new IllegalStateException("Main stage not set. Call Navigator.init() first.");
 
-            String normalized = fxmlFile.startsWith("/") ? fxmlFile : "/" + fxmlFile;
-            var resource = Navigator.class.getResource(normalized);
-            if (resource == null)
-                throw new IllegalStateException("FXML not found: " + normalized);
+            String normalized = normalize(fxmlFile);
+            BackgroundLoader.beginScreen(normalized); // drop loads of the screen we are leaving
 
-            FXMLLoader loader = new FXMLLoader(resource);
-            Parent root = loader.load();
+            // Session is injected (or the cached controller refreshed) here
+            Screen screen = obtainScreen(normalized);
 
             // Get controller
-            T controller = loader.getController();
-
-            // ✅ Inject session automatically
-            injectSessionIfAvailable(controller);
+            T controller = (T) screen.controller;
 
             // ✅ Also run user-supplied consumer callback
             if (controllerConsumer != null && controller != null) {
                 controllerConsumer.accept(controller);
             }
 
-            Scene scene = new Scene(root, width, height);
-            mainStage.setScene(scene);
-            mainStage.centerOnScreen();
-            mainStage.show();
+            show(screen, width, height);
 
             System.out.println("✅ Loaded scene with controller: " + normalized);
 
@@ -113,6 +117,108 @@ public class Navigator {
         }
     }
 
+    // ---------------------------------------------------------------
+    // Scene Cache
+    // ---------------------------------------------------------------
+
+    /** Turns the scene cache on or off; turning it off drops all cached screens. */
+    public static void setCacheEnabled(boolean enabled) {
+        cacheEnabled = enabled;
+        if (!enabled)
+            screenCache.clear();
+    }
+
+    /** Drops all cached screens, e.g. after the FXML or CSS changed. */
+    public static void clearCache() {
+        screenCache.clear();
+    }
+
+    /**
+     * Parses the given screens on a background thread and adds them to the cache,
+     * so the first visit is as fast as a return visit. Screens whose controller
+     * is not {@link Refreshable} are parsed and discarded.
+     */
+    public static void preload(String... fxmlFiles) {
+        if (!cacheEnabled) return;
+
+        Thread t = new Thread(() -> {
+            for (String fxmlFile : fxmlFiles) {
+                String normalized = normalize(fxmlFile);
+                try {
+                    Screen screen = load(normalized);
+                    Platform.runLater(() -> {
+                        if (cacheEnabled && screen.controller instanceof Refreshable)
+                            screenCache.putIfAbsent(normalized, screen);
+                    });
+                } catch (Exception e) {
+                    System.err.println("⚠ Failed to preload: " + normalized + " (" + e.getMessage() + ")");
+                }
+            }
+        }, "scene-preloader");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private static Screen obtainScreen(String normalized) throws IOException {
+        Screen screen = cacheEnabled ? screenCache.get(normalized) : null;
+
+        if (screen != null) {
+            ((Refreshable) screen.controller).refresh(); // ✅ reload for the current session
+            return screen;
+        }
+
+        screen = load(normalized);
+        injectSessionIfAvailable(screen.controller); // ✅ auto session injection
+
+        if (cacheEnabled && screen.controller instanceof Refreshable)
+            screenCache.put(normalized, screen);
+
+        return screen;
+    }
+
+    // Safe off the FX thread: the nodes are not attached to a scene yet
+    private static Screen load(String normalized) throws IOException {
+        var resource = Navigator.class.getResource(normalized);
+        if (resource == null)
+            throw new IllegalStateException("FXML not found: " + normalized);
+
+        FXMLLoader loader = new FXMLLoader(resource);
+        Parent root = loader.load();
+        return new Screen(root, loader.getController());
+    }
+
+    private static void show(Screen screen, double width, double height) {
+        // A root belongs to one Scene; reuse it unless a different size is requested
+        if (screen.scene == null || screen.width != width || screen.height != height) {
+            if (screen.scene != null)
+                screen.scene.setRoot(new Group());
+            screen.scene = new Scene(screen.root, width, height);
+            screen.width = width;
+            screen.height = height;
+        }
+
+        mainStage.setScene(screen.scene);
+        mainStage.centerOnScreen();
+        mainStage.show();
+    }
+
+    private static String normalize(String fxmlFile) {
+        return fxmlFile.startsWith("/") ? fxmlFile : "/" + fxmlFile;
+    }
+
+    private static class Screen {
+        final Parent root;
+        final Object controller;
+        Scene scene;
+        double width;
+        double height;
+
+        Screen(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+
     // ---------------------------------------------------------------
     // Session Injection Utility
     // ---------------------------------------------------------------
@@ -0,0 +1,11 @@
+package bankingsystem.util;
+
+/**
+ * Implemented by controllers whose screen may be kept in the Navigator scene cache.
+ * Called on the FX thread each time a cached screen is shown again, so the
+ * controller can reset its form and reload data for the current session.
+ */
+public interface Refreshable {
+
+    void refresh();
+}
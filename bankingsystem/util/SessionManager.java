@@ -18,5 +18,6 @@ public class SessionManager {
 
     public static void clear() {
         currentCustomer = null;
+        BackgroundLoader.cancelAll(); // nothing loaded for the old session may reach the UI
     }
 }
@@ -1039,6 +1039,28 @@ public abstract class Query extends Prepared {
         return new OffsetFetch(offset, fetch, fetchPercent);
     }
 
+    /**
+     * Makes a sorted result keep only the rows that can be within the limits
+     * while rows are added, if possible.
+     *
+     * @param result
+     *            the result with the sort order
+     * @param offset
+     *            OFFSET value
+     * @param fetch
+     *            FETCH value
+     * @param fetchPercent
+     *            whether FETCH value is a PERCENT value
+     */
+    void setTopN(LocalResult result, long offset, long fetch, boolean fetchPercent) {
+        if (fetch > 0 && !fetchPercent) {
+            long count = offset + fetch;
+            if (count > 0) {
+                result.setTopN(count, withTies);
+            }
+        }
+    }
+
     /**
      * Applies limits, if any, to a result and makes it ready for value
      * retrieval.
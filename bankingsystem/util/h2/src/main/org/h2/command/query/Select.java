@@ -98,6 +98,12 @@ public class Select extends Query {
      */
     private Expression condition;
 
+    /**
+     * The part of the WHERE condition that is evaluated row by row during the
+     * current query execution.
+     */
+    private Expression rowCondition;
+
     /**
      * HAVING condition.
      */
@@ -435,7 +441,7 @@ public class Select extends Query {
     }
 
     boolean isConditionMet() {
-        return condition == null || condition.getBooleanValue(session);
+        return rowCondition == null || rowCondition.getBooleanValue(session);
     }
 
     private void queryWindow(int columnCount, LocalResult result, long offset, boolean quickOffset) {
@@ -823,6 +829,7 @@ public class Select extends Query {
         if (sort != null && (indexSortedColumns != IndexSort.FULLY_SORTED || isAnyDistinct())) {
             result = createLocalResult(result);
             result.setSortOrder(sort);
+            setTopN(result, offset, fetch, fetchPercent);
             if (indexSortedColumns != IndexSort.FULLY_SORTED) {
                 quickOffset = indexSortedColumns > 0 ? QuickOffset.PARTIAL : QuickOffset.NO;
             }
@@ -845,6 +852,7 @@ public class Select extends Query {
             result = createLocalResult(result);
         }
         topTableFilter.startQuery(session);
+        rowCondition = condition == null ? null : topTableFilter.vectorizeCondition(session, condition);
         topTableFilter.reset();
         topTableFilter.lock(session);
         ResultTarget to = result != null ? result : target;
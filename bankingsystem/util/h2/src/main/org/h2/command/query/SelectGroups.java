@@ -17,7 +17,9 @@ import org.h2.engine.SessionLocal;
 import org.h2.expression.Expression;
 import org.h2.expression.analysis.DataAnalysisOperation;
 import org.h2.expression.analysis.PartitionData;
+import org.h2.value.DataType;
 import org.h2.value.Value;
+import org.h2.value.ValueNull;
 import org.h2.value.ValueRow;
 
 /**
@@ -144,6 +146,184 @@ public abstract class SelectGroups {
         }
     }
 
+    /**
+     * Grouped data in a hash table with open addressing. The groups are
+     * returned in the order they were found.
+     */
+    private static final class Hashed extends SelectGroups {
+
+        private final int[] groupIndex;
+
+        /**
+         * The data types of the group-by expressions.
+         */
+        private final int[] groupTypes;
+
+        /**
+         * The hash table: the index of the group plus one, or 0 for a free
+         * slot.
+         */
+        private int[] table;
+
+        private ArrayList<ValueRow> keys;
+
+        /**
+         * The group-by expression data of the groups, or null for removed
+         * groups.
+         */
+        private ArrayList<Object[]> data;
+
+        /**
+         * The index of the group that produces currentGroupByExprData, or -1.
+         */
+        private int currentGroupIndex;
+
+        /**
+         * Cursor for {@link #next()} method.
+         */
+        private int cursor;
+
+        Hashed(SessionLocal session, ArrayList<Expression> expressions, int[] groupIndex, int[] groupTypes) {
+            super(session, expressions);
+            this.groupIndex = groupIndex;
+            this.groupTypes = groupTypes;
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            table = new int[16];
+            keys = new ArrayList<>();
+            data = new ArrayList<>();
+            currentGroupIndex = -1;
+            cursor = 0;
+        }
+
+        @Override
+        public void nextSource() {
+            int length = groupIndex.length;
+            Value[] keyValues = new Value[length];
+            for (int i = 0; i < length; i++) {
+                Value v = expressions.get(groupIndex[i]).getValue(session);
+                int type = groupTypes[i];
+                if (v.getValueType() != type && v != ValueNull.INSTANCE) {
+                    // equal values of different data types are not equal
+                    // Java objects
+                    v = v.convertTo(type, session);
+                }
+                keyValues[i] = v;
+            }
+            ValueRow key = ValueRow.get(keyValues);
+            int[] table = this.table;
+            int mask = table.length - 1;
+            int hash = key.hashCode();
+            int slot = (hash ^ hash >>> 16) & mask;
+            Object[] values;
+            for (;;) {
+                int index = table[slot] - 1;
+                if (index < 0) {
+                    index = keys.size();
+                    values = createRow();
+                    keys.add(key);
+                    data.add(values);
+                    table[slot] = index + 1;
+                    if (index + 1 > table.length >>> 1) {
+                        rehash();
+                    }
+                    currentGroupIndex = index;
+                    break;
+                }
+                if (keys.get(index).equals(key)) {
+                    values = data.get(index);
+                    currentGroupIndex = index;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            currentGroupByExprData = values;
+            currentGroupRowId++;
+        }
+
+        private void rehash() {
+            int[] table = new int[this.table.length << 1];
+            int mask = table.length - 1;
+            for (int i = 0, size = keys.size(); i < size; i++) {
+                int hash = keys.get(i).hashCode();
+                int slot = (hash ^ hash >>> 16) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = i + 1;
+            }
+            this.table = table;
+        }
+
+        @Override
+        void updateCurrentGroupExprData() {
+            // this can be -1 in lazy mode
+            if (currentGroupIndex >= 0) {
+                data.set(currentGroupIndex, currentGroupByExprData);
+            }
+        }
+
+        @Override
+        public void done() {
+            super.done();
+            cursor = 0;
+        }
+
+        @Override
+        public ValueRow next() {
+            for (int size = keys.size(); cursor < size;) {
+                int index = cursor++;
+                Object[] values = data.get(index);
+                if (values != null) {
+                    currentGroupIndex = index;
+                    currentGroupByExprData = values;
+                    currentGroupRowId++;
+                    return keys.get(index);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void remove() {
+            data.set(currentGroupIndex, null);
+            currentGroupIndex = -1;
+            currentGroupByExprData = null;
+            currentGroupRowId--;
+        }
+
+        @Override
+        public void resetLazy() {
+            super.resetLazy();
+            currentGroupIndex = -1;
+        }
+
+        /**
+         * Get the data types of the group-by expressions, if all of them
+         * can be used in a hash table.
+         *
+         * @param session the session
+         * @param expressions the expressions
+         * @param groupIndex the indexes of group expressions
+         * @return the data types, or null
+         */
+        static int[] getGroupTypes(SessionLocal session, ArrayList<Expression> expressions, int[] groupIndex) {
+            int length = groupIndex.length;
+            int[] groupTypes = new int[length];
+            for (int i = 0; i < length; i++) {
+                int type = expressions.get(groupIndex[i]).getType().getValueType();
+                if (!DataType.isHashable(type, session.getDatabase().getCompareMode())) {
+                    return null;
+                }
+                groupTypes[i] = type;
+            }
+            return groupTypes;
+        }
+    }
+
     private static final class Plain extends SelectGroups {
 
         private ArrayList<Object[]> rows;
@@ -245,7 +425,16 @@ public abstract class SelectGroups {
      */
     public static SelectGroups getInstance(SessionLocal session, ArrayList<Expression> expressions,
             boolean isGroupQuery, int[] groupIndex) {
-        return isGroupQuery ? new Grouped(session, expressions, groupIndex) : new Plain(session, expressions);
+        if (!isGroupQuery) {
+            return new Plain(session, expressions);
+        }
+        if (groupIndex != null && session.getDatabase().getSettings().hashGroupBy) {
+            int[] groupTypes = Hashed.getGroupTypes(session, expressions, groupIndex);
+            if (groupTypes != null) {
+                return new Hashed(session, expressions, groupIndex, groupTypes);
+            }
+        }
+        return new Grouped(session, expressions, groupIndex);
     }
 
     SelectGroups(SessionLocal session, ArrayList<Expression> expressions) {
@@ -146,6 +146,7 @@ public class SelectUnion extends Query {
         LocalResult result = createLocalResult(columnCount);
         if (sort != null) {
             result.setSortOrder(sort);
+            setTopN(result, offset, fetch, fetchPercent);
         }
         if (distinct) {
             left.setDistinctIfPossible();
@@ -132,6 +132,7 @@ public class TableValueConstructor extends Query {
         LocalResult result = new LocalResult(session, expressionArray, visibleColumnCount, resultColumnCount);
         if (sort != null) {
             result.setSortOrder(sort);
+            setTopN(result, offset, fetch, fetchPercent);
         }
         if (distinct) {
             result.setDistinct();
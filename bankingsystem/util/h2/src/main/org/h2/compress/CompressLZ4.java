@@ -0,0 +1,481 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.compress;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.StringTokenizer;
+
+import org.h2.api.ErrorCode;
+import org.h2.mvstore.DataUtils;
+
+/**
+ * <p>
+ * A pure Java implementation of the LZ4 block format. Compared to LZF it
+ * searches a 64 KB window (instead of 8 KB) and encodes long matches and long
+ * literal runs more compactly, so it usually compresses better while being at
+ * least as fast; decompression is a plain copy loop.
+ * </p>
+ * <p>
+ * Each sequence starts with a token byte: the high four bits are the literal
+ * run length, the low four bits the match length minus 4. The value 15 in
+ * either half means more length bytes follow (each 255 means "add 255 and
+ * continue"). The literals come next, then the match offset as two bytes
+ * (little endian). The last sequence has literals only. As required by the
+ * format, the last 5 bytes are always literals and no match starts within the
+ * last 12 bytes, so the output can be read by any LZ4 block decoder.
+ * </p>
+ * This algorithm supports the following options:
+ * <ul>
+ * <li>l or level: 0 or 1 (default, single hash probe per position),
+ * 2 ... 12 (search up to 2^level earlier positions with the same hash for
+ * the longest match: slower compression, better ratio, same decompression
+ * speed)</li>
+ * </ul>
+ * <p>
+ * An instance may be created with a dictionary: data that is treated as if it
+ * came right before each input, so that matches can refer to it. This helps
+ * small inputs that are similar to each other but share little within
+ * themselves. Data compressed with a dictionary can only be expanded with the
+ * same dictionary.
+ * </p>
+ * <p>
+ * Each instance should be used by a single thread only for compression;
+ * expanding does not modify the instance. The output buffer must have room
+ * for {@code inLen + inLen / 255 + 16} bytes.
+ * </p>
+ */
+public final class CompressLZ4 implements Compressor {
+
+    private static final VarHandle INT =
+            MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * The minimum match length.
+     */
+    private static final int MIN_MATCH = 4;
+
+    /**
+     * The number of bytes at the end that are always literals.
+     */
+    private static final int LAST_LITERALS = 5;
+
+    /**
+     * A match must start at least this many bytes before the end.
+     */
+    private static final int MF_LIMIT = 12;
+
+    /**
+     * Inputs shorter than this are stored as a single literal run.
+     */
+    private static final int MIN_LENGTH = MF_LIMIT + 1;
+
+    /**
+     * The maximum back-reference offset (64 KB - 1).
+     */
+    private static final int MAX_DISTANCE = (1 << 16) - 1;
+
+    /**
+     * The number of bits of the hash table index.
+     */
+    private static final int HASH_LOG = 14;
+
+    /**
+     * Skip ahead faster the longer no match was found (incompressible data).
+     */
+    private static final int SKIP_STRENGTH = 6;
+
+    private static final int RUN_MASK = 15;
+
+    private static final int MAX_LEVEL = 12;
+
+    /**
+     * The maximum dictionary length.
+     */
+    public static final int MAX_DICTIONARY_LENGTH = 32 * 1024;
+
+    private final byte[] dictionary;
+
+    private int level;
+
+    /**
+     * The dictionary followed by the current input (only used with a
+     * dictionary, reused for performance).
+     */
+    private byte[] window;
+
+    /**
+     * Hash table of recent positions (reused for performance). Entries from
+     * earlier calls are harmless: every candidate is verified.
+     */
+    private int[] hashTable;
+
+    /**
+     * Previous position with the same hash, indexed by position modulo the
+     * window size (only used for level 2 and above).
+     */
+    private int[] chainTable;
+
+    /**
+     * Start of the literals not yet written by the last match search.
+     */
+    private int lastAnchor;
+
+    /**
+     * Create a compressor without a dictionary.
+     */
+    public CompressLZ4() {
+        this(null);
+    }
+
+    /**
+     * Create a compressor that uses the given dictionary.
+     *
+     * @param dictionary the dictionary (not copied, must not be modified), or
+     *            null
+     */
+    public CompressLZ4(byte[] dictionary) {
+        if (dictionary != null && dictionary.length > MAX_DICTIONARY_LENGTH) {
+            throw new IllegalArgumentException("dictionary length " + dictionary.length);
+        }
+        this.dictionary = dictionary == null || dictionary.length == 0 ? null : dictionary;
+    }
+
+    /**
+     * Get the dictionary.
+     *
+     * @return the dictionary, or null
+     */
+    public byte[] getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public int getAlgorithm() {
+        return Compressor.LZ4;
+    }
+
+    @Override
+    public void setOptions(String options) {
+        if (options == null) {
+            return;
+        }
+        try {
+            StringTokenizer tokenizer = new StringTokenizer(options);
+            while (tokenizer.hasMoreElements()) {
+                String option = tokenizer.nextToken();
+                if ("level".equals(option) || "l".equals(option)) {
+                    int l = Integer.parseInt(tokenizer.nextToken());
+                    if (l < 0 || l > MAX_LEVEL) {
+                        throw new IllegalArgumentException(option);
+                    }
+                    level = l;
+                }
+            }
+        } catch (Exception e) {
+            throw DataUtils.newMVStoreException(ErrorCode.UNSUPPORTED_COMPRESSION_OPTIONS_1, options);
+        }
+    }
+
+    @Override
+    public int compress(byte[] in, int inPos, int inLen, byte[] out, int outPos) {
+        if (hashTable == null) {
+            hashTable = new int[1 << HASH_LOG];
+        }
+        int base = inPos;
+        if (dictionary != null) {
+            int dictLen = dictionary.length;
+            byte[] w = window;
+            if (w == null || w.length < dictLen + inLen) {
+                window = w = new byte[dictLen + inLen];
+            }
+            System.arraycopy(dictionary, 0, w, 0, dictLen);
+            System.arraycopy(in, inPos, w, dictLen, inLen);
+            in = w;
+            base = 0;
+            inPos = dictLen;
+        }
+        int end = inPos + inLen;
+        int anchor = inPos;
+        if (inLen >= MIN_LENGTH) {
+            if (level < 2) {
+                outPos = compressFast(in, base, inPos, end, out, outPos);
+            } else {
+                outPos = compressChain(in, base, inPos, end, out, outPos);
+            }
+            anchor = lastAnchor;
+        }
+        return writeLastLiterals(in, anchor, end - anchor, out, outPos);
+    }
+
+    /**
+     * Single probe match search.
+     *
+     * @param in the input
+     * @param base the first byte matches may refer to (before start if there
+     *            is a dictionary)
+     * @param start the first byte to compress
+     * @param end the end of the input
+     * @param out the output
+     * @param outPos the output position
+     * @return the new output position
+     */
+    private int compressFast(byte[] in, int base, int start, int end, byte[] out, int outPos) {
+        int[] table = hashTable;
+        for (int p = base, stop = start - MIN_MATCH; p <= stop; p++) {
+            table[hash(readInt(in, p))] = p;
+        }
+        int matchLimit = end - LAST_LITERALS;
+        int mfLimit = end - MF_LIMIT;
+        int anchor = start;
+        int ip = start;
+        while (ip < mfLimit) {
+            int seq = readInt(in, ip);
+            int h = hash(seq);
+            int ref = table[h];
+            table[h] = ip;
+            if (ref < base || ref >= ip || ip - ref > MAX_DISTANCE || readInt(in, ref) != seq) {
+                ip += 1 + ((ip - anchor) >>> SKIP_STRENGTH);
+                continue;
+            }
+            // extend backwards over pending literals
+            while (ip > anchor && ref > base && in[ip - 1] == in[ref - 1]) {
+                ip--;
+                ref--;
+            }
+            int len = MIN_MATCH + commonBytes(in, ip + MIN_MATCH, ref + MIN_MATCH, matchLimit);
+            outPos = writeSequence(in, anchor, ip - anchor, ip - ref, len, out, outPos);
+            ip += len;
+            anchor = ip;
+            if (ip < mfLimit) {
+                // helps the next match start right behind this one
+                table[hash(readInt(in, ip - 2))] = ip - 2;
+            }
+        }
+        lastAnchor = anchor;
+        return outPos;
+    }
+
+    private int compressChain(byte[] in, int base, int start, int end, byte[] out, int outPos) {
+        int[] head = hashTable;
+        Arrays.fill(head, -1);
+        if (chainTable == null) {
+            chainTable = new int[MAX_DISTANCE + 1];
+        }
+        int[] chain = chainTable;
+        int maxAttempts = 1 << level;
+        int matchLimit = end - LAST_LITERALS;
+        int mfLimit = end - MF_LIMIT;
+        int anchor = start;
+        int nextToInsert = base;
+        int ip = start;
+        while (ip < mfLimit) {
+            // insert all positions up to (excluding) ip
+            while (nextToInsert < ip) {
+                int h = hash(readInt(in, nextToInsert));
+                chain[nextToInsert & MAX_DISTANCE] = head[h];
+                head[h] = nextToInsert;
+                nextToInsert++;
+            }
+            int h = hash(readInt(in, ip));
+            int ref = head[h];
+            int bestLen = 0;
+            int bestRef = 0;
+            for (int attempts = maxAttempts; attempts > 0 && ref >= base && ip - ref <= MAX_DISTANCE;
+                    attempts--) {
+                if (ip + bestLen < matchLimit && in[ref + bestLen] == in[ip + bestLen]
+                        && readInt(in, ref) == readInt(in, ip)) {
+                    int len = MIN_MATCH + commonBytes(in, ip + MIN_MATCH, ref + MIN_MATCH, matchLimit);
+                    if (len > bestLen) {
+                        bestLen = len;
+                        bestRef = ref;
+                        if (ip + len >= matchLimit) {
+                            break;
+                        }
+                    }
+                }
+                int next = chain[ref & MAX_DISTANCE];
+                if (next >= ref) {
+                    // slot was reused by a position outside the window
+                    break;
+                }
+                ref = next;
+            }
+            if (bestLen < MIN_MATCH) {
+                ip++;
+                continue;
+            }
+            while (ip > anchor && bestRef > base && in[ip - 1] == in[bestRef - 1]) {
+                ip--;
+                bestRef--;
+                bestLen++;
+            }
+            outPos = writeSequence(in, anchor, ip - anchor, ip - bestRef, bestLen, out, outPos);
+            ip += bestLen;
+            anchor = ip;
+        }
+        lastAnchor = anchor;
+        return outPos;
+    }
+
+    @Override
+    public void expand(byte[] in, int inPos, int inLen, byte[] out, int outPos, int outLen) {
+        if (dictionary == null) {
+            decode(in, inPos, inLen, out, outPos, outPos, outLen);
+        } else {
+            int dictLen = dictionary.length;
+            byte[] w = new byte[dictLen + outLen];
+            System.arraycopy(dictionary, 0, w, 0, dictLen);
+            decode(in, inPos, inLen, w, 0, dictLen, outLen);
+            System.arraycopy(w, dictLen, out, outPos, outLen);
+        }
+    }
+
+    /**
+     * Expand the data.
+     *
+     * @param in the compressed data
+     * @param inPos the offset in the compressed data
+     * @param inLen the length of the compressed data
+     * @param out the output
+     * @param base the first byte matches may refer to
+     * @param outPos the output position
+     * @param outLen the expected output length
+     */
+    private static void decode(byte[] in, int inPos, int inLen, byte[] out, int base, int outPos, int outLen) {
+        int inEnd = inPos + inLen;
+        int outStart = outPos;
+        int outEnd = outPos + outLen;
+        try {
+            while (true) {
+                int token = in[inPos++] & 0xff;
+                int literals = token >>> 4;
+                if (literals == RUN_MASK) {
+                    int b;
+                    do {
+                        b = in[inPos++] & 0xff;
+                        literals += b;
+                    } while (b == 255);
+                }
+                System.arraycopy(in, inPos, out, outPos, literals);
+                inPos += literals;
+                outPos += literals;
+                if (inPos >= inEnd) {
+                    break;
+                }
+                int offset = (in[inPos] & 0xff) | (in[inPos + 1] & 0xff) << 8;
+                inPos += 2;
+                int len = token & RUN_MASK;
+                if (len == RUN_MASK) {
+                    int b;
+                    do {
+                        b = in[inPos++] & 0xff;
+                        len += b;
+                    } while (b == 255);
+                }
+                len += MIN_MATCH;
+                int ref = outPos - offset;
+                if (offset == 0 || ref < base || outPos + len > outEnd) {
+                    throw new IndexOutOfBoundsException("offset " + offset + ", length " + len);
+                }
+                if (offset >= len) {
+                    System.arraycopy(out, ref, out, outPos, len);
+                    outPos += len;
+                } else {
+                    // overlapping copy repeats the last offset bytes
+                    for (int stop = outPos + len; outPos < stop;) {
+                        out[outPos++] = out[ref++];
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw DataUtils.newMVStoreException(ErrorCode.COMPRESSION_ERROR, e.getMessage(), e);
+        }
+        if (outPos != outEnd || inPos != inEnd) {
+            throw DataUtils.newMVStoreException(ErrorCode.COMPRESSION_ERROR,
+                    "Expanded to {0} bytes, expected {1}", outPos - outStart, outLen);
+        }
+    }
+
+    private static int writeSequence(byte[] in, int literalPos, int literals, int offset, int len,
+            byte[] out, int outPos) {
+        int tokenPos = outPos++;
+        int token;
+        if (literals >= RUN_MASK) {
+            token = RUN_MASK << 4;
+            outPos = writeLength(literals - RUN_MASK, out, outPos);
+        } else {
+            token = literals << 4;
+        }
+        System.arraycopy(in, literalPos, out, outPos, literals);
+        outPos += literals;
+        out[outPos++] = (byte) offset;
+        out[outPos++] = (byte) (offset >>> 8);
+        int matchLen = len - MIN_MATCH;
+        if (matchLen >= RUN_MASK) {
+            token |= RUN_MASK;
+            outPos = writeLength(matchLen - RUN_MASK, out, outPos);
+        } else {
+            token |= matchLen;
+        }
+        out[tokenPos] = (byte) token;
+        return outPos;
+    }
+
+    private static int writeLastLiterals(byte[] in, int literalPos, int literals, byte[] out, int outPos) {
+        if (literals >= RUN_MASK) {
+            out[outPos++] = (byte) (RUN_MASK << 4);
+            outPos = writeLength(literals - RUN_MASK, out, outPos);
+        } else {
+            out[outPos++] = (byte) (literals << 4);
+        }
+        System.arraycopy(in, literalPos, out, outPos, literals);
+        return outPos + literals;
+    }
+
+    private static int writeLength(int len, byte[] out, int outPos) {
+        while (len >= 255) {
+            out[outPos++] = (byte) 255;
+            len -= 255;
+        }
+        out[outPos++] = (byte) len;
+        return outPos;
+    }
+
+    /**
+     * Number of equal bytes at the two positions, not reading at or beyond
+     * {@code limit} (which applies to {@code ip}; {@code ref < ip}).
+     */
+    private static int commonBytes(byte[] in, int ip, int ref, int limit) {
+        int start = ip;
+        while (ip <= limit - 8) {
+            long diff = (long) LONG.get(in, ip) ^ (long) LONG.get(in, ref);
+            if (diff != 0) {
+                return ip - start + (Long.numberOfTrailingZeros(diff) >>> 3);
+            }
+            ip += 8;
+            ref += 8;
+        }
+        while (ip < limit && in[ip] == in[ref]) {
+            ip++;
+            ref++;
+        }
+        return ip - start;
+    }
+
+    private static int readInt(byte[] in, int pos) {
+        return (int) INT.get(in, pos);
+    }
+
+    private static int hash(int seq) {
+        return (seq * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+}
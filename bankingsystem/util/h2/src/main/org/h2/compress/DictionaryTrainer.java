@@ -0,0 +1,199 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.compress;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Builds a compression dictionary from sample data, for use with
+ * {@link CompressLZ4#CompressLZ4(byte[])}.
+ * <p>
+ * This is a simplified version of the "cover" algorithm: each 8 byte sequence
+ * is scored by the number of samples it occurs in, the samples are split into
+ * epochs, and from each epoch the segment with the highest total score is
+ * taken. Sequences that were taken are not counted again, so the dictionary
+ * does not repeat itself. The best segments are placed at the end of the
+ * dictionary, where the offsets to them are the smallest.
+ * </p>
+ * <p>
+ * Instances are not thread safe.
+ * </p>
+ */
+public final class DictionaryTrainer {
+
+    private static final VarHandle LONG =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * The length of the scored sequences.
+     */
+    private static final int D = 8;
+
+    /**
+     * The length of the segments taken into the dictionary.
+     */
+    private static final int SEGMENT = 32;
+
+    /**
+     * The number of bits of the frequency table index.
+     */
+    private static final int HASH_LOG = 18;
+
+    private final byte[] data;
+
+    private int length;
+
+    private int[] starts = new int[16];
+
+    private int sampleCount;
+
+    /**
+     * Create a new trainer.
+     *
+     * @param maxSampleBytes the maximum total length of all samples
+     */
+    public DictionaryTrainer(int maxSampleBytes) {
+        data = new byte[maxSampleBytes];
+    }
+
+    /**
+     * Add a sample. If the sample does not fit, only the part that fits is
+     * added.
+     *
+     * @param b the data
+     * @param off the offset
+     * @param len the length
+     * @return true if the sample space is now full
+     */
+    public boolean addSample(byte[] b, int off, int len) {
+        len = Math.min(len, data.length - length);
+        if (len > 0) {
+            if (sampleCount == starts.length) {
+                starts = Arrays.copyOf(starts, sampleCount * 2);
+            }
+            starts[sampleCount++] = length;
+            System.arraycopy(b, off, data, length, len);
+            length += len;
+        }
+        return length == data.length;
+    }
+
+    /**
+     * Get the number of samples added so far.
+     *
+     * @return the number of samples
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Get the total length of the samples added so far.
+     *
+     * @return the length in bytes
+     */
+    public int getSampleLength() {
+        return length;
+    }
+
+    /**
+     * Get the total compressed length of all samples.
+     *
+     * @param compressor the compressor to use
+     * @return the total compressed length
+     */
+    public long getCompressedLength(Compressor compressor) {
+        byte[] out = new byte[length + length / 255 + 16];
+        long total = 0;
+        for (int i = 0; i < sampleCount; i++) {
+            int start = starts[i];
+            total += compressor.compress(data, start, sampleEnd(i) - start, out, 0);
+        }
+        return total;
+    }
+
+    /**
+     * Build a dictionary from the samples.
+     *
+     * @param maxLength the maximum dictionary length
+     * @return the dictionary (may be shorter than the maximum, or empty if
+     *         the samples have nothing in common)
+     */
+    public byte[] train(int maxLength) {
+        int[] freq = new int[1 << HASH_LOG];
+        int[] seenIn = new int[1 << HASH_LOG];
+        for (int i = 0; i < sampleCount; i++) {
+            for (int p = starts[i], stop = sampleEnd(i) - D; p <= stop; p++) {
+                int h = hash(p);
+                // count each sequence once per sample
+                if (seenIn[h] != i + 1) {
+                    seenIn[h] = i + 1;
+                    freq[h]++;
+                }
+            }
+        }
+        int epochs = Math.max(1, maxLength / SEGMENT);
+        int epochLength = Math.max(SEGMENT, length / epochs);
+        long[] segments = new long[epochs];
+        int segmentCount = 0;
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            int epochStart = epoch * epochLength;
+            int epochEnd = Math.min(epochStart + epochLength, length) - D;
+            int bestScore = 0;
+            int bestPos = -1;
+            int score = 0;
+            // sliding window sum over the sequences that start in a segment
+            for (int p = epochStart; p <= epochEnd; p++) {
+                score += rareAsZero(freq[hash(p)]);
+                int out = p - (SEGMENT - D + 1);
+                if (out >= epochStart) {
+                    score -= rareAsZero(freq[hash(out)]);
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestPos = Math.max(epochStart, p - (SEGMENT - D));
+                }
+            }
+            if (bestPos >= 0) {
+                for (int p = bestPos, stop = Math.min(bestPos + SEGMENT, length) - D; p <= stop; p++) {
+                    freq[hash(p)] = 0;
+                }
+                segments[segmentCount++] = (long) bestScore << 32 | bestPos;
+            }
+        }
+        // ascending by score: the best segments end up last
+        Arrays.sort(segments, 0, segmentCount);
+        byte[] dict = new byte[Math.min(maxLength, segmentCount * SEGMENT)];
+        int pos = dict.length;
+        for (int i = segmentCount - 1; i >= 0 && pos > 0; i--) {
+            int start = (int) segments[i];
+            int len = Math.min(Math.min(SEGMENT, length - start), pos);
+            pos -= len;
+            System.arraycopy(data, start, dict, pos, len);
+        }
+        return pos == 0 ? dict : Arrays.copyOfRange(dict, pos, dict.length);
+    }
+
+    private int sampleEnd(int i) {
+        return i + 1 < sampleCount ? starts[i + 1] : length;
+    }
+
+    private int hash(int pos) {
+        long x = (long) LONG.get(data, pos);
+        return (int) ((x * 0x9E3779B97F4A7C15L) >>> (64 - HASH_LOG));
+    }
+
+    /**
+     * Sequences that occur in only one sample do not help other samples.
+     */
+    private static int rareAsZero(int f) {
+        return f > 1 ? f : 0;
+    }
+
+}
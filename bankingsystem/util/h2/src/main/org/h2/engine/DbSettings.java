@@ -274,6 +274,86 @@ public class DbSettings extends SettingsBase {
      */
     public final boolean compressData = get("COMPRESS", false);
 
+    /**
+     * Database setting <code>COMPRESS_ALGORITHM</code>
+     * (default: LZF).
+     * The algorithm used when <code>COMPRESS</code> is enabled: LZF, LZ4,
+     * LZ4_DICTIONARY (LZ4 with a trained dictionary per table and index) or
+     * DEFLATE. Pages written with another algorithm can still be read.
+     */
+    public final String compressAlgorithm = get("COMPRESS_ALGORITHM", "LZF");
+
+    /**
+     * Database setting <code>PREFETCH_DEPTH</code>
+     * (default: 0).
+     * The number of leaf pages a sequential scan reads ahead in the
+     * background, 0 to disable.
+     */
+    public final int prefetchDepth = get("PREFETCH_DEPTH", 0);
+
+    /**
+     * Database setting <code>MAPPED_READS</code>
+     * (default: false).
+     * Read the database file through a read-only memory mapping, so that
+     * uncached pages are decoded without copying them into a new buffer.
+     */
+    public final boolean mappedReads = get("MAPPED_READS", false);
+
+    /**
+     * Database setting <code>OFF_HEAP_CACHE_SIZE</code>
+     * (default: 0).
+     * The size in MB of the second level page cache, which keeps serialized
+     * pages in direct memory, 0 to disable.
+     */
+    public final int offHeapCacheSize = get("OFF_HEAP_CACHE_SIZE", 0);
+
+    /**
+     * Database setting <code>SERIALIZATION_THREADS</code>
+     * (default: 1).
+     * The number of threads that serialize and compress the changed pages
+     * when a chunk is written.
+     */
+    public final int serializationThreads = get("SERIALIZATION_THREADS", 1);
+
+    /**
+     * Database setting <code>COMPACTION_RATE</code>
+     * (default: 0).
+     * The number of bytes per second the background compaction may move,
+     * 0 to let the background writer compact as needed.
+     */
+    public final int compactionRate = get("COMPACTION_RATE", 0);
+
+    /**
+     * Database setting <code>COLUMNAR_STORAGE</code>
+     * (default: false).
+     * Write the rows of a table page column by column, with delta encoding
+     * for integers, dates, and timestamps, and a dictionary for repeated
+     * strings. Pages in either layout can always be read. The format of the
+     * file is raised when the setting is enabled, so that older versions
+     * refuse to open it.
+     */
+    public final boolean columnarStorage = get("COLUMNAR_STORAGE", false);
+
+    /**
+     * Database setting <code>HASH_GROUP_BY</code>
+     * (default: true).
+     * Find the groups of a GROUP BY query in a hash table instead of a sorted
+     * map, if all grouping expressions are of data types where equal values
+     * have the same hash code. The groups are then not returned in order,
+     * which only matters for queries without ORDER BY.
+     */
+    public final boolean hashGroupBy = get("HASH_GROUP_BY", true);
+
+    /**
+     * Database setting <code>HASH_JOIN</code>
+     * (default: true).
+     * Join a table on equality conditions by building a hash table of its
+     * rows, if this is cheaper than the available indexes. The table must
+     * have at least 1000 rows. In the query plan, such a table is read using
+     * the index <code>hashJoin</code>.
+     */
+    public final boolean hashJoin = get("HASH_JOIN", true);
+
     /**
      * Database setting <code>IGNORE_CATALOGS</code>
      * (default: false).
@@ -282,6 +362,16 @@ public class DbSettings extends SettingsBase {
      */
     public final boolean ignoreCatalogs = get("IGNORE_CATALOGS", false);
 
+    /**
+     * Database setting <code>VECTORIZED_FILTER</code>
+     * (default: true).
+     * Evaluate the conditions of a table scan for batches of up to 1024 rows
+     * at once. Comparisons and integer arithmetic of columns, constants and
+     * parameters are then computed on arrays of values, the other conditions
+     * are still evaluated row by row.
+     */
+    public final boolean vectorizedFilter = get("VECTORIZED_FILTER", true);
+
     /**
      * Database setting <code>ZERO_BASED_ENUMS</code>
      * (default: false).
@@ -9,7 +9,10 @@ import org.h2.engine.Constants;
 import org.h2.engine.SessionLocal;
 import org.h2.expression.IntervalOperation.IntervalOpType;
 import org.h2.expression.function.DateTimeFunction;
+import org.h2.expression.vector.VectorArithmetic;
+import org.h2.expression.vector.VectorExpression;
 import org.h2.message.DbException;
+import org.h2.table.TableFilter;
 import org.h2.value.DataType;
 import org.h2.value.TypeInfo;
 import org.h2.value.Value;
@@ -126,6 +129,26 @@ public class BinaryOperation extends Operation2 {
         }
     }
 
+    @Override
+    public VectorExpression createVector(SessionLocal session, TableFilter filter) {
+        if (opType == OpType.DIVIDE || !convertRight || VectorExpression.getKind(type) != VectorExpression.LONG) {
+            return null;
+        }
+        VectorExpression l = left.createVector(session, filter), r = right.createVector(session, filter);
+        if (l == null) {
+            if (r == null) {
+                return null;
+            }
+            l = VectorExpression.getConstant(left, VectorExpression.LONG);
+        } else if (r == null) {
+            r = VectorExpression.getConstant(right, VectorExpression.LONG);
+        }
+        if (l == null || r == null || l.getKind() != VectorExpression.LONG || r.getKind() != VectorExpression.LONG) {
+            return null;
+        }
+        return new VectorArithmetic(opType, type, l, r);
+    }
+
     @Override
     public Expression optimize(SessionLocal session) {
         left = left.optimize(session);
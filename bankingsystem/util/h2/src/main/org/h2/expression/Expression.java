@@ -12,6 +12,8 @@ import org.h2.engine.Constants;
 import org.h2.engine.Mode;
 import org.h2.engine.SessionLocal;
 import org.h2.expression.function.NamedExpression;
+import org.h2.expression.vector.VectorCondition;
+import org.h2.expression.vector.VectorExpression;
 import org.h2.message.DbException;
 import org.h2.table.Column;
 import org.h2.table.ColumnResolver;
@@ -355,6 +357,34 @@ public abstract class Expression implements HasSQL, Typed {
         // default is do nothing
     }
 
+    /**
+     * Create an expression that computes the values of this expression for
+     * batches of rows of the table filter.
+     *
+     * @param session the session
+     * @param filter the table filter
+     * @return the vector expression, or null if this expression can only be
+     *         evaluated row by row
+     */
+    @SuppressWarnings("unused")
+    public VectorExpression createVector(SessionLocal session, TableFilter filter) {
+        return null;
+    }
+
+    /**
+     * Create a condition that is evaluated for batches of rows of the table
+     * filter.
+     *
+     * @param session the session
+     * @param filter the table filter
+     * @return the vector condition, or null if this condition can only be
+     *         evaluated row by row
+     */
+    @SuppressWarnings("unused")
+    public VectorCondition createVectorCondition(SessionLocal session, TableFilter filter) {
+        return null;
+    }
+
     /**
      * Get the column name or alias name of this expression.
      *
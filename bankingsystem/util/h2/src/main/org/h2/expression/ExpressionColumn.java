@@ -13,6 +13,8 @@ import org.h2.engine.Database;
 import org.h2.engine.SessionLocal;
 import org.h2.expression.analysis.DataAnalysisOperation;
 import org.h2.expression.condition.Comparison;
+import org.h2.expression.vector.VectorColumn;
+import org.h2.expression.vector.VectorExpression;
 import org.h2.index.IndexCondition;
 import org.h2.message.DbException;
 import org.h2.mode.ModeFunction;
@@ -294,6 +296,15 @@ public final class ExpressionColumn extends Expression {
         return value;
     }
 
+    @Override
+    public VectorExpression createVector(SessionLocal session, TableFilter filter) {
+        if (column == null || columnResolver != filter) {
+            return null;
+        }
+        int kind = VectorExpression.getKind(getType());
+        return kind < 0 ? null : new VectorColumn(kind, column.getColumnId());
+    }
+
     @Override
     public TypeInfo getType() {
         return column != null ? column.getType() : rowId ? TypeInfo.TYPE_BIGINT : TypeInfo.TYPE_UNKNOWN;
@@ -17,11 +17,15 @@ import org.h2.expression.TypedValueExpression;
 import org.h2.expression.ValueExpression;
 import org.h2.expression.aggregate.Aggregate;
 import org.h2.expression.aggregate.AggregateType;
+import org.h2.expression.vector.VectorComparison;
+import org.h2.expression.vector.VectorCondition;
+import org.h2.expression.vector.VectorExpression;
 import org.h2.index.IndexCondition;
 import org.h2.message.DbException;
 import org.h2.table.Column;
 import org.h2.table.ColumnResolver;
 import org.h2.table.TableFilter;
+import org.h2.value.CompareMode;
 import org.h2.value.DataType;
 import org.h2.value.TypeInfo;
 import org.h2.value.Value;
@@ -231,6 +235,31 @@ public final class Comparison extends Condition {
         return compare(session, l, right.getValue(session), compareType);
     }
 
+    @Override
+    public VectorCondition createVectorCondition(SessionLocal session, TableFilter filter) {
+        if (compareType > BIGGER_EQUAL || whenOperand) {
+            return null;
+        }
+        VectorExpression l = left.createVector(session, filter), r = right.createVector(session, filter);
+        if (l == null) {
+            if (r == null) {
+                return null;
+            }
+            l = VectorExpression.getConstant(left, r.getKind());
+        } else if (r == null) {
+            r = VectorExpression.getConstant(right, l.getKind());
+        }
+        if (l == null || r == null || l.getKind() != r.getKind()) {
+            return null;
+        }
+        if (l.getKind() == VectorExpression.STRING
+                && !CompareMode.OFF.equals(session.getDatabase().getCompareMode().getName())) {
+            // strings are compared with a collator
+            return null;
+        }
+        return new VectorComparison(compareType, l, r);
+    }
+
     @Override
     public boolean getWhenValue(SessionLocal session, Value left) {
         if (!whenOperand) {
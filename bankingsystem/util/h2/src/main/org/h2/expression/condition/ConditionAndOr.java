@@ -49,7 +49,7 @@ public class ConditionAndOr extends Condition {
         this.right = right;
     }
 
-    int getAndOrType() {
+    public int getAndOrType() {
         return this.andOrType;
     }
 
@@ -52,7 +52,7 @@ public class ConditionAndOrN extends Condition {
         this.expressions = expressions;
     }
 
-    int getAndOrType() {
+    public int getAndOrType() {
         return andOrType;
     }
 
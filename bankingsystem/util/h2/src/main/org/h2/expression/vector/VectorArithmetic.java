@@ -0,0 +1,96 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.expression.vector;
+
+import org.h2.engine.SessionLocal;
+import org.h2.expression.BinaryOperation.OpType;
+import org.h2.result.Row;
+import org.h2.value.TypeInfo;
+import org.h2.value.Value;
+
+/**
+ * An addition, subtraction or multiplication of integer values. If the
+ * operation overflows the data type of the result for a row of a batch, the
+ * batch is evaluated row by row, so that the exception is only raised if the
+ * row is actually reached.
+ */
+public final class VectorArithmetic extends VectorExpression {
+
+    private final OpType opType;
+    private final long min, max;
+    private final VectorExpression left, right;
+
+    /**
+     * Create a new arithmetic operation.
+     *
+     * @param opType the operation type (PLUS, MINUS, or MULTIPLY)
+     * @param type the data type of the result (TINYINT, SMALLINT, INTEGER,
+     *            or BIGINT)
+     * @param left the left operand
+     * @param right the right operand
+     */
+    public VectorArithmetic(OpType opType, TypeInfo type, VectorExpression left, VectorExpression right) {
+        super(LONG);
+        this.opType = opType;
+        this.left = left;
+        this.right = right;
+        switch (type.getValueType()) {
+        case Value.TINYINT:
+            min = Byte.MIN_VALUE;
+            max = Byte.MAX_VALUE;
+            break;
+        case Value.SMALLINT:
+            min = Short.MIN_VALUE;
+            max = Short.MAX_VALUE;
+            break;
+        case Value.INTEGER:
+            min = Integer.MIN_VALUE;
+            max = Integer.MAX_VALUE;
+            break;
+        default:
+            min = Long.MIN_VALUE;
+            max = Long.MAX_VALUE;
+        }
+    }
+
+    @Override
+    boolean evaluateBatch(SessionLocal session, Row[] rows, int[] selection, int count) {
+        if (!left.evaluate(session, rows, selection, count) || !right.evaluate(session, rows, selection, count)) {
+            return false;
+        }
+        long[] a = left.longs, b = right.longs, longs = this.longs;
+        boolean[] aNulls = left.nulls, bNulls = right.nulls, nulls = this.nulls;
+        for (int j = 0; j < count; j++) {
+            int i = selection[j];
+            if (aNulls[i] || bNulls[i]) {
+                nulls[i] = true;
+                continue;
+            }
+            long x = a[i], y = b[i], r;
+            try {
+                switch (opType) {
+                case PLUS:
+                    r = Math.addExact(x, y);
+                    break;
+                case MINUS:
+                    r = Math.subtractExact(x, y);
+                    break;
+                default:
+                    r = Math.multiplyExact(x, y);
+                }
+            } catch (ArithmeticException e) {
+                return false;
+            }
+            if (r < min || r > max) {
+                return false;
+            }
+            longs[i] = r;
+            nulls[i] = false;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.expression.vector;
+
+import org.h2.engine.SessionLocal;
+import org.h2.result.Row;
+import org.h2.value.Value;
+import org.h2.value.ValueNull;
+
+/**
+ * The values of a column of the rows of a batch.
+ */
+public final class VectorColumn extends VectorExpression {
+
+    private final int columnId;
+
+    /**
+     * Create a new column reference.
+     *
+     * @param kind the kind of the values of the column
+     * @param columnId the column id, or -1 for the row key
+     */
+    public VectorColumn(int kind, int columnId) {
+        super(kind);
+        this.columnId = columnId;
+    }
+
+    @Override
+    boolean evaluateBatch(SessionLocal session, Row[] rows, int[] selection, int count) {
+        int columnId = this.columnId;
+        boolean[] nulls = this.nulls;
+        if (kind == LONG) {
+            long[] longs = this.longs;
+            for (int j = 0; j < count; j++) {
+                int i = selection[j];
+                Row row = rows[i];
+                Value v = columnId >= 0 ? row.getValue(columnId) : null;
+                if (v == null) {
+                    // the column of the row key
+                    longs[i] = row.getKey();
+                    nulls[i] = false;
+                } else if (v == ValueNull.INSTANCE) {
+                    nulls[i] = true;
+                } else {
+                    longs[i] = v.getLong();
+                    nulls[i] = false;
+                }
+            }
+        } else {
+            boolean decimal = kind == DECIMAL;
+            Object[] objects = this.objects;
+            for (int j = 0; j < count; j++) {
+                int i = selection[j];
+                Value v = rows[i].getValue(columnId);
+                if (v == ValueNull.INSTANCE) {
+                    nulls[i] = true;
+                } else {
+                    objects[i] = decimal ? v.getBigDecimal() : v.getString();
+                    nulls[i] = false;
+                }
+            }
+        }
+        return true;
+    }
+
+}
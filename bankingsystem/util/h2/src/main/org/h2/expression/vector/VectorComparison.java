@@ -0,0 +1,142 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.expression.vector;
+
+import java.math.BigDecimal;
+import org.h2.engine.SessionLocal;
+import org.h2.expression.condition.Comparison;
+import org.h2.message.DbException;
+import org.h2.result.Row;
+
+/**
+ * A comparison of two values of the same kind, such as BALANCE &gt; ?.
+ */
+public final class VectorComparison extends VectorCondition {
+
+    private final int compareType;
+    private final VectorExpression left, right;
+
+    /**
+     * Create a new comparison.
+     *
+     * @param compareType the compare type (EQUAL, NOT_EQUAL, SMALLER, BIGGER,
+     *            SMALLER_EQUAL, or BIGGER_EQUAL)
+     * @param left the left operand
+     * @param right the right operand, of the same kind
+     */
+    public VectorComparison(int compareType, VectorExpression left, VectorExpression right) {
+        this.compareType = compareType;
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public int filter(SessionLocal session, Row[] rows, int[] selection, int count) {
+        if (!left.evaluate(session, rows, selection, count) || !right.evaluate(session, rows, selection, count)) {
+            return -1;
+        }
+        if (left.kind == VectorExpression.LONG) {
+            return filterLongs(selection, count);
+        }
+        Object[] a = left.objects, b = right.objects;
+        boolean[] aNulls = left.nulls, bNulls = right.nulls;
+        boolean decimal = left.kind == VectorExpression.DECIMAL;
+        int n = 0;
+        for (int j = 0; j < count; j++) {
+            int i = selection[j];
+            if (aNulls[i] || bNulls[i]) {
+                // the comparison is UNKNOWN
+                continue;
+            }
+            int cmp = decimal ? ((BigDecimal) a[i]).compareTo((BigDecimal) b[i])
+                    : ((String) a[i]).compareTo((String) b[i]);
+            if (test(cmp)) {
+                selection[n++] = i;
+            }
+        }
+        return n;
+    }
+
+    private boolean test(int cmp) {
+        switch (compareType) {
+        case Comparison.EQUAL:
+            return cmp == 0;
+        case Comparison.NOT_EQUAL:
+            return cmp != 0;
+        case Comparison.SMALLER:
+            return cmp < 0;
+        case Comparison.BIGGER:
+            return cmp > 0;
+        case Comparison.SMALLER_EQUAL:
+            return cmp <= 0;
+        case Comparison.BIGGER_EQUAL:
+            return cmp >= 0;
+        default:
+            throw DbException.getInternalError("type=" + compareType);
+        }
+    }
+
+    private int filterLongs(int[] selection, int count) {
+        long[] a = left.longs, b = right.longs;
+        boolean[] aNulls = left.nulls, bNulls = right.nulls;
+        int n = 0;
+        // a loop for each compare type, so that each loop is simple
+        switch (compareType) {
+        case Comparison.EQUAL:
+            for (int j = 0; j < count; j++) {
+                int i = selection[j];
+                if (a[i] == b[i] && !aNulls[i] && !bNulls[i]) {
+                    selection[n++] = i;
+                }
+            }
+            break;
+        case Comparison.NOT_EQUAL:
+            for (int j = 0; j < count; j++) {
+                int i = selection[j];
+                if (a[i] != b[i] && !aNulls[i] && !bNulls[i]) {
+                    selection[n++] = i;
+                }
+            }
+            break;
+        case Comparison.SMALLER:
+            for (int j = 0; j < count; j++) {
+                int i = selection[j];
+                if (a[i] < b[i] && !aNulls[i] && !bNulls[i]) {
+                    selection[n++] = i;
+                }
+            }
+            break;
+        case Comparison.BIGGER:
+            for (int j = 0; j < count; j++) {
+                int i = selection[j];
+                if (a[i] > b[i] && !aNulls[i] && !bNulls[i]) {
+                    selection[n++] = i;
+                }
+            }
+            break;
+        case Comparison.SMALLER_EQUAL:
+            for (int j = 0; j < count; j++) {
+                int i = selection[j];
+                if (a[i] <= b[i] && !aNulls[i] && !bNulls[i]) {
+                    selection[n++] = i;
+                }
+            }
+            break;
+        case Comparison.BIGGER_EQUAL:
+            for (int j = 0; j < count; j++) {
+                int i = selection[j];
+                if (a[i] >= b[i] && !aNulls[i] && !bNulls[i]) {
+                    selection[n++] = i;
+                }
+            }
+            break;
+        default:
+            throw DbException.getInternalError("type=" + compareType);
+        }
+        return n;
+    }
+
+}
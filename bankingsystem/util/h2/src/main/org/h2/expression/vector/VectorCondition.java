@@ -0,0 +1,31 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.expression.vector;
+
+import org.h2.engine.SessionLocal;
+import org.h2.result.Row;
+
+/**
+ * A condition that is evaluated for a batch of rows at once.
+ */
+public abstract class VectorCondition {
+
+    /**
+     * Remove the rows where the condition is not true from the selected rows
+     * of a batch. The positions of the remaining rows are moved to the
+     * beginning of the selection, in the same order.
+     *
+     * @param session the session
+     * @param rows the rows of the batch
+     * @param selection the positions of the selected rows
+     * @param count the number of selected rows
+     * @return the number of remaining rows, or -1 if the condition can not be
+     *         evaluated for this batch, in which case the selection is
+     *         unchanged and the condition needs to be evaluated row by row
+     */
+    public abstract int filter(SessionLocal session, Row[] rows, int[] selection, int count);
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.expression.vector;
+
+import java.math.BigDecimal;
+import org.h2.engine.SessionLocal;
+import org.h2.expression.Expression;
+import org.h2.result.Row;
+import org.h2.value.Value;
+import org.h2.value.ValueNull;
+
+/**
+ * A constant or a parameter, with the same value for all rows of a batch. The
+ * value is read once per batch.
+ */
+final class VectorConstant extends VectorExpression {
+
+    private final Expression expression;
+
+    VectorConstant(Expression expression, int kind) {
+        super(kind);
+        this.expression = expression;
+    }
+
+    @Override
+    boolean evaluateBatch(SessionLocal session, Row[] rows, int[] selection, int count) {
+        Value v = expression.getValue(session);
+        boolean isNull = v == ValueNull.INSTANCE;
+        long l = 0;
+        Object o = null;
+        if (!isNull) {
+            int type = v.getValueType();
+            switch (kind) {
+            case LONG:
+                if (type != Value.TINYINT && type != Value.SMALLINT && type != Value.INTEGER
+                        && type != Value.BIGINT) {
+                    return false;
+                }
+                l = v.getLong();
+                break;
+            case DECIMAL:
+                if (type == Value.NUMERIC) {
+                    o = v.getBigDecimal();
+                } else if (type == Value.TINYINT || type == Value.SMALLINT || type == Value.INTEGER
+                        || type == Value.BIGINT) {
+                    o = BigDecimal.valueOf(v.getLong());
+                } else {
+                    return false;
+                }
+                break;
+            default:
+                if (type != Value.VARCHAR) {
+                    return false;
+                }
+                o = v.getString();
+            }
+        }
+        boolean[] nulls = this.nulls;
+        if (kind == LONG) {
+            long[] longs = this.longs;
+            for (int j = 0; j < count; j++) {
+                int i = selection[j];
+                longs[i] = l;
+                nulls[i] = isNull;
+            }
+        } else {
+            Object[] objects = this.objects;
+            for (int j = 0; j < count; j++) {
+                int i = selection[j];
+                objects[i] = o;
+                nulls[i] = isNull;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.expression.vector;
+
+import org.h2.engine.SessionLocal;
+import org.h2.expression.Expression;
+import org.h2.expression.Parameter;
+import org.h2.result.Row;
+import org.h2.value.TypeInfo;
+import org.h2.value.Value;
+
+/**
+ * An expression that computes its values for a batch of rows at once. The
+ * values are stored in arrays of primitive values (or of BigDecimal and
+ * String objects) that are indexed by the position of the row in the batch.
+ */
+public abstract class VectorExpression {
+
+    /**
+     * The kind of expressions of data types TINYINT, SMALLINT, INTEGER and
+     * BIGINT, with the values stored as long values.
+     */
+    public static final int LONG = 0;
+
+    /**
+     * The kind of expressions of data type NUMERIC, with the values stored as
+     * BigDecimal objects.
+     */
+    public static final int DECIMAL = 1;
+
+    /**
+     * The kind of expressions of data type VARCHAR, with the values stored as
+     * String objects.
+     */
+    public static final int STRING = 2;
+
+    /**
+     * The kind of the values.
+     */
+    final int kind;
+
+    /**
+     * The values, if the kind is LONG.
+     */
+    long[] longs;
+
+    /**
+     * The values, if the kind is DECIMAL or STRING.
+     */
+    Object[] objects;
+
+    /**
+     * Whether the value is NULL.
+     */
+    boolean[] nulls;
+
+    VectorExpression(int kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Get the kind of values of the given data type.
+     *
+     * @param type the data type
+     * @return the kind, or -1 if values of this data type are not supported
+     */
+    public static int getKind(TypeInfo type) {
+        switch (type.getValueType()) {
+        case Value.TINYINT:
+        case Value.SMALLINT:
+        case Value.INTEGER:
+        case Value.BIGINT:
+            return LONG;
+        case Value.NUMERIC:
+            return DECIMAL;
+        case Value.VARCHAR:
+            return STRING;
+        default:
+            return -1;
+        }
+    }
+
+    /**
+     * Get a vector expression for an operand of the given kind that has the
+     * same value for all rows: a constant or a parameter.
+     *
+     * @param expression the expression
+     * @param kind the kind
+     * @return the vector expression, or null if the expression is not a
+     *         constant or a parameter, or a constant of another kind
+     */
+    public static VectorExpression getConstant(Expression expression, int kind) {
+        if (expression instanceof Parameter) {
+            // the data type is only known when the value is read
+            return new VectorConstant(expression, kind);
+        } else if (expression.isConstant()) {
+            int k = getKind(expression.getType());
+            if (k == kind || k == LONG && kind == DECIMAL) {
+                return new VectorConstant(expression, kind);
+            }
+        }
+        return null;
+    }
+
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * Compute the values of the selected rows of a batch.
+     *
+     * @param session the session
+     * @param rows the rows of the batch
+     * @param selection the positions of the selected rows
+     * @param count the number of selected rows
+     * @return false if the values can not be computed for this batch, in
+     *         which case the expression needs to be evaluated row by row
+     */
+    public final boolean evaluate(SessionLocal session, Row[] rows, int[] selection, int count) {
+        int length = rows.length;
+        if (nulls == null || nulls.length < length) {
+            if (kind == LONG) {
+                longs = new long[length];
+            } else {
+                objects = new Object[length];
+            }
+            nulls = new boolean[length];
+        }
+        return evaluateBatch(session, rows, selection, count);
+    }
+
+    /**
+     * Compute the values of the selected rows of a batch. The arrays are
+     * large enough for all rows.
+     *
+     * @param session the session
+     * @param rows the rows of the batch
+     * @param selection the positions of the selected rows
+     * @param count the number of selected rows
+     * @return false if the values can not be computed for this batch
+     */
+    abstract boolean evaluateBatch(SessionLocal session, Row[] rows, int[] selection, int count);
+
+}
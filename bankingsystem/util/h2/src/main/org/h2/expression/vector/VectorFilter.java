@@ -0,0 +1,225 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.expression.vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.h2.engine.SessionLocal;
+import org.h2.expression.Expression;
+import org.h2.expression.condition.ConditionAndOr;
+import org.h2.expression.condition.ConditionAndOrN;
+import org.h2.index.Cursor;
+import org.h2.result.Row;
+import org.h2.table.TableFilter;
+
+/**
+ * Evaluates a condition for batches of rows read from the cursor of a table
+ * filter. The leading operands of AND that support it are evaluated for all
+ * rows of a batch at once, the rest of the condition is evaluated row by row
+ * by the caller, in the same order as without batches. If an operand can not
+ * be evaluated for a batch (for example because an arithmetic operation
+ * overflows for one of its rows), this and the following operands are
+ * evaluated row by row when the row is returned, so that an exception is only
+ * raised for a row that is actually reached.
+ */
+public final class VectorFilter {
+
+    /**
+     * The maximum number of rows of a batch.
+     */
+    public static final int BATCH_SIZE = 1024;
+
+    /**
+     * The number of rows of the first batch. The batches then grow up to the
+     * maximum size, so that few rows are read ahead for lookups of a few rows.
+     */
+    private static final int FIRST_BATCH_SIZE = 32;
+
+    private final TableFilter filter;
+
+    /**
+     * The parts of the condition that are evaluated for batches of rows.
+     */
+    private final Expression[] conditions;
+
+    /**
+     * The vector conditions of these parts.
+     */
+    private final VectorCondition[] vectors;
+
+    /**
+     * The rest of the condition, or null.
+     */
+    private final Expression remainingCondition;
+
+    private Row[] rows;
+    private int[] selection;
+    private int count, index;
+    private boolean afterLast;
+
+    /**
+     * The index of the first part of the condition that needs to be evaluated
+     * row by row for the selected rows of the current batch.
+     */
+    private int rowByRow;
+
+    private VectorFilter(TableFilter filter, Expression[] conditions, VectorCondition[] vectors,
+            Expression remainingCondition) {
+        this.filter = filter;
+        this.conditions = conditions;
+        this.vectors = vectors;
+        this.remainingCondition = remainingCondition;
+    }
+
+    /**
+     * Create a vector filter for the given condition.
+     *
+     * @param session the session
+     * @param filter the table filter
+     * @param condition the condition
+     * @return the vector filter, or null if the first part of the condition
+     *         can not be evaluated for a batch of rows at once
+     */
+    public static VectorFilter get(SessionLocal session, TableFilter filter, Expression condition) {
+        ArrayList<Expression> list = new ArrayList<>();
+        addConditions(condition, list);
+        int size = list.size(), length = 0;
+        VectorCondition[] vectors = new VectorCondition[size];
+        // the parts after a part that is evaluated row by row are evaluated
+        // row by row as well, so that no part is evaluated (and possibly
+        // throws an exception) for a row where a preceding part is false
+        while (length < size) {
+            VectorCondition v = list.get(length).createVectorCondition(session, filter);
+            if (v == null) {
+                break;
+            }
+            vectors[length++] = v;
+        }
+        if (length == 0) {
+            return null;
+        }
+        Expression remainingCondition;
+        if (length == size) {
+            remainingCondition = null;
+        } else if (length == size - 1) {
+            remainingCondition = list.get(length);
+        } else {
+            remainingCondition = new ConditionAndOrN(ConditionAndOr.AND, new ArrayList<>(list.subList(length, size)));
+        }
+        return new VectorFilter(filter, list.subList(0, length).toArray(new Expression[0]),
+                Arrays.copyOf(vectors, length), remainingCondition);
+    }
+
+    private static void addConditions(Expression condition, ArrayList<Expression> list) {
+        if (condition instanceof ConditionAndOr && ((ConditionAndOr) condition).getAndOrType() == ConditionAndOr.AND
+                || condition instanceof ConditionAndOrN
+                        && ((ConditionAndOrN) condition).getAndOrType() == ConditionAndOr.AND) {
+            for (int i = 0, l = condition.getSubexpressionCount(); i < l; i++) {
+                addConditions(condition.getSubexpression(i), list);
+            }
+        } else {
+            list.add(condition);
+        }
+    }
+
+    /**
+     * Get the rest of the condition, which needs to be evaluated row by row.
+     *
+     * @return the rest of the condition, or null
+     */
+    public Expression getRemainingCondition() {
+        return remainingCondition;
+    }
+
+    /**
+     * Start reading from a new cursor.
+     */
+    public void reset() {
+        if (rows != null) {
+            Arrays.fill(rows, 0, count, null);
+        }
+        count = 0;
+        index = 0;
+        afterLast = false;
+    }
+
+    /**
+     * Get the next row of the cursor where the evaluated parts of the
+     * condition are true.
+     *
+     * @param session the session
+     * @param cursor the cursor
+     * @return the row, or null if there are no more rows
+     */
+    public Row next(SessionLocal session, Cursor cursor) {
+        while (true) {
+            while (index >= count) {
+                if (afterLast) {
+                    reset();
+                    afterLast = true;
+                    return null;
+                }
+                readBatch(session, cursor);
+            }
+            Row row = rows[selection[index++]];
+            if (rowByRow == conditions.length || isOk(session, row)) {
+                return row;
+            }
+        }
+    }
+
+    private boolean isOk(SessionLocal session, Row row) {
+        filter.set(row);
+        for (int i = rowByRow, l = conditions.length; i < l; i++) {
+            if (!conditions[i].getBooleanValue(session)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readBatch(SessionLocal session, Cursor cursor) {
+        Row[] rows = this.rows;
+        int[] selection = this.selection;
+        if (rows == null) {
+            this.rows = rows = new Row[FIRST_BATCH_SIZE];
+            this.selection = selection = new int[FIRST_BATCH_SIZE];
+        } else if (count == rows.length && rows.length < BATCH_SIZE) {
+            // the previous batch was full
+            int length = rows.length * 2;
+            this.rows = rows = new Row[length];
+            this.selection = selection = new int[length];
+        }
+        session.checkCanceled();
+        int length = rows.length, n = 0;
+        while (n < length) {
+            if (!cursor.next()) {
+                afterLast = true;
+                break;
+            }
+            rows[n] = cursor.get();
+            selection[n] = n;
+            n++;
+        }
+        // the size of the batch, used to decide whether to grow the arrays
+        count = n;
+        int i = 0;
+        for (int l = vectors.length; i < l && n > 0; i++) {
+            int c = vectors[i].filter(session, rows, selection, n);
+            if (c < 0) {
+                break;
+            }
+            n = c;
+        }
+        rowByRow = i;
+        // the selected rows are read from the beginning of the selection
+        index = count - n;
+        if (index > 0) {
+            System.arraycopy(selection, 0, selection, index, n);
+        }
+    }
+
+}
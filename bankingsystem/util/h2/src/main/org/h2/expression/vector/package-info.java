@@ -0,0 +1,10 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+
+/**
+ * Expressions and conditions that are evaluated for batches of rows.
+ */
+package org.h2.expression.vector;
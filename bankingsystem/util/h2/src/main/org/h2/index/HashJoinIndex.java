@@ -0,0 +1,258 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import org.h2.command.query.AllColumnsForPlan;
+import org.h2.engine.SessionLocal;
+import org.h2.message.DbException;
+import org.h2.result.Row;
+import org.h2.result.SearchRow;
+import org.h2.result.SortOrder;
+import org.h2.table.IndexColumn;
+import org.h2.table.Table;
+import org.h2.table.TableFilter;
+import org.h2.util.HasSQL;
+import org.h2.value.Value;
+import org.h2.value.ValueNull;
+import org.h2.value.ValueRow;
+
+/**
+ * A temporary hash table over the rows of a table, used as the inner side of
+ * a join on equality conditions. The hash table is built from the scan index
+ * on the first lookup of each query execution, so that each lookup then only
+ * reads the rows with the requested values.
+ * <p>
+ * A hash join is only planned for tables with at most the maximum number of
+ * rows to keep in memory. If the table has more rows when the hash table is
+ * built, the hash table is discarded, and each lookup reads all rows of the
+ * scan index instead.
+ * </p>
+ */
+public class HashJoinIndex extends Index {
+
+    private final Index scanIndex;
+
+    /**
+     * The rows with the given values (a Value, or a ValueRow if there are
+     * multiple columns). Null if not built yet.
+     */
+    private HashMap<Value, ArrayList<Row>> rows;
+
+    /**
+     * Whether the table has too many rows for the hash table.
+     */
+    private boolean tooLarge;
+
+    public HashJoinIndex(Table table, IndexColumn[] columns, Index scanIndex) {
+        super(table, 0, "HASH_JOIN", columns, 0, IndexType.createNonUnique(false, true, false));
+        this.scanIndex = scanIndex;
+    }
+
+    /**
+     * Whether this index has the same columns.
+     *
+     * @param columns the columns
+     * @return true if the columns are the same
+     */
+    public boolean hasColumns(IndexColumn[] columns) {
+        int length = columns.length;
+        if (length != this.columns.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (columns[i].column != this.columns[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Discard the hash table, so that it is built again on the next lookup.
+     * This is called when a query execution starts.
+     */
+    public void reset() {
+        rows = null;
+        tooLarge = false;
+    }
+
+    private void build(SessionLocal session) {
+        HashMap<Value, ArrayList<Row>> map = new HashMap<>();
+        int maxMemoryRows = database.getMaxMemoryRows();
+        long count = 0;
+        Cursor cursor = scanIndex.find(session, null, null, false);
+        while (cursor.next()) {
+            Row row = cursor.get();
+            Value key = getKey(row);
+            if (key == null) {
+                // NULL is never equal to anything
+                continue;
+            }
+            if (++count > maxMemoryRows) {
+                // the table has grown since the query was planned
+                tooLarge = true;
+                return;
+            }
+            map.computeIfAbsent(key, k -> new ArrayList<>(1)).add(row);
+        }
+        rows = map;
+    }
+
+    private Value getKey(SearchRow row) {
+        int length = columnIds.length;
+        if (length == 1) {
+            Value v = row.getValue(columnIds[0]);
+            return v == ValueNull.INSTANCE ? null : v;
+        }
+        Value[] values = new Value[length];
+        for (int i = 0; i < length; i++) {
+            Value v = row.getValue(columnIds[i]);
+            if (v == ValueNull.INSTANCE) {
+                return null;
+            }
+            values[i] = v;
+        }
+        return ValueRow.get(values);
+    }
+
+    @Override
+    public Cursor find(SessionLocal session, SearchRow first, SearchRow last, boolean reverse) {
+        for (int i = 0, length = columnIds.length; i < length; i++) {
+            int id = columnIds[i], type = columns[i].getType().getValueType();
+            Value v = first == null ? null : first.getValue(id);
+            Value w = last == null ? null : last.getValue(id);
+            if (v == null || w == null || v.getValueType() != type && v != ValueNull.INSTANCE
+                    || w.getValueType() != type && w != ValueNull.INSTANCE) {
+                // not a lookup of a single value of the column type, such as
+                // the lookup of a value of an IN list, read all rows; the
+                // conditions are checked by the caller
+                return scanIndex.find(session, null, null, false);
+            }
+            if (!v.equals(w)) {
+                // an equality condition and a range condition that excludes
+                // the value
+                return SingleRowCursor.EMPTY;
+            }
+        }
+        if (rows == null && !tooLarge) {
+            build(session);
+        }
+        if (tooLarge) {
+            // the conditions are checked by the caller
+            return scanIndex.find(session, null, null, false);
+        }
+        Value key = getKey(first);
+        ArrayList<Row> list = key == null ? null : rows.get(key);
+        if (list == null) {
+            return SingleRowCursor.EMPTY;
+        }
+        return new HashJoinCursor(list);
+    }
+
+    @Override
+    public double getCost(SessionLocal session, int[] masks, TableFilter[] filters, int filter, SortOrder sortOrder,
+            AllColumnsForPlan allColumnsSet, boolean isSelectCommand) {
+        double lookup = 10 * getCostRangeIndex(masks, scanIndex.getRowCountApproximation(session), filters,
+                filter, sortOrder, true, allColumnsSet, isSelectCommand);
+        // the hash table is built once and then used for each row of the
+        // preceding tables
+        double build = scanIndex.getCost(session, null, filters, filter, null, allColumnsSet, isSelectCommand);
+        double outerRows = 1;
+        for (int i = 0; i < filter && outerRows < build; i++) {
+            outerRows *= filters[i].getRowCountEstimate(session);
+        }
+        return lookup + build / outerRows;
+    }
+
+    @Override
+    public String getPlanSQL() {
+        return table.getSQL(new StringBuilder(), HasSQL.TRACE_SQL_FLAGS).append(".hashJoin").toString();
+    }
+
+    @Override
+    public void close(SessionLocal session) {
+        reset();
+    }
+
+    @Override
+    public void add(SessionLocal session, Row row) {
+        throw DbException.getUnsupportedException("HASH JOIN");
+    }
+
+    @Override
+    public void remove(SessionLocal session, Row row) {
+        throw DbException.getUnsupportedException("HASH JOIN");
+    }
+
+    @Override
+    public void remove(SessionLocal session) {
+        throw DbException.getUnsupportedException("HASH JOIN");
+    }
+
+    @Override
+    public void truncate(SessionLocal session) {
+        throw DbException.getUnsupportedException("HASH JOIN");
+    }
+
+    @Override
+    public boolean needRebuild() {
+        return false;
+    }
+
+    @Override
+    public void checkRename() {
+        throw DbException.getUnsupportedException("HASH JOIN");
+    }
+
+    @Override
+    public long getRowCount(SessionLocal session) {
+        return scanIndex.getRowCount(session);
+    }
+
+    @Override
+    public long getRowCountApproximation(SessionLocal session) {
+        return scanIndex.getRowCountApproximation(session);
+    }
+
+    /**
+     * The cursor over the rows with the requested values.
+     */
+    private static final class HashJoinCursor implements Cursor {
+
+        private final ArrayList<Row> list;
+        private int index = -1;
+        private Row row;
+
+        HashJoinCursor(ArrayList<Row> list) {
+            this.list = list;
+        }
+
+        @Override
+        public Row get() {
+            return row;
+        }
+
+        @Override
+        public SearchRow getSearchRow() {
+            return row;
+        }
+
+        @Override
+        public boolean next() {
+            index++;
+            row = index < list.size() ? list.get(index) : null;
+            return row != null;
+        }
+
+        @Override
+        public boolean previous() {
+            throw DbException.getUnsupportedException("previous");
+        }
+    }
+
+}
@@ -255,6 +255,11 @@ public final class AppendOnlyMultiFileStore extends FileStore<MFChunk>
         writeFully(chunk, filePos, buff.getBuffer());
     }
 
+    @Override
+    protected void writeStoreHeader() {
+
+    }
+
     @Override
     protected void writeCleanShutdownMark() {
 
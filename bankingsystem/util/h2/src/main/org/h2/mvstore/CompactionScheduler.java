@@ -0,0 +1,165 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.mvstore;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Compacts the store in the background, in small slices, within an I/O
+ * budget.
+ * <p>
+ * Each time the background writer runs, live pages are moved out of the
+ * chunks with the lowest fill rate, but only as many bytes as the budget
+ * allows: the budget accrues at the configured rate (a token bucket), so a
+ * slice is usually small and the lock is held only briefly.
+ * </p>
+ * <p>
+ * The latency of commits from other threads is tracked. If it rises well
+ * above its long term average, which is what happens when compaction
+ * competes with the application for the disk, compaction pauses, for
+ * longer each time this happens again.
+ * </p>
+ */
+final class CompactionScheduler {
+
+    /**
+     * The largest budget that may be saved up, if the rate is lower. Chunks
+     * are only rewritten as a whole, so a slice must be able to cover one.
+     */
+    private static final long MIN_BURST = 4L << 20;
+
+    /**
+     * A commit is considered slow if the recent latency is this many times
+     * the long term average.
+     */
+    private static final int SLOW_FACTOR = 2;
+
+    /**
+     * Latencies below this are never considered slow.
+     */
+    private static final long MIN_SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final FileStore<?> fileStore;
+
+    /**
+     * The budget, in bytes per second.
+     */
+    private final int rate;
+
+    private final long maxTokens;
+
+    private double tokens;
+
+    private long lastRefill = System.nanoTime();
+
+    private long pausedUntil = lastRefill;
+
+    /**
+     * Whether there were commits since the last slice. Without them, the
+     * recent latency is outdated.
+     */
+    private boolean sampled;
+
+    private long backoff = MIN_BACKOFF_NANOS;
+
+    /**
+     * The recent and the long term average commit latency, in nanoseconds.
+     */
+    private volatile long recentLatency, averageLatency;
+
+    private volatile long slices, bytes, backoffs;
+
+    CompactionScheduler(FileStore<?> fileStore, int rate) {
+        this.fileStore = fileStore;
+        this.rate = rate;
+        maxTokens = Math.max(rate, MIN_BURST);
+    }
+
+    /**
+     * Record the latency of a commit from an application thread.
+     *
+     * @param nanos the time the commit took
+     */
+    synchronized void onCommit(long nanos) {
+        sampled = true;
+        long recent = recentLatency;
+        recentLatency = recent == 0 ? nanos : recent + (nanos - recent) / 4;
+        long average = averageLatency;
+        averageLatency = average == 0 ? nanos : average + (nanos - average) / 64;
+    }
+
+    /**
+     * Run one slice, if the budget allows and the store needs it. This is
+     * called by the background writer thread.
+     *
+     * @param mvStore the store
+     * @param targetFillRate chunks with a lower fill rate are compacted
+     */
+    void run(MVStore mvStore, int targetFillRate) throws InterruptedException {
+        long now = System.nanoTime();
+        int writeLimit;
+        synchronized (this) {
+            tokens = Math.min(maxTokens, tokens + (double) (now - lastRefill) * rate / 1_000_000_000L);
+            lastRefill = now;
+            boolean slow = sampled && isCommitSlow();
+            sampled = false;
+            if (slow) {
+                pausedUntil = now + backoff;
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+                backoffs++;
+                return;
+            }
+            if (now - pausedUntil < 0) {
+                return;
+            }
+            backoff = Math.max(MIN_BACKOFF_NANOS, backoff / 2);
+            writeLimit = (int) Math.min(tokens, Integer.MAX_VALUE);
+        }
+        if (writeLimit <= 0 || fileStore.getRewritableChunksFillRate() >= targetFillRate) {
+            return;
+        }
+        Long written = mvStore.tryExecuteUnderStoreLock(() -> {
+            long w = fileStore.rewriteOldChunks(writeLimit, targetFillRate);
+            if (w > 0) {
+                fileStore.dropUnusedChunks();
+            }
+            return w;
+        });
+        if (written != null && written > 0) {
+            synchronized (this) {
+                tokens -= written;
+                bytes += written;
+                slices++;
+            }
+        }
+    }
+
+    private boolean isCommitSlow() {
+        long recent = recentLatency;
+        return recent > MIN_SLOW_NANOS && recent > averageLatency * SLOW_FACTOR;
+    }
+
+    /**
+     * Add the metrics to the store info.
+     *
+     * @param consumer the consumer of keys and values
+     */
+    synchronized void populateInfo(BiConsumer<String, String> consumer) {
+        consumer.accept("info.COMPACTION_RATE", Integer.toString(rate));
+        consumer.accept("info.COMPACTION_SLICES", Long.toString(slices));
+        consumer.accept("info.COMPACTION_BYTES", Long.toString(bytes));
+        consumer.accept("info.COMPACTION_BACKOFFS", Long.toString(backoffs));
+        consumer.accept("info.COMPACTION_COMMIT_LATENCY",
+                Long.toString(TimeUnit.NANOSECONDS.toMicros(recentLatency)));
+        consumer.accept("info.COMPACTION_PAUSED", Boolean.toString(System.nanoTime() - pausedUntil < 0));
+    }
+
+}
@@ -10,6 +10,12 @@ import java.util.NoSuchElementException;
 
 /**
  * A cursor to iterate over elements in ascending or descending order.
+ * <p>
+ * If the store has a prefetch depth (see
+ * {@link MVStore.Builder#prefetchDepth(int)}), a cursor that has moved from
+ * leaf to leaf a few times reads the next sibling leaves ahead in the
+ * background, so that a scan over cold data does not wait for one disk read
+ * after the other.
  *
  * @param <K> the key type
  * @param <V> the value type
@@ -24,6 +30,15 @@ public final class Cursor<K,V> implements Iterator<K> {
     private V lastValue;
     private Page<K,V> lastPage;
 
+    /**
+     * Read ahead once this many leaves were entered in order.
+     */
+    private static final int SEQUENTIAL_LEAVES = 2;
+
+    private final int prefetchDepth;
+    private int sequentialLeaves;
+    private Page<K,V> prefetchNode;
+    private int prefetchNext;
 
     public Cursor(RootReference<K,V> rootReference, K from, K to) {
         this(rootReference, from, to, false);
@@ -40,6 +55,8 @@ public final class Cursor<K,V> implements Iterator<K> {
         this.cursorPos = traverseDown(lastPage, from, reverse);
         this.to = to;
         this.reverse = reverse;
+        FileStore<?> fileStore = lastPage.map.store.getFileStore();
+        this.prefetchDepth = fileStore == null ? 0 : fileStore.getPrefetchDepth();
     }
 
     @Override
@@ -60,7 +77,11 @@ public final class Cursor<K,V> implements Iterator<K> {
                     keeper = tmp;
                 } else {
                     // traverse down to the leaf taking the leftmost path
+                    boolean descended = !page.isLeaf();
                     while (!page.isLeaf()) {
+                        if (prefetchDepth > 0 && sequentialLeaves >= SEQUENTIAL_LEAVES - 1) {
+                            prefetch(page, index, increment);
+                        }
                         page = page.getChildPage(index);
                         index = reverse ? upperBound(page) - 1 : 0;
                         if (keeper == null) {
@@ -74,6 +95,9 @@ public final class Cursor<K,V> implements Iterator<K> {
                             cursorPos = tmp;
                         }
                     }
+                    if (descended) {
+                        sequentialLeaves++;
+                    }
                     if (reverse ? index >= 0 : index < page.getKeyCount()) {
                         K key = page.getKey(index);
                         if (to != null && Integer.signum(page.map.getKeyType().compare(key, to)) == increment) {
@@ -179,6 +203,47 @@ public final class Cursor<K,V> implements Iterator<K> {
         return cursorPos;
     }
 
+    /**
+     * Read the leaves after the given child of a node ahead, up to the
+     * prefetch depth, and not beyond the end of the range.
+     *
+     * @param node the node
+     * @param index the index of the child that is read now
+     * @param increment 1 for ascending, -1 for descending order
+     */
+    private void prefetch(Page<K,V> node, int index, int increment) {
+        long pos = node.getChildPagePos(index);
+        if (!DataUtils.isPageSaved(pos) || !DataUtils.isLeafPosition(pos)) {
+            // only the parents of leaves
+            return;
+        }
+        MVMap<K,V> map = node.map;
+        int i = index + increment;
+        if (node == prefetchNode) {
+            // skip what was read ahead already
+            i = increment > 0 ? Math.max(i, prefetchNext) : Math.min(i, prefetchNext);
+        }
+        int stop = increment > 0 ? Math.min(index + prefetchDepth + 1, upperBound(node))
+                : Math.max(index - prefetchDepth - 1, -1);
+        FileStore<?> fileStore = map.store.getFileStore();
+        for (; increment > 0 ? i < stop : i > stop; i += increment) {
+            if (to != null) {
+                // ascending: child i has no keys below key i - 1,
+                // descending: child i only has keys below key i
+                int comp = map.getKeyType().compare(node.getKey(increment > 0 ? i - 1 : i), to);
+                if (increment > 0 ? comp > 0 : comp <= 0) {
+                    break;
+                }
+            }
+            pos = node.getChildPagePos(i);
+            if (DataUtils.isPageSaved(pos)) {
+                fileStore.prefetch(map, pos);
+            }
+        }
+        prefetchNode = node;
+        prefetchNext = i;
+    }
+
     private static <K,V> int upperBound(Page<K,V> page) {
         return page.isLeaf() ? page.getKeyCount() : page.map.getChildPageCount(page);
     }
@@ -134,6 +134,16 @@ public final class DataUtils {
      */
     public static final int PAGE_COMPRESSED_HIGH = 2 + 4;
 
+    /**
+     * The bit mask for compressed pages (LZ4).
+     */
+    public static final int PAGE_COMPRESSED_LZ4 = 2 + 8;
+
+    /**
+     * The bit mask for pages compressed with LZ4 and a per-map dictionary.
+     */
+    public static final int PAGE_COMPRESSED_DICTIONARY = 2 + 8 + 16;
+
     /**
      * The maximum integer that needs less space when using variable size
      * encoding (only 3 bytes instead of 4).
@@ -165,6 +175,13 @@ public final class DataUtils {
      */
     public static final String LAYOUT_ROOT = "root.";
 
+    /**
+     * The prefix for page compression dictionaries ("dict."). This, plus the
+     * map id and the dictionary version (hex encoded, separated by a dot) is
+     * the key, and the hex encoded dictionary is the value.
+     */
+    public static final String LAYOUT_DICTIONARY = "dict.";
+
     // The following are key prefixes used in meta map
 
     /**
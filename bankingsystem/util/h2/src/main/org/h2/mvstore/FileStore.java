@@ -8,6 +8,7 @@ package org.h2.mvstore;
 import org.h2.engine.Constants;
 import static org.h2.mvstore.MVStore.INITIAL_VERSION;
 import org.h2.mvstore.cache.CacheLongKeyLIRS;
+import org.h2.mvstore.cache.CacheLongKeyOffHeap;
 import org.h2.mvstore.type.StringDataType;
 import org.h2.util.MathUtils;
 import org.h2.util.Utils;
@@ -39,6 +40,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
@@ -80,10 +82,19 @@ public abstract class FileStore<C extends Chunk<C>>
      */
     static final int BLOCK_SIZE = 4 * 1024;
 
+    /**
+     * The write and read format of files that may contain pages older
+     * versions can not read: LZ4 and dictionary compressed pages, and
+     * columnar row pages. Files are created with the lowest supported format,
+     * and the format is raised when such pages may be written, so that older
+     * versions refuse to open the file instead of reading these pages wrong.
+     */
+    public static final int FORMAT_EXTENDED_PAGES = 4;
+
     private static final int FORMAT_WRITE_MIN = 3;
-    private static final int FORMAT_WRITE_MAX = 3;
+    private static final int FORMAT_WRITE_MAX = 4;
     private static final int FORMAT_READ_MIN = 3;
-    private static final int FORMAT_READ_MAX = 3;
+    private static final int FORMAT_READ_MAX = 4;
 
     MVStore mvStore;
     private boolean closed;
@@ -162,6 +173,14 @@ public abstract class FileStore<C extends Chunk<C>>
      */
     private final CacheLongKeyLIRS<long[]> chunksToC;
 
+    /**
+     * The optional second level page cache, which keeps the serialized pages
+     * outside of the heap. Pages evicted from the page cache can be read from
+     * there instead of the file. The entries are tagged with the version of
+     * the chunk, as the ids of freed chunks are reused.
+     */
+    private final CacheLongKeyOffHeap offHeapCache;
+
     private final Queue<RemovedPageInfo> removedPages = new PriorityBlockingQueue<>();
 
     /**
@@ -194,6 +213,61 @@ public abstract class FileStore<C extends Chunk<C>>
      */
     private MVMap<String, String> layout;
 
+    /**
+     * The page compression dictionaries, kept in the layout map.
+     */
+    private volatile PageDictionaries pageDictionaries;
+
+    /**
+     * The number of sibling leaf pages a cursor reads ahead, 0 if disabled.
+     */
+    private final int prefetchDepth;
+
+    /**
+     * Compacts the store in the background within an I/O budget, or null if
+     * the background writer compacts as needed.
+     */
+    private final CompactionScheduler compactionScheduler;
+
+    /**
+     * The number of threads that serialize the pages of a chunk.
+     */
+    private final int serializationThreads;
+
+    /**
+     * Serializes pages with several threads (created on first use, and only
+     * used by the serialization thread).
+     */
+    private ParallelPageSerializer parallelSerializer;
+
+    /**
+     * Reads pages ahead for cursors (created on first use).
+     */
+    private volatile ThreadPoolExecutor prefetchExecutor;
+
+    /**
+     * Positions of pages that are being or were read ahead, and were not
+     * requested yet.
+     */
+    private final ConcurrentHashMap<Long, Boolean> prefetched = new ConcurrentHashMap<>();
+
+    /**
+     * The number of pages read ahead.
+     */
+    private final AtomicLong prefetchCount = new AtomicLong();
+
+    /**
+     * The number of pages that were read ahead and found in the cache when
+     * requested.
+     */
+    private final AtomicLong prefetchHits = new AtomicLong();
+
+    /**
+     * The number of pages that were scheduled to be read ahead, but were not
+     * in the cache (yet, or any more) when requested.
+     */
+    private final AtomicLong prefetchMisses = new AtomicLong();
+
     private final Deque<C> deadChunks = new ConcurrentLinkedDeque<>();
 
     /**
@@ -216,6 +290,16 @@ public abstract class FileStore<C extends Chunk<C>>
 
     public static final int PIPE_LENGTH = 3;
 
+    /**
+     * The maximum number of threads reading pages ahead.
+     */
+    private static final int MAX_PREFETCH_THREADS = 8;
+
+    /**
+     * The maximum number of read-ahead pages that are tracked.
+     */
+    private static final int MAX_PREFETCHED = 16 * 1024;
+
 
 
 
@@ -233,11 +317,19 @@ public abstract class FileStore<C extends Chunk<C>>
             }
         }
         cache = cc == null ? null : new CacheLongKeyLIRS<>(cc);
+        // read-ahead pages go to the cache, so it is useless without one
+        prefetchDepth = cache == null ? 0 : DataUtils.getConfigParam(config, "prefetchDepth", 0);
+        serializationThreads = Math.max(1, DataUtils.getConfigParam(config, "serializationThreads", 1));
+        int compactionRate = DataUtils.getConfigParam(config, "compactionRate", 0);
+        compactionScheduler = compactionRate > 0 ? new CompactionScheduler(this, compactionRate) : null;
 
         CacheLongKeyLIRS.Config cc2 = new CacheLongKeyLIRS.Config();
         cc2.maxMemory = 1024L * 1024L;
         chunksToC = new CacheLongKeyLIRS<>(cc2);
 
+        int offHeapMb = DataUtils.getConfigParam(config, "offHeapCacheSize", 0);
+        offHeapCache = offHeapMb > 0 ? new CacheLongKeyOffHeap(offHeapMb * 1024L * 1024L) : null;
+
         int maxPageSize = DataUtils.getConfigParam(config, "pageSplitSize",
                                                     cache == null ? Integer.MAX_VALUE : Constants.DEFAULT_PAGE_SIZE);
         // Make sure pages will fit into cache
@@ -264,6 +356,7 @@ public abstract class FileStore<C extends Chunk<C>>
             long pos = layout == null ? 0L : layout.getRootPage().getPos();
             layout = new MVMap<>(mvStore, 0, StringDataType.INSTANCE, StringDataType.INSTANCE);
             layout.setRootPos(pos, mvStore.getCurrentVersion());
+            pageDictionaries = new PageDictionaries(layout);
             this.mvStore = mvStore;
             mvStore.resetLastMapId(lastChunk == null ? 0 : lastChunk.mapId);
             mvStore.setCurrentVersion(lastChunkVersion());
@@ -271,18 +364,25 @@ public abstract class FileStore<C extends Chunk<C>>
     }
 
     public final void stop(long allowedCompactionTime) {
+        stopPrefetch();
         if (allowedCompactionTime > 0) {
             compactStore(allowedCompactionTime);
         }
         mvStore.commit();
         writeCleanShutdown();
         clearCaches();
+        stopParallelSerializer();
     }
 
     public void close() {
         layout.close();
         closed = true;
         chunks.clear();
+        stopPrefetch();
+        stopParallelSerializer();
+        if (offHeapCache != null) {
+            offHeapCache.close();
+        }
     }
 
     public final int getMetaMapId(IntSupplier nextIdSupplier) {
@@ -307,6 +407,7 @@ public abstract class FileStore<C extends Chunk<C>>
      * <pre>
      * chunk.{chunkId} = {chunk metadata}
      * root.{mapId} = {root position}
+     * dict.{mapId}.{version} = {page compression dictionary}
      * </pre>
      *
      * @return the metadata map
@@ -320,6 +421,10 @@ public abstract class FileStore<C extends Chunk<C>>
         return map != layout;
     }
 
+    final PageDictionaries getPageDictionaries() {
+        return pageDictionaries;
+    }
+
     /**
      * Get "position" of the root page for the specified map
      * @param mapId to get root position for
@@ -338,6 +443,7 @@ public abstract class FileStore<C extends Chunk<C>>
      * @return true if root was removed, false if it is not there
      */
     public final boolean deregisterMapRoot(int mapId) {
+        pageDictionaries.remove(mapId);
         return layout.remove(MVMap.getMapRootKey(mapId)) != null;
     }
 
@@ -484,6 +590,8 @@ public abstract class FileStore<C extends Chunk<C>>
                 layout.setInitialRoot(layoutMap.getRootPage(), version);
             }
         }
+        // dictionaries added after this version are gone
+        pageDictionaries = new PageDictionaries(layout);
         serializationLock.lock();
         try {
             C keep = getChunkForVersion(version);
@@ -509,7 +617,7 @@ public abstract class FileStore<C extends Chunk<C>>
         creationTime = time;
         storeHeader.put(FileStore.HDR_H, 2);
         storeHeader.put(FileStore.HDR_BLOCK_SIZE, FileStore.BLOCK_SIZE);
-        storeHeader.put(FileStore.HDR_FORMAT, FORMAT_WRITE_MAX);
+        storeHeader.put(FileStore.HDR_FORMAT, FORMAT_WRITE_MIN);
         storeHeader.put(FileStore.HDR_CREATED, creationTime);
     }
 
@@ -613,6 +721,18 @@ public abstract class FileStore<C extends Chunk<C>>
             }
         }
 
+        // and their compression dictionaries
+        for (Iterator<String> it = layout.keyIterator(DataUtils.LAYOUT_DICTIONARY); it.hasNext();) {
+            String key = it.next();
+            if (!key.startsWith(DataUtils.LAYOUT_DICTIONARY)) {
+                break;
+            }
+            String mapIdStr = key.substring(DataUtils.LAYOUT_DICTIONARY.length(), key.lastIndexOf('.'));
+            if (!meta.containsKey(DataUtils.META_MAP + mapIdStr)) {
+                keysToRemove.add(key);
+            }
+        }
+
         for (String key : keysToRemove) {
             layout.remove(key);
         }
@@ -637,6 +757,7 @@ public abstract class FileStore<C extends Chunk<C>>
             chunks.put(last.id, last);
         }
         layout.setRootPos(layoutRootPos, lastChunkVersion());
+        pageDictionaries = new PageDictionaries(layout);
     }
 
     protected final void registerDeadChunk(C chunk) {
@@ -658,10 +779,15 @@ public abstract class FileStore<C extends Chunk<C>>
                 if (chunks.remove(chunk.id) != null) {
                     // purge dead pages from cache
                     long[] toc = cleanToCCache(chunk);
-                    if (toc != null && cache != null) {
+                    if (toc != null && (cache != null || offHeapCache != null)) {
                         for (long tocElement : toc) {
                             long pagePos = DataUtils.composePagePos(chunk.id, tocElement);
-                            cache.remove(pagePos);
+                            if (cache != null) {
+                                cache.remove(pagePos);
+                            }
+                            if (offHeapCache != null) {
+                                offHeapCache.remove(pagePos);
+                            }
                         }
                     }
 
@@ -933,6 +1059,40 @@ public abstract class FileStore<C extends Chunk<C>>
 
     protected abstract void readStoreHeader(boolean recoveryMode);
 
+    protected abstract void writeStoreHeader();
+
+    /**
+     * Raise the write and read format of the file to at least the given
+     * format, and write the store header right away, before any page that
+     * needs this format is written. Nothing is done for a read-only store.
+     *
+     * @param format the required format
+     */
+    public final void requireFormat(int format) {
+        if (isReadOnly()) {
+            return;
+        }
+        serializationLock.lock();
+        try {
+            saveChunkLock.lock();
+            try {
+                Object current = storeHeader.get(HDR_FORMAT);
+                long value = current instanceof Integer ? (Integer) current
+                        : DataUtils.readHexLong(storeHeader, HDR_FORMAT, 1);
+                if (value < format) {
+                    storeHeader.put(HDR_FORMAT, format);
+                    // the read format is then the same
+                    storeHeader.remove(HDR_FORMAT_READ);
+                    writeStoreHeader();
+                }
+            } finally {
+                saveChunkLock.unlock();
+            }
+        } finally {
+            serializationLock.unlock();
+        }
+    }
+
     private int lastMapId() {
         C chunk = lastChunk;
         return chunk == null ? 0 : chunk.mapId;
@@ -1376,10 +1536,15 @@ public abstract class FileStore<C extends Chunk<C>>
 
 
     final void storeIt(ArrayList<Page<?,?>> changed, long version, boolean syncWrite) throws ExecutionException {
+        long start = System.nanoTime();
         lastCommitTime = getTimeSinceCreation();
         serializationExecutorHWM = submitOrRun(serializationExecutor,
                 () -> serializeAndStore(syncWrite, changed, lastCommitTime, version),
                 syncWrite, PIPE_LENGTH, serializationExecutorHWM);
+        if (compactionScheduler != null && !isBackgroundThread()) {
+            // the time the application waits for, including a full pipeline
+            compactionScheduler.onCommit(System.nanoTime() - start);
+        }
     }
 
     private static int submitOrRun(ThreadPoolExecutor executor, Runnable action,
@@ -1457,14 +1622,23 @@ public abstract class FileStore<C extends Chunk<C>>
 
         long version = c.version;
         PageSerializationManager pageSerializationManager = new PageSerializationManager(c, buff);
-        for (Page<?,?> p : changed) {
-            String key = MVMap.getMapRootKey(p.getMapId());
-            if (p.getTotalCount() == 0) {
-                layout.remove(key);
-            } else {
-                p.writeUnsavedRecursive(pageSerializationManager);
-                long root = p.getPos();
-                layout.put(key, Long.toHexString(root));
+        ParallelPageSerializer.Batch batch = serializeInParallel(changed);
+        pageSerializationManager.serializedBodies = batch;
+        try {
+            for (Page<?,?> p : changed) {
+                String key = MVMap.getMapRootKey(p.getMapId());
+                if (p.getTotalCount() == 0) {
+                    layout.remove(key);
+                } else {
+                    p.writeUnsavedRecursive(pageSerializationManager);
+                    long root = p.getPos();
+                    layout.put(key, Long.toHexString(root));
+                }
+            }
+        } finally {
+            pageSerializationManager.serializedBodies = null;
+            if (batch != null) {
+                batch.release();
             }
         }
 
@@ -1509,6 +1683,44 @@ public abstract class FileStore<C extends Chunk<C>>
         c.buffer = buff.getBuffer();
     }
 
+    /**
+     * Serialize the keys and values of the changed pages with several threads,
+     * if enabled.
+     *
+     * @param changed the root pages of the changed maps
+     * @return the serialized pages, or null if they are serialized one by one
+     *         while the chunk is assembled
+     */
+    private ParallelPageSerializer.Batch serializeInParallel(ArrayList<Page<?,?>> changed) {
+        int compressionLevel = mvStore.getCompressionLevel();
+        // dictionaries are trained from the pages in the order they are written
+        if (serializationThreads <= 1 || compressionLevel >= 4) {
+            return null;
+        }
+        ArrayList<Page<?,?>> roots = new ArrayList<>(changed.size());
+        for (Page<?,?> p : changed) {
+            if (p.getTotalCount() != 0) {
+                roots.add(p);
+            }
+        }
+        if (parallelSerializer == null) {
+            parallelSerializer = new ParallelPageSerializer(serializationThreads);
+        }
+        return parallelSerializer.serialize(roots, compressionLevel);
+    }
+
+    private void stopParallelSerializer() {
+        serializationLock.lock();
+        try {
+            if (parallelSerializer != null) {
+                parallelSerializer.close();
+                parallelSerializer = null;
+            }
+        } finally {
+            serializationLock.unlock();
+        }
+    }
+
     private void storeBuffer(C c, WriteBuffer buff) {
         saveChunkLock.lock();
         try {
@@ -1720,6 +1932,17 @@ public abstract class FileStore<C extends Chunk<C>>
         consumer.accept("info.CACHE_SIZE", Integer.toString(getCacheSizeUsed()));
         consumer.accept("info.CACHE_HIT_RATIO", Integer.toString(getCacheHitRatio()));
         consumer.accept("info.TOC_CACHE_HIT_RATIO", Integer.toString(getTocCacheHitRatio()));
+        consumer.accept("info.OFF_HEAP_CACHE_MAX_SIZE", Integer.toString(getOffHeapCacheSize()));
+        consumer.accept("info.OFF_HEAP_CACHE_SIZE", Integer.toString(getOffHeapCacheSizeUsed()));
+        consumer.accept("info.OFF_HEAP_CACHE_HIT_RATIO", Integer.toString(getOffHeapCacheHitRatio()));
+        consumer.accept("info.PREFETCH_DEPTH", Integer.toString(prefetchDepth));
+        consumer.accept("info.SERIALIZATION_THREADS", Integer.toString(serializationThreads));
+        if (compactionScheduler != null) {
+            compactionScheduler.populateInfo(consumer);
+        }
+        consumer.accept("info.PREFETCH_COUNT", Long.toString(prefetchCount.get()));
+        consumer.accept("info.PREFETCH_HITS", Long.toString(prefetchHits.get()));
+        consumer.accept("info.PREFETCH_MISSES", Long.toString(prefetchMisses.get()));
     }
 
 
@@ -1731,6 +1954,39 @@ public abstract class FileStore<C extends Chunk<C>>
         return getCacheHitRatio(chunksToC);
     }
 
+    /**
+     * Get the maximum size of the second level (off-heap) page cache, in MB.
+     *
+     * @return the cache size, or 0 if it is not used
+     */
+    public int getOffHeapCacheSize() {
+        return offHeapCache == null ? 0 : (int) (offHeapCache.getMaxMemory() >> 20);
+    }
+
+    /**
+     * Get the amount of memory used by the second level (off-heap) page
+     * cache, in MB.
+     *
+     * @return the amount of memory used
+     */
+    public int getOffHeapCacheSizeUsed() {
+        return offHeapCache == null ? 0 : (int) (offHeapCache.getUsedMemory() >> 20);
+    }
+
+    /**
+     * Get the hit ratio of the second level (off-heap) page cache, that is,
+     * the percentage of the page cache misses it could serve.
+     *
+     * @return the hit ratio
+     */
+    public int getOffHeapCacheHitRatio() {
+        if (offHeapCache == null) {
+            return 0;
+        }
+        long hits = offHeapCache.getHits();
+        return (int) (100 * hits / (hits + offHeapCache.getMisses() + 1));
+    }
+
     private static int getCacheHitRatio(CacheLongKeyLIRS<?> cache) {
         if (cache == null) {
             return 0;
@@ -1840,6 +2096,9 @@ public abstract class FileStore<C extends Chunk<C>>
                     mvStore.tryCommit();
                 }
                 doHousekeeping(mvStore);
+                if (compactionScheduler != null) {
+                    compactionScheduler.run(mvStore, autoCompactFillRate);
+                }
                 // less than 10 I/O operations will still count as "idle"
                 autoCompactLastFileOpCount = getWriteCount() + getReadCount() + 10;
             }
@@ -1852,6 +2111,19 @@ public abstract class FileStore<C extends Chunk<C>>
     }
 
     protected boolean rewriteChunks(int writeLimit, int targetFillRate) {
+        return rewriteOldChunks(writeLimit, targetFillRate) > 0;
+    }
+
+    /**
+     * Rewrite the live pages of chunks with a low fill rate.
+     *
+     * @param writeLimit the maximum amount of live data to move
+     * @param targetFillRate only chunks with at most this fill rate are
+     *            rewritten
+     * @return the amount of live data of the rewritten chunks, or 0 if no
+     *         page was rewritten
+     */
+    final long rewriteOldChunks(int writeLimit, int targetFillRate) {
         serializationLock.lock();
         try {
             MVStore.TxCounter txCounter = mvStore.registerVersionUsage();
@@ -1859,18 +2131,34 @@ public abstract class FileStore<C extends Chunk<C>>
                 acceptChunkOccupancyChanges(getTimeSinceCreation(), mvStore.getCurrentVersion());
                 Iterable<C> old = findOldChunks(writeLimit, targetFillRate);
                 if (old != null) {
+                    long live = 0;
+                    for (C c : old) {
+                        live += c.maxLenLive;
+                    }
                     HashSet<Integer> idSet = createIdSet(old);
-                    return !idSet.isEmpty() && compactRewrite(idSet) > 0;
+                    if (!idSet.isEmpty() && compactRewrite(idSet) > 0) {
+                        return live;
+                    }
                 }
             } finally {
                 mvStore.deregisterVersionUsage(txCounter);
             }
-            return false;
+            return 0;
         } finally {
             serializationLock.unlock();
         }
     }
 
+    /**
+     * Whether chunks are rewritten by the compaction scheduler, within its
+     * I/O budget, rather than by the housekeeping of the store.
+     *
+     * @return true if the compaction scheduler is enabled
+     */
+    protected final boolean isCompactionScheduled() {
+        return compactionScheduler != null;
+    }
+
     private static <C extends Chunk<C>> HashSet<Integer> createIdSet(Iterable<C> toCompact) {
         HashSet<Integer> set = new HashSet<>();
         for (C c : toCompact) {
@@ -1898,6 +2186,10 @@ public abstract class FileStore<C extends Chunk<C>>
     }
 
     private int compactRewrite(Set<Integer> set) {
+        if (mvStore.getCompressionLevel() == 4) {
+            // the rewritten pages are sampled for new dictionaries
+            pageDictionaries.retrain();
+        }
         acceptChunkOccupancyChanges(getTimeSinceCreation(), mvStore.getCurrentVersion());
         int rewrittenPageCount = rewriteChunks(set, false);
         acceptChunkOccupancyChanges(getTimeSinceCreation(), mvStore.getCurrentVersion());
@@ -1952,6 +2244,93 @@ public abstract class FileStore<C extends Chunk<C>>
      * @return the page
      */
     <K,V> Page<K,V> readPage(MVMap<K,V> map, long pos) {
+        if (!prefetched.isEmpty() && prefetched.remove(pos) != null) {
+            (cache.containsKey(pos) ? prefetchHits : prefetchMisses).incrementAndGet();
+        }
+        return loadPage(map, pos);
+    }
+
+    /**
+     * Get the number of sibling leaf pages a cursor reads ahead.
+     *
+     * @return the number of pages, 0 if disabled
+     */
+    int getPrefetchDepth() {
+        return prefetchDepth;
+    }
+
+    /**
+     * Read a page in the background, so that a later {@link #readPage} finds
+     * it in the cache. This is only a hint: nothing is done if the page is
+     * cached already or the read-ahead queue is full, and read errors are
+     * ignored (the page is then read again when requested).
+     *
+     * @param map the map
+     * @param pos the page position
+     */
+    void prefetch(MVMap<?,?> map, long pos) {
+        if (closed || !DataUtils.isPageSaved(pos) || cache.containsKey(pos) || prefetched.containsKey(pos)) {
+            return;
+        }
+        ThreadPoolExecutor executor = getPrefetchExecutor();
+        if (executor == null) {
+            return;
+        }
+        if (prefetched.size() > MAX_PREFETCHED) {
+            // pages that were evicted, or belong to abandoned cursors
+            prefetched.clear();
+        }
+        prefetched.put(pos, Boolean.TRUE);
+        try {
+            executor.execute(() -> {
+                // skip it if it was requested (and read) in the meantime
+                if (!closed && !map.isClosed() && prefetched.containsKey(pos)) {
+                    try {
+                        loadPage(map, pos);
+                        prefetchCount.incrementAndGet();
+                    } catch (RuntimeException ignore) {
+                        prefetched.remove(pos);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            prefetched.remove(pos);
+        }
+    }
+
+    private ThreadPoolExecutor getPrefetchExecutor() {
+        ThreadPoolExecutor executor = prefetchExecutor;
+        if (executor == null) {
+            synchronized (prefetched) {
+                executor = prefetchExecutor;
+                if (executor == null && !closed) {
+                    int threads = Math.min(prefetchDepth, MAX_PREFETCH_THREADS);
+                    executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<>(prefetchDepth * 4), r -> {
+                                Thread thread = new Thread(r, "H2-prefetch");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                    executor.allowCoreThreadTimeOut(true);
+                    prefetchExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private void stopPrefetch() {
+        ThreadPoolExecutor executor;
+        synchronized (prefetched) {
+            executor = prefetchExecutor;
+            prefetchExecutor = null;
+        }
+        // no shutdownNow(): interrupting a read would close the file channel
+        Utils.shutdownExecutor(executor);
+        prefetched.clear();
+    }
+
+    private <K,V> Page<K,V> loadPage(MVMap<K,V> map, long pos) {
         try {
             if (!DataUtils.isPageSaved(pos)) {
                 throw DataUtils.newMVStoreException(
@@ -1960,13 +2339,22 @@ public abstract class FileStore<C extends Chunk<C>>
             Page<K,V> page = readPageFromCache(pos);
             if (page == null) {
                 C chunk = getChunk(pos);
+                page = readPageFromOffHeapCache(map, pos, chunk);
+                if (page != null) {
+                    cachePage(page);
+                    return page;
+                }
                 int pageOffset = DataUtils.getPageOffset(pos);
                 while(true) {
                     MVStoreException exception = null;
                     ByteBuffer buff = chunk.buffer;
                     boolean alreadySaved = buff == null;
+                    ByteBuffer raw = null;
                     if (alreadySaved) {
                         buff = chunk.readBufferForPage(this, pageOffset, pos);
+                        if (offHeapCache != null) {
+                            raw = buff.duplicate();
+                        }
                     } else {
 //                        System.err.println("Using unsaved buffer " + chunk.id + "/" + pageOffset);
                         buff = buff.duplicate();
@@ -1984,6 +2372,10 @@ public abstract class FileStore<C extends Chunk<C>>
                     }
                     if (alreadySaved) {
                         if (exception == null) {
+                            if (raw != null) {
+                                // the page length was checked when reading it
+                                offHeapCache.put(pos, chunk.version, raw, raw.getInt(raw.position()));
+                            }
                             break;
                         }
                         throw exception;
@@ -2055,6 +2447,9 @@ public abstract class FileStore<C extends Chunk<C>>
         if (cache != null) {
             cache.clear();
         }
+        if (offHeapCache != null) {
+            offHeapCache.clear();
+        }
         if (chunksToC != null) {
             chunksToC.clear();
         }
@@ -2080,6 +2475,31 @@ public abstract class FileStore<C extends Chunk<C>>
         return cache == null ? null : (Page<K,V>)cache.get(pos);
     }
 
+    /**
+     * Read a page from the second level cache.
+     *
+     * @param map the map
+     * @param pos the page position
+     * @param chunk the chunk of the page
+     * @return the page, or null if it is not cached
+     */
+    private <K,V> Page<K,V> readPageFromOffHeapCache(MVMap<K,V> map, long pos, C chunk) {
+        if (offHeapCache == null) {
+            return null;
+        }
+        ByteBuffer buff = offHeapCache.get(pos, chunk.version);
+        if (buff == null) {
+            return null;
+        }
+        try {
+            return Page.read(buff, pos, map);
+        } catch (Exception e) {
+            // should not happen; read it from the file instead
+            offHeapCache.remove(pos);
+            return null;
+        }
+    }
+
     /**
      * Remove a page.
      * @param pos the position of the page
@@ -2104,6 +2524,11 @@ public abstract class FileStore<C extends Chunk<C>>
         private final WriteBuffer buff;
         private final List<Long> toc = new ArrayList<>();
 
+        /**
+         * The keys and values serialized in advance, or null.
+         */
+        ParallelPageSerializer.Batch serializedBodies;
+
         PageSerializationManager(C chunk, WriteBuffer buff) {
             this.chunk = chunk;
             this.buff = buff;
@@ -2113,6 +2538,19 @@ public abstract class FileStore<C extends Chunk<C>>
             return buff;
         }
 
+        /**
+         * Get the keys and values of a page if they were serialized in
+         * advance.
+         *
+         * @param page the page
+         * @return the compression bits of the page type (one byte) followed
+         *         by the data, or null
+         */
+        ByteBuffer getSerializedBody(Page<?,?> page) {
+            ParallelPageSerializer.Batch batch = serializedBodies;
+            return batch == null ? null : batch.get(page);
+        }
+
         private int getChunkId() {
             return chunk.id;
         }
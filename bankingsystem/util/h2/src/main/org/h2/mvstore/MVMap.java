@@ -448,6 +448,27 @@ public class MVMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V
      * @return the new root reference
      */
     RootReference<K,V> clearIt() {
+        if (singleWriter) {
+            RootReference<K,V> rootReference = getRoot();
+            if (rootReference.getAppendCounter() > 0 && rootReference.root.getTotalCount() == 0) {
+                // all entries are in the append buffer, simply discard them
+                beforeWrite();
+                rootReference = lockRoot(rootReference, 1);
+                int appendCounter = rootReference.getAppendCounter();
+                // the buffer may have been flushed in the meantime
+                boolean discarded = rootReference.root.getTotalCount() == 0;
+                try {
+                    if (discarded) {
+                        appendCounter = 0;
+                    }
+                } finally {
+                    rootReference = unlockRoot(null, appendCounter);
+                }
+                if (discarded) {
+                    return rootReference;
+                }
+            }
+        }
         Page<K,V> emptyRootPage = createEmptyLeaf();
         int attempt = 0;
         while (true) {
@@ -1386,6 +1407,33 @@ public class MVMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V
         }
     }
 
+    /**
+     * Copies the entries of this map, if they are all in the append buffer,
+     * without flushing it. This is the case if only a few entries were
+     * appended since the map was empty. Like {@link #append(Object, Object)},
+     * this method may only be used by the single writer.
+     *
+     * @param keys the target array for the keys
+     * @param values the target array for the values
+     * @return the number of entries, or -1 if some entries are not in the
+     *         append buffer or do not fit into the arrays
+     */
+    public int copyAppendBuffer(K[] keys, V[] values) {
+        if (!singleWriter) {
+            return -1;
+        }
+        RootReference<K,V> rootReference = getRoot();
+        int appendCounter = rootReference.getAppendCounter();
+        if (rootReference.root.getTotalCount() != 0 || appendCounter > keys.length) {
+            return -1;
+        }
+        System.arraycopy(keysBuffer, 0, keys, 0, appendCounter);
+        if (valuesBuffer != null) {
+            System.arraycopy(valuesBuffer, 0, values, 0, appendCounter);
+        }
+        return appendCounter;
+    }
+
     /**
      * Removes last entry from this map. this method is NOT thread safe and can not be used
      * neither concurrently, nor in combination with any method that updates this map.
@@ -31,6 +31,7 @@ import java.util.function.BiConsumer;
 import java.util.function.LongConsumer;
 import java.util.function.Predicate;
 import org.h2.compress.CompressDeflate;
+import org.h2.compress.CompressLZ4;
 import org.h2.compress.CompressLZF;
 import org.h2.compress.Compressor;
 import org.h2.engine.Constants;
@@ -76,7 +77,6 @@ MVStore:
     use a transaction log where only the deltas are stored
 - serialization for lists, sets, sets, sorted sets, maps, sorted maps
 - maybe rename 'rollback' to 'revert' to distinguish from transactions
-- support other compression algorithms (deflate, LZ4,...)
 - remove features that are not really needed; simplify the code
     possibly using a separate layer or tools
     (retainVersion?)
@@ -192,7 +192,8 @@ public final class MVStore implements AutoCloseable {
 
     /**
      * The compression level for new pages (0 for disabled, 1 for fast, 2 for
-     * high). Even if disabled, the store may contain (old) compressed pages.
+     * high, 3 for LZ4, 4 for LZ4 with per-map dictionaries). Even if
+     * disabled, the store may contain (old) compressed pages.
      */
     private final int compressionLevel;
 
@@ -200,6 +201,8 @@ public final class MVStore implements AutoCloseable {
 
     private Compressor compressorHigh;
 
+    private Compressor compressorLZ4;
+
     public final UncaughtExceptionHandler backgroundExceptionHandler;
 
     private volatile long currentVersion;
@@ -292,6 +295,10 @@ public final class MVStore implements AutoCloseable {
                 }
                 fileStore.bind(this);
                 metaMap = fileStore.start();
+                if (compressionLevel >= 3) {
+                    // LZ4 and dictionary compressed pages
+                    fileStore.requireFormat(FileStore.FORMAT_EXTENDED_PAGES);
+                }
             } catch (MVStoreException e) {
                 panic(e);
             } finally {
@@ -1168,10 +1175,58 @@ public final class MVStore implements AutoCloseable {
         return compressorHigh;
     }
 
+    Compressor getCompressorLZ4() {
+        if (compressorLZ4 == null) {
+            compressorLZ4 = new CompressLZ4();
+        }
+        return compressorLZ4;
+    }
+
+    /**
+     * Get the compressor that wrote a page, from the compression bits of its
+     * type. Pages written with any level stay readable whatever level the
+     * store is opened with.
+     *
+     * @param type the page type byte
+     * @return the compressor
+     */
+    Compressor getCompressorForPage(int type) {
+        if ((type & DataUtils.PAGE_COMPRESSED_LZ4) == DataUtils.PAGE_COMPRESSED_LZ4) {
+            return getCompressorLZ4();
+        } else if ((type & DataUtils.PAGE_COMPRESSED_HIGH) == DataUtils.PAGE_COMPRESSED_HIGH) {
+            return getCompressorHigh();
+        }
+        return getCompressorFast();
+    }
+
     int getCompressionLevel() {
         return compressionLevel;
     }
 
+    /**
+     * Get the compressor for pages that were compressed with a dictionary.
+     *
+     * @param mapId the map id
+     * @param version the dictionary version
+     * @return the compressor
+     */
+    Compressor getDictionaryCompressor(int mapId, int version) {
+        return fileStore.getPageDictionaries().getCompressor(mapId, version);
+    }
+
+    /**
+     * Get the compression dictionaries to use for leaf pages of the given map.
+     *
+     * @param map the map
+     * @return the dictionaries, or null if the map does not use them
+     */
+    PageDictionaries getPageDictionaries(MVMap<?, ?> map) {
+        if (compressionLevel != 4 || fileStore == null || !fileStore.isRegularMap(map) || map == meta) {
+            return null;
+        }
+        return fileStore.getPageDictionaries();
+    }
+
     public int getKeysPerPage() {
         return keysPerPage;
     }
@@ -1202,6 +1257,15 @@ public final class MVStore implements AutoCloseable {
         return fileStore == null ? 0 : fileStore.getCacheSizeUsed();
     }
 
+    /**
+     * Get the maximum size of the second level (off-heap) page cache, in MB.
+     *
+     * @return the cache size, or 0 if it is not used
+     */
+    public int getOffHeapCacheSize() {
+        return fileStore == null ? 0 : fileStore.getOffHeapCacheSize();
+    }
+
     /**
      * Set the maximum memory to be used by the cache.
      *
@@ -2077,6 +2141,22 @@ public final class MVStore implements AutoCloseable {
             return set("cacheConcurrency", concurrency);
         }
 
+        /**
+         * Set the size of the second level page cache in MB. The default is
+         * 0, meaning it is not used.
+         * <p>
+         * This cache keeps serialized pages outside of the heap, so pages
+         * evicted from the read cache can be decoded again without reading
+         * the file. The memory counts towards the limit set with the JVM
+         * option -XX:MaxDirectMemorySize.
+         *
+         * @param mb the cache size in megabytes
+         * @return this
+         */
+        public Builder offHeapCacheSize(int mb) {
+            return set("offHeapCacheSize", mb);
+        }
+
         /**
          * Compress data before writing using the LZF algorithm. This will save
          * about 50% of the disk space, but will slow down read and write
@@ -2107,6 +2187,99 @@ public final class MVStore implements AutoCloseable {
             return set("compress", 2);
         }
 
+        /**
+         * Compress data before writing using the LZ4 algorithm. This usually
+         * saves more disk space than LZF at a similar speed, and is much
+         * faster than Deflate.
+         * <p>
+         * This setting only affects writes; pages written with LZF or Deflate
+         * can still be read. Files containing LZ4 pages can not be read by
+         * older versions.
+         *
+         * @return this
+         */
+        public Builder compressLZ4() {
+            return set("compress", 3);
+        }
+
+        /**
+         * Compress data before writing using the LZ4 algorithm, with a
+         * dictionary per map that is trained from the first leaf pages
+         * written and retrained when the store is compacted. This saves
+         * considerably more space than LZF or plain LZ4 for maps with small
+         * entries, such as secondary indexes, at a similar speed. The
+         * dictionaries are stored in the layout map.
+         * <p>
+         * This setting only affects writes. Files containing such pages can
+         * not be read by older versions.
+         *
+         * @return this
+         */
+        public Builder compressDictionary() {
+            return set("compress", 4);
+        }
+
+        /**
+         * Set the number of leaf pages a cursor reads ahead once it scans
+         * sequentially. The pages are read in parallel by background threads
+         * and put into the page cache, which helps range scans over data that
+         * is not cached. The default is 0 (disabled). Read-ahead needs a page
+         * cache.
+         *
+         * @param depth the number of pages to read ahead
+         * @return this
+         */
+        public Builder prefetchDepth(int depth) {
+            return set("prefetchDepth", depth);
+        }
+
+        /**
+         * Set the number of threads that serialize and compress the changed
+         * pages when a chunk is written. The default is 1. With more threads,
+         * large commits are written faster, as the keys and values of the
+         * pages are prepared in parallel; the file format does not change.
+         * This is not used with dictionary compression.
+         * <p>
+         * The key and value types need to support writing from several
+         * threads at the same time.
+         *
+         * @param threads the number of threads
+         * @return this
+         */
+        public Builder serializationThreads(int threads) {
+            return set("serializationThreads", threads);
+        }
+
+        /**
+         * Compact the store in the background within the given I/O budget.
+         * Live pages are moved out of chunks with a low fill rate in small
+         * slices, each time the background writer runs, and compaction
+         * pauses while commits of the application are slower than usual.
+         * The default is 0, meaning the background writer compacts as it
+         * sees fit. Progress is reported by the COMPACTION_* entries of
+         * {@link FileStore#populateInfo}.
+         *
+         * @param bytesPerSecond the amount of live data to move per second
+         * @return this
+         */
+        public Builder compactionRate(int bytesPerSecond) {
+            return set("compactionRate", bytesPerSecond);
+        }
+
+        /**
+         * Read saved chunks through a read-only memory mapping of the file,
+         * so that a page that is not cached is decoded from the mapping
+         * instead of being copied into a new buffer first. This helps
+         * read-heavy workloads whose data does not fit the page cache. It is
+         * ignored for encrypted files and file systems that do not support
+         * mapping.
+         *
+         * @return this
+         */
+        public Builder mappedReads() {
+            return set("mappedReads", 1);
+        }
+
         /**
          * Set the amount of memory a page should contain at most, in bytes,
          * before it is split. The default is 16 KB for persistent stores and 4
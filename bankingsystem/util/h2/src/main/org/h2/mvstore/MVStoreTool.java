@@ -18,6 +18,7 @@ import java.util.Map.Entry;
 import java.util.TreeMap;
 
 import org.h2.compress.CompressDeflate;
+import org.h2.compress.CompressLZ4;
 import org.h2.compress.CompressLZF;
 import org.h2.compress.Compressor;
 import org.h2.engine.Constants;
@@ -238,8 +239,7 @@ public class MVStoreTool {
                     if (mapId == 0 && details) {
                         ByteBuffer data;
                         if (compressed) {
-                            boolean fast = (type & DataUtils.PAGE_COMPRESSED_HIGH) != DataUtils.PAGE_COMPRESSED_HIGH;
-                            Compressor compressor = getCompressor(fast);
+                            Compressor compressor = getCompressor(type);
                             int lenAdd = DataUtils.readVarInt(chunk);
                             int compLen = pageSize + start - chunk.position();
                             byte[] comp = Utils.newBytes(compLen);
@@ -334,8 +334,14 @@ public class MVStoreTool {
         pw.flush();
     }
 
-    private static Compressor getCompressor(boolean fast) {
-        return fast ? new CompressLZF() : new CompressDeflate();
+    private static Compressor getCompressor(int type) {
+        // pages with a dictionary are never in the layout or meta map
+        if ((type & DataUtils.PAGE_COMPRESSED_LZ4) == DataUtils.PAGE_COMPRESSED_LZ4) {
+            return new CompressLZ4();
+        } else if ((type & DataUtils.PAGE_COMPRESSED_HIGH) == DataUtils.PAGE_COMPRESSED_HIGH) {
+            return new CompressDeflate();
+        }
+        return new CompressLZF();
     }
 
     /**
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.mvstore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import org.h2.util.MemoryUnmapper;
+
+/**
+ * Serves reads of saved chunks as slices of read-only memory mappings of the
+ * file, instead of copying each page into a new heap buffer.
+ * <p>
+ * The file is mapped in segments of 1 GB (the last one only up to the end of
+ * the file). Data written after the mapping was made is read through the
+ * channel until the file has grown enough (doubled, or by
+ * {@link #REMAP_STEP} for large files), then the last segment is mapped
+ * again. Segments that are replaced, or that lie beyond the new end of a
+ * truncated file, may still be used by concurrent readers, so they are not
+ * unmapped right away: the last few are unmapped with {@link MemoryUnmapper}
+ * when the file is closed, older ones are left to the garbage collector.
+ * </p>
+ */
+final class MappedFileReader {
+
+    private static final int SEGMENT_SHIFT = 30;
+
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+
+    /**
+     * Map again at the latest once the file has grown by this many bytes past
+     * the mapping.
+     */
+    static final long REMAP_STEP = 16L << 20;
+
+    /**
+     * The maximum number of replaced segments kept to be unmapped on close.
+     */
+    private static final int MAX_RETIRED = 16;
+
+    private final FileChannel channel;
+
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    /**
+     * The number of bytes (from the start of the file) that are mapped.
+     */
+    private volatile long mappedLength;
+
+    private final ArrayDeque<MappedByteBuffer> retired = new ArrayDeque<>();
+
+    /**
+     * Whether mapping failed or the reader was closed.
+     */
+    private volatile boolean disabled;
+
+    MappedFileReader(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Read from the mapping.
+     *
+     * @param pos the file position
+     * @param len the number of bytes
+     * @param fileSize the current size of the file
+     * @return a buffer with position 0 and limit len, or null if the range is
+     *         not mapped (and the caller needs to read it from the channel)
+     */
+    ByteBuffer read(long pos, int len, long fileSize) {
+        if (disabled) {
+            return null;
+        }
+        long end = pos + len;
+        if (end > mappedLength) {
+            long mapped = mappedLength;
+            if (mapped > 0 && fileSize - mapped < Math.min(REMAP_STEP, mapped) || !remap(end)) {
+                return null;
+            }
+        }
+        int index = (int) (pos >>> SEGMENT_SHIFT);
+        if (index != (int) ((end - 1) >>> SEGMENT_SHIFT)) {
+            // spans two segments (rare)
+            return null;
+        }
+        MappedByteBuffer[] s = segments;
+        if (index >= s.length || s[index] == null) {
+            return null;
+        }
+        int offset = (int) (pos & (SEGMENT_SIZE - 1));
+        ByteBuffer buff = s[index].duplicate();
+        if (offset + len > buff.capacity()) {
+            return null;
+        }
+        buff.position(offset);
+        buff = buff.slice();
+        buff.limit(len);
+        return buff;
+    }
+
+    private synchronized boolean remap(long required) {
+        if (disabled) {
+            return false;
+        }
+        if (required <= mappedLength) {
+            return true;
+        }
+        try {
+            // the channel size, not the logical size of the store: mapping
+            // beyond the end would extend the file
+            long size = channel.size();
+            if (size < required) {
+                return false;
+            }
+            int count = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+            MappedByteBuffer[] s = Arrays.copyOf(segments, count);
+            for (int i = 0; i < count; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                long length = Math.min(SEGMENT_SIZE, size - start);
+                if (s[i] == null || s[i].capacity() < length) {
+                    if (s[i] != null) {
+                        retire(s[i]);
+                    }
+                    s[i] = channel.map(MapMode.READ_ONLY, start, length);
+                }
+            }
+            segments = s;
+            mappedLength = size;
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            // for example a file system that does not support mapping
+            disabled = true;
+            return false;
+        }
+    }
+
+    /**
+     * Stop using the mapping beyond the given size. This needs to be called
+     * before the file is truncated, as reading a mapping beyond the end of
+     * the file fails.
+     *
+     * @param size the new file size
+     */
+    synchronized void truncate(long size) {
+        if (size >= mappedLength) {
+            return;
+        }
+        // keep only the segments that end before the new size
+        int count = (int) (size >>> SEGMENT_SHIFT);
+        MappedByteBuffer[] s = segments;
+        for (int i = count; i < s.length; i++) {
+            if (s[i] != null) {
+                retire(s[i]);
+            }
+        }
+        segments = Arrays.copyOf(s, count);
+        mappedLength = (long) count << SEGMENT_SHIFT;
+    }
+
+    /**
+     * Unmap all segments. Must only be called when there are no concurrent
+     * readers.
+     */
+    synchronized void close() {
+        disabled = true;
+        for (MappedByteBuffer buff : segments) {
+            if (buff != null) {
+                MemoryUnmapper.unmap(buff);
+            }
+        }
+        for (MappedByteBuffer buff : retired) {
+            MemoryUnmapper.unmap(buff);
+        }
+        retired.clear();
+        segments = new MappedByteBuffer[0];
+        mappedLength = 0;
+    }
+
+    private void retire(MappedByteBuffer buff) {
+        if (retired.size() == MAX_RETIRED) {
+            // no longer referenced here: unmapped when garbage collected
+            retired.removeFirst();
+        }
+        retired.addLast(buff);
+    }
+
+}
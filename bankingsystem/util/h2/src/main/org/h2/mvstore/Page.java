@@ -14,6 +14,7 @@ import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import org.h2.compress.Compressor;
 import org.h2.mvstore.FileStore.PageSerializationManager;
+import org.h2.mvstore.type.LongDataType;
 import org.h2.util.Utils;
 
 /**
@@ -82,6 +83,13 @@ public abstract class Page<K,V> implements Cloneable {
      */
     private K[] keys;
 
+    /**
+     * The keys as primitive values if the map has keys of type
+     * {@link LongDataType}, otherwise null. The binary search uses them,
+     * so that it does not need to load a key object for each comparison.
+     */
+    private long[] longKeys;
+
     /**
      * Updater for pos field, which can be updated when page is saved,
      * but can be concurrently marked as removed
@@ -133,13 +141,18 @@ public abstract class Page<K,V> implements Cloneable {
     }
 
     Page(MVMap<K,V> map, Page<K,V> source) {
-        this(map, source.keys);
+        this.map = map;
+        keys = source.keys;
+        longKeys = source.longKeys;
         memory = source.memory;
     }
 
     Page(MVMap<K,V> map, K[] keys) {
         this.map = map;
         this.keys = keys;
+        if (hasLongKeys()) {
+            longKeys = toLongKeys(keys, 0, keys.length);
+        }
     }
 
     /**
@@ -310,6 +323,14 @@ public abstract class Page<K,V> implements Cloneable {
      */
     public abstract long getChildPagePos(int index);
 
+    /**
+     * Get the child page at the given index, if it is in memory.
+     *
+     * @param index the index
+     * @return the child page, or null if it is not loaded (or this is a leaf)
+     */
+    abstract Page<K,V> getChildPageIfLoaded(int index);
+
     /**
      * Get the value at the given index.
      *
@@ -408,7 +429,9 @@ public abstract class Page<K,V> implements Cloneable {
      * @return the value or null
      */
     int binarySearch(K key) {
-        int res = map.getKeyType().binarySearch(key, keys, getKeyCount(), cachedCompare);
+        long[] lk = longKeys;
+        int res = lk != null ? LongDataType.binarySearch((long) (Long) key, lk, lk.length, cachedCompare)
+                : map.getKeyType().binarySearch(key, keys, getKeyCount(), cachedCompare);
         cachedCompare = res < 0 ? ~res : res + 1;
         return res;
     }
@@ -435,6 +458,9 @@ public abstract class Page<K,V> implements Cloneable {
         System.arraycopy(keys, 0, aKeys, 0, aCount);
         System.arraycopy(keys, getKeyCount() - bCount, bKeys, 0, bCount);
         keys = aKeys;
+        if (longKeys != null) {
+            longKeys = Arrays.copyOf(longKeys, aCount);
+        }
         return bKeys;
     }
 
@@ -460,6 +486,13 @@ public abstract class Page<K,V> implements Cloneable {
         System.arraycopy(keys, 0, newKeys, 0, keyCount);
         System.arraycopy(extraKeys, 0, newKeys, keyCount, extraKeyCount);
         keys = newKeys;
+        if (longKeys != null) {
+            long[] newLongKeys = Arrays.copyOf(longKeys, keyCount + extraKeyCount);
+            for (int i = 0; i < extraKeyCount; i++) {
+                newLongKeys[keyCount + i] = (Long) extraKeys[i];
+            }
+            longKeys = newLongKeys;
+        }
     }
 
     /**
@@ -504,6 +537,10 @@ public abstract class Page<K,V> implements Cloneable {
             }
         }
         keys[index] = key;
+        if (longKeys != null) {
+            longKeys = longKeys.clone();
+            longKeys[index] = (Long) key;
+        }
     }
 
     /**
@@ -548,8 +585,16 @@ public abstract class Page<K,V> implements Cloneable {
 
         keys[index] = key;
 
+        if (longKeys != null) {
+            long[] newLongKeys = new long[keyCount + 1];
+            System.arraycopy(longKeys, 0, newLongKeys, 0, index);
+            System.arraycopy(longKeys, index, newLongKeys, index + 1, keyCount - index);
+            newLongKeys[index] = (Long) key;
+            longKeys = newLongKeys;
+        }
+
         if (isPersistent()) {
-            addMemory(MEMORY_POINTER + map.evaluateMemoryForKey(key));
+            addMemory(MEMORY_POINTER + map.evaluateMemoryForKey(key) + (longKeys == null ? 0 : 8));
         }
     }
 
@@ -566,12 +611,18 @@ public abstract class Page<K,V> implements Cloneable {
         if(isPersistent()) {
             if (!map.isMemoryEstimationAllowed()) {
                 K old = getKey(index);
-                addMemory(-MEMORY_POINTER - map.evaluateMemoryForKey(old));
+                addMemory(-MEMORY_POINTER - map.evaluateMemoryForKey(old) - (longKeys == null ? 0 : 8));
             }
         }
         K[] newKeys = createKeyStorage(keyCount - 1);
         DataUtils.copyExcept(keys, newKeys, keyCount, index);
         keys = newKeys;
+        if (longKeys != null) {
+            long[] newLongKeys = new long[keyCount - 1];
+            System.arraycopy(longKeys, 0, newLongKeys, 0, index);
+            System.arraycopy(longKeys, index + 1, newLongKeys, index, keyCount - index - 1);
+            longKeys = newLongKeys;
+        }
     }
 
     /**
@@ -631,14 +682,13 @@ public abstract class Page<K,V> implements Cloneable {
         }
         boolean compressed = (type & DataUtils.PAGE_COMPRESSED) != 0;
         if (compressed) {
+            int lenAdd = DataUtils.readVarInt(buff);
             Compressor compressor;
-            if ((type & DataUtils.PAGE_COMPRESSED_HIGH) ==
-                    DataUtils.PAGE_COMPRESSED_HIGH) {
-                compressor = map.getStore().getCompressorHigh();
+            if ((type & DataUtils.PAGE_COMPRESSED_DICTIONARY) == DataUtils.PAGE_COMPRESSED_DICTIONARY) {
+                compressor = map.getStore().getDictionaryCompressor(mapId, DataUtils.readVarInt(buff));
             } else {
-                compressor = map.getStore().getCompressorFast();
+                compressor = map.getStore().getCompressorForPage(type);
             }
-            int lenAdd = DataUtils.readVarInt(buff);
             int compLen = buff.remaining();
             byte[] comp;
             int pos = 0;
@@ -655,6 +705,9 @@ public abstract class Page<K,V> implements Cloneable {
                     buff.arrayOffset(), l);
         }
         map.getKeyType().read(buff, keys, keyCount);
+        if (hasLongKeys()) {
+            longKeys = toLongKeys(keys, 0, keyCount);
+        }
         if (isLeaf()) {
             readPayLoad(buff);
         }
@@ -723,44 +776,21 @@ public abstract class Page<K,V> implements Cloneable {
         buff.put((byte)type);
         int childrenPos = buff.position();
         writeChildren(buff, true);
-        int compressStart = buff.position();
-        map.getKeyType().write(buff, keys, keyCount);
-        writeValues(buff);
-        MVStore store = map.getStore();
-        int expLen = buff.position() - compressStart;
-        if (expLen > 16) {
-            int compressionLevel = store.getCompressionLevel();
-            if (compressionLevel > 0) {
-                Compressor compressor;
-                int compressType;
-                if (compressionLevel == 1) {
-                    compressor = store.getCompressorFast();
-                    compressType = DataUtils.PAGE_COMPRESSED;
-                } else {
-                    compressor = store.getCompressorHigh();
-                    compressType = DataUtils.PAGE_COMPRESSED_HIGH;
-                }
-                byte[] comp = new byte[expLen * 2];
-                ByteBuffer byteBuffer = buff.getBuffer();
-                int pos = 0;
-                byte[] exp;
-                if (byteBuffer.hasArray()) {
-                    exp = byteBuffer.array();
-                    pos = byteBuffer.arrayOffset()  + compressStart;
-                } else {
-                    exp = Utils.newBytes(expLen);
-                    buff.position(compressStart).get(exp);
-                }
-                int compLen = compressor.compress(exp, pos, expLen, comp, 0);
-                int plus = DataUtils.getVarIntLen(expLen - compLen);
-                if (compLen + plus < expLen) {
-                    buff.position(typePos)
-                        .put((byte) (type | compressType));
-                    buff.position(compressStart)
-                        .putVarInt(expLen - compLen)
-                        .put(comp, 0, compLen);
-                }
-            }
+        int compressType;
+        ByteBuffer body = pageSerializationManager.getSerializedBody(this);
+        if (body != null) {
+            // serialized in advance, see ParallelPageSerializer
+            body = body.duplicate();
+            compressType = body.get();
+            buff.put(body);
+        } else {
+            compressType = writeKeysAndValues(buff, null);
+        }
+        if (compressType != 0) {
+            int end = buff.position();
+            buff.position(typePos)
+                .put((byte) (type | compressType))
+                .position(end);
         }
         int pageLength = buff.position() - start;
         long pagePos = pageSerializationManager.getPagePosition(getMapId(), start, pageLength, type);
@@ -780,6 +810,81 @@ public abstract class Page<K,V> implements Cloneable {
         return childrenPos;
     }
 
+    /**
+     * Write the keys and values, and compress them if that saves space.
+     * Nothing is written before or after them, so this does not depend on
+     * the position of the page in the chunk.
+     *
+     * @param buff the target buffer, positioned where the keys start
+     * @param compressor the compressor to use, or null for the one of the
+     *            store (which may only be used by the serialization thread)
+     * @return the compression bits of the page type, or 0 if the data was
+     *         not compressed
+     */
+    final int writeKeysAndValues(WriteBuffer buff, Compressor compressor) {
+        int compressStart = buff.position();
+        map.getKeyType().write(buff, keys, getKeyCount());
+        writeValues(buff);
+        MVStore store = map.getStore();
+        int expLen = buff.position() - compressStart;
+        int compressionLevel = store.getCompressionLevel();
+        if (expLen <= 16 || compressionLevel <= 0) {
+            return 0;
+        }
+        int compressType;
+        if (compressionLevel == 1) {
+            compressType = DataUtils.PAGE_COMPRESSED;
+        } else if (compressionLevel >= 3) {
+            compressType = DataUtils.PAGE_COMPRESSED_LZ4;
+        } else {
+            compressType = DataUtils.PAGE_COMPRESSED_HIGH;
+        }
+        if (compressor == null) {
+            compressor = compressionLevel == 1 ? store.getCompressorFast()
+                    : compressionLevel >= 3 ? store.getCompressorLZ4() : store.getCompressorHigh();
+        }
+        byte[] comp = new byte[expLen * 2];
+        ByteBuffer byteBuffer = buff.getBuffer();
+        int pos = 0;
+        byte[] exp;
+        if (byteBuffer.hasArray()) {
+            exp = byteBuffer.array();
+            pos = byteBuffer.arrayOffset()  + compressStart;
+        } else {
+            exp = Utils.newBytes(expLen);
+            buff.position(compressStart).get(exp);
+        }
+        int dictionaryVersion = 0;
+        if (compressionLevel == 4 && isLeaf()) {
+            PageDictionaries dictionaries = store.getPageDictionaries(map);
+            if (dictionaries != null) {
+                int mapId = map.getId();
+                dictionaries.sample(mapId, exp, pos, expLen);
+                dictionaryVersion = dictionaries.getCurrentVersion(mapId);
+                if (dictionaryVersion != 0) {
+                    compressor = dictionaries.getCompressor(mapId, dictionaryVersion);
+                    compressType = DataUtils.PAGE_COMPRESSED_DICTIONARY;
+                }
+            }
+        }
+        int compLen = compressor.compress(exp, pos, expLen, comp, 0);
+        int plus = DataUtils.getVarIntLen(expLen - compLen);
+        if (dictionaryVersion != 0) {
+            plus += DataUtils.getVarIntLen(dictionaryVersion);
+        }
+        if (compLen + plus >= expLen) {
+            buff.position(compressStart + expLen);
+            return 0;
+        }
+        buff.position(compressStart)
+            .putVarInt(expLen - compLen);
+        if (dictionaryVersion != 0) {
+            buff.putVarInt(dictionaryVersion);
+        }
+        buff.put(comp, 0, compLen);
+        return compressType;
+    }
+
     /**
      * Write values that the buffer contains to the buff.
      *
@@ -912,7 +1017,8 @@ public abstract class Page<K,V> implements Cloneable {
      */
     protected int calculateMemory() {
 //*
-        return map.evaluateMemoryForKeys(keys, getKeyCount());
+        return map.evaluateMemoryForKeys(keys, getKeyCount())
+                + (longKeys == null ? 0 : MEMORY_ARRAY + 8 * longKeys.length);
 /*/
         int keyCount = getKeyCount();
         int mem = keyCount * MEMORY_POINTER;
@@ -978,6 +1084,18 @@ public abstract class Page<K,V> implements Cloneable {
      */
     public abstract int removeAllRecursive(long version);
 
+    private boolean hasLongKeys() {
+        return map.getKeyType() == LongDataType.INSTANCE;
+    }
+
+    private static long[] toLongKeys(Object[] keys, int from, int to) {
+        long[] result = new long[to - from];
+        for (int i = from; i < to; i++) {
+            result[i - from] = (Long) keys[i];
+        }
+        return result;
+    }
+
     /**
      * Create array for keys storage.
      *
@@ -1167,6 +1285,11 @@ public abstract class Page<K,V> implements Cloneable {
             return children[index].getPos();
         }
 
+        @Override
+        Page<K,V> getChildPageIfLoaded(int index) {
+            return children[index].getPage();
+        }
+
         @Override
         public V getValue(int index) {
             throw new UnsupportedOperationException();
@@ -1502,6 +1625,11 @@ public abstract class Page<K,V> implements Cloneable {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        Page<K,V> getChildPageIfLoaded(int index) {
+            return null;
+        }
+
         @Override
         public V getValue(int index) {
             return values == null ? null : values[index];
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.mvstore;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.h2.compress.CompressLZ4;
+import org.h2.compress.DictionaryTrainer;
+import org.h2.util.StringUtils;
+
+/**
+ * The per-map compression dictionaries of a store (compression level 4).
+ * <p>
+ * Small leaf pages compress poorly on their own, because each page starts
+ * with an empty history. So the first leaf pages written for a map are
+ * sampled, a dictionary is trained from them, and later leaf pages of that
+ * map are compressed with LZ4 using the dictionary. The dictionaries are
+ * stored in the layout map as
+ * <pre>
+ * dict.{mapId}.{version} = {dictionary (hex encoded)}
+ * </pre>
+ * and each page records the version it was compressed with. When chunks are
+ * compacted the maps are sampled again, and a new version is added if it
+ * compresses the new samples noticeably better. Old versions are kept until
+ * the map is removed, as live pages may still refer to them.
+ * </p>
+ * <p>
+ * Sampling and training only happen on the serialization thread; reading
+ * dictionaries is thread safe.
+ * </p>
+ */
+final class PageDictionaries {
+
+    /**
+     * The maximum dictionary length.
+     */
+    static final int DICTIONARY_LENGTH = 4 * 1024;
+
+    /**
+     * The amount of sample data a dictionary is trained from.
+     */
+    private static final int SAMPLE_LENGTH = 128 * 1024;
+
+    /**
+     * Pages larger than this are not sampled: they compress well enough
+     * without a dictionary.
+     */
+    private static final int MAX_SAMPLE_PAGE_LENGTH = 32 * 1024;
+
+    /**
+     * Dictionaries shorter than this are not worth storing.
+     */
+    private static final int MIN_DICTIONARY_LENGTH = 256;
+
+    /**
+     * A retrained dictionary must shrink the samples by at least this many
+     * percent compared to the current one, so that frequent compaction does
+     * not pile up versions without a benefit.
+     */
+    private static final int MIN_GAIN_PERCENT = 5;
+
+    private final MVMap<String, String> layout;
+
+    /**
+     * The loaded compressors, by map id (high bits) and version (low bits).
+     */
+    private final ConcurrentHashMap<Long, CompressLZ4> compressors = new ConcurrentHashMap<>();
+
+    /**
+     * The writer state by map id.
+     */
+    private final ConcurrentHashMap<Integer, MapState> states = new ConcurrentHashMap<>();
+
+    PageDictionaries(MVMap<String, String> layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * Get the compressor for a dictionary.
+     *
+     * @param mapId the map id
+     * @param version the dictionary version
+     * @return the compressor
+     * @throws MVStoreException if the dictionary does not exist
+     */
+    CompressLZ4 getCompressor(int mapId, int version) {
+        long key = (long) mapId << 32 | version;
+        CompressLZ4 compressor = compressors.get(key);
+        if (compressor == null) {
+            String hex = layout.get(getKey(mapId, version));
+            if (hex == null) {
+                throw DataUtils.newMVStoreException(DataUtils.ERROR_FILE_CORRUPT,
+                        "Compression dictionary {0} of map {1} not found", version, mapId);
+            }
+            compressor = new CompressLZ4(StringUtils.convertHexToBytes(hex));
+            CompressLZ4 old = compressors.putIfAbsent(key, compressor);
+            if (old != null) {
+                compressor = old;
+            }
+        }
+        return compressor;
+    }
+
+    /**
+     * Get the dictionary version new leaf pages of a map are compressed with.
+     *
+     * @param mapId the map id
+     * @return the version, or 0 if the map has no dictionary yet
+     */
+    int getCurrentVersion(int mapId) {
+        return getState(mapId).version;
+    }
+
+    /**
+     * Offer an uncompressed leaf page as sample. If enough samples were
+     * collected, a dictionary is trained and stored.
+     *
+     * @param mapId the map id
+     * @param data the page data
+     * @param off the offset
+     * @param len the length
+     */
+    void sample(int mapId, byte[] data, int off, int len) {
+        MapState state = getState(mapId);
+        DictionaryTrainer trainer = state.trainer;
+        if (trainer == null || len > MAX_SAMPLE_PAGE_LENGTH) {
+            return;
+        }
+        if (trainer.addSample(data, off, len)) {
+            state.trainer = null;
+            byte[] dict = trainer.train(DICTIONARY_LENGTH);
+            if (dict.length < MIN_DICTIONARY_LENGTH) {
+                return;
+            }
+            CompressLZ4 compressor = new CompressLZ4(dict);
+            if (state.version != 0) {
+                long current = trainer.getCompressedLength(getCompressor(mapId, state.version));
+                long trained = trainer.getCompressedLength(compressor);
+                if (trained * 100 > current * (100 - MIN_GAIN_PERCENT)) {
+                    return;
+                }
+            }
+            int version = state.version + 1;
+            layout.put(getKey(mapId, version), StringUtils.convertBytesToHex(dict));
+            compressors.put((long) mapId << 32 | version, compressor);
+            state.version = version;
+        }
+    }
+
+    /**
+     * Sample all maps again, so that their dictionaries follow changes in
+     * the data. This is called when chunks are compacted, as the rewritten
+     * pages are a good cross section of the live data.
+     */
+    void retrain() {
+        for (MapState state : states.values()) {
+            if (state.trainer == null) {
+                state.trainer = new DictionaryTrainer(SAMPLE_LENGTH);
+            }
+        }
+    }
+
+    /**
+     * Remove the dictionaries of a map.
+     *
+     * @param mapId the map id
+     */
+    void remove(int mapId) {
+        states.remove(mapId);
+        compressors.keySet().removeIf(key -> (int) (key >>> 32) == mapId);
+        for (String key : getKeys(layout, mapId)) {
+            layout.remove(key);
+        }
+    }
+
+    private MapState getState(int mapId) {
+        MapState state = states.get(mapId);
+        if (state == null) {
+            state = new MapState();
+            String prefix = getPrefix(mapId);
+            for (String key : getKeys(layout, mapId)) {
+                state.version = Math.max(state.version, DataUtils.parseHexInt(key.substring(prefix.length())));
+            }
+            if (state.version == 0) {
+                state.trainer = new DictionaryTrainer(SAMPLE_LENGTH);
+            }
+            states.put(mapId, state);
+        }
+        return state;
+    }
+
+    /**
+     * Get the layout keys of the dictionaries of a map.
+     *
+     * @param layout the layout map
+     * @param mapId the map id
+     * @return the keys
+     */
+    static ArrayList<String> getKeys(MVMap<String, String> layout, int mapId) {
+        String prefix = getPrefix(mapId);
+        ArrayList<String> keys = new ArrayList<>();
+        for (Iterator<String> it = layout.keyIterator(prefix); it.hasNext();) {
+            String key = it.next();
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private static String getPrefix(int mapId) {
+        return DataUtils.LAYOUT_DICTIONARY + Integer.toHexString(mapId) + '.';
+    }
+
+    private static String getKey(int mapId, int version) {
+        return getPrefix(mapId) + Integer.toHexString(version);
+    }
+
+    /**
+     * The dictionary state of a map.
+     */
+    private static final class MapState {
+
+        /**
+         * The current version, 0 for none.
+         */
+        int version;
+
+        /**
+         * Collects samples, or null if no dictionary is being trained.
+         */
+        DictionaryTrainer trainer;
+    }
+
+}
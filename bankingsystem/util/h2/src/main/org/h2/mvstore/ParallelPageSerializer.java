@@ -0,0 +1,261 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.mvstore;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.compress.CompressDeflate;
+import org.h2.compress.CompressLZ4;
+import org.h2.compress.CompressLZF;
+import org.h2.compress.Compressor;
+import org.h2.util.Utils;
+
+/**
+ * Serializes the keys and values of the changed pages of a chunk with
+ * several threads, before the chunk is assembled.
+ * <p>
+ * Most of the time spent writing a chunk goes into serializing and
+ * compressing keys and values. That part of a page does not depend on where
+ * the page ends up in the chunk, so it can be done in advance, each worker
+ * writing into its own buffer. The chunk is then assembled by the
+ * serialization thread as before, which assigns the page positions and
+ * numbers, writes the page headers and child references, and copies the
+ * prepared keys and values. The chunk format is not changed.
+ * </p>
+ * <p>
+ * The pages are split into tasks in tree order, so that a task usually
+ * covers one map or one subtree. This is not used with compression level 4,
+ * as the dictionaries are sampled and trained in page order.
+ * </p>
+ */
+final class ParallelPageSerializer {
+
+    /**
+     * Chunks with fewer changed pages are serialized by a single thread.
+     */
+    static final int MIN_PAGES = 64;
+
+    /**
+     * The number of tasks per thread, so that tasks with large pages do not
+     * leave the other threads idle.
+     */
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final int threads;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The buffers and compressors of finished tasks, for reuse.
+     */
+    private final Queue<Worker> workers = new ConcurrentLinkedQueue<>();
+
+    ParallelPageSerializer(int threads) {
+        this.threads = threads;
+        executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "H2-serialization-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Serialize the keys and values of the unsaved pages of the given trees.
+     *
+     * @param roots the root pages of the changed maps
+     * @param compressionLevel the compression level of the store
+     * @return the serialized pages, or null if there are too few pages to
+     *         make this worthwhile
+     */
+    Batch serialize(List<Page<?,?>> roots, int compressionLevel) {
+        ArrayList<Page<?,?>> pages = new ArrayList<>();
+        for (Page<?,?> root : roots) {
+            collectUnsaved(root, pages);
+        }
+        int count = pages.size();
+        if (count < MIN_PAGES) {
+            return null;
+        }
+        int taskCount = Math.min(threads * TASKS_PER_THREAD, count / (MIN_PAGES / 4));
+        ArrayList<Future<Task>> futures = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task(pages.subList(
+                    (int) ((long) count * i / taskCount), (int) ((long) count * (i + 1) / taskCount)),
+                    compressionLevel);
+            futures.add(executor.submit(task));
+        }
+        Batch batch = new Batch(count);
+        Throwable failure = null;
+        for (Future<Task> future : futures) {
+            try {
+                Task task = future.get();
+                batch.add(task);
+            } catch (ExecutionException e) {
+                failure = e.getCause();
+            } catch (InterruptedException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            batch.release();
+            throw DataUtils.newMVStoreException(DataUtils.ERROR_INTERNAL,
+                    "Serializing pages failed: {0}", failure.toString(), failure);
+        }
+        return batch;
+    }
+
+    /**
+     * Stop the worker threads.
+     */
+    void close() {
+        Utils.shutdownExecutor(executor);
+        workers.clear();
+    }
+
+    private static void collectUnsaved(Page<?,?> page, List<Page<?,?>> target) {
+        if (page.isSaved()) {
+            return;
+        }
+        target.add(page);
+        if (!page.isLeaf()) {
+            for (int i = 0, len = page.getRawChildPageCount(); i < len; i++) {
+                Page<?,?> child = page.getChildPageIfLoaded(i);
+                if (child != null) {
+                    collectUnsaved(child, target);
+                }
+            }
+        }
+    }
+
+    private Worker getWorker(int compressionLevel) {
+        Worker worker = workers.poll();
+        if (worker == null || worker.compressionLevel != compressionLevel) {
+            worker = new Worker(compressionLevel);
+        }
+        return worker;
+    }
+
+    /**
+     * The buffer and compressor used by one task.
+     */
+    private static final class Worker {
+
+        final int compressionLevel;
+
+        final Compressor compressor;
+
+        final WriteBuffer buff = new WriteBuffer();
+
+        Worker(int compressionLevel) {
+            this.compressionLevel = compressionLevel;
+            compressor = compressionLevel == 1 ? new CompressLZF()
+                    : compressionLevel == 2 ? new CompressDeflate()
+                    : compressionLevel == 3 ? new CompressLZ4() : null;
+        }
+    }
+
+    /**
+     * Serializes a range of pages.
+     */
+    private final class Task implements Callable<Task> {
+
+        final List<Page<?,?>> pages;
+
+        private final int compressionLevel;
+
+        final ByteBuffer[] bodies;
+
+        Worker worker;
+
+        Task(List<Page<?,?>> pages, int compressionLevel) {
+            this.pages = pages;
+            this.compressionLevel = compressionLevel;
+            bodies = new ByteBuffer[pages.size()];
+        }
+
+        @Override
+        public Task call() {
+            worker = getWorker(compressionLevel);
+            WriteBuffer buff = worker.buff;
+            buff.clear();
+            int count = pages.size();
+            int[] ends = new int[count];
+            for (int i = 0; i < count; i++) {
+                // the compression bits of the page type, then the data
+                int start = buff.position();
+                buff.put((byte) 0);
+                int compressType = pages.get(i).writeKeysAndValues(buff, worker.compressor);
+                buff.getBuffer().put(start, (byte) compressType);
+                ends[i] = buff.position();
+            }
+            // the buffer may have been replaced while growing
+            ByteBuffer data = buff.getBuffer();
+            for (int i = 0, start = 0; i < count; i++) {
+                ByteBuffer b = data.duplicate();
+                b.limit(ends[i]).position(start);
+                bodies[i] = b.slice();
+                start = ends[i];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * The serialized keys and values of the pages of a chunk.
+     */
+    final class Batch {
+
+        private final IdentityHashMap<Page<?,?>, ByteBuffer> bodies;
+
+        private final ArrayList<Worker> used = new ArrayList<>();
+
+        Batch(int pageCount) {
+            bodies = new IdentityHashMap<>(pageCount);
+        }
+
+        void add(Task task) {
+            for (int i = 0; i < task.bodies.length; i++) {
+                bodies.put(task.pages.get(i), task.bodies[i]);
+            }
+            used.add(task.worker);
+        }
+
+        /**
+         * Get the serialized keys and values of a page.
+         *
+         * @param page the page
+         * @return the compression bits of the page type (one byte) followed
+         *         by the data, or null if the page was not serialized
+         */
+        ByteBuffer get(Page<?,?> page) {
+            return bodies.get(page);
+        }
+
+        /**
+         * Return the buffers for reuse. The serialized data can no longer be
+         * used afterwards.
+         */
+        void release() {
+            bodies.clear();
+            workers.addAll(used);
+            used.clear();
+        }
+    }
+
+}
@@ -589,7 +589,8 @@ public abstract class RandomAccessStore extends FileStore<SFChunk>
         }
     }
 
-    private void writeStoreHeader() {
+    @Override
+    protected final void writeStoreHeader() {
         StringBuilder buff = new StringBuilder(112);
         if (hasPersistentData()) {
             storeHeader.put(HDR_BLOCK, lastChunk.block);
@@ -724,7 +725,8 @@ public abstract class RandomAccessStore extends FileStore<SFChunk>
         int chunksFillRate = getChunksFillRate();
         int adjustedUpFillRate = 50 + rewritableChunksFillRate / 2;
         int fillRateToCompare = idle ? rewritableChunksFillRate : adjustedUpFillRate;
-        if (fillRateToCompare < getTargetFillRate(idle)) {
+        // with a compaction budget, chunks are rewritten by the scheduler
+        if (!isCompactionScheduled() && fillRateToCompare < getTargetFillRate(idle)) {
             int targetFillRate = idle ? adjustedUpFillRate : rewritableChunksFillRate;
             mvStore.tryExecuteUnderStoreLock(() -> {
                 int writeLimit = autoCommitMemory;
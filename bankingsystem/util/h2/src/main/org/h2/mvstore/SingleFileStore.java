@@ -44,6 +44,12 @@ public class SingleFileStore extends RandomAccessStore {
 
     private final Map<String, Object> config;
 
+    /**
+     * Serves chunk reads from a memory mapping of the file, or null if
+     * disabled.
+     */
+    private MappedFileReader mappedReader;
+
 
     public SingleFileStore(Map<String, Object> config) {
         super(config);
@@ -57,6 +63,16 @@ public class SingleFileStore extends RandomAccessStore {
 
     @Override
     public ByteBuffer readFully(SFChunk chunk, long pos, int len) {
+        MappedFileReader reader = mappedReader;
+        // only saved chunks: the file header is rewritten in place
+        if (chunk != null && reader != null) {
+            ByteBuffer buff = reader.read(pos, len, super.size());
+            if (buff != null) {
+                readCount.incrementAndGet();
+                readBytes.addAndGet(len);
+                return buff;
+            }
+        }
         return readFully(fileChannel, pos, len);
     }
 
@@ -115,6 +131,9 @@ public class SingleFileStore extends RandomAccessStore {
                 fileChannel = encryptionTransformer.apply(fileChannel);
             }
             fileLock = lockFileChannel(fileChannel, readOnly, fileName);
+            if (encryptionTransformer == null && config.containsKey("mappedReads")) {
+                mappedReader = new MappedFileReader(fileChannel);
+            }
             saveChunkLock.lock();
             try {
                 setSize(fileChannel.size());
@@ -153,6 +172,10 @@ public class SingleFileStore extends RandomAccessStore {
     @Override
     public void close() {
         try {
+            if (mappedReader != null) {
+                mappedReader.close();
+                mappedReader = null;
+            }
             if(fileChannel.isOpen()) {
                 if (fileLock != null) {
                     fileLock.release();
@@ -197,6 +220,9 @@ public class SingleFileStore extends RandomAccessStore {
         while (true) {
             try {
                 writeCount.incrementAndGet();
+                if (mappedReader != null) {
+                    mappedReader.truncate(size);
+                }
                 fileChannel.truncate(size);
                 setSize(Math.min(super.size(), size));
                 return;
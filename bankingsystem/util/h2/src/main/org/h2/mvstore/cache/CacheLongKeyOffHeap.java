@@ -0,0 +1,400 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.mvstore.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.h2.util.MemoryUnmapper;
+
+/**
+ * A cache of byte arrays with keys of type long, stored outside of the heap
+ * in direct byte buffers. It is meant as a second level below
+ * {@link CacheLongKeyLIRS}: it holds serialized data, so it can be much
+ * larger without adding to garbage collection pauses.
+ * <p>
+ * The cache is split into segments. Each segment is a ring buffer: entries
+ * are appended, and the oldest entries are overwritten when the ring is full
+ * (first in, first out). The index from key to offset is an open addressing
+ * hash table of primitive arrays, so there is no heap object per entry.
+ * <p>
+ * Each entry also has a tag that must match when reading it. This is used
+ * to detect entries that were stored for an earlier use of the same key.
+ * <p>
+ * This implementation is multi-threading safe; access is synchronized per
+ * segment. The direct memory counts towards the limit set with
+ * -XX:MaxDirectMemorySize.
+ */
+public final class CacheLongKeyOffHeap {
+
+    /**
+     * The entry header: key (8 bytes), tag (8 bytes), length (4 bytes).
+     */
+    private static final int HEADER = 20;
+
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    private static final int MIN_SEGMENT_COUNT = 16;
+
+    private final Segment[] segments;
+
+    /**
+     * The segment is selected by the highest bits of the hash, the slot
+     * within the index of the segment by the lowest bits.
+     */
+    private final int segmentShift;
+
+    private final long maxMemory;
+
+    /**
+     * Create a new cache.
+     *
+     * @param maxMemory the size of the cache in bytes
+     */
+    public CacheLongKeyOffHeap(long maxMemory) {
+        int count = MIN_SEGMENT_COUNT;
+        while (maxMemory / count > MAX_SEGMENT_SIZE) {
+            count <<= 1;
+        }
+        int segmentSize = (int) (maxMemory / count);
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+        segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+        this.maxMemory = (long) segmentSize * count;
+    }
+
+    /**
+     * Get a copy of the cached data.
+     *
+     * @param key the key (not 0)
+     * @param tag the tag the entry was stored with
+     * @return a heap buffer with the data (position 0), or null if not cached
+     */
+    public ByteBuffer get(long key, long tag) {
+        return getSegment(key).get(key, tag);
+    }
+
+    /**
+     * Add or replace an entry. Entries larger than a quarter of a segment
+     * are ignored.
+     *
+     * @param key the key (not 0)
+     * @param tag the tag
+     * @param data the data, from its position
+     * @param len the number of bytes
+     */
+    public void put(long key, long tag, ByteBuffer data, int len) {
+        getSegment(key).put(key, tag, data, len);
+    }
+
+    /**
+     * Remove an entry if it is cached.
+     *
+     * @param key the key
+     */
+    public void remove(long key) {
+        getSegment(key).remove(key);
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        for (Segment s : segments) {
+            s.clear();
+        }
+    }
+
+    /**
+     * Remove all entries and release the memory. The cache can not be used
+     * afterwards.
+     */
+    public void close() {
+        for (Segment s : segments) {
+            s.close();
+        }
+    }
+
+    /**
+     * Get the size of the cache.
+     *
+     * @return the size in bytes
+     */
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * Get the memory used by the cached entries, including their headers.
+     *
+     * @return the number of bytes
+     */
+    public long getUsedMemory() {
+        long x = 0;
+        for (Segment s : segments) {
+            x += s.used;
+        }
+        return x;
+    }
+
+    /**
+     * Get the number of cached entries.
+     *
+     * @return the number of entries
+     */
+    public long size() {
+        long x = 0;
+        for (Segment s : segments) {
+            x += s.count;
+        }
+        return x;
+    }
+
+    /**
+     * Get the number of cache hits.
+     *
+     * @return the cache hits
+     */
+    public long getHits() {
+        long x = 0;
+        for (Segment s : segments) {
+            x += s.hits;
+        }
+        return x;
+    }
+
+    /**
+     * Get the number of cache misses.
+     *
+     * @return the cache misses
+     */
+    public long getMisses() {
+        long x = 0;
+        for (Segment s : segments) {
+            x += s.misses;
+        }
+        return x;
+    }
+
+    /**
+     * Get the number of entries that were overwritten to make room.
+     *
+     * @return the number of evicted entries
+     */
+    public long getEvictions() {
+        long x = 0;
+        for (Segment s : segments) {
+            x += s.evictions;
+        }
+        return x;
+    }
+
+    private Segment getSegment(long key) {
+        return segments[hash(key) >>> segmentShift];
+    }
+
+    static int hash(long key) {
+        long x = key * 0x9E3779B97F4A7C15L;
+        return (int) (x ^ (x >>> 32));
+    }
+
+    /**
+     * A ring buffer with an index.
+     * <p>
+     * The entries of the current round are in [0, head). Older entries of the
+     * previous round are in [tail, limit); they are evicted from the tail as
+     * the head moves forward.
+     */
+    private static final class Segment {
+
+        private final int capacity;
+
+        private ByteBuffer buff;
+
+        private int head, tail, limit;
+
+        /**
+         * The index: keys (0 for empty slots) and entry offsets.
+         */
+        private long[] keys = new long[64];
+        private int[] offsets = new int[64];
+
+        int count;
+        long used;
+        long hits, misses, evictions;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized ByteBuffer get(long key, long tag) {
+            int i = find(key);
+            if (i < 0) {
+                misses++;
+                return null;
+            }
+            int offset = offsets[i];
+            int len = buff.getInt(offset + 16);
+            if (buff.getLong(offset + 8) != tag) {
+                removeAt(i);
+                used -= HEADER + len;
+                misses++;
+                return null;
+            }
+            ByteBuffer src = buff.duplicate();
+            src.position(offset + HEADER);
+            src.limit(offset + HEADER + len);
+            ByteBuffer result = ByteBuffer.allocate(len);
+            result.put(src);
+            result.flip();
+            hits++;
+            return result;
+        }
+
+        synchronized void put(long key, long tag, ByteBuffer data, int len) {
+            int need = HEADER + len;
+            if (need > capacity / 4) {
+                return;
+            }
+            if (buff == null) {
+                // allocated on first use
+                buff = ByteBuffer.allocateDirect(capacity);
+            }
+            if (head + need > capacity) {
+                // wrap around: the rest of the previous round goes
+                while (tail < limit) {
+                    tail = evictAt(tail);
+                }
+                limit = head;
+                head = 0;
+                tail = 0;
+            }
+            while (tail < limit && tail < head + need) {
+                tail = evictAt(tail);
+            }
+            int offset = head;
+            buff.putLong(offset, key);
+            buff.putLong(offset + 8, tag);
+            buff.putInt(offset + 16, len);
+            ByteBuffer dst = buff.duplicate();
+            dst.position(offset + HEADER);
+            ByteBuffer src = data.duplicate();
+            src.limit(src.position() + len);
+            dst.put(src);
+            head += need;
+            used += need;
+            int i = find(key);
+            if (i >= 0) {
+                used -= HEADER + buff.getInt(offsets[i] + 16);
+                offsets[i] = offset;
+            } else {
+                i = -1 - i;
+                keys[i] = key;
+                offsets[i] = offset;
+                if (++count * 2 > keys.length) {
+                    rehash(keys.length * 2);
+                }
+            }
+        }
+
+        synchronized void remove(long key) {
+            int i = find(key);
+            if (i >= 0) {
+                used -= HEADER + buff.getInt(offsets[i] + 16);
+                removeAt(i);
+            }
+        }
+
+        synchronized void clear() {
+            head = tail = limit = 0;
+            Arrays.fill(keys, 0);
+            count = 0;
+            used = 0;
+        }
+
+        synchronized void close() {
+            clear();
+            if (buff != null) {
+                MemoryUnmapper.unmap(buff);
+                buff = null;
+            }
+        }
+
+        /**
+         * Evict the entry at the given offset, if it is still indexed there.
+         *
+         * @param offset the offset
+         * @return the offset of the next entry
+         */
+        private int evictAt(int offset) {
+            long key = buff.getLong(offset);
+            int len = buff.getInt(offset + 16);
+            int i = find(key);
+            if (i >= 0 && offsets[i] == offset) {
+                removeAt(i);
+                used -= HEADER + len;
+                evictions++;
+            }
+            return offset + HEADER + len;
+        }
+
+        /**
+         * Find the slot of a key.
+         *
+         * @param key the key
+         * @return the slot, or (-1 - free slot) if not found
+         */
+        private int find(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+                long k = keys[i];
+                if (k == key) {
+                    return i;
+                } else if (k == 0) {
+                    return -1 - i;
+                }
+            }
+        }
+
+        private void removeAt(int i) {
+            int mask = keys.length - 1;
+            // shift back following entries that would no longer be found
+            for (int j = (i + 1) & mask;; j = (j + 1) & mask) {
+                long k = keys[j];
+                if (k == 0) {
+                    break;
+                }
+                int home = hash(k) & mask;
+                boolean stays = i <= j ? i < home && home <= j : i < home || home <= j;
+                if (!stays) {
+                    keys[i] = k;
+                    offsets[i] = offsets[j];
+                    i = j;
+                }
+            }
+            keys[i] = 0;
+            count--;
+        }
+
+        private void rehash(int size) {
+            long[] oldKeys = keys;
+            int[] oldOffsets = offsets;
+            keys = new long[size];
+            offsets = new int[size];
+            for (int j = 0; j < oldKeys.length; j++) {
+                long k = oldKeys[j];
+                if (k != 0) {
+                    int i = -1 - find(k);
+                    keys[i] = k;
+                    offsets[i] = oldOffsets[j];
+                }
+            }
+        }
+    }
+
+}
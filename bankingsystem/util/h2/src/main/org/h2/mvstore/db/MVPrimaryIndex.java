@@ -49,6 +49,7 @@ public final class MVPrimaryIndex extends MVIndex<Long, SearchRow> {
         super(table, id, table.getName() + "_DATA", columns, 0, indexType);
         this.mvTable = table;
         RowDataType valueType = table.getRowFactory().getRowDataType();
+        valueType.setColumnar(db.getSettings().columnarStorage);
         mapName = "table." + getId();
         Transaction t = mvTable.getTransactionBegin();
         dataMap = t.openMap(mapName, LongDataType.INSTANCE, valueType);
@@ -7,32 +7,66 @@ package org.h2.mvstore.db;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import org.h2.engine.CastDataProvider;
 import org.h2.engine.Database;
 import org.h2.mvstore.DataUtils;
 import org.h2.mvstore.WriteBuffer;
 import org.h2.mvstore.type.BasicDataType;
+import org.h2.mvstore.type.ColumnarDataType;
 import org.h2.mvstore.type.MetaType;
 import org.h2.mvstore.type.StatefulDataType;
 import org.h2.result.RowFactory;
 import org.h2.result.SearchRow;
 import org.h2.store.DataHandler;
+import org.h2.util.DateTimeUtils;
 import org.h2.value.CompareMode;
 import org.h2.value.TypeInfo;
 import org.h2.value.Value;
+import org.h2.value.ValueBigint;
+import org.h2.value.ValueDate;
+import org.h2.value.ValueInteger;
+import org.h2.value.ValueTimestamp;
 
 /**
  * The data type for rows.
  *
  * @author <a href='mailto:andrei.tokar@gmail.com'>Andrei Tokar</a>
  */
-public final class RowDataType extends BasicDataType<SearchRow> implements StatefulDataType<Database> {
+public final class RowDataType extends BasicDataType<SearchRow>
+        implements StatefulDataType<Database>, ColumnarDataType<SearchRow> {
+
+    /**
+     * Column encoding: the values one after another.
+     */
+    private static final int COLUMN_PLAIN = 0;
+
+    /**
+     * Column encoding: the distinct values, followed by the index of the
+     * value of each row. Used for strings that repeat within a page.
+     */
+    private static final int COLUMN_DICTIONARY = 1;
+
+    /**
+     * Column encoding: the value type, followed by the difference of each
+     * value to the previous one, as a zigzag encoded variable size long. Used
+     * for integers, dates, and timestamps of a single type.
+     */
+    private static final int COLUMN_DELTA = 2;
+
+    /**
+     * The largest absolute day of a timestamp that can be delta encoded as
+     * nanoseconds since 1970.
+     */
+    private static final long MAX_DELTA_DAY = Long.MAX_VALUE / DateTimeUtils.NANOS_PER_DAY - 1;
 
     private final ValueDataType valueDataType;
     private final int[]         sortTypes;
     private final int[]         indexes;
     private final int           columnCount;
     private final boolean       storeKeys;
+    private boolean             columnar;
 
     public RowDataType(CastDataProvider provider, CompareMode compareMode, DataHandler handler, int[] sortTypes,
             int[] indexes, int columnCount, boolean storeKeys) {
@@ -64,6 +98,21 @@ public final class RowDataType extends BasicDataType<SearchRow> implements State
         return storeKeys;
     }
 
+    /**
+     * Set whether pages of rows are written column by column. Pages written
+     * in either layout can be read regardless of this setting.
+     *
+     * @param columnar whether to use the columnar layout
+     */
+    public void setColumnar(boolean columnar) {
+        this.columnar = columnar;
+    }
+
+    @Override
+    public boolean isColumnar() {
+        return columnar;
+    }
+
     @Override
     public SearchRow[] createStorage(int capacity) {
         return new SearchRow[capacity];
@@ -181,6 +230,171 @@ public final class RowDataType extends BasicDataType<SearchRow> implements State
         }
     }
 
+    @Override
+    public void writeColumnar(WriteBuffer buff, Object storage, int len) {
+        SearchRow[] rows = cast(storage);
+        if (storeKeys) {
+            for (int i = 0; i < len; i++) {
+                buff.putVarLong(rows[i].getKey());
+            }
+        }
+        if (indexes == null) {
+            int columnCount = rows[0].getColumnCount();
+            buff.putVarInt(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                writeColumn(buff, rows, len, i);
+            }
+        } else {
+            for (int i : indexes) {
+                writeColumn(buff, rows, len, i);
+            }
+        }
+    }
+
+    private void writeColumn(WriteBuffer buff, SearchRow[] rows, int len, int column) {
+        Value first = rows[0].getValue(column);
+        int type = first.getValueType();
+        boolean delta = type == Value.INTEGER || type == Value.BIGINT || type == Value.DATE
+                || type == Value.TIMESTAMP;
+        boolean strings = true;
+        for (int i = 0; i < len && (delta || strings); i++) {
+            Value v = rows[i].getValue(column);
+            int t = v.getValueType();
+            delta &= t == type && (t != Value.TIMESTAMP || Math.abs(DateTimeUtils.absoluteDayFromDateValue(
+                    ((ValueTimestamp) v).getDateValue())) <= MAX_DELTA_DAY);
+            strings &= t == Value.VARCHAR || t == Value.CHAR || t == Value.NULL;
+        }
+        if (delta) {
+            buff.put((byte) COLUMN_DELTA).putVarInt(type);
+            long last = 0;
+            for (int i = 0; i < len; i++) {
+                long x = toLong(rows[i].getValue(column));
+                long d = x - last;
+                buff.putVarLong((d << 1) ^ (d >> 63));
+                last = x;
+            }
+            return;
+        }
+        if (strings && len > 1) {
+            HashMap<Value, Integer> dictionary = new HashMap<>();
+            int[] ids = new int[len];
+            for (int i = 0; i < len && dictionary.size() <= len / 2; i++) {
+                Value v = rows[i].getValue(column);
+                Integer id = dictionary.putIfAbsent(v, dictionary.size());
+                ids[i] = id == null ? dictionary.size() - 1 : id;
+            }
+            if (dictionary.size() <= len / 2) {
+                Value[] values = new Value[dictionary.size()];
+                for (Map.Entry<Value, Integer> e : dictionary.entrySet()) {
+                    values[e.getValue()] = e.getKey();
+                }
+                buff.put((byte) COLUMN_DICTIONARY).putVarInt(values.length);
+                for (Value v : values) {
+                    valueDataType.write(buff, v);
+                }
+                for (int i = 0; i < len; i++) {
+                    buff.putVarInt(ids[i]);
+                }
+                return;
+            }
+        }
+        buff.put((byte) COLUMN_PLAIN);
+        for (int i = 0; i < len; i++) {
+            valueDataType.write(buff, rows[i].getValue(column));
+        }
+    }
+
+    private static long toLong(Value v) {
+        switch (v.getValueType()) {
+        case Value.INTEGER:
+            return v.getInt();
+        case Value.DATE:
+            return ((ValueDate) v).getDateValue();
+        case Value.TIMESTAMP: {
+            ValueTimestamp ts = (ValueTimestamp) v;
+            return DateTimeUtils.absoluteDayFromDateValue(ts.getDateValue()) * DateTimeUtils.NANOS_PER_DAY
+                    + ts.getTimeNanos();
+        }
+        default:
+            return v.getLong();
+        }
+    }
+
+    private static Value fromLong(int type, long x) {
+        switch (type) {
+        case Value.INTEGER:
+            return ValueInteger.get((int) x);
+        case Value.BIGINT:
+            return ValueBigint.get(x);
+        case Value.DATE:
+            return ValueDate.fromDateValue(x);
+        case Value.TIMESTAMP:
+            return ValueTimestamp.fromDateValueAndNanos(
+                    DateTimeUtils.dateValueFromAbsoluteDay(Math.floorDiv(x, DateTimeUtils.NANOS_PER_DAY)),
+                    Math.floorMod(x, DateTimeUtils.NANOS_PER_DAY));
+        default:
+            throw DataUtils.newMVStoreException(DataUtils.ERROR_FILE_CORRUPT, "Unknown delta type {0}", type);
+        }
+    }
+
+    @Override
+    public void readColumnar(ByteBuffer buff, Object storage, int len) {
+        SearchRow[] rows = cast(storage);
+        RowFactory rowFactory = valueDataType.getRowFactory();
+        for (int i = 0; i < len; i++) {
+            SearchRow row = rowFactory.createRow();
+            if (storeKeys) {
+                row.setKey(DataUtils.readVarLong(buff));
+            }
+            rows[i] = row;
+        }
+        TypeInfo[] columnTypes = rowFactory.getColumnTypes();
+        if (indexes == null) {
+            int columnCount = DataUtils.readVarInt(buff);
+            for (int i = 0; i < columnCount; i++) {
+                readColumn(buff, rows, len, i, columnTypes != null ? columnTypes[i] : null);
+            }
+        } else {
+            for (int i : indexes) {
+                readColumn(buff, rows, len, i, columnTypes != null ? columnTypes[i] : null);
+            }
+        }
+    }
+
+    private void readColumn(ByteBuffer buff, SearchRow[] rows, int len, int column, TypeInfo columnType) {
+        int encoding = buff.get();
+        switch (encoding) {
+        case COLUMN_PLAIN:
+            for (int i = 0; i < len; i++) {
+                rows[i].setValue(column, valueDataType.readValue(buff, columnType));
+            }
+            break;
+        case COLUMN_DICTIONARY: {
+            Value[] values = new Value[DataUtils.readVarInt(buff)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = valueDataType.readValue(buff, columnType);
+            }
+            for (int i = 0; i < len; i++) {
+                rows[i].setValue(column, values[DataUtils.readVarInt(buff)]);
+            }
+            break;
+        }
+        case COLUMN_DELTA: {
+            int type = DataUtils.readVarInt(buff);
+            long last = 0;
+            for (int i = 0; i < len; i++) {
+                long z = DataUtils.readVarLong(buff);
+                last += (z >>> 1) ^ -(z & 1);
+                rows[i].setValue(column, fromLong(type, last));
+            }
+            break;
+        }
+        default:
+            throw DataUtils.newMVStoreException(DataUtils.ERROR_FILE_CORRUPT,
+                    "Unknown column encoding {0}", encoding);
+        }
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == this) {
@@ -115,10 +115,41 @@ public final class Store {
                 builder.encryptionKey(decodePassword(key));
             }
             if (db.getSettings().compressData) {
-                builder.compress();
+                switch (StringUtils.toUpperEnglish(db.getSettings().compressAlgorithm)) {
+                case "LZ4":
+                    builder.compressLZ4();
+                    break;
+                case "LZ4_DICTIONARY":
+                    builder.compressDictionary();
+                    break;
+                case "DEFLATE":
+                    builder.compressHigh();
+                    break;
+                default:
+                    builder.compress();
+                }
                 // use a larger page split size to improve the compression ratio
                 builder.pageSplitSize(64 * 1024);
             }
+            int prefetchDepth = db.getSettings().prefetchDepth;
+            if (prefetchDepth > 0) {
+                builder.prefetchDepth(prefetchDepth);
+            }
+            if (db.getSettings().mappedReads) {
+                builder.mappedReads();
+            }
+            int offHeapCacheSize = db.getSettings().offHeapCacheSize;
+            if (offHeapCacheSize > 0) {
+                builder.offHeapCacheSize(offHeapCacheSize);
+            }
+            int serializationThreads = db.getSettings().serializationThreads;
+            if (serializationThreads > 1) {
+                builder.serializationThreads(serializationThreads);
+            }
+            int compactionRate = db.getSettings().compactionRate;
+            if (compactionRate > 0) {
+                builder.compactionRate(compactionRate);
+            }
             builder.backgroundExceptionHandler((t, e) -> db.setBackgroundException(DbException.convert(e)));
             // always start without background thread first, and if necessary,
             // it will be set up later, after db has been fully started,
@@ -134,6 +165,11 @@ public final class Store {
             if (!db.getSettings().reuseSpace) {
                 mvStore.setReuseSpace(false);
             }
+            FileStore<?> fileStore = mvStore.getFileStore();
+            if (fileStore != null && db.getSettings().columnarStorage) {
+                // columnar row pages
+                fileStore.requireFormat(FileStore.FORMAT_EXTENDED_PAGES);
+            }
             mvStore.setVersionsToKeep(0);
             this.transactionStore = new TransactionStore(mvStore,
                     new MetaType<>(db, mvStore.backgroundExceptionHandler), new ValueDataType(db, null),
@@ -496,12 +496,23 @@ public class TransactionStore {
             // It does not change the way this transaction is treated by others,
             // but preserves fact of commit in case of abrupt termination.
             MVMap<Long,Record<?,?>> undoLog = undoLogs[transactionId];
-            Cursor<Long,Record<?,?>> cursor;
+            Cursor<Long,Record<?,?>> cursor = null;
+            Long[] undoKeys = null;
+            Record<?,?>[] records = null;
+            int count = -1;
             if(recovery) {
                 removeUndoLogRecord(transactionId);
                 cursor = undoLog.cursor(null);
             } else {
-                cursor = undoLog.cursor(null);
+                // a small transaction has all of its log in the append
+                // buffer, which can be read without flushing it into the map
+                int keysPerPage = store.getKeysPerPage();
+                undoKeys = new Long[keysPerPage];
+                records = new Record<?,?>[keysPerPage];
+                count = undoLog.copyAppendBuffer(undoKeys, records);
+                if (count < 0) {
+                    cursor = undoLog.cursor(null);
+                }
                 markUndoLogAsCommitted(transactionId);
             }
 
@@ -511,17 +522,14 @@ public class TransactionStore {
 
             CommitDecisionMaker<Object> commitDecisionMaker = new CommitDecisionMaker<>();
             try {
-                while (cursor.hasNext()) {
-                    Long undoKey = cursor.next();
-                    Record<?,?> op = cursor.getValue();
-                    int mapId = op.mapId;
-                    MVMap<Object, VersionedValue<Object>> map = openMap(mapId);
-                    if (map != null && !map.isClosed()) { // might be null if map was removed later
-                        Object key = op.key;
-                        commitDecisionMaker.setUndoKey(undoKey);
-                        // second parameter (value) is not really
-                        // used by CommitDecisionMaker
-                        map.operate(key, null, commitDecisionMaker);
+                if (cursor == null) {
+                    for (int i = 0; i < count; i++) {
+                        commit(undoKeys[i], records[i], commitDecisionMaker);
+                    }
+                } else {
+                    while (cursor.hasNext()) {
+                        Long undoKey = cursor.next();
+                        commit(undoKey, cursor.getValue(), commitDecisionMaker);
                     }
                 }
             } finally {
@@ -534,6 +542,18 @@ public class TransactionStore {
         }
     }
 
+    private void commit(Long undoKey, Record<?,?> op, CommitDecisionMaker<Object> commitDecisionMaker) {
+        int mapId = op.mapId;
+        MVMap<Object, VersionedValue<Object>> map = openMap(mapId);
+        if (map != null && !map.isClosed()) { // might be null if map was removed later
+            Object key = op.key;
+            commitDecisionMaker.setUndoKey(undoKey);
+            // second parameter (value) is not really
+            // used by CommitDecisionMaker
+            map.operate(key, null, commitDecisionMaker);
+        }
+    }
+
     private void flipCommittingTransactionsBit(int transactionId, boolean flag) {
         boolean success;
         do {
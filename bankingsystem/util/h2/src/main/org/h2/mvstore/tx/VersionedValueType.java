@@ -10,6 +10,7 @@ import org.h2.engine.Constants;
 import org.h2.mvstore.DataUtils;
 import org.h2.mvstore.WriteBuffer;
 import org.h2.mvstore.type.BasicDataType;
+import org.h2.mvstore.type.ColumnarDataType;
 import org.h2.mvstore.type.DataType;
 import org.h2.mvstore.type.MetaType;
 import org.h2.mvstore.type.StatefulDataType;
@@ -51,11 +52,23 @@ public class VersionedValueType<T,D> extends BasicDataType<VersionedValue<T>> im
 
     @Override
     public void read(ByteBuffer buff, Object storage, int len) {
-        if (buff.get() == 0) {
+        byte layout = buff.get();
+        if (layout == 0) {
             // fast path (no op ids or null entries)
             for (int i = 0; i < len; i++) {
                 cast(storage)[i] = VersionedValueCommitted.getInstance(valueType.read(buff));
             }
+        } else if (layout == 2) {
+            // fast path, values stored column by column
+            if (!(valueType instanceof ColumnarDataType)) {
+                throw DataUtils.newMVStoreException(DataUtils.ERROR_FILE_CORRUPT,
+                        "Columnar layout is not supported by {0}", valueType);
+            }
+            T[] values = valueType.createStorage(len);
+            ((ColumnarDataType<T>) valueType).readColumnar(buff, values, len);
+            for (int i = 0; i < len; i++) {
+                cast(storage)[i] = VersionedValueCommitted.getInstance(values[i]);
+            }
         } else {
             // slow path (some entries may be null)
             for (int i = 0; i < len; i++) {
@@ -86,7 +99,15 @@ public class VersionedValueType<T,D> extends BasicDataType<VersionedValue<T>> im
                 fastPath = false;
             }
         }
-        if (fastPath) {
+        if (fastPath && valueType instanceof ColumnarDataType
+                && ((ColumnarDataType<T>) valueType).isColumnar()) {
+            buff.put((byte) 2);
+            T[] values = valueType.createStorage(len);
+            for (int i = 0; i < len; i++) {
+                values[i] = cast(storage)[i].getCurrentValue();
+            }
+            ((ColumnarDataType<T>) valueType).writeColumnar(buff, values, len);
+        } else if (fastPath) {
             buff.put((byte) 0);
             for (int i = 0; i < len; i++) {
                 VersionedValue<T> v = cast(storage)[i];
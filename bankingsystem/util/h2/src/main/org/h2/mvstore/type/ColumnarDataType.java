@@ -0,0 +1,45 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.mvstore.type;
+
+import java.nio.ByteBuffer;
+import org.h2.mvstore.WriteBuffer;
+
+/**
+ * A data type for values made of columns, which can store the values of a
+ * page column by column instead of value by value.
+ *
+ * @param <T> the type of values
+ */
+public interface ColumnarDataType<T> extends DataType<T> {
+
+    /**
+     * Whether the values of a page should be written column by column.
+     *
+     * @return true if the columnar layout is used for writing
+     */
+    boolean isColumnar();
+
+    /**
+     * Write a list of values column by column.
+     *
+     * @param buff the target buffer
+     * @param storage the values
+     * @param len the number of values
+     */
+    void writeColumnar(WriteBuffer buff, Object storage, int len);
+
+    /**
+     * Read a list of values written by
+     * {@link #writeColumnar(WriteBuffer, Object, int)}.
+     *
+     * @param buff the source buffer
+     * @param storage the target array
+     * @param len the number of values
+     */
+    void readColumnar(ByteBuffer buff, Object storage, int len);
+
+}
@@ -66,6 +66,36 @@ public class LongDataType extends BasicDataType<Long> {
         return binarySearch(key, storage, low, high, x);
     }
 
+    /**
+     * Search a key in an array of primitive keys.
+     *
+     * @param key the key
+     * @param storage the keys, in ascending order
+     * @param size the number of keys
+     * @param initialGuess the index to compare with first, plus one, or 0
+     * @return the index of the key, or the negated insertion point minus one
+     */
+    public static int binarySearch(long key, long[] storage, int size, int initialGuess) {
+        int low = 0;
+        int high = size - 1;
+        int x = initialGuess - 1;
+        if (x < 0 || x > high) {
+            x = high >>> 1;
+        }
+        while (low <= high) {
+            long midVal = storage[x];
+            if (key > midVal) {
+                low = x + 1;
+            } else if (key < midVal) {
+                high = x - 1;
+            } else {
+                return x;
+            }
+            x = (low + high) >>> 1;
+        }
+        return ~low;
+    }
+
     private static int binarySearch(long key, Long[] storage, int low, int high, int x) {
         while (low <= high) {
             long midVal = storage[x];
@@ -57,6 +57,12 @@ public class LocalResult implements ResultInterface, ResultTarget {
         return new LocalResult(session, expressions, degree, degree + 1);
     }
 
+    /**
+     * The minimum number of rows that are added between two removals of the
+     * rows that are not needed in the top-N mode.
+     */
+    private static final int TOP_N_MIN_BUFFER = 1024;
+
     private int maxMemoryRows;
     private final SessionLocal session;
     private int visibleColumnCount;
@@ -82,6 +88,23 @@ public class LocalResult implements ResultInterface, ResultTarget {
     private boolean containsLobs;
     private Boolean containsNull;
 
+    /**
+     * The number of first rows in the sort order that are needed, or 0 if all
+     * rows are needed.
+     */
+    private int topN;
+
+    /**
+     * Whether the rows that are equal to the last needed row are needed too.
+     */
+    private boolean topNWithTies;
+
+    /**
+     * The number of rows in memory at which the rows that are not needed are
+     * removed.
+     */
+    private int topNThreshold = Integer.MAX_VALUE;
+
     /**
      * Construct a local result object.
      */
@@ -200,6 +223,26 @@ public class LocalResult implements ResultInterface, ResultTarget {
         this.sort = sort;
     }
 
+    /**
+     * Keep only the first rows in the sort order while rows are added. The
+     * rows are kept in a buffer of at most about twice this number of rows,
+     * which is sorted partially when it is full, so that the memory usage
+     * depends on the number of needed rows only. This method should be called
+     * after the sort order is set, and before rows are added. The offset and
+     * the limit still need to be set.
+     *
+     * @param count the number of needed rows (the offset plus the limit)
+     * @param withTies whether the rows that are equal to the last needed row
+     *            are needed too
+     */
+    public void setTopN(long count, boolean withTies) {
+        if (sort != null && count > 0 && count <= maxMemoryRows / 2) {
+            topN = (int) count;
+            topNWithTies = withTies;
+            topNThreshold = (int) Math.min(count + Math.max(count, TOP_N_MIN_BUFFER), maxMemoryRows);
+        }
+    }
+
     /**
      * Remove duplicate rows.
      */
@@ -443,16 +486,28 @@ public class LocalResult implements ResultInterface, ResultTarget {
         } else {
             rows.add(values);
             rowCount++;
+            if (rows.size() >= topNThreshold) {
+                removeRowsAfterTopN();
+            }
             if (rows.size() > maxMemoryRows) {
                 addRowsToDisk();
             }
         }
     }
 
+    private void removeRowsAfterTopN() {
+        sort.keepFirst(rows, topN, topNWithTies);
+        rowCount = rows.size();
+        // with ties the rows may all be needed, remove them less often then
+        topNThreshold = (int) Math.min(rowCount + Math.max(topN, TOP_N_MIN_BUFFER), Integer.MAX_VALUE);
+    }
+
     private void addRowsToDisk() {
         if (external == null) {
             createExternalResult();
         }
+        // the rows on disk are not limited
+        topNThreshold = Integer.MAX_VALUE;
         rowCount = external.addRows(rows);
         rows.clear();
     }
@@ -224,6 +224,34 @@ public final class SortOrder implements Comparator<Value[]> {
         }
     }
 
+    /**
+     * Remove all rows except the first rows in this sort order. The remaining
+     * rows are sorted.
+     *
+     * @param rows the list of rows
+     * @param count the number of rows to keep, less than the number of rows
+     * @param withTies whether the rows that are equal to the last kept row
+     *            are kept as well
+     */
+    public void keepFirst(ArrayList<Value[]> rows, int count, boolean withTies) {
+        Value[][] arr = rows.toArray(new Value[0][]);
+        Utils.sortTopN(arr, 0, count, this);
+        int size = count;
+        if (withTies) {
+            Value[] last = arr[count - 1];
+            for (int i = count, l = arr.length; i < l; i++) {
+                Value[] row = arr[i];
+                if (compare(last, row) == 0) {
+                    arr[size++] = row;
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            rows.set(i, arr[i]);
+        }
+        rows.subList(size, rows.size()).clear();
+    }
+
     /**
      * Get the column index list. This is the column indexes of the order by
      * expressions within the query.
@@ -20,6 +20,8 @@ import org.h2.engine.SessionLocal;
 import org.h2.expression.Expression;
 import org.h2.expression.condition.Comparison;
 import org.h2.expression.condition.ConditionAndOr;
+import org.h2.expression.vector.VectorFilter;
+import org.h2.index.HashJoinIndex;
 import org.h2.index.Index;
 import org.h2.index.IndexCondition;
 import org.h2.index.IndexCursor;
@@ -31,6 +33,8 @@ import org.h2.util.HasSQL;
 import org.h2.util.ParserUtil;
 import org.h2.util.StringUtils;
 import org.h2.util.Utils;
+import org.h2.value.CompareMode;
+import org.h2.value.DataType;
 import org.h2.value.TypeInfo;
 import org.h2.value.Value;
 import org.h2.value.ValueBigint;
@@ -59,6 +63,12 @@ public class TableFilter implements ColumnResolver {
      */
     private static final TableFilterVisitor JOI_VISITOR = f -> f.joinOuterIndirect = true;
 
+    /**
+     * The minimum number of rows of a table for a hash join, smaller tables
+     * are cheap to scan.
+     */
+    private static final int HASH_JOIN_MIN_ROWS = 1000;
+
     /**
      * Whether this is a direct or indirect (nested) outer join
      */
@@ -90,12 +100,22 @@ public class TableFilter implements ColumnResolver {
      */
     private final ArrayList<IndexCondition> indexConditions = Utils.newSmallArrayList();
 
+    /**
+     * The last hash join index that was considered for this table.
+     */
+    private HashJoinIndex hashJoinIndex;
+
     /**
      * Additional conditions that can't be used for index lookup, but for row
      * filter for this table (ID=ID, NAME LIKE '%X%')
      */
     private Expression filterCondition;
 
+    /**
+     * The evaluation of the filter condition for batches of rows, or null.
+     */
+    private VectorFilter vectorFilter;
+
     /**
      * The complete join condition.
      */
@@ -247,6 +267,17 @@ public class TableFilter implements ColumnResolver {
             }
         }
         PlanItem item = table.getBestPlanItem(s, masks, filters, filter, sortOrder, allColumnsSet, isSelectCommand);
+        if (filter > 0 && masks != null && isSelectCommand && indexHints == null
+                && s.getDatabase().getSettings().hashJoin) {
+            HashJoinIndex hashIndex = getHashJoinIndex(s);
+            if (hashIndex != null) {
+                double cost = hashIndex.getCost(s, masks, filters, filter, sortOrder, allColumnsSet, isSelectCommand);
+                if (cost < item.cost) {
+                    item.cost = cost;
+                    item.setIndex(hashIndex);
+                }
+            }
+        }
         item.setMasks(masks);
         // The more index conditions, the earlier the table.
         // This is to ensure joins without indexes run quickly:
@@ -277,6 +308,91 @@ public class TableFilter implements ColumnResolver {
         return item;
     }
 
+    /**
+     * Get a hash join index for the columns with equality conditions that can
+     * be evaluated now.
+     *
+     * @param s the session
+     * @return the index, or null if a hash join is not possible
+     */
+    private HashJoinIndex getHashJoinIndex(SessionLocal s) {
+        Index scanIndex = table.getScanIndex(s);
+        // the row count of these tables is exact, so that the hash table can
+        // be expected to fit in memory
+        if (!scanIndex.isRowIdIndex()) {
+            return null;
+        }
+        long rowCount = table.getRowCountApproximation(s);
+        if (rowCount < HASH_JOIN_MIN_ROWS || rowCount > s.getDatabase().getMaxMemoryRows()) {
+            return null;
+        }
+        CompareMode compareMode = s.getDatabase().getCompareMode();
+        ArrayList<IndexColumn> columns = Utils.newSmallArrayList();
+        loop: for (IndexCondition condition : indexConditions) {
+            if (!condition.isEvaluatable() || condition.isCompoundColumns()
+                    || condition.getCompareType() != Comparison.EQUAL) {
+                continue;
+            }
+            Column column = condition.getColumn();
+            int type = column.getType().getValueType();
+            if (column.getColumnId() < 0 || type != condition.getExpression().getType().getValueType()
+                    || !DataType.isHashable(type, compareMode)) {
+                continue;
+            }
+            for (IndexColumn c : columns) {
+                if (c.column == column) {
+                    continue loop;
+                }
+            }
+            columns.add(new IndexColumn(column));
+        }
+        if (columns.isEmpty()) {
+            return null;
+        }
+        IndexColumn[] array = columns.toArray(new IndexColumn[0]);
+        if (hashJoinIndex == null || !hashJoinIndex.hasColumns(array)) {
+            hashJoinIndex = new HashJoinIndex(table, array, scanIndex);
+        }
+        return hashJoinIndex;
+    }
+
+    /**
+     * Get the estimated number of rows of this table filter for each row of
+     * the preceding table filters. The equality conditions that can be
+     * evaluated now are taken into account with the selectivity of their
+     * columns, as for the cost of an index lookup, and range conditions as a
+     * third of the rows.
+     *
+     * @param s the session
+     * @return the estimated number of rows, at least 1
+     */
+    public double getRowCountEstimate(SessionLocal s) {
+        double rowCount = table.getRowCountApproximation(s);
+        int totalSelectivity = 0;
+        boolean range = false;
+        ArrayList<Column> columns = Utils.newSmallArrayList();
+        for (IndexCondition condition : indexConditions) {
+            if (!condition.isEvaluatable() || condition.isCompoundColumns()) {
+                continue;
+            }
+            if (condition.getCompareType() != Comparison.EQUAL) {
+                range |= (condition.getMask(indexConditions) & IndexCondition.RANGE) != 0;
+                continue;
+            }
+            Column column = condition.getColumn();
+            if (!columns.contains(column)) {
+                columns.add(column);
+                totalSelectivity = 100 - (100 - totalSelectivity) * (100 - column.getSelectivity()) / 100;
+            }
+        }
+        if (totalSelectivity > 0) {
+            rowCount /= Math.max(1, rowCount * totalSelectivity / 100);
+        } else if (range) {
+            rowCount /= 3;
+        }
+        return Math.max(1, rowCount);
+    }
+
     /**
      * Set what plan item (index, cost, masks) to use.
      *
@@ -408,6 +524,10 @@ public class TableFilter implements ColumnResolver {
     public void startQuery(SessionLocal s) {
         this.session = s;
         scanCount = 0;
+        if (index instanceof HashJoinIndex) {
+            ((HashJoinIndex) index).reset();
+        }
+        vectorFilter = filterCondition != null && canVectorize(s) ? VectorFilter.get(s, this, filterCondition) : null;
         if (nestedJoin != null) {
             nestedJoin.startQuery(s);
         }
@@ -416,6 +536,33 @@ public class TableFilter implements ColumnResolver {
         }
     }
 
+    /**
+     * Evaluate the leading comparisons of the condition of the query for
+     * batches of rows, if this is the only table of the query. This is called
+     * after the query execution started.
+     *
+     * @param s the session
+     * @param condition the condition of the query
+     * @return the rest of the condition, which needs to be evaluated row by
+     *         row, or null
+     */
+    public Expression vectorizeCondition(SessionLocal s, Expression condition) {
+        if (join == null && filterCondition == null && canVectorize(s)) {
+            VectorFilter f = VectorFilter.get(s, this, condition);
+            if (f != null) {
+                vectorFilter = f;
+                return f.getRemainingCondition();
+            }
+        }
+        return condition;
+    }
+
+    private boolean canVectorize(SessionLocal s) {
+        return select != null && select.getForUpdate() == null && nestedJoin == null && !joinOuter
+                && !joinOuterIndirect && table.getTableType() == TableType.TABLE && index.getIndexType().isScan()
+                && s.getDatabase().getSettings().vectorizedFilter;
+    }
+
     /**
      * Reset to the current position.
      */
@@ -440,6 +587,9 @@ public class TableFilter implements ColumnResolver {
             return false;
         } else if (state == BEFORE_FIRST) {
             cursor.find(session, indexConditions);
+            if (vectorFilter != null) {
+                vectorFilter.reset();
+            }
             if (!cursor.isAlwaysFalse()) {
                 if (nestedJoin != null) {
                     nestedJoin.reset();
@@ -470,7 +620,17 @@ public class TableFilter implements ColumnResolver {
                 if ((++scanCount & 4095) == 0) {
                     checkTimeout();
                 }
-                if (cursor.next()) {
+                if (vectorFilter != null) {
+                    // the rows are already filtered
+                    Row row = vectorFilter.next(session, cursor);
+                    if (row != null) {
+                        currentSearchRow = row;
+                        current = row;
+                        state = FOUND;
+                    } else {
+                        state = AFTER_LAST;
+                    }
+                } else if (cursor.next()) {
                     currentSearchRow = cursor.getSearchRow();
                     current = null;
                     state = FOUND;
@@ -496,7 +656,7 @@ public class TableFilter implements ColumnResolver {
                     break;
                 }
             }
-            if (!isOk(filterCondition)) {
+            if (!isOk(vectorFilter == null ? filterCondition : vectorFilter.getRemainingCondition())) {
                 continue;
             }
             boolean joinConditionOk = isOk(joinCondition);
@@ -22,6 +22,7 @@ import java.util.zip.ZipOutputStream;
 
 import org.h2.api.ErrorCode;
 import org.h2.compress.CompressDeflate;
+import org.h2.compress.CompressLZ4;
 import org.h2.compress.CompressLZF;
 import org.h2.compress.CompressNo;
 import org.h2.compress.Compressor;
@@ -187,7 +188,7 @@ public class CompressTool {
      * @param in
      *            the byte array with the original data
      * @param algorithm
-     *            the algorithm (LZF, DEFLATE)
+     *            the algorithm (LZF, LZ4, DEFLATE)
      * @return the compressed data
      */
     public byte[] compress(byte[] in, String algorithm) {
@@ -379,6 +380,8 @@ public class CompressTool {
             return Compressor.LZF;
         } else if ("DEFLATE".equals(algorithm)) {
             return Compressor.DEFLATE;
+        } else if ("LZ4".equals(algorithm)) {
+            return Compressor.LZ4;
         } else {
             throw DbException.get(ErrorCode.UNSUPPORTED_COMPRESSION_ALGORITHM_1, algorithm);
         }
@@ -392,6 +395,8 @@ public class CompressTool {
             return new CompressLZF();
         case Compressor.DEFLATE:
             return new CompressDeflate();
+        case Compressor.LZ4:
+            return new CompressLZ4();
         default:
             throw DbException.get(ErrorCode.UNSUPPORTED_COMPRESSION_ALGORITHM_1, Integer.toString(algorithm));
         }
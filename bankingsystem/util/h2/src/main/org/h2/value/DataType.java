@@ -778,6 +778,36 @@ public class DataType {
         }
     }
 
+    /**
+     * Check if equal values of the given type are also equal Java objects
+     * with equal hash codes, so that they can be found in a hash table.
+     *
+     * @param type the value type
+     * @param compareMode the compare mode of the database
+     * @return true if values of this type can be found by their hash code
+     */
+    public static boolean isHashable(int type, CompareMode compareMode) {
+        switch (type) {
+        case Value.VARCHAR:
+            // with a collation, different strings may be equal
+            return CompareMode.OFF.equals(compareMode.getName());
+        case Value.BOOLEAN:
+        case Value.TINYINT:
+        case Value.SMALLINT:
+        case Value.INTEGER:
+        case Value.BIGINT:
+        case Value.DATE:
+        case Value.TIME:
+        case Value.TIMESTAMP:
+        case Value.UUID:
+            return true;
+        default:
+            // other data types have equal values with different
+            // representations, such as 1.0 and 1.00, or 0.0 and -0.0
+            return false;
+        }
+    }
+
     /**
      * Performs saturated addition of precision values.
      *
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.test.bench;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.h2.Driver;
+
+/**
+ * Compares the hash table and the sorted map used to find the groups of a
+ * GROUP BY query, for different numbers of groups.
+ */
+public class BenchGroupBy {
+
+    private int rows = 1_000_000;
+    private int runs = 5;
+    private int[] groupCounts = { 100, 10_000, 100_000, 1_000_000 };
+
+    /**
+     * This method is called when executing this sample application.
+     *
+     * @param args the command line parameters
+     */
+    public static void main(String... args) throws Exception {
+        new BenchGroupBy().test(args);
+    }
+
+    private void test(String... args) throws SQLException {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("-rows".equals(arg)) {
+                rows = Integer.parseInt(args[++i]);
+            } else if ("-runs".equals(arg)) {
+                runs = Integer.parseInt(args[++i]);
+            }
+        }
+        Driver.load();
+        System.out.println("groups, hash ms, sorted ms");
+        for (int groups : groupCounts) {
+            System.out.println(groups + ", " + run(true, groups) + ", " + run(false, groups));
+        }
+    }
+
+    /**
+     * Run the query a number of times.
+     *
+     * @param hash whether the hash table is used
+     * @param groups the number of groups
+     * @return the best time, in milliseconds
+     */
+    private long run(boolean hash, int groups) throws SQLException {
+        String url = "jdbc:h2:mem:groupBy;HASH_GROUP_BY=" + hash;
+        try (Connection conn = DriverManager.getConnection(url)) {
+            Statement stat = conn.createStatement();
+            stat.execute("CREATE TABLE TEST(ID BIGINT PRIMARY KEY, ACCOUNT_ID BIGINT, AMOUNT BIGINT) AS "
+                    + "SELECT X, MOD(X * 7919, " + groups + "), MOD(X, 1000) FROM SYSTEM_RANGE(1, " + rows + ")");
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i <= runs; i++) {
+                long start = System.nanoTime();
+                try (ResultSet rs = stat.executeQuery(
+                        // a different condition each time, so that the result is not reused
+                        "SELECT ACCOUNT_ID, COUNT(*), SUM(AMOUNT) FROM TEST WHERE AMOUNT <> " + -i
+                        + " GROUP BY ACCOUNT_ID")) {
+                    while (rs.next()) {
+                        // ignore
+                    }
+                }
+                long time = (System.nanoTime() - start) / 1_000_000;
+                // the first run is a warm up
+                if (i > 0) {
+                    best = Math.min(best, time);
+                }
+            }
+            stat.execute("DROP TABLE TEST");
+            return best;
+        }
+    }
+
+}
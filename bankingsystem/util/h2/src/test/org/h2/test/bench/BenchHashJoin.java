@@ -0,0 +1,92 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.test.bench;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.h2.Driver;
+
+/**
+ * Compares a hash join with a nested loop join, for a join on a column
+ * without an index, as in a join of the transactions of some customers with
+ * their accounts.
+ */
+public class BenchHashJoin {
+
+    private int accounts = 10_000;
+    private int runs = 3;
+    private int[] transactionCounts = { 10_000, 100_000 };
+    private int[] customerCounts = { 1_000, 10 };
+
+    /**
+     * This method is called when executing this sample application.
+     *
+     * @param args the command line parameters
+     */
+    public static void main(String... args) throws Exception {
+        new BenchHashJoin().test(args);
+    }
+
+    private void test(String... args) throws SQLException {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("-accounts".equals(arg)) {
+                accounts = Integer.parseInt(args[++i]);
+            } else if ("-runs".equals(arg)) {
+                runs = Integer.parseInt(args[++i]);
+            }
+        }
+        Driver.load();
+        System.out.println("transactions, accounts per customer, hash join ms, nested loop ms");
+        for (int transactions : transactionCounts) {
+            for (int customers : customerCounts) {
+                System.out.println(transactions + ", " + accounts / customers + ", "
+                        + run(true, transactions, customers) + ", " + run(false, transactions, customers));
+            }
+        }
+    }
+
+    /**
+     * Run the query a number of times.
+     *
+     * @param hash whether hash joins are allowed
+     * @param transactions the number of transactions
+     * @param customers the number of customers
+     * @return the best time, in milliseconds
+     */
+    private long run(boolean hash, int transactions, int customers) throws SQLException {
+        String url = "jdbc:h2:mem:hashJoin;HASH_JOIN=" + hash;
+        try (Connection conn = DriverManager.getConnection(url)) {
+            Statement stat = conn.createStatement();
+            stat.execute("CREATE TABLE ACCOUNTS(ID BIGINT PRIMARY KEY, ACC_NO BIGINT, CUSTOMER_ID INT) AS "
+                    + "SELECT X, X * 7, MOD(X, " + customers + ") FROM SYSTEM_RANGE(1, " + accounts + ")");
+            stat.execute("CREATE TABLE TRANSACTIONS(ID BIGINT PRIMARY KEY, ACC_NO BIGINT, AMOUNT BIGINT) AS "
+                    + "SELECT X, MOD(X, " + accounts + ") * 7, MOD(X, 1000) FROM SYSTEM_RANGE(1, "
+                    + transactions + ")");
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i <= runs; i++) {
+                long start = System.nanoTime();
+                try (ResultSet rs = stat.executeQuery(
+                        // a different condition each time, so that the result is not reused
+                        "SELECT COUNT(*), SUM(T.AMOUNT) FROM TRANSACTIONS T JOIN ACCOUNTS A "
+                        + "ON T.ACC_NO = A.ACC_NO WHERE A.CUSTOMER_ID = " + i % customers)) {
+                    rs.next();
+                }
+                long time = (System.nanoTime() - start) / 1_000_000;
+                // the first run is a warm up
+                if (i > 0) {
+                    best = Math.min(best, time);
+                }
+            }
+            stat.execute("DROP TABLE ACCOUNTS, TRANSACTIONS");
+            return best;
+        }
+    }
+
+}
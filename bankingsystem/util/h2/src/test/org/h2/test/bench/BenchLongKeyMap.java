@@ -0,0 +1,87 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.test.bench;
+
+import java.util.Iterator;
+import java.util.Random;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.type.LongDataType;
+import org.h2.store.fs.FileUtils;
+
+/**
+ * Measures inserts, point lookups and cursor positioning in a map with keys
+ * of type long, as used by the primary index of a table. Inserts are
+ * committed every 10000 rows, the lookups run after the last commit.
+ */
+public class BenchLongKeyMap {
+
+    private int rows = 1_000_000;
+    private int operations = 2_000_000;
+    private int runs = 5;
+    private String fileName = "data/longKeyMap.mv.db";
+
+    /**
+     * This method is called when executing this sample application.
+     *
+     * @param args the command line parameters
+     */
+    public static void main(String... args) throws Exception {
+        new BenchLongKeyMap().test(args);
+    }
+
+    private void test(String... args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("-rows".equals(arg)) {
+                rows = Integer.parseInt(args[++i]);
+            } else if ("-operations".equals(arg)) {
+                operations = Integer.parseInt(args[++i]);
+            } else if ("-runs".equals(arg)) {
+                runs = Integer.parseInt(args[++i]);
+            }
+        }
+        System.out.println("run, insert ns/op, get ns/op, seek ns/op");
+        for (int run = 0; run < runs; run++) {
+            FileUtils.createDirectories("data");
+            FileUtils.delete(fileName);
+            try (MVStore s = new MVStore.Builder().fileName(fileName).autoCommitDisabled().open()) {
+                MVMap<Long, Long> map = s.openMap("data", new MVMap.Builder<Long, Long>()
+                        .keyType(LongDataType.INSTANCE).valueType(LongDataType.INSTANCE));
+                long start = System.nanoTime();
+                for (long i = 0; i < rows; i++) {
+                    map.put(i * 2, i);
+                    if (i % 10_000 == 0) {
+                        s.commit();
+                    }
+                }
+                s.commit();
+                long insert = (System.nanoTime() - start) / rows;
+                Random random = new Random(run);
+                long sum = 0;
+                start = System.nanoTime();
+                for (int i = 0; i < operations; i++) {
+                    Long v = map.get((long) random.nextInt(rows * 2));
+                    if (v != null) {
+                        sum += v;
+                    }
+                }
+                long get = (System.nanoTime() - start) / operations;
+                start = System.nanoTime();
+                for (int i = 0; i < operations; i++) {
+                    Iterator<Long> it = map.keyIterator((long) random.nextInt(rows * 2));
+                    if (it.hasNext()) {
+                        sum += it.next();
+                    }
+                }
+                long seek = (System.nanoTime() - start) / operations;
+                System.out.println(run + ", " + insert + ", " + get + ", " + seek + (sum == 0 ? " " : ""));
+            }
+            FileUtils.delete(fileName);
+        }
+    }
+
+}
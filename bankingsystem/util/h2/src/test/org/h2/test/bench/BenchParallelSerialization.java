@@ -0,0 +1,114 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.test.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.h2.store.fs.FileUtils;
+
+/**
+ * Measures how the time to write chunks scales with the number of
+ * serialization threads of the MVStore. Each commit changes rows in a number
+ * of maps, and only the time spent in commit (serializing and writing the
+ * chunk) is measured.
+ */
+public class BenchParallelSerialization {
+
+    private int maps = 8;
+    private int rowsPerCommit = 50_000;
+    private int commits = 20;
+    private int maxThreads = Runtime.getRuntime().availableProcessors();
+    private String compress = "LZF";
+
+    /**
+     * This method is called when executing this sample application.
+     *
+     * @param args the command line parameters
+     */
+    public static void main(String... args) throws Exception {
+        new BenchParallelSerialization().test(args);
+    }
+
+    private void test(String... args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("-maps".equals(arg)) {
+                maps = Integer.parseInt(args[++i]);
+            } else if ("-rows".equals(arg)) {
+                rowsPerCommit = Integer.parseInt(args[++i]);
+            } else if ("-commits".equals(arg)) {
+                commits = Integer.parseInt(args[++i]);
+            } else if ("-threads".equals(arg)) {
+                maxThreads = Integer.parseInt(args[++i]);
+            } else if ("-compress".equals(arg)) {
+                compress = args[++i];
+            }
+        }
+        // warm up
+        run(1);
+        run(maxThreads);
+        System.out.println("threads, commit ms, rows/s, speedup");
+        long base = 0;
+        for (int threads = 1; threads <= maxThreads; threads <<= 1) {
+            long nanos = run(threads);
+            if (threads == 1) {
+                base = nanos;
+            }
+            long rows = (long) rowsPerCommit * commits;
+            System.out.println(threads + ", " + TimeUnit.NANOSECONDS.toMillis(nanos) + ", "
+                    + rows * 1_000_000_000L / nanos + ", " + String.format("%.2f", (double) base / nanos));
+        }
+    }
+
+    /**
+     * Run the test with the given number of serialization threads.
+     *
+     * @param threads the number of threads
+     * @return the time spent in commit, in nanoseconds
+     */
+    private long run(int threads) {
+        String fileName = "data/serialization.mv.db";
+        FileUtils.createDirectories("data");
+        FileUtils.delete(fileName);
+        MVStore.Builder builder = new MVStore.Builder().fileName(fileName).autoCommitDisabled()
+                .serializationThreads(threads);
+        switch (compress) {
+        case "LZF":
+            builder.compress();
+            break;
+        case "DEFLATE":
+            builder.compressHigh();
+            break;
+        case "LZ4":
+            builder.compressLZ4();
+            break;
+        default:
+        }
+        Random random = new Random(1);
+        long time = 0;
+        try (MVStore s = builder.open()) {
+            @SuppressWarnings("unchecked")
+            MVMap<Long, String>[] m = new MVMap[maps];
+            for (int i = 0; i < maps; i++) {
+                m[i] = s.openMap("data" + i);
+            }
+            for (int c = 0; c < commits; c++) {
+                for (int i = 0; i < rowsPerCommit; i++) {
+                    long key = random.nextInt(rowsPerCommit * 4);
+                    m[i % maps].put(key, "posting " + key + " amount " + random.nextInt(100_000));
+                }
+                long start = System.nanoTime();
+                s.commit();
+                time += System.nanoTime() - start;
+            }
+        }
+        FileUtils.delete(fileName);
+        return time;
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.test.bench;
+
+import java.util.Random;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.tx.Transaction;
+import org.h2.mvstore.tx.TransactionMap;
+import org.h2.mvstore.tx.TransactionStore;
+import org.h2.mvstore.type.LongDataType;
+import org.h2.store.fs.FileUtils;
+
+/**
+ * Measures the latency of small transactions of the transaction store: begin,
+ * change a number of rows, and commit, as for a transfer between accounts.
+ */
+public class BenchTransactionCommit {
+
+    private int transactions = 200_000;
+    private int runs = 5;
+    private int[] rowCounts = { 1, 2, 10 };
+    private boolean file;
+
+    /**
+     * This method is called when executing this sample application.
+     *
+     * @param args the command line parameters
+     */
+    public static void main(String... args) throws Exception {
+        new BenchTransactionCommit().test(args);
+    }
+
+    private void test(String... args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("-transactions".equals(arg)) {
+                transactions = Integer.parseInt(args[++i]);
+            } else if ("-runs".equals(arg)) {
+                runs = Integer.parseInt(args[++i]);
+            } else if ("-file".equals(arg)) {
+                file = true;
+            }
+        }
+        // warm up
+        for (int rows : rowCounts) {
+            run(rows);
+        }
+        System.out.println("rows, ns/transaction");
+        for (int rows : rowCounts) {
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < runs; i++) {
+                best = Math.min(best, run(rows));
+            }
+            System.out.println(rows + ", " + best);
+        }
+    }
+
+    /**
+     * Run the given number of transactions.
+     *
+     * @param rows the number of rows changed by each transaction
+     * @return the average time per transaction, in nanoseconds
+     */
+    private long run(int rows) {
+        String fileName = "data/transactionCommit.mv.db";
+        MVStore.Builder builder = new MVStore.Builder();
+        if (file) {
+            FileUtils.createDirectories("data");
+            FileUtils.delete(fileName);
+            builder.fileName(fileName);
+        }
+        Random random = new Random(1);
+        long time;
+        try (MVStore s = builder.open()) {
+            TransactionStore ts = new TransactionStore(s);
+            ts.init();
+            Transaction t = ts.begin();
+            TransactionMap<Long, Long> map = t.openMap("accounts", LongDataType.INSTANCE, LongDataType.INSTANCE);
+            for (long i = 0; i < 10_000; i++) {
+                map.put(i, 1_000L);
+            }
+            t.commit();
+            long start = System.nanoTime();
+            for (int i = 0; i < transactions; i++) {
+                t = ts.begin();
+                map = t.openMap("accounts", LongDataType.INSTANCE, LongDataType.INSTANCE);
+                for (int j = 0; j < rows; j++) {
+                    long key = random.nextInt(10_000);
+                    map.put(key, map.get(key) + 1);
+                }
+                t.commit();
+            }
+            time = (System.nanoTime() - start) / transactions;
+        }
+        if (file) {
+            FileUtils.delete(fileName);
+        }
+        return time;
+    }
+
+}
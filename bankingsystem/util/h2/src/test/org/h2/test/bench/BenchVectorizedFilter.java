@@ -0,0 +1,93 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.test.bench;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.h2.Driver;
+
+/**
+ * Compares the evaluation of the conditions of a table scan for batches of
+ * rows with the evaluation row by row.
+ */
+public class BenchVectorizedFilter {
+
+    private int rows = 1_000_000;
+    private int runs = 5;
+    private String[] conditions = {
+            "STATUS = 'ACTIVE' AND BALANCE > ",
+            "ACC_NO + CUSTOMER_ID * 2 < ",
+            "CUSTOMER_ID <> ",
+    };
+
+    /**
+     * This method is called when executing this sample application.
+     *
+     * @param args the command line parameters
+     */
+    public static void main(String... args) throws Exception {
+        new BenchVectorizedFilter().test(args);
+    }
+
+    private void test(String... args) throws SQLException {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("-rows".equals(arg)) {
+                rows = Integer.parseInt(args[++i]);
+            } else if ("-runs".equals(arg)) {
+                runs = Integer.parseInt(args[++i]);
+            }
+        }
+        Driver.load();
+        // warm up
+        for (String condition : conditions) {
+            run(true, condition);
+            run(false, condition);
+        }
+        System.out.println("condition, vectorized ms, row by row ms");
+        for (String condition : conditions) {
+            System.out.println(condition + "?, " + run(true, condition) + ", " + run(false, condition));
+        }
+    }
+
+    /**
+     * Run the query a number of times.
+     *
+     * @param vectorized whether the condition is evaluated for batches of rows
+     * @param condition the condition, without the last constant
+     * @return the best time, in milliseconds
+     */
+    private long run(boolean vectorized, String condition) throws SQLException {
+        String url = "jdbc:h2:mem:vectorizedFilter;VECTORIZED_FILTER=" + vectorized;
+        try (Connection conn = DriverManager.getConnection(url)) {
+            Statement stat = conn.createStatement();
+            stat.execute("CREATE TABLE ACCOUNTS(ACC_NO INT PRIMARY KEY, CUSTOMER_ID INT, "
+                    + "BALANCE DECIMAL(19, 2), STATUS VARCHAR(20)) AS "
+                    + "SELECT X, MOD(X, 1000), MOD(X * 7919, 100000) / 10, "
+                    + "CASE WHEN MOD(X, 4) = 0 THEN 'CLOSED' ELSE 'ACTIVE' END FROM SYSTEM_RANGE(1, " + rows + ")");
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i <= runs; i++) {
+                long start = System.nanoTime();
+                try (ResultSet rs = stat.executeQuery(
+                        // a different condition each time, so that the result is not reused
+                        "SELECT COUNT(*), MAX(ACC_NO) FROM ACCOUNTS WHERE " + condition + (9_000 + i))) {
+                    rs.next();
+                }
+                long time = (System.nanoTime() - start) / 1_000_000;
+                // the first run is a warm up
+                if (i > 0) {
+                    best = Math.min(best, time);
+                }
+            }
+            stat.execute("DROP TABLE ACCOUNTS");
+            return best;
+        }
+    }
+
+}
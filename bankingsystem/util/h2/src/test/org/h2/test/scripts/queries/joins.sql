@@ -1096,3 +1096,71 @@ FROM A;
 > - ------------------------------------------------------------------------
 > 1 1
 > rows: 1
+
+CREATE TABLE A(ID INT PRIMARY KEY, ACC_NO INT, CUSTOMER_ID INT) AS SELECT X, X * 3, MOD(X, 100) FROM SYSTEM_RANGE(1, 2000);
+> ok
+
+CREATE TABLE T(ID INT PRIMARY KEY, ACC_NO INT, KIND INT) AS SELECT X, MOD(X, 3000), MOD(X, 2) FROM SYSTEM_RANGE(1, 5000);
+> ok
+
+UPDATE T SET ACC_NO = NULL WHERE ID <= 10;
+> update count: 10
+
+EXPLAIN SELECT COUNT(*), SUM(T.ID) FROM T JOIN A ON T.ACC_NO = A.ACC_NO WHERE A.CUSTOMER_ID = 7;
+>> SELECT COUNT(*), SUM("T"."ID") FROM "PUBLIC"."T" /* PUBLIC.T.tableScan */ INNER JOIN "PUBLIC"."A" /* PUBLIC.A.hashJoin: CUSTOMER_ID = 7 AND ACC_NO = T.ACC_NO */ ON 1=1 WHERE ("A"."CUSTOMER_ID" = 7) AND ("T"."ACC_NO" = "A"."ACC_NO")
+
+SELECT COUNT(*), SUM(T.ID) FROM T JOIN A ON T.ACC_NO = A.ACC_NO WHERE A.CUSTOMER_ID = 7;
+> COUNT(*) SUM(T.ID)
+> -------- ---------
+> 17       41157
+> rows: 1
+
+EXPLAIN SELECT COUNT(*), COUNT(T.ID) FROM A LEFT JOIN T ON T.ACC_NO = A.ACC_NO;
+>> SELECT COUNT(*), COUNT("T"."ID") FROM "PUBLIC"."A" /* PUBLIC.A.tableScan */ LEFT OUTER JOIN "PUBLIC"."T" /* PUBLIC.T.hashJoin: ACC_NO = A.ACC_NO */ ON "T"."ACC_NO" = "A"."ACC_NO"
+
+SELECT COUNT(*), COUNT(T.ID) FROM A LEFT JOIN T ON T.ACC_NO = A.ACC_NO;
+> COUNT(*) COUNT(T.ID)
+> -------- -----------
+> 2663     1662
+> rows: 1
+
+EXPLAIN SELECT COUNT(*) FROM A JOIN T ON T.ACC_NO = A.ACC_NO AND T.KIND = MOD(A.ID, 2);
+>> SELECT COUNT(*) FROM "PUBLIC"."A" /* PUBLIC.A.tableScan */ INNER JOIN "PUBLIC"."T" /* PUBLIC.T.hashJoin: ACC_NO = A.ACC_NO AND KIND = MOD(A.ID, 2) */ ON 1=1 WHERE ("T"."ACC_NO" = "A"."ACC_NO") AND ("T"."KIND" = MOD("A"."ID", 2))
+
+SELECT COUNT(*) FROM A JOIN T ON T.ACC_NO = A.ACC_NO AND T.KIND = MOD(A.ID, 2);
+>> 1662
+
+SELECT COUNT(*) FROM A JOIN T ON T.ACC_NO = A.ACC_NO AND T.ACC_NO > 1500;
+>> 665
+
+CREATE INDEX A_ACC_NO ON A(ACC_NO);
+> ok
+
+EXPLAIN SELECT COUNT(*), COUNT(T.ID) FROM A LEFT JOIN T ON T.ACC_NO = A.ACC_NO;
+>> SELECT COUNT(*), COUNT("T"."ID") FROM "PUBLIC"."A" /* PUBLIC.A_ACC_NO */ LEFT OUTER JOIN "PUBLIC"."T" /* PUBLIC.T.hashJoin: ACC_NO = A.ACC_NO */ ON "T"."ACC_NO" = "A"."ACC_NO"
+
+CREATE INDEX T_ACC_NO ON T(ACC_NO);
+> ok
+
+EXPLAIN SELECT COUNT(*), SUM(T.ID) FROM T JOIN A ON T.ACC_NO = A.ACC_NO WHERE A.CUSTOMER_ID = 7;
+>> SELECT COUNT(*), SUM("T"."ID") FROM "PUBLIC"."A" /* PUBLIC.A.tableScan */ /* WHERE A.CUSTOMER_ID = 7 */ INNER JOIN "PUBLIC"."T" /* PUBLIC.T_ACC_NO: ACC_NO = A.ACC_NO */ ON 1=1 WHERE ("A"."CUSTOMER_ID" = 7) AND ("T"."ACC_NO" = "A"."ACC_NO")
+
+DROP INDEX T_ACC_NO;
+> ok
+
+-- The next tests should be at the end of this file
+
+SET MAX_MEMORY_ROWS 100;
+> ok
+
+EXPLAIN SELECT COUNT(*), COUNT(T.ID) FROM A LEFT JOIN T ON T.ACC_NO = A.ACC_NO;
+>> SELECT COUNT(*), COUNT("T"."ID") FROM "PUBLIC"."A" /* PUBLIC.A_ACC_NO */ LEFT OUTER JOIN "PUBLIC"."T" /* PUBLIC.T.tableScan */ ON "T"."ACC_NO" = "A"."ACC_NO"
+
+SELECT COUNT(*), COUNT(T.ID) FROM A LEFT JOIN T ON T.ACC_NO = A.ACC_NO;
+> COUNT(*) COUNT(T.ID)
+> -------- -----------
+> 2663     1662
+> rows: 1
+
+DROP TABLE A, T;
+> ok
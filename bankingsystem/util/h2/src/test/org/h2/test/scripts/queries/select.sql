@@ -1289,3 +1289,184 @@ SELECT * FROM TEST WHERE A >= 2 ORDER BY A DESC;
 
 DROP TABLE TEST;
 > ok
+
+CREATE TABLE TEST(A INT, B VARCHAR, C BIGINT) AS SELECT MOD(X, 5000), 'V' || MOD(X, 3), X FROM SYSTEM_RANGE(1, 20000);
+> ok
+
+INSERT INTO TEST VALUES (NULL, NULL, 0), (NULL, 'V1', 0);
+> update count: 2
+
+SELECT COUNT(*), SUM(C) FROM (SELECT A, B, SUM(C) C FROM TEST GROUP BY A, B);
+> COUNT(*) SUM(C)
+> -------- ---------
+> 15002    200010000
+> rows: 1
+
+SELECT A, B, COUNT(*) FROM TEST WHERE A IS NULL OR A = 7 GROUP BY A, B;
+> A    B    COUNT(*)
+> ---- ---- --------
+> 7    V0   1
+> 7    V1   2
+> 7    V2   1
+> null V1   1
+> null null 1
+> rows: 5
+
+SELECT A, COUNT(*), RANK() OVER (ORDER BY A) FROM TEST WHERE A < 3 GROUP BY A HAVING A <> 1;
+> A COUNT(*) RANK() OVER (ORDER BY A)
+> - -------- ------------------------
+> 0 4        1
+> 2 4        2
+> rows: 2
+
+SELECT CAST(A AS BIGINT) + 0 X, COUNT(*) FROM TEST WHERE A IN (1, 2) GROUP BY X ORDER BY X;
+> X COUNT(*)
+> - --------
+> 1 4
+> 2 4
+> rows (ordered): 2
+
+DROP TABLE TEST;
+> ok
+
+CREATE TABLE TEST(D DOUBLE, R REAL, N NUMERIC(10, 2), B VARBINARY, I INTERVAL DAY);
+> ok
+
+INSERT INTO TEST VALUES (0.0, 0.0, 1, X'01', INTERVAL '1' DAY), ('-0.0', '-0.0', 1.0, X'01', INTERVAL '1' DAY),
+    ('NaN', 'NaN', 1.00, X'0102', INTERVAL '2' DAY), ('NaN', 'NaN', 2, X'0102', INTERVAL '2' DAY);
+> update count: 4
+
+SELECT COUNT(*) FROM (SELECT D FROM TEST GROUP BY D);
+>> 2
+
+SELECT COUNT(*) FROM (SELECT R FROM TEST GROUP BY R);
+>> 2
+
+SELECT N, COUNT(*) FROM TEST GROUP BY N ORDER BY N;
+> N    COUNT(*)
+> ---- --------
+> 1.00 3
+> 2.00 1
+> rows (ordered): 2
+
+SELECT COUNT(*) FROM (SELECT D, B, I FROM TEST GROUP BY D, B, I);
+>> 2
+
+DROP TABLE TEST;
+> ok
+
+CREATE TABLE TEST(ID INT PRIMARY KEY, A INT, B BIGINT, BALANCE DECIMAL(19, 2), STATUS VARCHAR, NAME VARCHAR) AS
+    SELECT X, CASE WHEN MOD(X, 17) = 0 THEN NULL ELSE MOD(X, 100) END, MOD(X * 7, 101),
+    CASE WHEN MOD(X, 13) = 0 THEN NULL ELSE MOD(X, 1000) + 0.5 END,
+    CASE MOD(X, 3) WHEN 0 THEN 'ACTIVE' WHEN 1 THEN 'CLOSED' END, 'N' || X FROM SYSTEM_RANGE(1, 2000);
+> ok
+
+SELECT COUNT(*), SUM(ID) FROM TEST WHERE STATUS = 'ACTIVE' AND BALANCE > 500;
+> COUNT(*) SUM(ID)
+> -------- -------
+> 308      384885
+> rows: 1
+
+SELECT COUNT(*), SUM(ID) FROM TEST WHERE A + B * 2 <= 50 AND STATUS <> 'CLOSED';
+> COUNT(*) SUM(ID)
+> -------- -------
+> 44       44847
+> rows: 1
+
+SELECT COUNT(*), SUM(ID) FROM TEST WHERE 10 > A AND NAME LIKE 'N1%';
+> COUNT(*) SUM(ID)
+> -------- -------
+> 103      136364
+> rows: 1
+
+SELECT COUNT(*), SUM(ID) FROM TEST WHERE _ROWID_ >= 1990 AND BALANCE < 1000;
+> COUNT(*) SUM(ID)
+> -------- -------
+> 11       21945
+> rows: 1
+
+SELECT ID FROM TEST WHERE A = 99 AND B > 95 ORDER BY ID;
+> ID
+> ----
+> 1399
+> rows (ordered): 1
+
+SELECT COUNT(*) FROM TEST WHERE NAME = 'N1' AND A * 100000000 > 0;
+>> 1
+
+SELECT COUNT(*) FROM TEST WHERE NAME LIKE 'N1' AND A * 100000000 > 0;
+>> 1
+
+SELECT COUNT(*) FROM TEST WHERE A * 100000000 > 0;
+> exception NUMERIC_VALUE_OUT_OF_RANGE_1
+
+SELECT ID FROM TEST WHERE A * 100000000 > 0 FETCH FIRST 1 ROW ONLY;
+>> 1
+
+SELECT EXISTS(SELECT * FROM TEST WHERE A * 100000000 > 0);
+>> TRUE
+
+SELECT ID FROM TEST WHERE A * 100000000 > 0 AND ID > 1 FETCH FIRST 1 ROW ONLY;
+>> 2
+
+SELECT ID FROM TEST WHERE A * 100000000 > 0 OFFSET 21 ROWS FETCH FIRST 1 ROW ONLY;
+> exception NUMERIC_VALUE_OUT_OF_RANGE_1
+
+DROP TABLE TEST;
+> ok
+
+CREATE TABLE TEST(ID INT PRIMARY KEY, V INT) AS SELECT X, MOD(X * 7919, 1000) FROM SYSTEM_RANGE(1, 3000);
+> ok
+
+SELECT ID, V FROM TEST ORDER BY V DESC, ID LIMIT 5;
+> ID   V
+> ---- ---
+> 321  999
+> 1321 999
+> 2321 999
+> 642  998
+> 1642 998
+> rows (ordered): 5
+
+SELECT ID, V FROM TEST ORDER BY V, ID OFFSET 10 ROWS FETCH NEXT 4 ROWS ONLY;
+> ID   V
+> ---- -
+> 1037 3
+> 2037 3
+> 716  4
+> 1716 4
+> rows (ordered): 4
+
+SELECT ID, V FROM TEST ORDER BY V FETCH FIRST 4 ROWS WITH TIES;
+> ID   V
+> ---- -
+> 1000 0
+> 1679 1
+> 2000 0
+> 2679 1
+> 3000 0
+> 679  1
+> rows (partially ordered): 6
+
+SELECT ID, V FROM TEST ORDER BY V OFFSET 3 ROWS FETCH FIRST 1 ROW WITH TIES;
+> ID   V
+> ---- -
+> 1679 1
+> 2679 1
+> 679  1
+> rows (partially ordered): 3
+
+SELECT V FROM TEST UNION ALL SELECT V FROM TEST ORDER BY V DESC LIMIT 7;
+> V
+> ---
+> 999
+> 999
+> 999
+> 999
+> 999
+> 999
+> 998
+> rows (ordered): 7
+
+DROP TABLE TEST;
+> ok
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2004-2025 H2 Group. Multiple-Licensed under the MPL 2.0,
+ * and the EPL 1.0 (https://h2database.com/html/license.html).
+ * Initial Developer: H2 Group
+ */
+package org.h2.test.store;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Random;
+import org.h2.mvstore.cache.CacheLongKeyOffHeap;
+import org.h2.test.TestBase;
+
+/**
+ * Tests the off-heap cache.
+ */
+public class TestCacheLongKeyOffHeap extends TestBase {
+
+    /**
+     * Run just this test.
+     *
+     * @param a ignored
+     */
+    public static void main(String... a) throws Exception {
+        TestBase.createCaller().init().testFromMain();
+    }
+
+    @Override
+    public void test() throws Exception {
+        testGetPutRemove();
+        testTag();
+        testLargeEntry();
+        testEviction();
+        testRandomOperations();
+    }
+
+    private void testGetPutRemove() {
+        CacheLongKeyOffHeap cache = new CacheLongKeyOffHeap(1024 * 1024);
+        try {
+            assertNull(cache.get(1, 0));
+            cache.put(1, 0, createData(1, 100), 100);
+            assertData(1, 100, cache.get(1, 0));
+            cache.put(1, 0, createData(2, 50), 50);
+            assertData(2, 50, cache.get(1, 0));
+            assertEquals(1, cache.size());
+            assertEquals(20 + 50, cache.getUsedMemory());
+            cache.remove(1);
+            assertNull(cache.get(1, 0));
+            assertEquals(0, cache.size());
+            assertEquals(0, cache.getUsedMemory());
+            assertEquals(2, cache.getHits());
+            assertEquals(2, cache.getMisses());
+            cache.put(2, 0, createData(2, 10), 10);
+            cache.clear();
+            assertNull(cache.get(2, 0));
+            assertEquals(0, cache.getUsedMemory());
+        } finally {
+            cache.close();
+        }
+    }
+
+    private void testTag() {
+        CacheLongKeyOffHeap cache = new CacheLongKeyOffHeap(1024 * 1024);
+        try {
+            cache.put(1, 10, createData(1, 100), 100);
+            assertNull(cache.get(1, 11));
+            // the outdated entry is removed
+            assertNull(cache.get(1, 10));
+            assertEquals(0, cache.size());
+        } finally {
+            cache.close();
+        }
+    }
+
+    private void testLargeEntry() {
+        CacheLongKeyOffHeap cache = new CacheLongKeyOffHeap(16 * 4096);
+        try {
+            cache.put(1, 0, createData(1, 2000), 2000);
+            assertNull(cache.get(1, 0));
+            cache.put(1, 0, createData(1, 1000), 1000);
+            assertData(1, 1000, cache.get(1, 0));
+        } finally {
+            cache.close();
+        }
+    }
+
+    private void testEviction() {
+        CacheLongKeyOffHeap cache = new CacheLongKeyOffHeap(16 * 4096);
+        try {
+            for (int i = 1; i <= 10_000; i++) {
+                cache.put(i, 0, createData(i, 200), 200);
+                assertTrue(cache.getUsedMemory() <= cache.getMaxMemory());
+            }
+            assertTrue(cache.getEvictions() > 0);
+            assertEquals(10_000, cache.size() + cache.getEvictions());
+            // first in, first out: the newest entries are still there
+            assertData(10_000, 200, cache.get(10_000, 0));
+            assertNull(cache.get(1, 0));
+        } finally {
+            cache.close();
+        }
+    }
+
+    private void testRandomOperations() {
+        Random r = new Random(1);
+        CacheLongKeyOffHeap cache = new CacheLongKeyOffHeap(16 * 16 * 1024);
+        HashMap<Long, Integer> map = new HashMap<>();
+        try {
+            for (int i = 0; i < 100_000; i++) {
+                long key = 1 + r.nextInt(2000);
+                switch (r.nextInt(4)) {
+                case 0:
+                    cache.remove(key);
+                    map.remove(key);
+                    break;
+                case 1:
+                case 2: {
+                    int len = r.nextInt(1000);
+                    cache.put(key, 0, createData(i, len), len);
+                    map.put(key, i << 16 | len);
+                    break;
+                }
+                default: {
+                    ByteBuffer buff = cache.get(key, 0);
+                    if (buff != null) {
+                        Integer x = map.get(key);
+                        assertNotNull(x);
+                        assertData(x >>> 16, x & 0xffff, buff);
+                    }
+                }
+                }
+            }
+            assertTrue(cache.getHits() > 0);
+            long used = 0;
+            for (long key = 1; key <= 2000; key++) {
+                ByteBuffer buff = cache.get(key, 0);
+                if (buff != null) {
+                    used += 20 + buff.remaining();
+                }
+            }
+            assertEquals(used, cache.getUsedMemory());
+        } finally {
+            cache.close();
+        }
+    }
+
+    private static ByteBuffer createData(int seed, int len) {
+        ByteBuffer buff = ByteBuffer.allocate(len + 3);
+        buff.put(new byte[3]);
+        for (int i = 0; i < len; i++) {
+            buff.put((byte) (seed + i));
+        }
+        buff.position(3);
+        return buff;
+    }
+
+    private void assertData(int seed, int len, ByteBuffer buff) {
+        assertNotNull(buff);
+        assertEquals(0, buff.position());
+        assertEquals(len, buff.remaining());
+        for (int i = 0; i < len; i++) {
+            assertEquals((byte) (seed + i), buff.get(i));
+        }
+    }
+
+}
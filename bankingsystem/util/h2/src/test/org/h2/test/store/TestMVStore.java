@@ -8,6 +8,7 @@ package org.h2.test.store;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -27,6 +28,7 @@ import org.h2.mvstore.MVStoreException;
 import org.h2.mvstore.OffHeapStore;
 import org.h2.mvstore.RandomAccessStore;
 import org.h2.mvstore.type.DataType;
+import org.h2.mvstore.type.LongDataType;
 import org.h2.mvstore.type.ObjectDataType;
 import org.h2.mvstore.type.StringDataType;
 import org.h2.store.fs.FilePath;
@@ -64,6 +66,12 @@ public class TestMVStore extends TestBase {
         testFileFormatExample();
         testMaxChunkLength();
         testCacheInfo();
+        testPrefetch();
+        testMappedReads();
+        testOffHeapCache();
+        testParallelSerialization();
+        testCompactionScheduler();
+        testLongKeys();
         testRollback();
         testVersionsToKeep();
         testVersionsToKeep2();
@@ -79,6 +87,7 @@ public class TestMVStore extends TestBase {
         testWriteDelay();
         testEncryptedFile();
         testFileFormatChange();
+        testExtendedPagesFormat();
         testRecreateMap();
         testRenameMapRollback();
         testCustomMapType();
@@ -321,6 +330,273 @@ public class TestMVStore extends TestBase {
         }
     }
 
+    private void testPrefetch() {
+        String fileName = getBaseDir() + "/" + getTestName();
+        FileUtils.delete(fileName);
+        try (MVStore s = new MVStore.Builder().fileName(fileName).pageSplitSize(1024).open()) {
+            MVMap<Integer, String> map = s.openMap("data");
+            for (int i = 0; i < 50_000; i++) {
+                map.put(i, "value " + i);
+            }
+        }
+        try (MVStore s = new MVStore.Builder().fileName(fileName).prefetchDepth(8).open()) {
+            MVMap<Integer, String> map = s.openMap("data");
+            int expected = 0;
+            for (Cursor<Integer, String> c = map.cursor(null); c.hasNext(); expected++) {
+                assertEquals(expected, c.next().intValue());
+                assertEquals("value " + expected, c.getValue());
+            }
+            assertEquals(50_000, expected);
+            expected = 39_999;
+            for (Cursor<Integer, String> c = map.cursor(39_999, 10_000, true); c.hasNext(); expected--) {
+                assertEquals(expected, c.next().intValue());
+            }
+            assertEquals(9_999, expected);
+            expected = 20_000;
+            for (Cursor<Integer, String> c = map.cursor(20_000, 30_000, false); c.hasNext(); expected++) {
+                assertEquals(expected, c.next().intValue());
+            }
+            assertEquals(30_001, expected);
+            Map<String, String> info = new HashMap<>();
+            s.getFileStore().populateInfo(info::put);
+            assertEquals("8", info.get("info.PREFETCH_DEPTH"));
+            assertTrue(Long.parseLong(info.get("info.PREFETCH_COUNT")) > 0);
+        }
+        try (MVStore s = new MVStore.Builder().fileName(fileName).open()) {
+            Map<String, String> info = new HashMap<>();
+            s.getFileStore().populateInfo(info::put);
+            assertEquals("0", info.get("info.PREFETCH_DEPTH"));
+        }
+    }
+
+    private void testMappedReads() {
+        if (config.memory) {
+            return;
+        }
+        String fileName = getBaseDir() + "/" + getTestName();
+        FileUtils.delete(fileName);
+        MVStore.Builder builder = new MVStore.Builder().fileName(fileName).mappedReads().cacheSize(1);
+        try (MVStore s = builder.open()) {
+            MVMap<Integer, String> map = s.openMap("data");
+            for (int i = 0; i < 20_000; i++) {
+                map.put(i, "value " + i);
+                if (i % 1000 == 0) {
+                    s.commit();
+                }
+            }
+        }
+        try (MVStore s = builder.open()) {
+            MVMap<Integer, String> map = s.openMap("data");
+            for (int i = 0; i < 20_000; i++) {
+                assertEquals("value " + i, map.get(i));
+            }
+            // the file grows past the mapping, then shrinks
+            for (int i = 0; i < 20_000; i++) {
+                map.put(i, "new value " + i);
+                if (i % 1000 == 0) {
+                    s.commit();
+                }
+            }
+            s.commit();
+            for (int i = 0; i < 20_000; i++) {
+                assertEquals("new value " + i, map.get(i));
+            }
+            s.compactFile(10_000);
+            for (int i = 0; i < 20_000; i++) {
+                assertEquals("new value " + i, map.get(i));
+            }
+        }
+        try (MVStore s = builder.open()) {
+            MVMap<Integer, String> map = s.openMap("data");
+            for (int i = 0; i < 20_000; i++) {
+                assertEquals("new value " + i, map.get(i));
+            }
+        }
+    }
+
+    private void testOffHeapCache() {
+        if (config.memory) {
+            return;
+        }
+        String fileName = getBaseDir() + "/" + getTestName();
+        FileUtils.delete(fileName);
+        String suffix = new String(new char[100]).replace((char) 0, 'x');
+        MVStore.Builder builder = new MVStore.Builder().fileName(fileName).cacheSize(1).offHeapCacheSize(16);
+        try (MVStore s = builder.open()) {
+            assertEquals(16, s.getOffHeapCacheSize());
+            MVMap<Integer, String> map = s.openMap("data");
+            for (int i = 0; i < 50_000; i++) {
+                map.put(i, "value " + i + suffix);
+                if (i % 5000 == 0) {
+                    s.commit();
+                }
+            }
+        }
+        try (MVStore s = builder.open()) {
+            MVMap<Integer, String> map = s.openMap("data");
+            for (int j = 0; j < 2; j++) {
+                for (int i = 0; i < 50_000; i++) {
+                    assertEquals("value " + i + suffix, map.get(i));
+                }
+            }
+            HashMap<String, String> info = new HashMap<>();
+            s.getFileStore().populateInfo(info::put);
+            // the second round does not fit into the page cache
+            assertTrue(Integer.parseInt(info.get("info.OFF_HEAP_CACHE_HIT_RATIO")) > 0);
+            long reads = s.getFileStore().getReadCount();
+            for (int i = 0; i < 50_000; i++) {
+                assertEquals("value " + i + suffix, map.get(i));
+            }
+            assertEquals(reads, s.getFileStore().getReadCount());
+            for (int i = 0; i < 50_000; i++) {
+                map.put(i, "new value " + i);
+                if (i % 5000 == 0) {
+                    s.commit();
+                }
+            }
+            s.commit();
+            s.compactFile(10_000);
+            for (int i = 0; i < 50_000; i++) {
+                assertEquals("new value " + i, map.get(i));
+            }
+        }
+    }
+
+    private void testParallelSerialization() {
+        if (config.memory) {
+            return;
+        }
+        String fileName = getBaseDir() + "/" + getTestName();
+        for (int compress = 0; compress <= 3; compress++) {
+            FileUtils.delete(fileName);
+            MVStore.Builder builder = new MVStore.Builder().fileName(fileName).serializationThreads(4);
+            if (compress == 1) {
+                builder.compress();
+            } else if (compress == 2) {
+                builder.compressHigh();
+            } else if (compress == 3) {
+                builder.compressLZ4();
+            }
+            try (MVStore s = builder.open()) {
+                HashMap<String, String> info = new HashMap<>();
+                s.getFileStore().populateInfo(info::put);
+                assertEquals("4", info.get("info.SERIALIZATION_THREADS"));
+                for (int m = 0; m < 4; m++) {
+                    MVMap<Integer, String> map = s.openMap("data" + m);
+                    for (int i = 0; i < 10_000; i++) {
+                        map.put(i, "value " + m + " " + i);
+                    }
+                }
+                s.commit();
+                // a few pages only: serialized by a single thread
+                s.openMap("data0").put(0, "first");
+                s.commit();
+                for (int m = 0; m < 4; m++) {
+                    MVMap<Integer, String> map = s.openMap("data" + m);
+                    for (int i = 0; i < 10_000; i += 3) {
+                        map.remove(i);
+                    }
+                }
+            }
+            // read without parallel serialization
+            try (MVStore s = new MVStore.Builder().fileName(fileName).open()) {
+                for (int m = 0; m < 4; m++) {
+                    MVMap<Integer, String> map = s.openMap("data" + m);
+                    assertEquals(6666, map.size());
+                    for (int i = 0; i < 10_000; i++) {
+                        assertEquals(i % 3 == 0 ? null : "value " + m + " " + i, map.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    private void testCompactionScheduler() throws InterruptedException {
+        if (config.memory) {
+            return;
+        }
+        String fileName = getBaseDir() + "/" + getTestName();
+        FileUtils.delete(fileName);
+        try (MVStore s = new MVStore.Builder().fileName(fileName).autoCommitDisabled()
+                .compactionRate(1024 * 1024).open()) {
+            s.setRetentionTime(0);
+            String suffix = new String(new char[100]).replace((char) 0, 'x');
+            MVMap<Integer, String> map = s.openMap("data");
+            for (int i = 0; i < 20_000; i++) {
+                map.put(i, "value " + i + suffix);
+                if (i % 500 == 0) {
+                    s.commit();
+                }
+            }
+            s.commit();
+            // leave every chunk about half empty
+            for (int i = 0; i < 20_000; i++) {
+                if (i % 500 < 250) {
+                    map.remove(i);
+                }
+            }
+            s.commit();
+            HashMap<String, String> info = new HashMap<>();
+            s.getFileStore().populateInfo(info::put);
+            assertEquals("1048576", info.get("info.COMPACTION_RATE"));
+            int fillRate = s.getFileStore().getChunksFillRate();
+            s.setAutoCommitDelay(10);
+            for (int i = 0; i < 500 && s.getFileStore().getChunksFillRate() <= fillRate; i++) {
+                Thread.sleep(10);
+            }
+            s.setAutoCommitDelay(0);
+            assertTrue(s.getFileStore().getChunksFillRate() > fillRate);
+            s.getFileStore().populateInfo(info::put);
+            assertTrue(Long.parseLong(info.get("info.COMPACTION_SLICES")) > 0);
+            assertTrue(Long.parseLong(info.get("info.COMPACTION_BYTES")) > 0);
+            for (int i = 0; i < 20_000; i++) {
+                assertEquals(i % 500 < 250 ? null : "value " + i + suffix, map.get(i));
+            }
+        }
+    }
+
+    private void testLongKeys() {
+        String fileName = getBaseDir() + "/" + getTestName();
+        FileUtils.delete(fileName);
+        MVMap.Builder<Long, Long> builder = new MVMap.Builder<Long, Long>()
+                .keyType(LongDataType.INSTANCE).valueType(LongDataType.INSTANCE);
+        TreeMap<Long, Long> expected = new TreeMap<>();
+        Random r = new Random(1);
+        try (MVStore s = new MVStore.Builder().fileName(fileName).pageSplitSize(1024).open()) {
+            MVMap<Long, Long> map = s.openMap("data", builder);
+            for (int i = 0; i < 50_000; i++) {
+                long key = r.nextInt(10_000) - 5_000;
+                if (r.nextInt(3) == 0) {
+                    assertEquals(expected.remove(key), map.remove(key));
+                } else {
+                    assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+                }
+                long x = r.nextInt(12_000) - 6_000;
+                assertEquals(expected.get(x), map.get(x));
+                assertEquals(expected.ceilingKey(x), map.ceilingKey(x));
+                assertEquals(expected.lowerKey(x), map.lowerKey(x));
+                if (i % 1000 == 0) {
+                    s.commit();
+                }
+            }
+            assertNull(map.put(Long.MIN_VALUE, Long.MIN_VALUE));
+        }
+        expected.put(Long.MIN_VALUE, Long.MIN_VALUE);
+        try (MVStore s = new MVStore.Builder().fileName(fileName).open()) {
+            MVMap<Long, Long> map = s.openMap("data", builder);
+            assertEquals(expected.size(), map.size());
+            Iterator<Long> it = map.keyIterator(-100L);
+            for (Long key : expected.tailMap(-100L).keySet()) {
+                assertEquals(key, it.next());
+            }
+            assertFalse(it.hasNext());
+            for (Map.Entry<Long, Long> e : expected.entrySet()) {
+                assertEquals(e.getValue(), map.get(e.getKey()));
+            }
+            assertEquals(expected.size() - 1, map.getKeyIndex(expected.lastKey()));
+        }
+    }
+
     private void testVersionsToKeep() {
         try (MVStore s = new MVStore.Builder().open()) {
             assertEquals(5, s.getVersionsToKeep());
@@ -430,7 +706,7 @@ public class TestMVStore extends TestBase {
         Map<String, Object> header = s.getStoreHeader();
         assertEquals(Integer.toString(CURRENT_FORMAT), header.get("format").toString());
         header.put("formatRead", Integer.toString(CURRENT_FORMAT));
-        header.put("format", Integer.toString(CURRENT_FORMAT + 1));
+        header.put("format", Integer.toString(FileStore.FORMAT_EXTENDED_PAGES + 1));
         forceWriteStoreHeader(s);
         MVMap<Integer, String> m = s.openMap("data");
         forceWriteStoreHeader(s);
@@ -730,13 +1006,39 @@ public class TestMVStore extends TestBase {
             Map<String, Object> header = s.getStoreHeader();
             int format = Integer.parseInt(header.get("format").toString());
             assertEquals(CURRENT_FORMAT, format);
-            header.put("format", Integer.toString(format + 1));
+            header.put("format", Integer.toString(FileStore.FORMAT_EXTENDED_PAGES + 1));
             forceWriteStoreHeader(s);
         }
         assertThrows(DataUtils.ERROR_UNSUPPORTED_FORMAT, () -> openStore(fileName).close());
         FileUtils.delete(fileName);
     }
 
+    private void testExtendedPagesFormat() {
+        if (config.memory) {
+            return;
+        }
+        String fileName = getBaseDir() + "/" + getTestName();
+        FileUtils.delete(fileName);
+        try (MVStore s = new MVStore.Builder().fileName(fileName).compress().open()) {
+            s.openMap("test").put(1, "Hello");
+            assertEquals(Integer.toString(CURRENT_FORMAT), s.getStoreHeader().get("format").toString());
+        }
+        try (MVStore s = new MVStore.Builder().fileName(fileName).readOnly().compressLZ4().open()) {
+            assertEquals("Hello", s.openMap("test").get(1));
+            assertEquals(Integer.toString(CURRENT_FORMAT), s.getStoreHeader().get("format").toString());
+        }
+        try (MVStore s = new MVStore.Builder().fileName(fileName).compressLZ4().open()) {
+            s.openMap("test").put(2, "World");
+        }
+        // once raised, the format stays even without LZ4 compression
+        try (MVStore s = new MVStore.Builder().fileName(fileName).open()) {
+            assertEquals(Integer.toString(FileStore.FORMAT_EXTENDED_PAGES),
+                    s.getStoreHeader().get("format").toString());
+            assertEquals("World", s.openMap("test").get(2));
+        }
+        FileUtils.delete(fileName);
+    }
+
     private void testRecreateMap() {
         String fileName = getBaseDir() + "/" + getTestName();
         FileUtils.delete(fileName);
@@ -26,6 +26,7 @@ import org.h2.api.ErrorCode;
 import org.h2.engine.Constants;
 import org.h2.engine.Database;
 import org.h2.jdbc.JdbcConnection;
+import org.h2.mvstore.FileStore;
 import org.h2.mvstore.MVMap;
 import org.h2.mvstore.MVStore;
 import org.h2.mvstore.db.LobStorageMap;
@@ -98,6 +99,7 @@ public class TestMVTableEngine extends TestDb {
         testReuseDiskSpace();
 */
         testDataTypes();
+        testColumnarStorage();
 //        testSimple();
 //        if (!config.travis) {
 //            testReverseDeletePerformance();
@@ -1117,6 +1119,63 @@ public class TestMVTableEngine extends TestDb {
         }
     }
 
+    private void testColumnarStorage() throws Exception {
+        if (config.memory) {
+            return;
+        }
+        long[] sizes = new long[2];
+        String[] results = new String[2];
+        for (int columnar = 0; columnar < 2; columnar++) {
+            deleteDb(getTestName());
+            try (Connection conn = getConnection(getTestName() + ";COLUMNAR_STORAGE=" + (columnar == 1))) {
+                Statement stat = conn.createStatement();
+                stat.execute("create table test(id bigint primary key, ts timestamp, da date, "
+                        + "ty varchar, amount decimal(10, 2), n int, ch char(3), tz timestamp)");
+                stat.execute("insert into test select x, "
+                        + "dateadd('second', x * 7, timestamp '2024-01-01 00:00:00'), "
+                        + "dateadd('day', x / 1000, date '2024-01-01'), "
+                        + "array['DEPOSIT', 'WITHDRAWAL', 'TRANSFER'][mod(x, 3) + 1], "
+                        + "mod(x * 7919, 100000) / 100.0, case when mod(x, 5) = 0 then null else x - 5000 end, "
+                        + "case when mod(x, 2) = 0 then 'a' end, "
+                        + "case when x = 10 then timestamp '1000-01-01 00:00:00' "
+                        + "else timestamp '2024-06-01 12:00:00' end "
+                        + "from system_range(1, 10000)");
+                stat.execute("update test set ty = 'FEE' || id where mod(id, 1000) = 1");
+                stat.execute("delete from test where id between 2000 and 2100");
+            }
+            String fileName = getBaseDir() + "/" + getTestName() + Constants.SUFFIX_MV_FILE;
+            sizes[columnar] = FileUtils.size(fileName);
+            // older versions must not open a file with columnar pages
+            try (MVStore s = new MVStore.Builder().fileName(fileName).readOnly().open()) {
+                assertEquals(Integer.toString(columnar == 1 ? FileStore.FORMAT_EXTENDED_PAGES : 3),
+                        s.getStoreHeader().get("format").toString());
+            }
+            // pages in either layout are read regardless of the setting
+            try (Connection conn = getConnection(getTestName() + ";COLUMNAR_STORAGE=" + (columnar == 0))) {
+                Statement stat = conn.createStatement();
+                StringBuilder buff = new StringBuilder();
+                ResultSet rs = stat.executeQuery("select * from test order by id");
+                int count = 0;
+                while (rs.next()) {
+                    for (int i = 1; i <= 8; i++) {
+                        buff.append(rs.getString(i)).append(',');
+                    }
+                    count++;
+                }
+                assertEquals(9899, count);
+                rs = stat.executeQuery("select ty, n, ch, tz from test where id = 5001");
+                assertTrue(rs.next());
+                assertEquals("FEE5001", rs.getString(1));
+                assertEquals(1, rs.getInt(2));
+                assertNull(rs.getString(3));
+                assertEquals("2024-06-01 12:00:00", rs.getString(4));
+                results[columnar] = buff.toString();
+            }
+        }
+        assertEquals(results[0], results[1]);
+        assertTrue(sizes[1] + " " + sizes[0], sizes[1] < sizes[0]);
+    }
+
     private void testDataTypes() throws Exception {
         deleteDb(getTestName());
         String dbName = getTestName() + ";MV_STORE=TRUE";
@@ -67,6 +67,68 @@ public class TestTransactionStore extends TestBase {
         testStoreMultiThreadedReads();
         testCommitAfterMapRemoval();
         testDeadLock();
+        testCommitBufferedUndoLog();
+    }
+
+    private void testCommitBufferedUndoLog() {
+        String fileName = getBaseDir() + "/testCommitBufferedUndoLog.h3";
+        FileUtils.delete(fileName);
+        int[] sizes = { 1, 2, 7, 8, 9, 30 };
+        try (MVStore s = new MVStore.Builder().fileName(fileName).keysPerPage(8).open()) {
+            TransactionStore ts = new TransactionStore(s);
+            ts.init();
+            long value = 0;
+            for (int flush = 0; flush < 2; flush++) {
+                for (int size : sizes) {
+                    value++;
+                    Transaction t = ts.begin();
+                    TransactionMap<Long, Long> map = t.openMap("test", LongDataType.INSTANCE,
+                            LongDataType.INSTANCE);
+                    for (long i = 0; i < size; i++) {
+                        map.put(i, value);
+                    }
+                    if (flush == 1) {
+                        // the undo log is written to the map with the chunk
+                        s.commit();
+                    }
+                    Transaction t2 = ts.begin();
+                    TransactionMap<Long, Long> map2 = t2.openMap("test", LongDataType.INSTANCE,
+                            LongDataType.INSTANCE);
+                    assertEquals(size == 1 && value == 1 ? null : (Long) (value - 1), map2.get(0L));
+                    t.commit();
+                    t2.commit();
+                    t2 = ts.begin();
+                    map2 = t2.openMap("test", LongDataType.INSTANCE, LongDataType.INSTANCE);
+                    for (long i = 0; i < size; i++) {
+                        assertEquals(value, (long) map2.get(i));
+                    }
+                    t2.commit();
+                    assertTrue(ts.getOpenTransactions().isEmpty());
+                }
+            }
+            Transaction t = ts.begin();
+            TransactionMap<Long, Long> map = t.openMap("test", LongDataType.INSTANCE, LongDataType.INSTANCE);
+            map.put(0L, -1L);
+            map.put(100L, -1L);
+            t.rollback();
+            t = ts.begin();
+            map = t.openMap("test", LongDataType.INSTANCE, LongDataType.INSTANCE);
+            assertEquals(value, (long) map.get(0L));
+            assertNull(map.get(100L));
+            t.commit();
+        }
+        try (MVStore s = new MVStore.Builder().fileName(fileName).open()) {
+            TransactionStore ts = new TransactionStore(s);
+            ts.init();
+            assertTrue(ts.getOpenTransactions().isEmpty());
+            Transaction t = ts.begin();
+            TransactionMap<Long, Long> map = t.openMap("test", LongDataType.INSTANCE, LongDataType.INSTANCE);
+            assertEquals(30, map.sizeAsLong());
+            assertEquals(12L, (long) map.get(29L));
+            assertEquals(12L, (long) map.get(0L));
+            t.commit();
+        }
+        FileUtils.delete(fileName);
     }
 
     private void testHCLFKey() {
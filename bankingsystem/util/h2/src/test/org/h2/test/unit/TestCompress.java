@@ -16,12 +16,19 @@ import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
+import org.h2.compress.CompressDeflate;
+import org.h2.compress.CompressLZ4;
 import org.h2.compress.CompressLZF;
 import org.h2.compress.Compressor;
+import org.h2.compress.DictionaryTrainer;
 import org.h2.engine.Constants;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.MVStoreException;
 import org.h2.store.fs.FileUtils;
 import org.h2.test.TestBase;
 import org.h2.test.TestDb;
@@ -50,6 +57,7 @@ public class TestCompress extends TestDb {
     public void test() throws Exception {
         if (testPerformance) {
             testDatabase();
+            testMVStorePagePerformance();
             System.exit(0);
             return;
         }
@@ -71,6 +79,10 @@ public class TestCompress extends TestDb {
         }
         test(4000000);
         testVariableEnd();
+        testLZ4Corrupt();
+        testLZ4Dictionary();
+        testMVStoreMixedCompression();
+        testMVStoreDictionary();
     }
 
     private void testVariableSizeInt() {
@@ -140,6 +152,191 @@ public class TestCompress extends TestDb {
         }
     }
 
+    private void testLZ4Corrupt() {
+        byte[] b = new byte[1000];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = (byte) (i % 7);
+        }
+        CompressLZ4 comp = new CompressLZ4();
+        byte[] out = new byte[b.length * 2];
+        int len = comp.compress(b, 0, b.length, out, 0);
+        byte[] test = new byte[b.length];
+        comp.expand(out, 0, len, test, 0, test.length);
+        assertEquals(b, test);
+        // truncated input, and an output length that does not match
+        assertThrows(MVStoreException.class, () -> comp.expand(out, 0, len - 1, test, 0, test.length));
+        assertThrows(MVStoreException.class, () -> comp.expand(out, 0, len, test, 0, test.length - 1));
+    }
+
+    private void testLZ4Dictionary() {
+        Random r = new Random(1);
+        DictionaryTrainer trainer = new DictionaryTrainer(64 * 1024);
+        ArrayList<byte[]> samples = new ArrayList<>();
+        while (true) {
+            byte[] b = narrowRows(r, 20).getBytes();
+            samples.add(b);
+            if (trainer.addSample(b, 0, b.length)) {
+                break;
+            }
+        }
+        byte[] dict = trainer.train(4 * 1024);
+        assertTrue(dict.length > 0 && dict.length <= 4 * 1024);
+        CompressLZ4 plain = new CompressLZ4();
+        CompressLZ4 withDict = new CompressLZ4(dict);
+        CompressLZ4 withDictHigh = new CompressLZ4(dict);
+        withDictHigh.setOptions("level 9");
+        assertTrue(trainer.getCompressedLength(withDict) < trainer.getCompressedLength(plain));
+        byte[] out = new byte[64 * 1024];
+        for (int i = 0; i < 100; i++) {
+            byte[] b = narrowRows(r, 1 + r.nextInt(40)).getBytes();
+            for (CompressLZ4 comp : new CompressLZ4[] { withDict, withDictHigh }) {
+                int len = comp.compress(b, 0, b.length, out, 0);
+                byte[] test = new byte[b.length];
+                // a new instance with the same dictionary must expand it
+                new CompressLZ4(dict).expand(out, 0, len, test, 0, test.length);
+                assertEquals(b, test);
+            }
+        }
+    }
+
+    private static String narrowRows(Random r, int count) {
+        StringBuilder buff = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            buff.append("ACC-").append(100_000 + r.nextInt(1000))
+                    .append("|2025-0").append(1 + r.nextInt(9)).append("-1").append(r.nextInt(10))
+                    .append(r.nextBoolean() ? "|DEPOSIT|" : "|WITHDRAWAL|")
+                    .append(r.nextInt(100_000)).append(".00;");
+        }
+        return buff.toString();
+    }
+
+    private void testMVStoreDictionary() {
+        String fileName = "memFS:compressDictionary.mv.db";
+        long[] sizes = new long[2];
+        for (int round = 0; round < 2; round++) {
+            FileUtils.delete(fileName);
+            MVStore.Builder builder = new MVStore.Builder().fileName(fileName).pageSplitSize(512);
+            builder = round == 0 ? builder.compressLZ4() : builder.compressDictionary();
+            try (MVStore s = builder.open()) {
+                s.setRetentionTime(0);
+                MVMap<Integer, String> map = s.openMap("data");
+                Random r = new Random(1);
+                for (int i = 0; i < 20_000; i++) {
+                    map.put(i, narrowRows(r, 1));
+                    if (i % 1000 == 0) {
+                        s.commit();
+                    }
+                }
+                s.commit();
+                Map<String, String> layout = s.getFileStore().getLayoutMap();
+                boolean hasDictionary = layout.keySet().stream().anyMatch(k -> k.startsWith("dict."));
+                assertEquals(round == 1, hasDictionary);
+                s.compactFile(1000);
+                sizes[round] = s.getFileStore().size();
+            }
+            try (MVStore s = new MVStore.Builder().fileName(fileName).readOnly().open()) {
+                MVMap<Integer, String> map = s.openMap("data");
+                Random r = new Random(1);
+                for (int i = 0; i < 20_000; i++) {
+                    assertEquals(narrowRows(r, 1), map.get(i));
+                }
+            }
+        }
+        if (testPerformance) {
+            System.out.println("LZ4: " + sizes[0] + " bytes, with dictionary: " + sizes[1] + " bytes");
+        }
+        assertTrue(sizes[1] < sizes[0]);
+        // a removed map also loses its dictionaries
+        try (MVStore s = new MVStore.Builder().fileName(fileName).compressDictionary().open()) {
+            s.removeMap("data");
+        }
+        try (MVStore s = new MVStore.Builder().fileName(fileName).readOnly().open()) {
+            assertFalse(s.getFileStore().getLayoutMap().keySet().stream().anyMatch(k -> k.startsWith("dict.")));
+        }
+        FileUtils.delete(fileName);
+    }
+
+    private void testMVStoreMixedCompression() {
+        String fileName = "memFS:compressMixed.mv.db";
+        FileUtils.delete(fileName);
+        String value = "Hello World ".repeat(20);
+        // pages written with LZF, then Deflate, then LZ4 in the same file
+        MVStore.Builder[] builders = {
+                new MVStore.Builder().compress(),
+                new MVStore.Builder().compressHigh(),
+                new MVStore.Builder().compressLZ4() };
+        for (int round = 0; round < builders.length; round++) {
+            try (MVStore s = builders[round].fileName(fileName).open()) {
+                MVMap<Integer, String> map = s.openMap("data" + round);
+                for (int i = 0; i < 1000; i++) {
+                    map.put(i, value + i);
+                }
+            }
+        }
+        try (MVStore s = new MVStore.Builder().fileName(fileName).readOnly().open()) {
+            for (int round = 0; round < builders.length; round++) {
+                MVMap<Integer, String> map = s.openMap("data" + round);
+                assertEquals(1000, map.size());
+                for (int i = 0; i < 1000; i++) {
+                    assertEquals(value + i, map.get(i));
+                }
+            }
+        }
+        FileUtils.delete(fileName);
+    }
+
+    /**
+     * Compare the page compressors on the pages of a real MVStore file:
+     * compressed size, and compress and expand time.
+     */
+    private void testMVStorePagePerformance() {
+        String fileName = "memFS:compressPerf.mv.db";
+        FileUtils.delete(fileName);
+        try (MVStore s = new MVStore.Builder().fileName(fileName).open()) {
+            MVMap<Integer, String> map = s.openMap("data");
+            Random r = new Random(1);
+            for (int i = 0; i < 200_000; i++) {
+                map.put(i, "customer " + r.nextInt(10_000) + " account " + (i % 977) + " amount " + r.nextInt(100_000));
+            }
+        }
+        int pageSize = 4 * 1024;
+        ArrayList<byte[]> pages = new ArrayList<>();
+        try (InputStream in = FileUtils.newInputStream(fileName)) {
+            byte[] page = new byte[pageSize];
+            while (IOUtils.readFully(in, page, pageSize) == pageSize) {
+                pages.add(page.clone());
+            }
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        FileUtils.delete(fileName);
+        byte[] buffer = new byte[pageSize * 2];
+        byte[] result = new byte[pageSize];
+        for (Compressor compress : new Compressor[] {
+                new CompressLZF(), new CompressDeflate(), new CompressLZ4() }) {
+            long size = 0, compressTime = 0, expandTime = 0;
+            for (int j = 0; j < 5; j++) {
+                size = 0;
+                long time = System.nanoTime();
+                for (byte[] page : pages) {
+                    size += compress.compress(page, 0, pageSize, buffer, 0);
+                }
+                compressTime = System.nanoTime() - time;
+                time = System.nanoTime();
+                for (byte[] page : pages) {
+                    int len = compress.compress(page, 0, pageSize, buffer, 0);
+                    compress.expand(buffer, 0, len, result, 0, pageSize);
+                }
+                expandTime = System.nanoTime() - time - compressTime;
+            }
+            System.out.println(compress.getClass().getSimpleName() +
+                    " pages: " + pages.size() +
+                    " ratio: " + (size * 100 / ((long) pages.size() * pageSize)) + "%" +
+                    " compress: " + TimeUnit.NANOSECONDS.toMillis(compressTime) + " ms" +
+                    " expand: " + TimeUnit.NANOSECONDS.toMillis(Math.max(0, expandTime)) + " ms");
+        }
+    }
+
     private void testDatabase() throws Exception {
         deleteDb("memFS:compress");
         Connection conn = getConnection("memFS:compress");
@@ -246,7 +443,8 @@ public class TestCompress extends TestDb {
             CompressTool utils = CompressTool.getInstance();
             // level 9 is highest, strategy 2 is huffman only
             for (String a : new String[] { "LZF", "No",
-                    "Deflate", "Deflate level 9 strategy 2" }) {
+                    "Deflate", "Deflate level 9 strategy 2",
+                    "LZ4", "LZ4 level 9" }) {
                 long time = System.nanoTime();
                 byte[] out = utils.compress(b, a);
                 byte[] test = utils.expand(out);
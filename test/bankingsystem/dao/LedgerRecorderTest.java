@@ -0,0 +1,156 @@
+package bankingsystem.dao;
+
+import bankingsystem.dao.TransactionDAO.LedgerEntry;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closes a {@link LedgerRecorder} while other threads are submitting, and
+ * checks that every accepted line is written and no caller is left waiting.
+ * Run with:
+ * {@code java -cp <classes>:h2.jar bankingsystem.dao.LedgerRecorderTest}
+ */
+public class LedgerRecorderTest {
+
+    private static final int ROUNDS = 200;
+    private static final int THREADS = 4;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("bankingsystem.db.url", "jdbc:h2:mem:recordertest;DB_CLOSE_DELAY=-1");
+        LedgerRecorderTest test = new LedgerRecorderTest();
+        test.closeWhileSubmitting();
+        test.closeWhileGroupCommitIsUsed();
+        System.out.println("LedgerRecorderTest OK");
+        DBConnection.closeConnection();
+    }
+
+    void closeWhileSubmitting() throws Exception {
+        int acc = account();
+        long before = countLines(acc);
+        long accepted = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            // a small queue, so that some callers are blocked in put() during close()
+            LedgerRecorder recorder = new LedgerRecorder(2);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger rejected = new AtomicInteger();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Thread thread = new Thread(() -> {
+                    await(start);
+                    for (int i = 0; i < 5; i++) {
+                        try {
+                            CompletableFuture<Void> f = recorder.submit(entry(acc));
+                            synchronized (futures) {
+                                futures.add(f);
+                            }
+                        } catch (RejectedExecutionException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            start.countDown();
+            recorder.close();
+            for (Thread thread : threads) {
+                thread.join(10_000);
+                if (thread.isAlive())
+                    throw new AssertionError("round " + round + ": submit() did not return");
+            }
+            for (CompletableFuture<Void> f : futures) {
+                // a line queued after the final drain would never complete
+                f.get(10, TimeUnit.SECONDS);
+            }
+            if (futures.size() + rejected.get() != THREADS * 5)
+                throw new AssertionError("round " + round + ": lost submissions");
+            accepted += futures.size();
+        }
+        long written = countLines(acc) - before;
+        if (written != accepted)
+            throw new AssertionError("expected " + accepted + " lines but got " + written);
+    }
+
+    void closeWhileGroupCommitIsUsed() throws Exception {
+        int acc = account();
+        TransactionDAO dao = new TransactionDAO();
+        // the first line creates the account's stats row; later direct writes only update it
+        dao.record(acc, "Test", 1, "first line");
+        long before = countLines(acc);
+        for (int round = 0; round < 50; round++) {
+            TransactionDAO.enableGroupCommit(2);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Thread thread = new Thread(() -> {
+                    await(start);
+                    for (int i = 0; i < 5; i++)
+                        dao.record(acc, "Test", 1, "close race");
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            start.countDown();
+            TransactionDAO.disableGroupCommit();
+            for (Thread thread : threads) {
+                thread.join(10_000);
+                if (thread.isAlive())
+                    throw new AssertionError("round " + round + ": record() did not return");
+            }
+        }
+        long written = countLines(acc) - before;
+        if (written != 50L * THREADS * 5)
+            throw new AssertionError("expected " + 50L * THREADS * 5 + " lines but got " + written);
+    }
+
+    // -----------------------------------------------------
+    // HELPERS
+    // -----------------------------------------------------
+    private static LedgerEntry entry(int accNo) {
+        return new LedgerEntry(accNo, "Test", 1, "close race");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int account() throws SQLException {
+        try (Connection c = DBConnection.getConnection()) {
+            try (Statement s = c.createStatement()) {
+                s.executeUpdate("MERGE INTO customers(id, name) KEY(id) VALUES (1, 'Test')");
+            }
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO accounts(type, balance, customer_id) VALUES ('Investors', 0, 1)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                ps.executeUpdate();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    rs.next();
+                    return rs.getInt(1);
+                }
+            }
+        }
+    }
+
+    private static long countLines(int accNo) throws SQLException {
+        try (Connection c = DBConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT COUNT(*) FROM transactions WHERE acc_no = ?")) {
+            ps.setInt(1, accNo);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
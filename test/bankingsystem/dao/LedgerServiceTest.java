@@ -0,0 +1,143 @@
+package bankingsystem.dao;
+
+import bankingsystem.dao.LedgerService.Result;
+import bankingsystem.dao.LedgerService.Status;
+import bankingsystem.util.Money;
+
+import java.sql.*;
+
+/**
+ * Checks the account type rules of {@link LedgerService} against an in-memory
+ * database. Run with:
+ * {@code java -cp <classes>:h2.jar bankingsystem.dao.LedgerServiceTest}
+ */
+public class LedgerServiceTest {
+
+    private static final int CUSTOMER = 1;
+
+    private final LedgerService ledger = new LedgerService();
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("bankingsystem.db.url", "jdbc:h2:mem:ledgertest;DB_CLOSE_DELAY=-1");
+        LedgerServiceTest test = new LedgerServiceTest();
+        test.savingsCannotBeWithdrawnFrom();
+        test.savingsCannotPay();
+        test.savingsCanTransferOut();
+        test.savingsAcceptsTransferIn();
+        test.chequeRefusesLargeDeposit();
+        test.chequeRefusesLargeWithdrawal();
+        test.chequeRefusesLargeTransfer();
+        test.chequeAllowsAmountsAtTheLimits();
+        test.insufficientFundsStillReported();
+        System.out.println("LedgerServiceTest OK");
+        DBConnection.closeConnection();
+    }
+
+    void savingsCannotBeWithdrawnFrom() throws SQLException {
+        int acc = account("Savings", 1_000);
+        expect(ledger.withdraw(acc, "Withdrawal", Money.ofPula(10), "test"), Status.WITHDRAWAL_NOT_ALLOWED);
+        expectBalance(acc, 1_000);
+    }
+
+    void savingsCannotPay() throws SQLException {
+        int acc = account("Savings", 1_000);
+        expect(ledger.payment(acc, "Water (WUC)", Money.ofPula(10), "test"), Status.WITHDRAWAL_NOT_ALLOWED);
+        expectBalance(acc, 1_000);
+    }
+
+    void savingsCanTransferOut() throws SQLException {
+        int from = account("Savings", 1_000), to = account("Investors", 1_000);
+        expect(ledger.transfer(from, to, Money.ofPula(10), CUSTOMER), Status.OK);
+        expectBalance(from, 990);
+        expectBalance(to, 1_010);
+        // the credit is posted first here, and must be rolled back on a miss
+        int lower = account("Investors", 1_000), higher = account("Savings", 1_000);
+        expect(ledger.transfer(higher, lower, Money.ofPula(2_000), CUSTOMER), Status.INSUFFICIENT_FUNDS);
+        expectBalance(lower, 1_000);
+        expectBalance(higher, 1_000);
+    }
+
+    void savingsAcceptsTransferIn() throws SQLException {
+        int from = account("Investors", 1_000), to = account("Savings", 1_000);
+        expect(ledger.transfer(from, to, Money.ofPula(10), CUSTOMER), Status.OK);
+        expectBalance(to, 1_010);
+    }
+
+    void chequeRefusesLargeDeposit() throws SQLException {
+        int acc = account("Cheque", 0);
+        expect(ledger.deposit(acc, "Deposit", Money.ofPula(50_000) + 1, "test"), Status.DEPOSIT_LIMIT_EXCEEDED);
+        expectBalance(acc, 0);
+    }
+
+    void chequeRefusesLargeWithdrawal() throws SQLException {
+        int acc = account("Cheque", 30_000);
+        expect(ledger.withdraw(acc, "Withdrawal", Money.ofPula(20_000) + 1, "test"),
+                Status.WITHDRAWAL_LIMIT_EXCEEDED);
+        expect(ledger.payment(acc, "Electricity (BPC)", Money.ofPula(25_000), "test"),
+                Status.WITHDRAWAL_LIMIT_EXCEEDED);
+        expectBalance(acc, 30_000);
+    }
+
+    void chequeRefusesLargeTransfer() throws SQLException {
+        int cheque = account("Cheque", 30_000), other = account("Investors", 60_000);
+        expect(ledger.transfer(cheque, other, Money.ofPula(25_000), CUSTOMER), Status.WITHDRAWAL_LIMIT_EXCEEDED);
+        expect(ledger.transfer(other, cheque, Money.ofPula(55_000), CUSTOMER), Status.DEPOSIT_LIMIT_EXCEEDED);
+        expectBalance(cheque, 30_000);
+        expectBalance(other, 60_000);
+    }
+
+    void chequeAllowsAmountsAtTheLimits() throws SQLException {
+        int acc = account("Cheque", 0);
+        expect(ledger.deposit(acc, "Deposit", Money.ofPula(50_000), "test"), Status.OK);
+        expect(ledger.withdraw(acc, "Withdrawal", Money.ofPula(20_000), "test"), Status.OK);
+        expectBalance(acc, 30_000);
+    }
+
+    void insufficientFundsStillReported() throws SQLException {
+        int acc = account("Cheque", 100);
+        expect(ledger.withdraw(acc, "Withdrawal", Money.ofPula(200), "test"), Status.INSUFFICIENT_FUNDS);
+        expect(ledger.withdraw(-1, "Withdrawal", Money.ofPula(1), "test"), Status.ACCOUNT_NOT_FOUND);
+    }
+
+    // -----------------------------------------------------
+    // HELPERS
+    // -----------------------------------------------------
+    private static int account(String type, long pula) throws SQLException {
+        try (Connection c = DBConnection.getConnection()) {
+            try (Statement s = c.createStatement()) {
+                s.executeUpdate("MERGE INTO customers(id, name) KEY(id) VALUES (" + CUSTOMER + ", 'Test')");
+            }
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO accounts(type, balance, customer_id) VALUES (?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, type);
+                ps.setBigDecimal(2, Money.toDecimal(Money.ofPula(pula)));
+                ps.setInt(3, CUSTOMER);
+                ps.executeUpdate();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    rs.next();
+                    return rs.getInt(1);
+                }
+            }
+        }
+    }
+
+    private static void expect(Result result, Status status) {
+        if (result.getStatus() != status)
+            throw new AssertionError("expected " + status + " but got " + result.getStatus());
+    }
+
+    private static void expectBalance(int accNo, long pula) throws SQLException {
+        try (Connection c = DBConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT balance FROM accounts WHERE acc_no = ?")) {
+            ps.setInt(1, accNo);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                long balance = Money.fromDecimal(rs.getBigDecimal(1));
+                if (balance != Money.ofPula(pula))
+                    throw new AssertionError("account " + accNo + ": expected " + Money.ofPula(pula)
+                            + " but got " + balance);
+            }
+        }
+    }
+}